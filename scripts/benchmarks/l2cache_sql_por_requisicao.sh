@@ -0,0 +1,55 @@
+#!/usr/bin/env bash
+# Mede quantos comandos SQL cada endpoint de leitura executa, com e sem o cache de
+# segundo nível do Hibernate. Usa a métrica hibernate.statements (prepared) exposta
+# pelo actuator; rode contra uma instância sem outro tráfego.
+#
+# Uso:
+#   1. suba a aplicação normalmente (cache ligado) e execute:
+#        scripts/benchmarks/l2cache_sql_por_requisicao.sh > com_cache.txt
+#   2. suba novamente com o cache desligado:
+#        SPRING_JPA_PROPERTIES_HIBERNATE_CACHE_USE_SECOND_LEVEL_CACHE=false \
+#        SPRING_JPA_PROPERTIES_HIBERNATE_CACHE_USE_QUERY_CACHE=false ./mvnw spring-boot:run
+#      e execute de novo redirecionando para sem_cache.txt
+#   3. compare: diff -y sem_cache.txt com_cache.txt
+#
+# Variáveis: BASE_URL (padrão http://localhost:8080), REQUISICOES (padrão 200).
+
+set -euo pipefail
+
+BASE_URL=${BASE_URL:-http://localhost:8080}
+REQUISICOES=${REQUISICOES:-200}
+
+statements() {
+  curl -fsS "$BASE_URL/actuator/metrics/hibernate.statements?tag=status:prepared" \
+    | sed -E 's/.*"value":([0-9.E]+).*/\1/' | awk '{ printf "%d", $1 }'
+}
+
+primeiro_id() {
+  curl -fsS "$BASE_URL/api/$1?size=1" | sed -nE 's/.*"id":"([0-9a-f-]{36})".*/\1/p'
+}
+
+medir() {
+  local nome=$1 url=$2
+  curl -fsS -o /dev/null "$url"   # aquecimento: popula o cache
+  local antes depois
+  antes=$(statements)
+  for _ in $(seq "$REQUISICOES"); do
+    curl -fsS -o /dev/null "$url"
+  done
+  depois=$(statements)
+  awk -v n="$nome" -v a="$antes" -v d="$depois" -v r="$REQUISICOES" \
+    'BEGIN { printf "%-40s %6.2f SQL/requisição\n", n, (d - a) / r }'
+}
+
+produto=$(primeiro_id produtos)
+desastre=$(primeiro_id desastres)
+doador=$(primeiro_id doadores)
+beneficiario=$(primeiro_id beneficiarios)
+email=$(curl -fsS "$BASE_URL/api/doadores/$doador" | sed -nE 's/.*"email":"([^"]+)".*/\1/p')
+
+medir "GET /api/produtos/{id}"              "$BASE_URL/api/produtos/$produto"
+medir "GET /api/desastres/{id}"             "$BASE_URL/api/desastres/$desastre"
+medir "GET /api/doadores/{id}"              "$BASE_URL/api/doadores/$doador"
+medir "GET /api/beneficiarios/{id}"         "$BASE_URL/api/beneficiarios/$beneficiario"
+medir "GET /api/doadores/search/email"      "$BASE_URL/api/doadores/search/email?email=$email"
+medir "GET /api/produtos/exists/nome"       "$BASE_URL/api/produtos/exists/nome?nome=Agua"
@@ -0,0 +1,88 @@
+// Carga fechada com 5k clientes simultâneos sobre endpoints de leitura e escrita de
+// Doação. Usado por threads_virtuais.sh para comparar threads de plataforma e
+// threads virtuais; pode ser rodado sozinho contra uma instância já no ar:
+//   k6 run -e BASE_URL=http://localhost:8080 -e VUS=5000 scripts/benchmarks/threads_virtuais.js
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = parseInt(__ENV.VUS || '5000');
+const DURACAO = __ENV.DURACAO || '2m';
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+export const options = {
+  scenarios: {
+    clientes: {
+      executor: 'ramping-vus',
+      startVUs: 0,
+      stages: [
+        { duration: '30s', target: VUS },
+        { duration: DURACAO, target: VUS },
+      ],
+      gracefulRampDown: '10s',
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  setupTimeout: '5m',
+};
+
+function criar(caminho, corpo) {
+  const r = http.post(`${BASE_URL}${caminho}`, JSON.stringify(corpo), JSON_HEADERS);
+  if (r.status !== 201) {
+    throw new Error(`POST ${caminho}: ${r.status} ${r.body}`);
+  }
+  return r.json('id');
+}
+
+// Massa pequena e determinística: 1 desastre, 100 beneficiários, 1000 doações.
+export function setup() {
+  const desastreId = criar('/api/desastres', {
+    nome: 'Benchmark threads virtuais',
+    descricao: 'carga',
+    localizacao: 'Local de teste',
+    dataDesastre: '2025-01-01',
+  });
+  const beneficiarios = [];
+  for (let i = 0; i < 100; i++) {
+    beneficiarios.push(criar('/api/beneficiarios', {
+      nome: `Beneficiário ${i}`,
+      email: `bench-vt-${i}-${Date.now()}@exemplo.org`,
+      telefone: `11900${String(i).padStart(6, '0')}`,
+    }));
+  }
+  const doacoes = [];
+  for (let i = 0; i < 1000; i++) {
+    doacoes.push(criar('/api/doacoes', {
+      desastreId,
+      beneficiarioId: beneficiarios[i % beneficiarios.length],
+      status: i % 2 === 0 ? 'PENDENTE' : 'ENTREGUE',
+    }));
+  }
+  return { desastreId, beneficiarios, doacoes };
+}
+
+function qualquer(lista) {
+  return lista[Math.floor(Math.random() * lista.length)];
+}
+
+export default function (massa) {
+  const sorteio = Math.random();
+  let r;
+  if (sorteio < 0.6) {
+    r = http.get(`${BASE_URL}/api/doacoes/${qualquer(massa.doacoes)}`, { tags: { name: 'GET /doacoes/{id}' } });
+  } else if (sorteio < 0.8) {
+    r = http.get(`${BASE_URL}/api/doacoes/search/desastre/${massa.desastreId}?size=50`,
+      { tags: { name: 'GET /doacoes/search/desastre/{id}' } });
+  } else if (sorteio < 0.9) {
+    r = http.get(`${BASE_URL}/api/doacoes/search/status?status=PENDENTE&size=50`,
+      { tags: { name: 'GET /doacoes/search/status' } });
+  } else {
+    r = http.post(`${BASE_URL}/api/doacoes`, JSON.stringify({
+      desastreId: massa.desastreId,
+      beneficiarioId: qualquer(massa.beneficiarios),
+      status: 'PENDENTE',
+    }), Object.assign({ tags: { name: 'POST /doacoes' } }, JSON_HEADERS));
+  }
+  check(r, { 'status 2xx': (res) => res.status >= 200 && res.status < 300 });
+  sleep(0.05 + Math.random() * 0.1);
+}
@@ -0,0 +1,81 @@
+#!/usr/bin/env bash
+# Compara vazão e p99 da aplicação com threads de plataforma (pool fixo do Tomcat)
+# e com threads virtuais + bulkhead de conexões, sob 5k clientes simultâneos.
+#
+# Pré-requisitos: JDK 21, k6 e jq no PATH e um PostgreSQL com as migrations
+# aplicadas (p.ex. `docker compose up -d db`). A aplicação é empacotada e iniciada
+# pelo próprio script, uma vez em cada modo, com o mesmo banco e o mesmo pool.
+#
+# Uso:
+#   scripts/benchmarks/threads_virtuais.sh
+#
+# Variáveis: VUS (padrão 5000), DURACAO (padrão 2m), POOL (tamanho do pool Hikari,
+# padrão 20), DB_URL, DB_USER, DB_PASSWORD, PORTA (padrão 8080).
+# Resultados em target/bench-threads/<modo>.json e resumo no final.
+
+set -euo pipefail
+
+VUS=${VUS:-5000}
+DURACAO=${DURACAO:-2m}
+POOL=${POOL:-20}
+PORTA=${PORTA:-8080}
+DB_URL=${DB_URL:-jdbc:postgresql://localhost:5432/safepulse?reWriteBatchedInserts=true}
+DB_USER=${DB_USER:-postgres}
+DB_PASSWORD=${DB_PASSWORD:-postgres}
+
+RAIZ=$(cd "$(dirname "$0")/../.." && pwd)
+SAIDA="$RAIZ/target/bench-threads"
+mkdir -p "$SAIDA"
+
+# 5k conexões do k6 e do Tomcat na mesma máquina
+ulimit -n 65535 2>/dev/null || echo "aviso: não foi possível elevar ulimit -n" >&2
+
+(cd "$RAIZ" && ./mvnw -q -DskipTests package)
+JAR=$(ls "$RAIZ"/target/safepulse-*.jar | grep -v original | head -1)
+
+rodar() {
+  local modo=$1 virtuais=$2
+  echo "== $modo (spring.threads.virtual.enabled=$virtuais)"
+
+  java -jar "$JAR" \
+    --server.port="$PORTA" \
+    --spring.datasource.url="$DB_URL" \
+    --spring.datasource.username="$DB_USER" \
+    --spring.datasource.password="$DB_PASSWORD" \
+    --spring.datasource.hikari.maximum-pool-size="$POOL" \
+    --spring.threads.virtual.enabled="$virtuais" \
+    --server.tomcat.max-connections=10000 \
+    --server.tomcat.accept-count=1000 \
+    --safepulse.outbox.habilitado=false \
+    > "$SAIDA/$modo.log" 2>&1 &
+  local pid=$!
+  trap "kill $pid 2>/dev/null || true" EXIT
+
+  for _ in $(seq 60); do
+    curl -fsS "http://localhost:$PORTA/actuator/health" > /dev/null 2>&1 && break
+    sleep 2
+  done
+
+  k6 run --quiet \
+    -e BASE_URL="http://localhost:$PORTA" -e VUS="$VUS" -e DURACAO="$DURACAO" \
+    --summary-export "$SAIDA/$modo.json" \
+    "$RAIZ/scripts/benchmarks/threads_virtuais.js"
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  trap - EXIT
+}
+
+rodar plataforma false
+rodar virtuais true
+
+printf '\n%-12s %12s %12s %12s %10s\n' modo "req/s" "p50 (ms)" "p99 (ms)" "erros"
+for modo in plataforma virtuais; do
+  jq -r --arg m "$modo" '[$m,
+      .metrics.http_reqs.rate,
+      .metrics.http_req_duration["p(50)"],
+      .metrics.http_req_duration["p(99)"],
+      .metrics.http_req_failed.value * 100]
+    | "\(.[0]) \(.[1]) \(.[2]) \(.[3]) \(.[4])"' "$SAIDA/$modo.json" \
+    | awk '{ printf "%-12s %12.1f %12.1f %12.1f %9.2f%%\n", $1, $2, $3, $4, $5 }'
+done
@@ -0,0 +1,55 @@
+package br.org.fiap.safepulse.carga;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+
+/**
+ * Banco usado pelo teste: o PostgreSQL informado em {@code carga.db.url} ou, sem ele,
+ * um PostgreSQL embutido em diretório temporário, apagado ao fechar.
+ */
+final class BancoCarga implements AutoCloseable {
+
+    final String url;
+    final String usuario;
+    final String senha;
+    private final EmbeddedPostgres embutido;
+
+    private BancoCarga(String url, String usuario, String senha, EmbeddedPostgres embutido) {
+        this.url = comInsercaoEmLote(url);
+        this.usuario = usuario;
+        this.senha = senha;
+        this.embutido = embutido;
+    }
+
+    static BancoCarga iniciar(ConfiguracaoCarga configuracao) throws IOException {
+        if (configuracao.dbUrl != null && !configuracao.dbUrl.isBlank()) {
+            return new BancoCarga(configuracao.dbUrl, configuracao.dbUsuario, configuracao.dbSenha, null);
+        }
+        EmbeddedPostgres embutido = EmbeddedPostgres.builder()
+                .setServerConfig("max_connections", "200")
+                .setServerConfig("shared_buffers", "512MB")
+                .setServerConfig("fsync", "off")
+                .setServerConfig("synchronous_commit", "off")
+                .start();
+        return new BancoCarga(embutido.getJdbcUrl("postgres", "postgres"), "postgres", "postgres", embutido);
+    }
+
+    boolean embutido() {
+        return embutido != null;
+    }
+
+    private static String comInsercaoEmLote(String url) {
+        if (url.contains("reWriteBatchedInserts")) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true";
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (embutido != null) {
+            embutido.close();
+        }
+    }
+}
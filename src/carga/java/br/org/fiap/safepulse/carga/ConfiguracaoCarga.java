@@ -0,0 +1,77 @@
+package br.org.fiap.safepulse.carga;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Parâmetros do teste de carga, lidos das propriedades de sistema {@code carga.*}.
+ *
+ * <ul>
+ *   <li>{@code carga.db.url}, {@code carga.db.usuario}, {@code carga.db.senha}: PostgreSQL
+ *       local a usar; sem URL, sobe um PostgreSQL embutido descartável.</li>
+ *   <li>{@code carga.escala} (1.0): multiplicador da massa; 1.0 gera 1M de doações e
+ *       3M de itens doados.</li>
+ *   <li>{@code carga.massa.recriar} (false): apaga e gera de novo a massa de um banco
+ *       local que já tenha dados.</li>
+ *   <li>{@code carga.taxa} (300): chegadas por segundo, independentes das respostas.</li>
+ *   <li>{@code carga.aquecimento} (15s) e {@code carga.duracao} (60s).</li>
+ *   <li>{@code carga.max-em-voo} (5000): requisições pendentes acima disso são
+ *       descartadas e contadas, para o gerador não esgotar a memória.</li>
+ *   <li>{@code carga.mix}: pesos por operação, p.ex.
+ *       {@code doacao-por-id:50,resumo-desastre:10}; omitidas ficam de fora.</li>
+ * </ul>
+ */
+final class ConfiguracaoCarga {
+
+    final String dbUrl;
+    final String dbUsuario;
+    final String dbSenha;
+    final double escala;
+    final boolean recriarMassa;
+    final int taxa;
+    final Duration aquecimento;
+    final Duration duracao;
+    final int maxEmVoo;
+    final Map<Operacao, Integer> mix;
+    final Path saida;
+
+    private ConfiguracaoCarga() {
+        dbUrl = System.getProperty("carga.db.url");
+        dbUsuario = System.getProperty("carga.db.usuario", "postgres");
+        dbSenha = System.getProperty("carga.db.senha", "postgres");
+        escala = Double.parseDouble(System.getProperty("carga.escala", "1.0"));
+        recriarMassa = Boolean.parseBoolean(System.getProperty("carga.massa.recriar", "false"));
+        taxa = Integer.parseInt(System.getProperty("carga.taxa", "300"));
+        aquecimento = DurationStyle.detectAndParse(System.getProperty("carga.aquecimento", "15s"));
+        duracao = DurationStyle.detectAndParse(System.getProperty("carga.duracao", "60s"));
+        maxEmVoo = Integer.parseInt(System.getProperty("carga.max-em-voo", "5000"));
+        mix = lerMix(System.getProperty("carga.mix"));
+        saida = Path.of(System.getProperty("carga.saida", "target/carga"));
+    }
+
+    static ConfiguracaoCarga doSistema() {
+        return new ConfiguracaoCarga();
+    }
+
+    private static Map<Operacao, Integer> lerMix(String valor) {
+        Map<Operacao, Integer> mix = new EnumMap<>(Operacao.class);
+        if (valor == null || valor.isBlank()) {
+            for (Operacao operacao : Operacao.values()) {
+                mix.put(operacao, operacao.pesoPadrao);
+            }
+            return mix;
+        }
+        for (String item : valor.split(",")) {
+            String[] partes = item.trim().split(":");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("carga.mix inválido: " + item);
+            }
+            mix.put(Operacao.porChave(partes[0]), Integer.parseInt(partes[1]));
+        }
+        return mix;
+    }
+}
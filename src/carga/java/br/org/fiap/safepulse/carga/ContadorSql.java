@@ -0,0 +1,75 @@
+package br.org.fiap.safepulse.carga;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Conta os comandos SQL emitidos pelo Hibernate em cada requisição e acumula por
+ * endpoint ("GET /api/doacoes/{id}"). O Hibernate instancia esta classe como
+ * StatementInspector; o filtro abre e fecha a contagem da requisição na thread que
+ * a atende.
+ */
+public class ContadorSql implements StatementInspector {
+
+    private static final ThreadLocal<int[]> REQUISICAO_ATUAL = new ThreadLocal<>();
+    private static final Map<String, Contagem> POR_ENDPOINT = new ConcurrentHashMap<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] contagem = REQUISICAO_ATUAL.get();
+        if (contagem != null) {
+            contagem[0]++;
+        }
+        return sql;
+    }
+
+    static Contagem de(String endpoint) {
+        return POR_ENDPOINT.getOrDefault(endpoint, new Contagem());
+    }
+
+    static void zerar() {
+        POR_ENDPOINT.clear();
+    }
+
+    static final class Contagem {
+        final LongAdder requisicoes = new LongAdder();
+        final LongAdder comandos = new LongAdder();
+
+        double porRequisicao() {
+            long total = requisicoes.sum();
+            return total == 0 ? Double.NaN : (double) comandos.sum() / total;
+        }
+    }
+
+    static final class Filtro extends OncePerRequestFilter {
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            int[] contagem = new int[1];
+            REQUISICAO_ATUAL.set(contagem);
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                REQUISICAO_ATUAL.remove();
+                Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                if (padrao != null) {
+                    Contagem acumulada = POR_ENDPOINT.computeIfAbsent(
+                            request.getMethod() + " " + padrao, chave -> new Contagem());
+                    acumulada.requisicoes.increment();
+                    acumulada.comandos.add(contagem[0]);
+                }
+            }
+        }
+    }
+}
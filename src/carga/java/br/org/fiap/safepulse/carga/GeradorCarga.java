@@ -0,0 +1,152 @@
+package br.org.fiap.safepulse.carga;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gerador em modelo aberto: as requisições partem em ritmo fixo ({@code carga.taxa}
+ * por segundo), sem esperar as anteriores responderem, como usuários independentes.
+ *
+ * A latência é medida a partir do instante em que a requisição deveria ter saído,
+ * não de quando saiu: se o servidor (ou o próprio gerador) atrasa, o atraso entra na
+ * medida em vez de ser escondido pela fila (coordinated omission).
+ */
+final class GeradorCarga implements AutoCloseable {
+
+    private static final long MAIOR_LATENCIA_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final URI base;
+    private final Massa massa;
+    private final ConfiguracaoCarga configuracao;
+    private final Operacao[] sorteio;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient cliente;
+    private final Semaphore emVoo;
+    private final Map<Operacao, Resultado> resultados = new EnumMap<>(Operacao.class);
+
+    GeradorCarga(URI base, Massa massa, ConfiguracaoCarga configuracao) {
+        this.base = base;
+        this.massa = massa;
+        this.configuracao = configuracao;
+        this.sorteio = tabelaDeSorteio(configuracao.mix);
+        this.emVoo = new Semaphore(configuracao.maxEmVoo);
+        this.cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+        for (Operacao operacao : configuracao.mix.keySet()) {
+            resultados.put(operacao, new Resultado());
+        }
+    }
+
+    /** Aquece (resultados descartados) e mede; devolve os resultados da medição. */
+    Map<Operacao, Resultado> executar() throws InterruptedException {
+        System.out.printf("[carga] aquecimento: %s a %d req/s%n", configuracao.aquecimento, configuracao.taxa);
+        disparar(configuracao.aquecimento, new SplittableRandom(1));
+        aguardarEmVoo();
+        resultados.values().forEach(Resultado::zerar);
+        ContadorSql.zerar();
+
+        System.out.printf("[carga] medição: %s a %d req/s%n", configuracao.duracao, configuracao.taxa);
+        long inicio = System.nanoTime();
+        disparar(configuracao.duracao, new SplittableRandom(2));
+        aguardarEmVoo();
+        long decorrido = System.nanoTime() - inicio;
+        resultados.values().forEach(resultado -> resultado.duracaoNanos = decorrido);
+        return resultados;
+    }
+
+    private void disparar(Duration duracao, SplittableRandom aleatorio) {
+        long intervalo = TimeUnit.SECONDS.toNanos(1) / configuracao.taxa;
+        long inicio = System.nanoTime();
+        long fim = inicio + duracao.toNanos();
+        for (long k = 0; ; k++) {
+            long previsto = inicio + k * intervalo;
+            if (previsto >= fim) {
+                return;
+            }
+            long espera = previsto - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            Operacao operacao = sorteio[aleatorio.nextInt(sorteio.length)];
+            Resultado resultado = resultados.get(operacao);
+            if (!emVoo.tryAcquire()) {
+                resultado.descartadas.increment();
+                continue;
+            }
+            HttpRequest requisicao = operacao.requisicao(base, massa, aleatorio);
+            cliente.sendAsync(requisicao, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((resposta, erro) -> {
+                        emVoo.release();
+                        long micros = (System.nanoTime() - previsto) / 1_000;
+                        resultado.latencias.recordValue(Math.min(micros, MAIOR_LATENCIA_MICROS));
+                        if (erro != null || resposta.statusCode() >= 400) {
+                            resultado.erros.increment();
+                        }
+                    });
+        }
+    }
+
+    private void aguardarEmVoo() throws InterruptedException {
+        if (emVoo.tryAcquire(configuracao.maxEmVoo, 1, TimeUnit.MINUTES)) {
+            emVoo.release(configuracao.maxEmVoo);
+        }
+    }
+
+    /* Cada operação aparece tantas vezes quanto o seu peso. */
+    private static Operacao[] tabelaDeSorteio(Map<Operacao, Integer> mix) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        if (total <= 0) {
+            throw new IllegalArgumentException("carga.mix sem operações com peso positivo");
+        }
+        Operacao[] tabela = new Operacao[total];
+        int i = 0;
+        for (Map.Entry<Operacao, Integer> entrada : mix.entrySet()) {
+            for (int n = 0; n < entrada.getValue(); n++) {
+                tabela[i++] = entrada.getKey();
+            }
+        }
+        return tabela;
+    }
+
+    @Override
+    public void close() {
+        cliente.close();
+        executor.shutdownNow();
+    }
+
+    static final class Resultado {
+
+        final Histogram latencias = new ConcurrentHistogram(MAIOR_LATENCIA_MICROS, 3);
+        final LongAdder erros = new LongAdder();
+        final LongAdder descartadas = new LongAdder();
+        long duracaoNanos;
+
+        private void zerar() {
+            latencias.reset();
+            erros.reset();
+            descartadas.reset();
+        }
+
+        double porSegundo() {
+            return duracaoNanos == 0 ? 0 : latencias.getTotalCount() * 1e9 / duracaoNanos;
+        }
+    }
+}
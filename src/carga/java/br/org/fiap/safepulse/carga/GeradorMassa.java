@@ -0,0 +1,177 @@
+package br.org.fiap.safepulse.carga;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * Popula o banco já migrado pelo Flyway com COPY, em blocos de texto de ~1MB.
+ *
+ * A semente é fixa: a mesma escala gera sempre os mesmos registros, então execuções
+ * diferentes (e bancos diferentes) são comparáveis. Ao final recalcula produto_total
+ * como a V4 e roda ANALYZE, para o planejador ver as tabelas já cheias.
+ */
+final class GeradorMassa {
+
+    private static final long SEMENTE = 20_24_05_01L;
+    private static final int TAMANHO_BLOCO = 1 << 20;
+    private static final LocalDate INICIO = LocalDate.of(2020, 1, 1);
+
+    private final BancoCarga banco;
+    private final Massa massa;
+
+    GeradorMassa(BancoCarga banco, Massa massa) {
+        this.banco = banco;
+        this.massa = massa;
+    }
+
+    void gerar(boolean recriar) throws SQLException, IOException {
+        try (Connection conexao = DriverManager.getConnection(banco.url, banco.usuario, banco.senha)) {
+            if (!recriar && possuiDados(conexao)) {
+                System.out.println("[carga] banco já populado; use -Dcarga.massa.recriar=true para gerar de novo");
+                return;
+            }
+            try (Statement st = conexao.createStatement()) {
+                st.execute("TRUNCATE doacao_doador_produto, doacao_produto, doacao_doador, doacao, "
+                        + "produto_total, produto, doador, beneficiario, desastre, outbox_evento");
+            }
+
+            CopyManager copy = conexao.unwrap(PGConnection.class).getCopyAPI();
+            long inicio = System.nanoTime();
+            desastres(copy);
+            pessoas(copy, "beneficiario", Massa.BENEFICIARIO, massa.beneficiarios);
+            pessoas(copy, "doador", Massa.DOADOR, massa.doadores);
+            produtos(copy);
+            doacoes(copy);
+            itens(copy);
+
+            try (Statement st = conexao.createStatement()) {
+                st.execute("""
+                        INSERT INTO produto_total (produto_id, doador_id, origem, faixa, quantidade)
+                        SELECT produto_id, '00000000-0000-0000-0000-000000000000', 'DDP', 0, SUM(quantidade)
+                        FROM doacao_doador_produto GROUP BY produto_id""");
+                st.execute("""
+                        INSERT INTO produto_total (produto_id, doador_id, origem, faixa, quantidade)
+                        SELECT produto_id, doador_id, 'DDP', 0, SUM(quantidade)
+                        FROM doacao_doador_produto GROUP BY produto_id, doador_id""");
+                st.execute("ANALYZE");
+            }
+            System.out.printf("[carga] massa gerada em %ds: %d doações, %d itens%n",
+                    (System.nanoTime() - inicio) / 1_000_000_000, massa.doacoes, massa.itens());
+        }
+    }
+
+    private static boolean possuiDados(Connection conexao) throws SQLException {
+        try (Statement st = conexao.createStatement();
+             ResultSet rs = st.executeQuery("SELECT EXISTS (SELECT 1 FROM doacao)")) {
+            rs.next();
+            return rs.getBoolean(1);
+        }
+    }
+
+    private void desastres(CopyManager copy) throws SQLException, IOException {
+        SplittableRandom aleatorio = new SplittableRandom(SEMENTE + Massa.DESASTRE);
+        Copia copia = new Copia(copy, "desastre (id, nome, descricao, localizacao, data_desastre)");
+        for (long i = 0; i < massa.desastres; i++) {
+            copia.linha(Massa.id(Massa.DESASTRE, i), "Desastre " + i, "Gerado para teste de carga",
+                    "Região " + aleatorio.nextInt(27), INICIO.plusDays(aleatorio.nextInt(2_000)));
+        }
+        copia.fechar();
+    }
+
+    private void pessoas(CopyManager copy, String tabela, int tipo, long total) throws SQLException, IOException {
+        Copia copia = new Copia(copy, tabela + " (id, nome, ong, email, telefone, endereco)");
+        for (long i = 0; i < total; i++) {
+            copia.linha(Massa.id(tipo, i), tabela + " " + i, i % 4 == 0 ? "ONG " + (i % 97) : null,
+                    tabela + i + "@carga.safepulse", "11" + (900_000_000L + i), "Rua " + (i % 5_000) + ", " + i);
+        }
+        copia.fechar();
+    }
+
+    private void produtos(CopyManager copy) throws SQLException, IOException {
+        Copia copia = new Copia(copy, "produto (id, nome, descricao, unidade)");
+        for (long i = 0; i < massa.produtos; i++) {
+            copia.linha(Massa.id(Massa.PRODUTO, i), "Produto " + i, null, i % 2 == 0 ? "UN" : "KG");
+        }
+        copia.fechar();
+    }
+
+    private void doacoes(CopyManager copy) throws SQLException, IOException {
+        SplittableRandom aleatorio = new SplittableRandom(SEMENTE + Massa.DOACAO);
+        Copia copia = new Copia(copy, "doacao (id, desastre_id, beneficiario_id, status)");
+        for (long i = 0; i < massa.doacoes; i++) {
+            copia.linha(Massa.id(Massa.DOACAO, i),
+                    Massa.sortear(Massa.DESASTRE, massa.desastres, aleatorio),
+                    Massa.sortear(Massa.BENEFICIARIO, massa.beneficiarios, aleatorio),
+                    Massa.STATUS[aleatorio.nextInt(Massa.STATUS.length)]);
+        }
+        copia.fechar();
+    }
+
+    /* Um doador por doação, com ITENS_POR_DOACAO produtos distintos. */
+    private void itens(CopyManager copy) throws SQLException, IOException {
+        SplittableRandom aleatorio = new SplittableRandom(SEMENTE + Massa.DOADOR);
+        Copia doadores = new Copia(copy, "doacao_doador (doacao_id, doador_id)");
+        Copia itens = new Copia(copy, "doacao_doador_produto (doacao_id, doador_id, produto_id, quantidade)");
+        long[] doadorDa = new long[(int) Math.min(massa.doacoes, Integer.MAX_VALUE)];
+        for (long i = 0; i < massa.doacoes; i++) {
+            doadorDa[(int) i] = aleatorio.nextLong(massa.doadores);
+            doadores.linha(Massa.id(Massa.DOACAO, i), Massa.id(Massa.DOADOR, doadorDa[(int) i]));
+        }
+        doadores.fechar();
+        for (long i = 0; i < massa.doacoes; i++) {
+            long base = aleatorio.nextLong(massa.produtos);
+            for (int j = 0; j < Massa.ITENS_POR_DOACAO; j++) {
+                itens.linha(Massa.id(Massa.DOACAO, i), Massa.id(Massa.DOADOR, doadorDa[(int) i]),
+                        Massa.id(Massa.PRODUTO, (base + j) % massa.produtos), 1 + aleatorio.nextInt(100));
+            }
+        }
+        itens.fechar();
+    }
+
+    /** Acumula linhas no formato texto do COPY e envia a cada bloco. */
+    private static final class Copia {
+
+        private final CopyManager copy;
+        private final String sql;
+        private final StringBuilder bloco = new StringBuilder(TAMANHO_BLOCO + 4_096);
+
+        private Copia(CopyManager copy, String destino) {
+            this.copy = copy;
+            this.sql = "COPY " + destino + " FROM STDIN";
+        }
+
+        void linha(Object... valores) throws SQLException, IOException {
+            for (int i = 0; i < valores.length; i++) {
+                if (i > 0) {
+                    bloco.append('\t');
+                }
+                bloco.append(valores[i] == null ? "\\N" : valores[i].toString());
+            }
+            bloco.append('\n');
+            if (bloco.length() >= TAMANHO_BLOCO) {
+                enviar();
+            }
+        }
+
+        void fechar() throws SQLException, IOException {
+            if (!bloco.isEmpty()) {
+                enviar();
+            }
+        }
+
+        private void enviar() throws SQLException, IOException {
+            copy.copyIn(sql, new StringReader(bloco.toString()));
+            bloco.setLength(0);
+        }
+    }
+}
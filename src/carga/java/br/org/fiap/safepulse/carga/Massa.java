@@ -0,0 +1,53 @@
+package br.org.fiap.safepulse.carga;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Tamanho da massa gerada e os IDs determinísticos de cada registro: o registro
+ * {@code i} de um tipo tem sempre o mesmo UUID, então o gerador de carga sorteia
+ * IDs existentes sem consultar o banco.
+ */
+final class Massa {
+
+    static final int DESASTRE = 1;
+    static final int BENEFICIARIO = 2;
+    static final int DOADOR = 3;
+    static final int PRODUTO = 4;
+    static final int DOACAO = 5;
+
+    /** Itens de doacao_doador_produto por doação. */
+    static final int ITENS_POR_DOACAO = 3;
+
+    static final String[] STATUS = {"PENDENTE", "EM_TRANSITO", "ENTREGUE", "CANCELADA"};
+
+    final long desastres;
+    final long beneficiarios;
+    final long doadores;
+    final long produtos;
+    final long doacoes;
+
+    private Massa(double escala) {
+        desastres = Math.max(1, Math.round(1_000 * escala));
+        beneficiarios = Math.max(1, Math.round(100_000 * escala));
+        doadores = Math.max(1, Math.round(50_000 * escala));
+        produtos = Math.max(ITENS_POR_DOACAO, Math.round(2_000 * escala));
+        doacoes = Math.max(1, Math.round(1_000_000 * escala));
+    }
+
+    static Massa para(double escala) {
+        return new Massa(escala);
+    }
+
+    static UUID id(int tipo, long indice) {
+        return new UUID(((long) tipo << 56) | indice, 0x8000_0000_0000_0000L);
+    }
+
+    static UUID sortear(int tipo, long total, SplittableRandom aleatorio) {
+        return id(tipo, aleatorio.nextLong(total));
+    }
+
+    long itens() {
+        return doacoes * ITENS_POR_DOACAO;
+    }
+}
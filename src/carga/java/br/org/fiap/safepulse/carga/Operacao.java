@@ -0,0 +1,120 @@
+package br.org.fiap.safepulse.carga;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+/**
+ * Operações REST exercitadas pelo gerador de carga. {@code padrao} é o mapeamento
+ * do controller (método + padrão da URL), a chave das contagens de SQL.
+ */
+enum Operacao {
+
+    DOACAO_POR_ID("doacao-por-id", 25, "GET /api/doacoes/{id}") {
+        @Override
+        HttpRequest requisicao(URI base, Massa massa, SplittableRandom r) {
+            return get(base, "/api/doacoes/" + Massa.sortear(Massa.DOACAO, massa.doacoes, r));
+        }
+    },
+    DOACOES_POR_DESASTRE("doacoes-por-desastre", 15, "GET /api/doacoes/search/desastre/{desastreId}") {
+        @Override
+        HttpRequest requisicao(URI base, Massa massa, SplittableRandom r) {
+            return get(base, "/api/doacoes/search/desastre/"
+                    + Massa.sortear(Massa.DESASTRE, massa.desastres, r) + "?size=50");
+        }
+    },
+    DOACOES_POR_STATUS("doacoes-por-status", 10, "GET /api/doacoes/search/status") {
+        @Override
+        HttpRequest requisicao(URI base, Massa massa, SplittableRandom r) {
+            return get(base, "/api/doacoes/search/status?size=50&status="
+                    + Massa.STATUS[r.nextInt(Massa.STATUS.length)]);
+        }
+    },
+    DESASTRE_POR_ID("desastre-por-id", 10, "GET /api/desastres/{id}") {
+        @Override
+        HttpRequest requisicao(URI base, Massa massa, SplittableRandom r) {
+            return get(base, "/api/desastres/" + Massa.sortear(Massa.DESASTRE, massa.desastres, r));
+        }
+    },
+    RESUMO_DESASTRE("resumo-desastre", 5, "GET /api/desastres/{id}/summary") {
+        @Override
+        HttpRequest requisicao(URI base, Massa massa, SplittableRandom r) {
+            return get(base, "/api/desastres/" + Massa.sortear(Massa.DESASTRE, massa.desastres, r) + "/summary");
+        }
+    },
+    DOADOR_POR_ID("doador-por-id", 10, "GET /api/doadores/{id}") {
+        @Override
+        HttpRequest requisicao(URI base, Massa massa, SplittableRandom r) {
+            return get(base, "/api/doadores/" + Massa.sortear(Massa.DOADOR, massa.doadores, r));
+        }
+    },
+    ITENS_POR_DOACAO("itens-por-doacao", 10, "GET /api/doacoes-doadores-produtos/search/doacao/{doacaoId}") {
+        @Override
+        HttpRequest requisicao(URI base, Massa massa, SplittableRandom r) {
+            return get(base, "/api/doacoes-doadores-produtos/search/doacao/"
+                    + Massa.sortear(Massa.DOACAO, massa.doacoes, r));
+        }
+    },
+    TOTAL_PRODUTO("total-produto", 5, "GET /api/doacoes-doadores-produtos/sum/produto/{produtoId}") {
+        @Override
+        HttpRequest requisicao(URI base, Massa massa, SplittableRandom r) {
+            return get(base, "/api/doacoes-doadores-produtos/sum/produto/"
+                    + Massa.sortear(Massa.PRODUTO, massa.produtos, r));
+        }
+    },
+    CRIAR_DOACAO("criar-doacao", 5, "POST /api/doacoes") {
+        @Override
+        HttpRequest requisicao(URI base, Massa massa, SplittableRandom r) {
+            return json(base, "/api/doacoes", "POST", corpoDoacao(massa, r));
+        }
+    },
+    ATUALIZAR_DOACAO("atualizar-doacao", 5, "PUT /api/doacoes/{id}") {
+        @Override
+        HttpRequest requisicao(URI base, Massa massa, SplittableRandom r) {
+            return json(base, "/api/doacoes/" + Massa.sortear(Massa.DOACAO, massa.doacoes, r), "PUT",
+                    corpoDoacao(massa, r));
+        }
+    };
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    final String chave;
+    final int pesoPadrao;
+    final String padrao;
+
+    Operacao(String chave, int pesoPadrao, String padrao) {
+        this.chave = chave;
+        this.pesoPadrao = pesoPadrao;
+        this.padrao = padrao;
+    }
+
+    abstract HttpRequest requisicao(URI base, Massa massa, SplittableRandom r);
+
+    static Operacao porChave(String chave) {
+        for (Operacao operacao : values()) {
+            if (operacao.chave.equals(chave)) {
+                return operacao;
+            }
+        }
+        throw new IllegalArgumentException("Operação desconhecida em carga.mix: " + chave);
+    }
+
+    private static HttpRequest get(URI base, String caminho) {
+        return HttpRequest.newBuilder(base.resolve(caminho)).timeout(TIMEOUT).GET().build();
+    }
+
+    private static HttpRequest json(URI base, String caminho, String metodo, String corpo) {
+        return HttpRequest.newBuilder(base.resolve(caminho))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .method(metodo, HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+    }
+
+    private static String corpoDoacao(Massa massa, SplittableRandom r) {
+        return "{\"desastreId\":\"" + Massa.sortear(Massa.DESASTRE, massa.desastres, r)
+                + "\",\"beneficiarioId\":\"" + Massa.sortear(Massa.BENEFICIARIO, massa.beneficiarios, r)
+                + "\",\"status\":\"" + Massa.STATUS[r.nextInt(Massa.STATUS.length)] + "\"}";
+    }
+}
@@ -0,0 +1,59 @@
+package br.org.fiap.safepulse.carga;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Tabela por endpoint (vazão, erros, percentis em ms e SQL por requisição), impressa
+ * e gravada em {@code resumo.txt}, mais um {@code <operação>.hgrm} com a distribuição
+ * completa de cada uma, legível pelo HdrHistogram plotter.
+ */
+final class Relatorio {
+
+    private static final String CABECALHO = "%-22s %9s %9s %7s %9s %9s %9s %9s %9s %9s %8s%n";
+    private static final String LINHA = "%-22s %9d %9.1f %7d %9d %9.2f %9.2f %9.2f %9.2f %9.2f %8.2f%n";
+
+    private Relatorio() {
+    }
+
+    static void emitir(Map<Operacao, GeradorCarga.Resultado> resultados, ConfiguracaoCarga configuracao)
+            throws IOException {
+        Files.createDirectories(configuracao.saida);
+        Path resumo = configuracao.saida.resolve("resumo.txt");
+        try (PrintStream arquivo = new PrintStream(Files.newOutputStream(resumo), true, "UTF-8")) {
+            for (PrintStream saida : new PrintStream[]{System.out, arquivo}) {
+                saida.printf("taxa=%d req/s duração=%s escala=%s%n",
+                        configuracao.taxa, configuracao.duracao, configuracao.escala);
+                saida.printf(CABECALHO, "operação", "req", "req/s", "erros", "descart.",
+                        "p50", "p90", "p99", "p99.9", "máx", "SQL/req");
+                for (Map.Entry<Operacao, GeradorCarga.Resultado> entrada : resultados.entrySet()) {
+                    Operacao operacao = entrada.getKey();
+                    GeradorCarga.Resultado resultado = entrada.getValue();
+                    Histogram h = resultado.latencias;
+                    saida.printf(LINHA, operacao.chave, h.getTotalCount(), resultado.porSegundo(),
+                            resultado.erros.sum(), resultado.descartadas.sum(),
+                            ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(90)),
+                            ms(h.getValueAtPercentile(99)), ms(h.getValueAtPercentile(99.9)),
+                            ms(h.getMaxValue()), ContadorSql.de(operacao.padrao).porRequisicao());
+                }
+            }
+        }
+
+        for (Map.Entry<Operacao, GeradorCarga.Resultado> entrada : resultados.entrySet()) {
+            Path hgrm = configuracao.saida.resolve(entrada.getKey().chave + ".hgrm");
+            try (PrintStream arquivo = new PrintStream(Files.newOutputStream(hgrm), true, "UTF-8")) {
+                entrada.getValue().latencias.outputPercentileDistribution(arquivo, 1_000.0);
+            }
+        }
+        System.out.println("[carga] relatório em " + configuracao.saida.toAbsolutePath());
+    }
+
+    private static double ms(long micros) {
+        return micros / 1_000.0;
+    }
+}
@@ -0,0 +1,61 @@
+package br.org.fiap.safepulse.carga;
+
+import br.org.fiap.safepulse.SafepulseApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.Ordered;
+
+import java.net.URI;
+
+/**
+ * Teste de carga ponta a ponta: sobe o banco, a aplicação (com as migrações do
+ * Flyway), gera a massa, aplica a carga e imprime o relatório.
+ *
+ * <pre>./mvnw -Pcarga -DskipTests verify -Dcarga.taxa=500 -Dcarga.duracao=2m</pre>
+ *
+ * Parâmetros em {@link ConfiguracaoCarga}; propriedades {@code spring.*} e
+ * {@code safepulse.*} passadas com -D chegam à aplicação normalmente, exceto as
+ * de banco e porta, definidas aqui.
+ */
+public final class TesteCarga {
+
+    private TesteCarga() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ConfiguracaoCarga configuracao = ConfiguracaoCarga.doSistema();
+        Massa massa = Massa.para(configuracao.escala);
+
+        try (BancoCarga banco = BancoCarga.iniciar(configuracao);
+             ConfigurableApplicationContext aplicacao = iniciarAplicacao(banco)) {
+            new GeradorMassa(banco, massa).gerar(configuracao.recriarMassa);
+
+            int porta = ((WebServerApplicationContext) aplicacao).getWebServer().getPort();
+            try (GeradorCarga gerador = new GeradorCarga(URI.create("http://localhost:" + porta), massa, configuracao)) {
+                Relatorio.emitir(gerador.executar(), configuracao);
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext iniciarAplicacao(BancoCarga banco) {
+        // como argumentos de linha de comando, para prevalecer sobre o application.properties
+        return new SpringApplicationBuilder(SafepulseApplication.class)
+                .initializers(contexto -> contexto.getBeanFactory().registerSingleton(
+                        "contadorSqlFiltro", filtroContadorSql()))
+                .run("--spring.datasource.url=" + banco.url,
+                        "--spring.datasource.username=" + banco.usuario,
+                        "--spring.datasource.password=" + banco.senha,
+                        "--server.port=0",
+                        "--spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                                + ContadorSql.class.getName(),
+                        "--logging.level.br.org.fiap.safepulse.infra.outbox=WARN");
+    }
+
+    private static FilterRegistrationBean<ContadorSql.Filtro> filtroContadorSql() {
+        FilterRegistrationBean<ContadorSql.Filtro> registro = new FilterRegistrationBean<>(new ContadorSql.Filtro());
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registro;
+    }
+}
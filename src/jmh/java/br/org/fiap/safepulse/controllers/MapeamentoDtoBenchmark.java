@@ -0,0 +1,96 @@
+package br.org.fiap.safepulse.controllers;
+
+import br.org.fiap.safepulse.domain.dtos.DesastreDto;
+import br.org.fiap.safepulse.domain.dtos.DoacaoDoadorProdutoDto;
+import br.org.fiap.safepulse.domain.dtos.DoacaoDto;
+import br.org.fiap.safepulse.domain.dtos.ProdutoDto;
+import br.org.fiap.safepulse.domain.entities.Beneficiario;
+import br.org.fiap.safepulse.domain.entities.Desastre;
+import br.org.fiap.safepulse.domain.entities.Doacao;
+import br.org.fiap.safepulse.domain.entities.DoacaoDoadorProduto;
+import br.org.fiap.safepulse.domain.entities.DoacaoDoadorProdutoId;
+import br.org.fiap.safepulse.domain.entities.Produto;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão entidade -> DTO feita pelos controllers, sobre uma página do tamanho
+ * máximo da paginação por cursor.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapeamentoDtoBenchmark {
+
+    @Param({"50", "500"})
+    public int tamanho;
+
+    private List<Desastre> desastres;
+    private List<Doacao> doacoes;
+    private List<Produto> produtos;
+    private List<DoacaoDoadorProduto> associacoes;
+
+    @Setup
+    public void iniciar() {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        desastres = new ArrayList<>(tamanho);
+        doacoes = new ArrayList<>(tamanho);
+        produtos = new ArrayList<>(tamanho);
+        associacoes = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            Desastre desastre = Desastre.builder()
+                    .id(UUID.randomUUID())
+                    .nome("Enchente " + i)
+                    .descricao("Descrição do desastre " + i)
+                    .localizacao("Recife - PE")
+                    .dataDesastre(LocalDate.of(2024, 1, 1).plusDays(i))
+                    .build();
+            desastres.add(desastre);
+            doacoes.add(Doacao.builder()
+                    .id(UUID.randomUUID())
+                    .desastre(desastre)
+                    .beneficiario(Beneficiario.builder().id(UUID.randomUUID()).build())
+                    .status("PENDENTE")
+                    .build());
+            produtos.add(Produto.builder()
+                    .id(UUID.randomUUID())
+                    .nome("Produto " + i)
+                    .descricao("Descrição do produto " + i)
+                    .unidade("kg")
+                    .build());
+            associacoes.add(DoacaoDoadorProduto.builder()
+                    .id(new DoacaoDoadorProdutoId(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()))
+                    .quantidade(aleatorio.nextInt(1, 1000))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public List<DesastreDto> desastres() {
+        return desastres.stream().map(DesastreController::toDto).toList();
+    }
+
+    @Benchmark
+    public List<DoacaoDto> doacoes() {
+        return doacoes.stream().map(DoacaoController::toDto).toList();
+    }
+
+    @Benchmark
+    public List<ProdutoDto> produtos() {
+        return produtos.stream().map(ProdutoController::toDto).toList();
+    }
+
+    @Benchmark
+    public List<DoacaoDoadorProdutoDto> doacaoDoadorProdutos() {
+        return associacoes.stream().map(DoacaoDoadorProdutoController::toDto).toList();
+    }
+}
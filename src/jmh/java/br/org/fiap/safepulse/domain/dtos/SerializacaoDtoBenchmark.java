@@ -0,0 +1,84 @@
+package br.org.fiap.safepulse.domain.dtos;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização JSON das respostas paginadas, com um ObjectMapper configurado como o
+ * do Spring MVC (módulos de java.time etc.).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacaoDtoBenchmark {
+
+    @Param({"50", "500"})
+    public int tamanho;
+
+    private ObjectMapper objectMapper;
+    private CursorSliceDto<DesastreDto> desastres;
+    private CursorSliceDto<DoacaoDto> doacoes;
+    private CursorSliceDto<DoacaoDoadorProdutoDto> associacoes;
+
+    @Setup
+    public void iniciar() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<DesastreDto> listaDesastres = new ArrayList<>(tamanho);
+        List<DoacaoDto> listaDoacoes = new ArrayList<>(tamanho);
+        List<DoacaoDoadorProdutoDto> listaAssociacoes = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            listaDesastres.add(DesastreDto.builder()
+                    .id(UUID.randomUUID())
+                    .nome("Enchente " + i)
+                    .descricao("Descrição do desastre " + i)
+                    .localizacao("Recife - PE")
+                    .dataDesastre(LocalDate.of(2024, 1, 1).plusDays(i))
+                    .build());
+            listaDoacoes.add(DoacaoDto.builder()
+                    .id(UUID.randomUUID())
+                    .desastreId(UUID.randomUUID())
+                    .beneficiarioId(UUID.randomUUID())
+                    .status("ENTREGUE")
+                    .build());
+            listaAssociacoes.add(new DoacaoDoadorProdutoDto(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), i));
+        }
+        desastres = pagina(listaDesastres);
+        doacoes = pagina(listaDoacoes);
+        associacoes = pagina(listaAssociacoes);
+    }
+
+    @Benchmark
+    public byte[] desastres() throws Exception {
+        return objectMapper.writeValueAsBytes(desastres);
+    }
+
+    @Benchmark
+    public byte[] doacoes() throws Exception {
+        return objectMapper.writeValueAsBytes(doacoes);
+    }
+
+    @Benchmark
+    public byte[] doacaoDoadorProdutos() throws Exception {
+        return objectMapper.writeValueAsBytes(associacoes);
+    }
+
+    private static <T> CursorSliceDto<T> pagina(List<T> conteudo) {
+        return CursorSliceDto.<T>builder()
+                .content(conteudo)
+                .size(conteudo.size())
+                .hasNext(true)
+                .nextCursor("AZeIhX3rcq-Bx2m0kTQZ0w")
+                .build();
+    }
+}
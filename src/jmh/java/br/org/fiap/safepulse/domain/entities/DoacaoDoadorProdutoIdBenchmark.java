@@ -0,0 +1,81 @@
+package br.org.fiap.safepulse.domain.entities;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * equals/hashCode da chave composta, usados pelo contexto de persistência e pelos
+ * conjuntos de chaves do cadastro em lote (createBulk).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DoacaoDoadorProdutoIdBenchmark {
+
+    private static final int LOTE = 10_000;
+
+    private DoacaoDoadorProdutoId chave;
+    private DoacaoDoadorProdutoId igual;
+    private DoacaoDoadorProdutoId diferente;
+    private DoacaoDoadorProdutoId[] chaves;
+    private Set<DoacaoDoadorProdutoId> conjunto;
+
+    @Setup
+    public void iniciar() {
+        UUID doacao = UUID.randomUUID();
+        UUID doador = UUID.randomUUID();
+        UUID produto = UUID.randomUUID();
+        chave = new DoacaoDoadorProdutoId(doacao, doador, produto);
+        igual = new DoacaoDoadorProdutoId(new UUID(doacao.getMostSignificantBits(), doacao.getLeastSignificantBits()),
+                doador, produto);
+        diferente = new DoacaoDoadorProdutoId(doacao, doador, UUID.randomUUID());
+
+        chaves = new DoacaoDoadorProdutoId[LOTE];
+        for (int i = 0; i < LOTE; i++) {
+            // mesma doação para todas, como em um lote real: só doador/produto variam
+            chaves[i] = new DoacaoDoadorProdutoId(doacao, UUID.randomUUID(), UUID.randomUUID());
+        }
+        conjunto = new HashSet<>(Set.of(chaves));
+    }
+
+    @Benchmark
+    public int hashCodeChave() {
+        return chave.hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsIgual() {
+        return chave.equals(igual);
+    }
+
+    @Benchmark
+    public boolean equalsDiferente() {
+        return chave.equals(diferente);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public void montarConjuntoDoLote(Blackhole bh) {
+        Set<DoacaoDoadorProdutoId> novo = new HashSet<>(LOTE * 2);
+        for (DoacaoDoadorProdutoId id : chaves) {
+            novo.add(id);
+        }
+        bh.consume(novo);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public void consultarConjunto(Blackhole bh) {
+        for (DoacaoDoadorProdutoId id : chaves) {
+            bh.consume(conjunto.contains(id));
+        }
+    }
+}
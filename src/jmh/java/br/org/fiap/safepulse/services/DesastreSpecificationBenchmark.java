@@ -0,0 +1,78 @@
+package br.org.fiap.safepulse.services;
+
+import br.org.fiap.safepulse.domain.entities.Desastre;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de montar a consulta de {@link DesastreService#getByFilters}: criação da
+ * Specification, geração dos predicados e criação da query (SQM) pelo Hibernate.
+ * Não executa SQL; o SessionFactory sobe sem banco, só com o metamodelo.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DesastreSpecificationBenchmark {
+
+    private static final UUID APOS = UUID.fromString("01890a5d-ac96-774b-bcce-b302099a8057");
+
+    private SessionFactory sessionFactory;
+    private EntityManager entityManager;
+
+    @Setup
+    public void iniciar() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Desastre.class)
+                .setProperty("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect")
+                .setProperty("hibernate.boot.allow_jdbc_metadata_access", "false")
+                .setProperty("hibernate.connection.provider_class",
+                        "org.hibernate.engine.jdbc.connections.internal.UserSuppliedConnectionProviderImpl")
+                .setProperty("hibernate.cache.use_second_level_cache", "false")
+                .setProperty("jakarta.persistence.validation.mode", "none")
+                .buildSessionFactory();
+        entityManager = sessionFactory.createEntityManager();
+    }
+
+    @TearDown
+    public void encerrar() {
+        entityManager.close();
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public Specification<Desastre> criarSpecification() {
+        return DesastreService.filtros("enchente", "recife", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), APOS);
+    }
+
+    @Benchmark
+    public void predicadosSemFiltros(Blackhole bh) {
+        montar(DesastreService.filtros(null, null, null, null, APOS), bh);
+    }
+
+    @Benchmark
+    public void predicadosTodosOsFiltros(Blackhole bh) {
+        montar(DesastreService.filtros("enchente", "recife", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), APOS), bh);
+    }
+
+    private void montar(Specification<Desastre> spec, Blackhole bh) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Desastre> query = cb.createQuery(Desastre.class);
+        Root<Desastre> root = query.from(Desastre.class);
+        query.where(spec.toPredicate(root, query, cb)).orderBy(cb.asc(root.get("id")));
+        bh.consume(entityManager.createQuery(query).setMaxResults(51));
+    }
+}
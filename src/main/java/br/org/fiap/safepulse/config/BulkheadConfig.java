@@ -0,0 +1,38 @@
+package br.org.fiap.safepulse.config;
+
+import br.org.fiap.safepulse.infra.datasource.BulkheadDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Com {@code spring.threads.virtual.enabled=true}, o Tomcat atende cada requisição
+ * em uma thread virtual e as tarefas assíncronas/agendadas do Spring também passam a
+ * usá-las. O número de requisições simultâneas deixa de ser limitado pelo pool de
+ * threads, então o limite passa a ser o pool de conexões: cada HikariDataSource do
+ * contexto é envolvido por um {@link BulkheadDataSource} do mesmo tamanho.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class BulkheadConfig {
+
+    @Bean
+    public static BeanPostProcessor bulkheadDataSourcePostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource pool) {
+                    BulkheadDataSource limitado = new BulkheadDataSource(pool, beanName);
+                    meterRegistry.ifAvailable(limitado::registrarMetricas);
+                    return limitado;
+                }
+                return bean;
+            }
+        };
+    }
+}
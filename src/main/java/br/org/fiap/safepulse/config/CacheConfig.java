@@ -0,0 +1,68 @@
+package br.org.fiap.safepulse.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Caches em memória (Caffeine) da aplicação.
+ *
+ * Os caches de existência guardam apenas IDs confirmados (resultados negativos não
+ * são cacheados, então um ID recém-criado nunca fica marcado como inexistente), para
+ * que os endpoints de escrita validem referências sem ir ao banco. São limitados por tamanho e TTL e
+ * publicam acertos/erros em /actuator/metrics/cache.gets.
+ *
+ * O gerenciador acompanha a transação: remoções (@CacheEvict de update/delete) e
+ * inclusões só chegam ao cache depois do commit. Removido antes, o ID podia voltar
+ * ao cache por um existsById concorrente, que ainda via a linha não apagada, e
+ * ficar lá por todo o TTL.
+ *
+ * Os caches são locais a cada instância, sem invalidação entre instâncias: um ID
+ * apagado em outra instância segue aceito aqui até expirar o TTL
+ * (safepulse.cache.referencias.ttl), e a escrita só é recusada pela chave
+ * estrangeira. Com mais de uma instância, reduza o TTL conforme a defasagem aceita.
+ *
+ * O cache de resumos por desastre tem TTL curto e próprio: o resumo é calculado por
+ * agregações e aceita alguns segundos de defasagem, em troca de não recalculá-lo a
+ * cada atualização do painel.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String DESASTRES = "desastres-existentes";
+    public static final String BENEFICIARIOS = "beneficiarios-existentes";
+    public static final String DOADORES = "doadores-existentes";
+    public static final String PRODUTOS = "produtos-existentes";
+    public static final String DOACOES = "doacoes-existentes";
+    public static final String RESUMOS_DESASTRE = "resumos-desastre";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${safepulse.cache.referencias.tamanho-maximo:100000}") long tamanhoMaximo,
+            @Value("${safepulse.cache.referencias.ttl:10m}") Duration ttl,
+            @Value("${safepulse.cache.resumo-desastre.ttl:30s}") Duration ttlResumo) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+        // caches criados já na inicialização, para serem registrados nas métricas
+        cacheManager.setCacheNames(List.of(DESASTRES, BENEFICIARIOS, DOADORES, PRODUTOS, DOACOES));
+        cacheManager.registerCustomCache(RESUMOS_DESASTRE, Caffeine.newBuilder()
+                .maximumSize(1_000)
+                .expireAfterWrite(ttlResumo)
+                .recordStats()
+                .build());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,40 @@
+package br.org.fiap.safepulse.config;
+
+import br.org.fiap.safepulse.infra.metricas.LinhasRepositorioInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.function.SingletonSupplier;
+
+/**
+ * Instrumentação exposta em /actuator/prometheus. O Spring Boot já publica latência
+ * por endpoint (http.server.requests) e por método de repositório
+ * (spring.data.repository.invocations), o pool Hikari (hikaricp.connections.*), as
+ * estatísticas do Hibernate (hibernate.*, inclusive o cache de segundo nível) e a
+ * JVM (jvm.gc.*, jvm.memory.*); os histogramas de percentis são ligados no
+ * application.properties. Aqui entra o que falta: as linhas devolvidas por cada
+ * método de repositório.
+ */
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    public static BeanPostProcessor linhasRepositorioPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        // o registry só é resolvido na primeira chamada: o BeanPostProcessor sobe antes dele
+        SingletonSupplier<MeterRegistry> registry = SingletonSupplier.of(meterRegistry::getObject);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> fabrica) {
+                    fabrica.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxy, informacao) -> proxy.addAdvice(new LinhasRepositorioInterceptor(
+                                    registry, informacao.getRepositoryInterface(), informacao.getDomainType()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package br.org.fiap.safepulse.config;
+
+import br.org.fiap.safepulse.infra.outbox.HttpOutboxSink;
+import br.org.fiap.safepulse.infra.outbox.LogOutboxSink;
+import br.org.fiap.safepulse.infra.outbox.OutboxDispatcher;
+import br.org.fiap.safepulse.infra.outbox.OutboxProperties;
+import br.org.fiap.safepulse.infra.outbox.OutboxSink;
+import br.org.fiap.safepulse.infra.repositories.OutboxEventoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Dispatcher do outbox e o sink escolhido em {@code safepulse.outbox.sink}.
+ * Para testar a entrega por HTTP localmente, suba a aplicação com o profile
+ * {@code outbox-stub} e {@code safepulse.outbox.sink=http}: os eventos são enviados
+ * para o próprio endpoint /stub/outbox.
+ */
+@Configuration
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "safepulse.outbox.sink", havingValue = "log", matchIfMissing = true)
+    public OutboxSink logOutboxSink() {
+        return new LogOutboxSink();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "safepulse.outbox.sink", havingValue = "http")
+    public OutboxSink httpOutboxSink(OutboxProperties properties, ObjectMapper objectMapper) {
+        return new HttpOutboxSink(properties.getHttp().getUrl(), properties.getHttp().getTimeout(),
+                objectMapper.getFactory());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "safepulse.outbox.habilitado", havingValue = "true", matchIfMissing = true)
+    public OutboxDispatcher outboxDispatcher(OutboxEventoRepository outboxEventoRepository,
+                                             OutboxSink outboxSink,
+                                             OutboxProperties properties,
+                                             PlatformTransactionManager transactionManager,
+                                             MeterRegistry meterRegistry) {
+        return new OutboxDispatcher(outboxEventoRepository, outboxSink, properties, transactionManager, meterRegistry);
+    }
+}
@@ -0,0 +1,115 @@
+package br.org.fiap.safepulse.config;
+
+import br.org.fiap.safepulse.infra.datasource.BulkheadDataSource;
+import br.org.fiap.safepulse.infra.datasource.MonitorAtrasoReplicas;
+import br.org.fiap.safepulse.infra.datasource.RoteamentoDataSource;
+import br.org.fiap.safepulse.infra.datasource.RoteamentoProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Roteamento primário/réplicas, ativo com {@code safepulse.datasource.roteamento.habilitado=true}.
+ *
+ * O primário usa as propriedades padrão {@code spring.datasource.*}; cada réplica é
+ * declarada em {@code safepulse.datasource.roteamento.replicas[n].*}. Desligado, o
+ * Spring Boot cria o DataSource único de sempre.
+ *
+ * Com threads virtuais, cada pool (primário e réplicas) fica atrás do próprio
+ * {@link BulkheadDataSource}; sem roteamento, quem aplica o bulkhead é o
+ * {@link BulkheadConfig}.
+ */
+@Configuration
+@EnableConfigurationProperties(RoteamentoProperties.class)
+@ConditionalOnProperty(prefix = "safepulse.datasource.roteamento", name = "habilitado", havingValue = "true")
+public class RoteamentoDataSourceConfig {
+
+    @Bean
+    public RoteamentoDataSource roteamentoDataSource(DataSourceProperties dataSourceProperties,
+                                                     RoteamentoProperties properties,
+                                                     ObjectProvider<MeterRegistry> meterRegistry,
+                                                     Environment environment) {
+        boolean bulkhead = Threading.VIRTUAL.isActive(environment);
+        HikariDataSource primario = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primario.setPoolName("primario");
+        registrarMetricas(primario, meterRegistry);
+
+        return new RoteamentoDataSource(comBulkhead(primario, bulkhead, meterRegistry),
+                criarReplicas(properties, meterRegistry, bulkhead),
+                properties.getJanelaLeituraAposEscrita());
+    }
+
+    /**
+     * DataSource usado pela aplicação (JPA, Flyway). O proxy adia a obtenção da
+     * conexão até o primeiro comando, quando o roteador já sabe se a transação é
+     * somente leitura.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(RoteamentoDataSource roteamentoDataSource) {
+        return new LazyConnectionDataSourceProxy(roteamentoDataSource);
+    }
+
+    @Bean
+    public MonitorAtrasoReplicas monitorAtrasoReplicas(RoteamentoDataSource roteamentoDataSource,
+                                                       RoteamentoProperties properties) {
+        return new MonitorAtrasoReplicas(roteamentoDataSource, properties.getAtrasoMaximo());
+    }
+
+    private static Map<String, DataSource> criarReplicas(RoteamentoProperties properties,
+                                                         ObjectProvider<MeterRegistry> meterRegistry,
+                                                         boolean bulkhead) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<RoteamentoProperties.Replica> configuradas = properties.getReplicas();
+        for (int i = 0; i < configuradas.size(); i++) {
+            RoteamentoProperties.Replica r = configuradas.get(i);
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(r.getUrl())
+                    .username(r.getUsername())
+                    .password(r.getPassword())
+                    .build();
+            replica.setPoolName("replica-" + i);
+            replica.setReadOnly(true);
+            replica.setMaximumPoolSize(r.getTamanhoPool());
+            // réplica fora do ar não impede a subida; o monitor a mantém fora do rodízio
+            replica.setInitializationFailTimeout(-1);
+            registrarMetricas(replica, meterRegistry);
+            replicas.put(replica.getPoolName(), comBulkhead(replica, bulkhead, meterRegistry));
+        }
+        return replicas;
+    }
+
+    private static DataSource comBulkhead(HikariDataSource pool, boolean bulkhead,
+                                          ObjectProvider<MeterRegistry> meterRegistry) {
+        if (!bulkhead) {
+            return pool;
+        }
+        BulkheadDataSource limitado = new BulkheadDataSource(pool, pool.getPoolName());
+        meterRegistry.ifAvailable(limitado::registrarMetricas);
+        return limitado;
+    }
+
+    private static void registrarMetricas(HikariDataSource pool, ObjectProvider<MeterRegistry> meterRegistry) {
+        meterRegistry.ifAvailable(registry ->
+                pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+    }
+}
@@ -1,21 +1,27 @@
 package br.org.fiap.safepulse.controllers;
 
+import br.org.fiap.safepulse.domain.dtos.BatchRequestDto;
+import br.org.fiap.safepulse.domain.dtos.BatchResultDto;
+import br.org.fiap.safepulse.domain.dtos.CursorSliceDto;
 import br.org.fiap.safepulse.domain.dtos.BeneficiarioCreateDto;
 import br.org.fiap.safepulse.domain.dtos.BeneficiarioDto;
+import br.org.fiap.safepulse.domain.dtos.BeneficiarioPatchDto;
 import br.org.fiap.safepulse.domain.entities.Beneficiario;
+import br.org.fiap.safepulse.infra.lote.LoteIds;
+import br.org.fiap.safepulse.infra.pagination.KeysetCursor;
 import br.org.fiap.safepulse.services.BeneficiarioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/beneficiarios")
@@ -80,22 +86,26 @@ public class BeneficiarioController {
         return ResponseEntity.ok(dto);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Obter vários beneficiários pelos IDs, na ordem pedida")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Beneficiários encontrados e IDs inexistentes"),
+            @ApiResponse(responseCode = "400", description = "Lista de IDs vazia ou acima de " + BatchRequestDto.MAX_IDS)
+    })
+    public ResponseEntity<BatchResultDto<BeneficiarioDto>> getByIds(@Valid @RequestBody BatchRequestDto dto) {
+        UUID[] ids = LoteIds.distintos(dto.getIds());
+        return ResponseEntity.ok(LoteIds.toResult(ids, beneficiarioService.getByIds(ids), Beneficiario::getId, BeneficiarioController::toDto));
+    }
+
     @GetMapping
     @Operation(summary = "Listar todos os beneficiários")
     @ApiResponse(responseCode = "200", description = "Lista de beneficiários retornada")
-    public ResponseEntity<List<BeneficiarioDto>> getAll() {
-        List<BeneficiarioDto> lista = beneficiarioService.getAll().stream()
-                .map(b -> BeneficiarioDto.builder()
-                        .id(b.getId())
-                        .nome(b.getNome())
-                        .ong(b.getOng())
-                        .email(b.getEmail())
-                        .telefone(b.getTelefone())
-                        .endereco(b.getEndereco())
-                        .build()
-                )
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<CursorSliceDto<BeneficiarioDto>> getAll(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        Slice<Beneficiario> pagina = beneficiarioService.getAll(
+                KeysetCursor.decodeId(cursor), KeysetCursor.pageRequest(size, "id"));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, BeneficiarioController::toDto, b -> KeysetCursor.encode(b.getId())));
     }
 
     @PutMapping("/{id}")
@@ -136,6 +146,20 @@ public class BeneficiarioController {
         return ResponseEntity.ok(resposta);
     }
 
+    @PatchMapping("/{id}")
+    @Operation(summary = "Alterar campos de um beneficiário (campos ausentes ficam como estão)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Beneficiário alterado"),
+            @ApiResponse(responseCode = "404", description = "Beneficiário não encontrado"),
+            @ApiResponse(responseCode = "400", description = "Requisição inválida")
+    })
+    public ResponseEntity<Void> patch(@PathVariable UUID id, @Valid @RequestBody BeneficiarioPatchDto dto) {
+        if (!beneficiarioService.atualizarParcial(id, dto)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Remover um beneficiário pelo ID")
     @ApiResponses({
@@ -174,37 +198,25 @@ public class BeneficiarioController {
     @GetMapping("/search/nome")
     @Operation(summary = "Buscar beneficiários por nome (parcial, case‐insensitive)")
     @ApiResponse(responseCode = "200", description = "Beneficiários retornados")
-    public ResponseEntity<List<BeneficiarioDto>> findByNome(@RequestParam String nome) {
-        List<BeneficiarioDto> lista = beneficiarioService.findByNome(nome).stream()
-                .map(b -> BeneficiarioDto.builder()
-                        .id(b.getId())
-                        .nome(b.getNome())
-                        .ong(b.getOng())
-                        .email(b.getEmail())
-                        .telefone(b.getTelefone())
-                        .endereco(b.getEndereco())
-                        .build()
-                )
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<CursorSliceDto<BeneficiarioDto>> findByNome(
+            @RequestParam String nome,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        Slice<Beneficiario> pagina = beneficiarioService.findByNome(
+                nome, KeysetCursor.decodeId(cursor), KeysetCursor.pageRequest(size, "id"));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, BeneficiarioController::toDto, b -> KeysetCursor.encode(b.getId())));
     }
 
     @GetMapping("/search/ong")
     @Operation(summary = "Buscar beneficiários por ONG (parcial, case‐insensitive)")
     @ApiResponse(responseCode = "200", description = "Beneficiários retornados")
-    public ResponseEntity<List<BeneficiarioDto>> findByOng(@RequestParam String ong) {
-        List<BeneficiarioDto> lista = beneficiarioService.findByOng(ong).stream()
-                .map(b -> BeneficiarioDto.builder()
-                        .id(b.getId())
-                        .nome(b.getNome())
-                        .ong(b.getOng())
-                        .email(b.getEmail())
-                        .telefone(b.getTelefone())
-                        .endereco(b.getEndereco())
-                        .build()
-                )
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<CursorSliceDto<BeneficiarioDto>> findByOng(
+            @RequestParam String ong,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        Slice<Beneficiario> pagina = beneficiarioService.findByOng(
+                ong, KeysetCursor.decodeId(cursor), KeysetCursor.pageRequest(size, "id"));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, BeneficiarioController::toDto, b -> KeysetCursor.encode(b.getId())));
     }
 
     @GetMapping("/exists/telefone")
@@ -214,4 +226,27 @@ public class BeneficiarioController {
         boolean exists = beneficiarioService.existsByTelefone(telefone);
         return ResponseEntity.ok(exists);
     }
+
+    @GetMapping("/search/similar")
+    @Operation(summary = "Buscar beneficiários por nome aproximado, ordenados por similaridade")
+    @ApiResponse(responseCode = "200", description = "Beneficiários retornados")
+    public ResponseEntity<List<BeneficiarioDto>> findSimilarByNome(
+            @RequestParam String termo,
+            @RequestParam(value = "limite", defaultValue = "20") int limite) {
+        List<BeneficiarioDto> lista = beneficiarioService.findSimilarByNome(termo, limite).stream()
+                .map(BeneficiarioController::toDto)
+                .toList();
+        return ResponseEntity.ok(lista);
+    }
+
+    static BeneficiarioDto toDto(Beneficiario b) {
+        return BeneficiarioDto.builder()
+                .id(b.getId())
+                .nome(b.getNome())
+                .ong(b.getOng())
+                .email(b.getEmail())
+                .telefone(b.getTelefone())
+                .endereco(b.getEndereco())
+                .build();
+    }
 }
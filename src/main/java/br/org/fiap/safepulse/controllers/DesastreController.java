@@ -1,8 +1,15 @@
 package br.org.fiap.safepulse.controllers;
 
+import br.org.fiap.safepulse.domain.dtos.BatchRequestDto;
+import br.org.fiap.safepulse.domain.dtos.BatchResultDto;
+import br.org.fiap.safepulse.domain.dtos.CursorSliceDto;
 import br.org.fiap.safepulse.domain.dtos.DesastreCreateDto;
 import br.org.fiap.safepulse.domain.dtos.DesastreDto;
+import br.org.fiap.safepulse.domain.dtos.DesastrePatchDto;
+import br.org.fiap.safepulse.domain.dtos.DesastreSummaryDto;
 import br.org.fiap.safepulse.domain.entities.Desastre;
+import br.org.fiap.safepulse.infra.lote.LoteIds;
+import br.org.fiap.safepulse.infra.pagination.KeysetCursor;
 import br.org.fiap.safepulse.services.DesastreService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -10,6 +17,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,7 +25,6 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/desastres")
@@ -79,42 +86,67 @@ public class DesastreController {
         return ResponseEntity.ok(dto);
     }
 
+    /**
+     * Resumo agregado do desastre para painéis, em uma única chamada. Pode refletir
+     * alterações com alguns segundos de atraso (ver "calculadoEm").
+     */
+    @GetMapping("/{id}/summary")
+    @Operation(summary = "Obter o resumo de doações de um desastre")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Resumo retornado"),
+            @ApiResponse(responseCode = "404", description = "Desastre não encontrado")
+    })
+    public ResponseEntity<DesastreSummaryDto> getSummary(@PathVariable UUID id) {
+        if (!desastreService.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(desastreService.getSummary(id));
+    }
+
     /**
      * Lista todos os desastres ou filtra pelos parâmetros opcionais:
      * - nome (contains, ignore-case)
      * - localizacao (contains, ignore-case)
      * - intervalo de datas (inicio/fim)
      *
+     * O resultado é paginado por cursor: use o "nextCursor" da resposta no parâmetro
+     * "cursor" para obter a próxima página.
+     *
      * Exemplos:
      * GET /desastres
      * GET /desastres?nome=fogo
      * GET /desastres?localizacao=rio&inicio=2025-06-01&fim=2025-06-10
+     * GET /desastres?size=100&cursor=AZeIhX3rcq-Bx2m0kTQZ0w
      */
+    @PostMapping("/batch")
+    @Operation(summary = "Obter vários desastres pelos IDs, na ordem pedida")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Desastres encontrados e IDs inexistentes"),
+            @ApiResponse(responseCode = "400", description = "Lista de IDs vazia ou acima de " + BatchRequestDto.MAX_IDS)
+    })
+    public ResponseEntity<BatchResultDto<DesastreDto>> getByIds(@Valid @RequestBody BatchRequestDto dto) {
+        UUID[] ids = LoteIds.distintos(dto.getIds());
+        return ResponseEntity.ok(LoteIds.toResult(ids, desastreService.getByIds(ids), Desastre::getId, DesastreController::toDto));
+    }
+
     @GetMapping
     @Operation(summary = "Listar desastres com filtros opcionais")
     @ApiResponse(responseCode = "200", description = "Lista de desastres retornada")
-    public ResponseEntity<List<DesastreDto>> getAll(
+    public ResponseEntity<CursorSliceDto<DesastreDto>> getAll(
             @RequestParam(value = "nome", required = false) String nome,
             @RequestParam(value = "localizacao", required = false) String localizacao,
             @RequestParam(value = "inicio", required = false)
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
             @RequestParam(value = "fim", required = false)
-            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size
     ) {
-        List<Desastre> entidades = desastreService.getByFilters(nome, localizacao, inicio, fim);
-
-        List<DesastreDto> dtos = entidades.stream()
-                .map(d -> DesastreDto.builder()
-                        .id(d.getId())
-                        .nome(d.getNome())
-                        .descricao(d.getDescricao())
-                        .localizacao(d.getLocalizacao())
-                        .dataDesastre(d.getDataDesastre())
-                        .build()
-                )
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(dtos);
+        Slice<Desastre> pagina = desastreService.getByFilters(
+                nome, localizacao, inicio, fim,
+                KeysetCursor.decodeId(cursor), KeysetCursor.pageRequest(size, "id"));
+
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, DesastreController::toDto, d -> KeysetCursor.encode(d.getId())));
     }
 
     @PutMapping("/{id}")
@@ -153,6 +185,20 @@ public class DesastreController {
         return ResponseEntity.ok(resposta);
     }
 
+    @PatchMapping("/{id}")
+    @Operation(summary = "Alterar campos de um desastre (campos ausentes ficam como estão)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Desastre alterado"),
+            @ApiResponse(responseCode = "404", description = "Desastre não encontrado"),
+            @ApiResponse(responseCode = "400", description = "Requisição inválida")
+    })
+    public ResponseEntity<Void> patch(@PathVariable UUID id, @Valid @RequestBody DesastrePatchDto dto) {
+        if (!desastreService.atualizarParcial(id, dto)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Remover um desastre pelo ID")
     @ApiResponses({
@@ -171,55 +217,39 @@ public class DesastreController {
     @GetMapping("/search/nome")
     @Operation(summary = "Buscar desastres por nome (parcial, case‐insensitive)")
     @ApiResponse(responseCode = "200", description = "Desastres retornados")
-    public ResponseEntity<List<DesastreDto>> findByNome(@RequestParam String nome) {
-        List<DesastreDto> lista = desastreService.findByNome(nome).stream()
-                .map(d -> DesastreDto.builder()
-                        .id(d.getId())
-                        .nome(d.getNome())
-                        .descricao(d.getDescricao())
-                        .localizacao(d.getLocalizacao())
-                        .dataDesastre(d.getDataDesastre())
-                        .build()
-                )
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<CursorSliceDto<DesastreDto>> findByNome(
+            @RequestParam String nome,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        Slice<Desastre> pagina = desastreService.findByNome(
+                nome, KeysetCursor.decodeId(cursor), KeysetCursor.pageRequest(size, "id"));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, DesastreController::toDto, d -> KeysetCursor.encode(d.getId())));
     }
 
     @GetMapping("/search/datarange")
     @Operation(summary = "Buscar desastres em um intervalo de datas")
     @ApiResponse(responseCode = "200", description = "Desastres retornados")
-    public ResponseEntity<List<DesastreDto>> findByDataRange(
+    public ResponseEntity<CursorSliceDto<DesastreDto>> findByDataRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim) {
-
-        List<DesastreDto> lista = desastreService.findByDataRange(inicio, fim).stream()
-                .map(d -> DesastreDto.builder()
-                        .id(d.getId())
-                        .nome(d.getNome())
-                        .descricao(d.getDescricao())
-                        .localizacao(d.getLocalizacao())
-                        .dataDesastre(d.getDataDesastre())
-                        .build()
-                )
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lista);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+
+        Slice<Desastre> pagina = desastreService.findByDataRange(
+                inicio, fim, KeysetCursor.decodeId(cursor), KeysetCursor.pageRequest(size, "id"));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, DesastreController::toDto, d -> KeysetCursor.encode(d.getId())));
     }
 
     @GetMapping("/search/localizacao")
     @Operation(summary = "Buscar desastres por localização (parcial, case‐insensitive)")
     @ApiResponse(responseCode = "200", description = "Desastres retornados")
-    public ResponseEntity<List<DesastreDto>> findByLocalizacao(@RequestParam String localizacao) {
-        List<DesastreDto> lista = desastreService.findByLocalizacao(localizacao).stream()
-                .map(d -> DesastreDto.builder()
-                        .id(d.getId())
-                        .nome(d.getNome())
-                        .descricao(d.getDescricao())
-                        .localizacao(d.getLocalizacao())
-                        .dataDesastre(d.getDataDesastre())
-                        .build()
-                )
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<CursorSliceDto<DesastreDto>> findByLocalizacao(
+            @RequestParam String localizacao,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        Slice<Desastre> pagina = desastreService.findByLocalizacao(
+                localizacao, KeysetCursor.decodeId(cursor), KeysetCursor.pageRequest(size, "id"));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, DesastreController::toDto, d -> KeysetCursor.encode(d.getId())));
     }
 
     @GetMapping("/count/apos")
@@ -230,4 +260,26 @@ public class DesastreController {
         long total = desastreService.countAfterDate(dataReferencia);
         return ResponseEntity.ok(total);
     }
+
+    @GetMapping("/search/similar")
+    @Operation(summary = "Buscar desastres por nome aproximado, ordenados por similaridade")
+    @ApiResponse(responseCode = "200", description = "Desastres retornados")
+    public ResponseEntity<List<DesastreDto>> findSimilarByNome(
+            @RequestParam String termo,
+            @RequestParam(value = "limite", defaultValue = "20") int limite) {
+        List<DesastreDto> lista = desastreService.findSimilarByNome(termo, limite).stream()
+                .map(DesastreController::toDto)
+                .toList();
+        return ResponseEntity.ok(lista);
+    }
+
+    static DesastreDto toDto(Desastre d) {
+        return DesastreDto.builder()
+                .id(d.getId())
+                .nome(d.getNome())
+                .descricao(d.getDescricao())
+                .localizacao(d.getLocalizacao())
+                .dataDesastre(d.getDataDesastre())
+                .build();
+    }
 }
@@ -1,11 +1,19 @@
 package br.org.fiap.safepulse.controllers;
 
+import br.org.fiap.safepulse.domain.dtos.CursorSliceDto;
 import br.org.fiap.safepulse.domain.dtos.DoacaoCreateDto;
+import br.org.fiap.safepulse.domain.dtos.DoacaoDetalheDto;
+import br.org.fiap.safepulse.domain.dtos.DoacaoDetalheItemDto;
+import br.org.fiap.safepulse.domain.dtos.DoacaoDetalheProdutoDto;
 import br.org.fiap.safepulse.domain.dtos.DoacaoDto;
+import br.org.fiap.safepulse.domain.dtos.DoacaoPatchDto;
+import br.org.fiap.safepulse.domain.dtos.DoacaoTransicaoStatusDto;
+import br.org.fiap.safepulse.domain.dtos.DoacaoTransicaoStatusProgressoDto;
 import br.org.fiap.safepulse.domain.entities.Doacao;
-import br.org.fiap.safepulse.domain.entities.Desastre;
-import br.org.fiap.safepulse.domain.entities.Beneficiario;
+import br.org.fiap.safepulse.infra.eventos.DoacaoEventosHub;
+import br.org.fiap.safepulse.infra.pagination.KeysetCursor;
 import br.org.fiap.safepulse.services.DoacaoService;
+import br.org.fiap.safepulse.services.DoacaoTransicaoStatusService;
 import br.org.fiap.safepulse.services.DesastreService;
 import br.org.fiap.safepulse.services.BeneficiarioService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,14 +22,18 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/doacoes")
@@ -31,15 +43,21 @@ public class DoacaoController {
     private final DoacaoService doacaoService;
     private final DesastreService desastreService;
     private final BeneficiarioService beneficiarioService;
+    private final DoacaoEventosHub doacaoEventosHub;
+    private final DoacaoTransicaoStatusService doacaoTransicaoStatusService;
 
     public DoacaoController(
             DoacaoService doacaoService,
             DesastreService desastreService,
-            BeneficiarioService beneficiarioService
+            BeneficiarioService beneficiarioService,
+            DoacaoEventosHub doacaoEventosHub,
+            DoacaoTransicaoStatusService doacaoTransicaoStatusService
     ) {
         this.doacaoService = doacaoService;
         this.desastreService = desastreService;
         this.beneficiarioService = beneficiarioService;
+        this.doacaoEventosHub = doacaoEventosHub;
+        this.doacaoTransicaoStatusService = doacaoTransicaoStatusService;
     }
 
     @PostMapping
@@ -49,16 +67,15 @@ public class DoacaoController {
             @ApiResponse(responseCode = "400", description = "Requisição inválida")
     })
     public ResponseEntity<DoacaoDto> create(@Valid @RequestBody DoacaoCreateDto dto) {
-        // Verifica existência de Desastre e Beneficiário
-        Optional<Desastre> optD = desastreService.getById(dto.getDesastreId());
-        Optional<Beneficiario> optB = beneficiarioService.getById(dto.getBeneficiarioId());
-        if (optD.isEmpty() || optB.isEmpty()) {
+        // Verifica existência de Desastre e Beneficiário (cacheada)
+        if (!desastreService.existsById(dto.getDesastreId())
+                || !beneficiarioService.existsById(dto.getBeneficiarioId())) {
             return ResponseEntity.badRequest().build();
         }
 
         Doacao entidade = Doacao.builder()
-                .desastre(optD.get())
-                .beneficiario(optB.get())
+                .desastre(desastreService.getReference(dto.getDesastreId()))
+                .beneficiario(beneficiarioService.getReference(dto.getBeneficiarioId()))
                 .status(dto.getStatus())
                 .build();
 
@@ -74,6 +91,34 @@ public class DoacaoController {
         return ResponseEntity.status(201).body(resposta);
     }
 
+    /**
+     * Stream SSE de criações e alterações de doações, em substituição ao polling das
+     * buscas por status. Os eventos se chamam CRIADA, ATUALIZADA, STATUS_ALTERADO e
+     * TRANSICAO_EM_LOTE e trazem um DoacaoEventoDto em JSON. TRANSICAO_EM_LOTE resume
+     * um lote da transição em massa, sem os IDs: quem o recebe recarrega o que exibe
+     * pela API. Para retomar após uma queda, envie o último ID
+     * recebido no cabeçalho Last-Event-ID (o EventSource do navegador faz isso sozinho)
+     * ou no parâmetro "lastEventId". Um evento "reset" indica que parte dos eventos se
+     * perdeu e o estado deve ser recarregado pela API.
+     *
+     * Exemplos:
+     * GET /api/doacoes/stream?desastreId=...
+     * GET /api/doacoes/stream?beneficiarioId=...&lastEventId=m2x1k9-42
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Acompanhar alterações de doações em tempo real (Server-Sent Events)")
+    @ApiResponse(responseCode = "200", description = "Stream de eventos aberto")
+    public ResponseEntity<SseEmitter> stream(
+            @RequestParam(value = "desastreId", required = false) UUID desastreId,
+            @RequestParam(value = "beneficiarioId", required = false) UUID beneficiarioId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(value = "lastEventId", required = false) String lastEventId) {
+        String ultimo = lastEventIdHeader != null ? lastEventIdHeader : lastEventId;
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(doacaoEventosHub.assinar(desastreId, beneficiarioId, ultimo));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Obter uma doação pelo ID")
     @ApiResponses({
@@ -95,20 +140,52 @@ public class DoacaoController {
         return ResponseEntity.ok(dto);
     }
 
+    @GetMapping("/{id}/detail")
+    @Operation(summary = "Obter a doação com desastre, beneficiário, doadores, produtos e itens")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Detalhe da doação retornado"),
+            @ApiResponse(responseCode = "404", description = "Doação não encontrada")
+    })
+    public ResponseEntity<DoacaoDetalheDto> getDetalhe(@PathVariable UUID id) {
+        Optional<DoacaoService.Detalhe> opt = doacaoService.getDetalhe(id);
+        if (opt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        DoacaoService.Detalhe detalhe = opt.get();
+        Doacao d = detalhe.doacao();
+        DoacaoDetalheDto dto = DoacaoDetalheDto.builder()
+                .id(d.getId())
+                .status(d.getStatus())
+                .desastre(DesastreController.toDto(d.getDesastre()))
+                .beneficiario(BeneficiarioController.toDto(d.getBeneficiario()))
+                .doadores(detalhe.doadores().stream()
+                        .map(dd -> DoadorController.toDto(dd.getDoador()))
+                        .toList())
+                .produtos(detalhe.produtos().stream()
+                        .map(dp -> DoacaoDetalheProdutoDto.builder()
+                                .produto(ProdutoController.toDto(dp.getProduto()))
+                                .quantidade(dp.getQuantidade())
+                                .build())
+                        .toList())
+                .itens(detalhe.itens().stream()
+                        .map(ddp -> DoacaoDetalheItemDto.builder()
+                                .doador(DoadorController.toDto(ddp.getDoador()))
+                                .produto(ProdutoController.toDto(ddp.getProduto()))
+                                .quantidade(ddp.getQuantidade())
+                                .build())
+                        .toList())
+                .build();
+        return ResponseEntity.ok(dto);
+    }
+
     @GetMapping
     @Operation(summary = "Listar todas as doações")
     @ApiResponse(responseCode = "200", description = "Lista de doações retornada")
-    public ResponseEntity<List<DoacaoDto>> getAll() {
-        List<DoacaoDto> lista = doacaoService.getAll().stream()
-                .map(d -> DoacaoDto.builder()
-                        .id(d.getId())
-                        .desastreId(d.getDesastre().getId())
-                        .beneficiarioId(d.getBeneficiario().getId())
-                        .status(d.getStatus())
-                        .build()
-                )
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<CursorSliceDto<DoacaoDto>> getAll(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        Slice<Doacao> pagina = doacaoService.getAll(KeysetCursor.decodeId(cursor), KeysetCursor.pageRequest(size, "id"));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, DoacaoController::toDto, d -> KeysetCursor.encode(d.getId())));
     }
 
     @PutMapping("/{id}")
@@ -122,22 +199,20 @@ public class DoacaoController {
             @PathVariable UUID id,
             @Valid @RequestBody DoacaoCreateDto dto) {
 
-        Optional<Doacao> existente = doacaoService.getById(id);
-        if (existente.isEmpty()) {
+        if (!doacaoService.existsById(id)) {
             return ResponseEntity.notFound().build();
         }
 
-        // Verifica existência de Desastre e Beneficiário
-        Optional<Desastre> optD = desastreService.getById(dto.getDesastreId());
-        Optional<Beneficiario> optB = beneficiarioService.getById(dto.getBeneficiarioId());
-        if (optD.isEmpty() || optB.isEmpty()) {
+        // Verifica existência de Desastre e Beneficiário (cacheada)
+        if (!desastreService.existsById(dto.getDesastreId())
+                || !beneficiarioService.existsById(dto.getBeneficiarioId())) {
             return ResponseEntity.badRequest().build();
         }
 
         Doacao entidade = Doacao.builder()
                 .id(id)
-                .desastre(optD.get())
-                .beneficiario(optB.get())
+                .desastre(desastreService.getReference(dto.getDesastreId()))
+                .beneficiario(beneficiarioService.getReference(dto.getBeneficiarioId()))
                 .status(dto.getStatus())
                 .build();
 
@@ -153,6 +228,67 @@ public class DoacaoController {
         return ResponseEntity.ok(resposta);
     }
 
+    @PatchMapping("/{id}")
+    @Operation(summary = "Alterar campos de uma doação (campos ausentes ficam como estão)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Doação alterada"),
+            @ApiResponse(responseCode = "404", description = "Doação não encontrada"),
+            @ApiResponse(responseCode = "400", description = "Requisição inválida")
+    })
+    public ResponseEntity<DoacaoDto> patch(@PathVariable UUID id, @Valid @RequestBody DoacaoPatchDto dto) {
+        // só as referências informadas são verificadas (cacheado)
+        if ((dto.getDesastreId() != null && !desastreService.existsById(dto.getDesastreId()))
+                || (dto.getBeneficiarioId() != null && !beneficiarioService.existsById(dto.getBeneficiarioId()))) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return doacaoService.atualizarParcial(id, dto)
+                .map(atualizada -> ResponseEntity.ok(toDto(atualizada)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Muda o status de muitas doações de uma vez, em lotes e em segundo plano. Responde
+     * 202 com o andamento inicial; acompanhe pelo endpoint indicado em Location. O
+     * andamento fica só na memória da instância que recebeu o pedido: em outra
+     * instância, ou depois de um reinício, o acompanhamento responde 404, e os lotes
+     * já confirmados continuam valendo (repetir o pedido conclui o restante).
+     *
+     * Exemplo: {"desastreId": "...", "statusAtual": "EM_TRANSITO", "statusNovo": "ENTREGUE"}
+     */
+    @PostMapping("/status-transitions")
+    @Operation(summary = "Mudar o status de doações em massa (desastre, status atual e/ou lista de IDs)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Transição iniciada; o andamento (Location) só "
+                    + "existe na instância que recebeu o pedido e não sobrevive a um reinício"),
+            @ApiResponse(responseCode = "400", description = "Requisição inválida ou sem filtro")
+    })
+    public ResponseEntity<DoacaoTransicaoStatusProgressoDto> transicionarStatus(
+            @Valid @RequestBody DoacaoTransicaoStatusDto dto) {
+        boolean semFiltro = dto.getDesastreId() == null && dto.getStatusAtual() == null
+                && (dto.getIds() == null || dto.getIds().isEmpty());
+        if (semFiltro || dto.getStatusNovo().equals(dto.getStatusAtual())) {
+            return ResponseEntity.badRequest().build();
+        }
+        DoacaoTransicaoStatusProgressoDto progresso = doacaoTransicaoStatusService.iniciar(dto);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/doacoes/status-transitions/" + progresso.getId()))
+                .body(progresso);
+    }
+
+    @GetMapping("/status-transitions/{id}")
+    @Operation(summary = "Acompanhar uma transição de status em massa")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Andamento retornado"),
+            @ApiResponse(responseCode = "404", description = "Transição não encontrada nesta instância "
+                    + "(pedida a outra instância, antes de um reinício ou já fora do histórico)")
+    })
+    public ResponseEntity<DoacaoTransicaoStatusProgressoDto> getTransicaoStatus(@PathVariable UUID id) {
+        return doacaoTransicaoStatusService.getProgresso(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Remover uma doação pelo ID")
     @ApiResponses({
@@ -171,85 +307,58 @@ public class DoacaoController {
     @GetMapping("/search/desastre/{desastreId}")
     @Operation(summary = "Listar doações por ID de desastre")
     @ApiResponse(responseCode = "200", description = "Doações retornadas")
-    public ResponseEntity<List<DoacaoDto>> findByDesastreId(@PathVariable UUID desastreId) {
-        List<DoacaoDto> lista = doacaoService.findByDesastreId(desastreId).stream()
-                .map(d -> DoacaoDto.builder()
-                        .id(d.getId())
-                        .desastreId(d.getDesastre().getId())
-                        .beneficiarioId(d.getBeneficiario().getId())
-                        .status(d.getStatus())
-                        .build()
-                )
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<CursorSliceDto<DoacaoDto>> findByDesastreId(
+            @PathVariable UUID desastreId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        Slice<Doacao> pagina = doacaoService.findByDesastreId(desastreId, KeysetCursor.decodeId(cursor), KeysetCursor.pageRequest(size, "id"));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, DoacaoController::toDto, d -> KeysetCursor.encode(d.getId())));
     }
 
     @GetMapping("/search/beneficiario/{beneficiarioId}")
     @Operation(summary = "Listar doações por ID de beneficiário")
     @ApiResponse(responseCode = "200", description = "Doações retornadas")
-    public ResponseEntity<List<DoacaoDto>> findByBeneficiarioId(@PathVariable UUID beneficiarioId) {
-        List<DoacaoDto> lista = doacaoService.findByBeneficiarioId(beneficiarioId).stream()
-                .map(d -> DoacaoDto.builder()
-                        .id(d.getId())
-                        .desastreId(d.getDesastre().getId())
-                        .beneficiarioId(d.getBeneficiario().getId())
-                        .status(d.getStatus())
-                        .build()
-                )
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<CursorSliceDto<DoacaoDto>> findByBeneficiarioId(
+            @PathVariable UUID beneficiarioId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        Slice<Doacao> pagina = doacaoService.findByBeneficiarioId(beneficiarioId, KeysetCursor.decodeId(cursor), KeysetCursor.pageRequest(size, "id"));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, DoacaoController::toDto, d -> KeysetCursor.encode(d.getId())));
     }
 
     @GetMapping("/search/status")
     @Operation(summary = "Listar doações por status")
     @ApiResponse(responseCode = "200", description = "Doações retornadas")
-    public ResponseEntity<List<DoacaoDto>> findByStatus(@RequestParam String status) {
-        List<DoacaoDto> lista = doacaoService.findByStatus(status).stream()
-                .map(d -> DoacaoDto.builder()
-                        .id(d.getId())
-                        .desastreId(d.getDesastre().getId())
-                        .beneficiarioId(d.getBeneficiario().getId())
-                        .status(d.getStatus())
-                        .build()
-                )
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<CursorSliceDto<DoacaoDto>> findByStatus(
+            @RequestParam String status,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        Slice<Doacao> pagina = doacaoService.findByStatus(status, KeysetCursor.decodeId(cursor), KeysetCursor.pageRequest(size, "id"));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, DoacaoController::toDto, d -> KeysetCursor.encode(d.getId())));
     }
 
     @GetMapping("/search/desastre/{desastreId}/status")
     @Operation(summary = "Listar doações por ID de desastre e status")
     @ApiResponse(responseCode = "200", description = "Doações retornadas")
-    public ResponseEntity<List<DoacaoDto>> findByDesastreIdAndStatus(
+    public ResponseEntity<CursorSliceDto<DoacaoDto>> findByDesastreIdAndStatus(
             @PathVariable UUID desastreId,
-            @RequestParam String status) {
-        List<DoacaoDto> lista = doacaoService.findByDesastreIdAndStatus(desastreId, status).stream()
-                .map(d -> DoacaoDto.builder()
-                        .id(d.getId())
-                        .desastreId(d.getDesastre().getId())
-                        .beneficiarioId(d.getBeneficiario().getId())
-                        .status(d.getStatus())
-                        .build()
-                )
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lista);
+            @RequestParam String status,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        Slice<Doacao> pagina = doacaoService.findByDesastreIdAndStatus(desastreId, status, KeysetCursor.decodeId(cursor), KeysetCursor.pageRequest(size, "id"));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, DoacaoController::toDto, d -> KeysetCursor.encode(d.getId())));
     }
 
     @GetMapping("/search/beneficiario/{beneficiarioId}/status")
     @Operation(summary = "Listar doações por ID de beneficiário e status")
     @ApiResponse(responseCode = "200", description = "Doações retornadas")
-    public ResponseEntity<List<DoacaoDto>> findByBeneficiarioIdAndStatus(
+    public ResponseEntity<CursorSliceDto<DoacaoDto>> findByBeneficiarioIdAndStatus(
             @PathVariable UUID beneficiarioId,
-            @RequestParam String status) {
-        List<DoacaoDto> lista = doacaoService.findByBeneficiarioIdAndStatus(beneficiarioId, status).stream()
-                .map(d -> DoacaoDto.builder()
-                        .id(d.getId())
-                        .desastreId(d.getDesastre().getId())
-                        .beneficiarioId(d.getBeneficiario().getId())
-                        .status(d.getStatus())
-                        .build()
-                )
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lista);
+            @RequestParam String status,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        Slice<Doacao> pagina = doacaoService.findByBeneficiarioIdAndStatus(beneficiarioId, status, KeysetCursor.decodeId(cursor), KeysetCursor.pageRequest(size, "id"));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, DoacaoController::toDto, d -> KeysetCursor.encode(d.getId())));
     }
 
     @GetMapping("/count/status")
@@ -263,10 +372,22 @@ public class DoacaoController {
     @GetMapping("/ids/beneficiario/{beneficiarioId}/apos")
     @Operation(summary = "Listar IDs de doações de um beneficiário após uma data de desastre")
     @ApiResponse(responseCode = "200", description = "IDs retornados")
-    public ResponseEntity<List<UUID>> findIdsByBeneficiarioIdAndDataDesastreAfter(
+    public ResponseEntity<CursorSliceDto<UUID>> findIdsByBeneficiarioIdAndDataDesastreAfter(
             @PathVariable UUID beneficiarioId,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataReferencia) {
-        List<UUID> ids = doacaoService.findIdsByBeneficiarioIdAndDataDesastreAfter(beneficiarioId, dataReferencia);
-        return ResponseEntity.ok(ids);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataReferencia,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        Slice<UUID> pagina = doacaoService.findIdsByBeneficiarioIdAndDataDesastreAfter(
+                beneficiarioId, dataReferencia, KeysetCursor.decodeId(cursor), KeysetCursor.pageRequest(size, "id"));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, Function.identity(), id -> KeysetCursor.encode(id)));
+    }
+
+    static DoacaoDto toDto(Doacao d) {
+        return DoacaoDto.builder()
+                .id(d.getId())
+                .desastreId(d.getDesastre().getId())
+                .beneficiarioId(d.getBeneficiario().getId())
+                .status(d.getStatus())
+                .build();
     }
 }
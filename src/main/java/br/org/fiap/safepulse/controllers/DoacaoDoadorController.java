@@ -1,11 +1,11 @@
 package br.org.fiap.safepulse.controllers;
 
+import br.org.fiap.safepulse.domain.dtos.CursorSliceDto;
 import br.org.fiap.safepulse.domain.dtos.DoacaoDoadorCreateDto;
 import br.org.fiap.safepulse.domain.dtos.DoacaoDoadorDto;
 import br.org.fiap.safepulse.domain.entities.DoacaoDoador;
 import br.org.fiap.safepulse.domain.entities.DoacaoDoadorId;
-import br.org.fiap.safepulse.domain.entities.Doacao;
-import br.org.fiap.safepulse.domain.entities.Doador;
+import br.org.fiap.safepulse.infra.pagination.KeysetCursor;
 import br.org.fiap.safepulse.services.DoacaoDoadorService;
 import br.org.fiap.safepulse.services.DoacaoService;
 import br.org.fiap.safepulse.services.DoadorService;
@@ -14,19 +14,22 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/doacoes-doadores")
 @Tag(name = "DoacaoDoador", description = "Operações relacionadas a Doação↔Doador")
 public class DoacaoDoadorController {
 
+    /** Chave de ordenação da paginação por cursor: a própria chave primária composta. */
+    private static final String[] CHAVE = {"id.doacaoId", "id.doadorId"};
+
     private final DoacaoDoadorService doacaoDoadorService;
     private final DoacaoService doacaoService;
     private final DoadorService doadorService;
@@ -48,15 +51,14 @@ public class DoacaoDoadorController {
             @ApiResponse(responseCode = "400", description = "Requisição inválida")
     })
     public ResponseEntity<DoacaoDoadorDto> create(@Valid @RequestBody DoacaoDoadorCreateDto dto) {
-        Optional<Doacao> optDo = doacaoService.getById(dto.getDoacaoId());
-        Optional<Doador> optDr = doadorService.getById(dto.getDoadorId());
-        if (optDo.isEmpty() || optDr.isEmpty()) {
+        if (!doacaoService.existsById(dto.getDoacaoId())
+                || !doadorService.existsById(dto.getDoadorId())) {
             return ResponseEntity.badRequest().build();
         }
 
         DoacaoDoador entidade = DoacaoDoador.builder()
-                .doacao(optDo.get())
-                .doador(optDr.get())
+                .doacao(doacaoService.getReference(dto.getDoacaoId()))
+                .doador(doadorService.getReference(dto.getDoadorId()))
                 .build();
 
         DoacaoDoador salvo = doacaoDoadorService.create(entidade);
@@ -83,27 +85,18 @@ public class DoacaoDoadorController {
         if (opt.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
-        DoacaoDoador d = opt.get();
-        DoacaoDoadorDto dto = DoacaoDoadorDto.builder()
-                .doacaoId(d.getDoacao().getId())
-                .doadorId(d.getDoador().getId())
-                .build();
-
-        return ResponseEntity.ok(dto);
+        return ResponseEntity.ok(toDto(opt.get()));
     }
 
     @GetMapping
     @Operation(summary = "Listar todas as associações Doação↔Doador")
     @ApiResponse(responseCode = "200", description = "Lista retornada")
-    public ResponseEntity<List<DoacaoDoadorDto>> getAll() {
-        List<DoacaoDoadorDto> lista = doacaoDoadorService.getAll().stream()
-                .map(d -> DoacaoDoadorDto.builder()
-                        .doacaoId(d.getDoacao().getId())
-                        .doadorId(d.getDoador().getId())
-                        .build()
-                )
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<CursorSliceDto<DoacaoDoadorDto>> getAll(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        Slice<DoacaoDoadorDto> pagina = doacaoDoadorService.getAll(
+                decodeCursor(cursor), KeysetCursor.pageRequest(size, CHAVE));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, Function.identity(), DoacaoDoadorController::encodeCursor));
     }
 
     @DeleteMapping("/{doacaoId}/{doadorId}")
@@ -127,28 +120,42 @@ public class DoacaoDoadorController {
     @GetMapping("/search/doacao/{doacaoId}")
     @Operation(summary = "Buscar associações por ID de doação")
     @ApiResponse(responseCode = "200", description = "Associações retornadas")
-    public ResponseEntity<List<DoacaoDoadorDto>> findByDoacaoId(@PathVariable UUID doacaoId) {
-        List<DoacaoDoadorDto> lista = doacaoDoadorService.findByDoacaoId(doacaoId).stream()
-                .map(d -> DoacaoDoadorDto.builder()
-                        .doacaoId(d.getDoacao().getId())
-                        .doadorId(d.getDoador().getId())
-                        .build()
-                )
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<CursorSliceDto<DoacaoDoadorDto>> findByDoacaoId(
+            @PathVariable UUID doacaoId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        Slice<DoacaoDoadorDto> pagina = doacaoDoadorService.findByDoacaoId(
+                doacaoId, decodeCursor(cursor), KeysetCursor.pageRequest(size, CHAVE));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, Function.identity(), DoacaoDoadorController::encodeCursor));
     }
 
     @GetMapping("/search/doador/{doadorId}")
     @Operation(summary = "Buscar associações por ID de doador")
     @ApiResponse(responseCode = "200", description = "Associações retornadas")
-    public ResponseEntity<List<DoacaoDoadorDto>> findByDoadorId(@PathVariable UUID doadorId) {
-        List<DoacaoDoadorDto> lista = doacaoDoadorService.findByDoadorId(doadorId).stream()
-                .map(d -> DoacaoDoadorDto.builder()
-                        .doacaoId(d.getDoacao().getId())
-                        .doadorId(d.getDoador().getId())
-                        .build()
-                )
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<CursorSliceDto<DoacaoDoadorDto>> findByDoadorId(
+            @PathVariable UUID doadorId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        Slice<DoacaoDoadorDto> pagina = doacaoDoadorService.findByDoadorId(
+                doadorId, decodeCursor(cursor), KeysetCursor.pageRequest(size, CHAVE));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, Function.identity(), DoacaoDoadorController::encodeCursor));
+    }
+
+    static DoacaoDoadorDto toDto(DoacaoDoador d) {
+        return DoacaoDoadorDto.builder()
+                .doacaoId(d.getId().getDoacaoId())
+                .doadorId(d.getId().getDoadorId())
+                .build();
+    }
+
+    private static DoacaoDoadorId decodeCursor(String cursor) {
+        UUID[] chave = KeysetCursor.decode(cursor, 2);
+        return new DoacaoDoadorId(chave[0], chave[1]);
+    }
+
+    private static String encodeCursor(DoacaoDoadorDto d) {
+        return KeysetCursor.encode(
+                d.getDoacaoId(),
+                d.getDoadorId());
     }
 }
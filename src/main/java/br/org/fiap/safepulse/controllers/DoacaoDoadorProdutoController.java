@@ -1,49 +1,77 @@
 package br.org.fiap.safepulse.controllers;
 
+import br.org.fiap.safepulse.domain.dtos.BulkItemResultDto;
+import br.org.fiap.safepulse.domain.dtos.BulkResultDto;
+import br.org.fiap.safepulse.domain.dtos.CursorSliceDto;
 import br.org.fiap.safepulse.domain.dtos.DoacaoDoadorProdutoCreateDto;
 import br.org.fiap.safepulse.domain.dtos.DoacaoDoadorProdutoDto;
 import br.org.fiap.safepulse.domain.entities.DoacaoDoadorProduto;
 import br.org.fiap.safepulse.domain.entities.DoacaoDoadorProdutoId;
-import br.org.fiap.safepulse.domain.entities.Doacao;
-import br.org.fiap.safepulse.domain.entities.Doador;
-import br.org.fiap.safepulse.domain.entities.Produto;
+import br.org.fiap.safepulse.infra.export.ExportFormat;
+import br.org.fiap.safepulse.infra.export.RowExportWriter;
+import br.org.fiap.safepulse.infra.pagination.KeysetCursor;
 import br.org.fiap.safepulse.services.DoacaoDoadorProdutoService;
 import br.org.fiap.safepulse.services.DoacaoService;
 import br.org.fiap.safepulse.services.DoadorService;
 import br.org.fiap.safepulse.services.ProdutoService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/doacoes-doadores-produtos")
 @Tag(name = "DoacaoDoadorProduto", description = "Operações relacionadas a Doação↔Doador↔Produto")
 public class DoacaoDoadorProdutoController {
 
+    /** Chave de ordenação da paginação por cursor: a própria chave primária composta. */
+    private static final String[] CHAVE = {"id.doacaoId", "id.doadorId", "id.produtoId"};
+
+    /** Maior lote aceito em /bulk; acima disso o cliente deve dividir o envio. */
+    private static final int MAX_ITENS_LOTE = 10_000;
+
+    private static final String NDJSON = "application/x-ndjson";
+
     private final DoacaoDoadorProdutoService doacaoDoadorProdutoService;
     private final DoacaoService doacaoService;
     private final DoadorService doadorService;
     private final ProdutoService produtoService;
+    private final ObjectMapper objectMapper;
 
     public DoacaoDoadorProdutoController(
             DoacaoDoadorProdutoService doacaoDoadorProdutoService,
             DoacaoService doacaoService,
             DoadorService doadorService,
-            ProdutoService produtoService
+            ProdutoService produtoService,
+            ObjectMapper objectMapper
     ) {
         this.doacaoDoadorProdutoService = doacaoDoadorProdutoService;
         this.doacaoService = doacaoService;
         this.doadorService = doadorService;
         this.produtoService = produtoService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -55,17 +83,16 @@ public class DoacaoDoadorProdutoController {
     public ResponseEntity<DoacaoDoadorProdutoDto> create(
             @Valid @RequestBody DoacaoDoadorProdutoCreateDto dto) {
 
-        Optional<Doacao> optDo = doacaoService.getById(dto.getDoacaoId());
-        Optional<Doador> optDr = doadorService.getById(dto.getDoadorId());
-        Optional<Produto> optPr = produtoService.getById(dto.getProdutoId());
-        if (optDo.isEmpty() || optDr.isEmpty() || optPr.isEmpty()) {
+        if (!doacaoService.existsById(dto.getDoacaoId())
+                || !doadorService.existsById(dto.getDoadorId())
+                || !produtoService.existsById(dto.getProdutoId())) {
             return ResponseEntity.badRequest().build();
         }
 
         DoacaoDoadorProduto entidade = DoacaoDoadorProduto.builder()
-                .doacao(optDo.get())
-                .doador(optDr.get())
-                .produto(optPr.get())
+                .doacao(doacaoService.getReference(dto.getDoacaoId()))
+                .doador(doadorService.getReference(dto.getDoadorId()))
+                .produto(produtoService.getReference(dto.getProdutoId()))
                 .quantidade(dto.getQuantidade())
                 .build();
 
@@ -81,6 +108,66 @@ public class DoacaoDoadorProdutoController {
         return ResponseEntity.status(201).body(resposta);
     }
 
+    @PostMapping("/increment")
+    @Operation(summary = "Somar quantidade a uma associação Doação↔Doador↔Produto, criando-a se não existir")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Quantidade resultante retornada"),
+            @ApiResponse(responseCode = "400", description = "Requisição inválida")
+    })
+    public ResponseEntity<DoacaoDoadorProdutoDto> incrementar(
+            @Valid @RequestBody DoacaoDoadorProdutoCreateDto dto) {
+
+        if (!doacaoService.existsById(dto.getDoacaoId())
+                || !doadorService.existsById(dto.getDoadorId())
+                || !produtoService.existsById(dto.getProdutoId())) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        DoacaoDoadorProdutoId id = new DoacaoDoadorProdutoId(dto.getDoacaoId(), dto.getDoadorId(), dto.getProdutoId());
+        return ResponseEntity.ok(doacaoDoadorProdutoService.incrementar(id, dto.getQuantidade()));
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Criar associações Doação↔Doador↔Produto em lote (array JSON)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Lote processado; resultado por item"),
+            @ApiResponse(responseCode = "413", description = "Lote acima do tamanho máximo")
+    })
+    public ResponseEntity<BulkResultDto> createBulk(
+            @RequestBody List<DoacaoDoadorProdutoCreateDto> itens) {
+        return processarLote(itens);
+    }
+
+    @PostMapping(value = "/bulk", consumes = NDJSON)
+    @Operation(summary = "Criar associações Doação↔Doador↔Produto em lote (NDJSON, um item por linha)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Lote processado; resultado por item"),
+            @ApiResponse(responseCode = "413", description = "Lote acima do tamanho máximo")
+    })
+    public ResponseEntity<BulkResultDto> createBulkNdjson(InputStream corpo) throws IOException {
+        ObjectReader leitor = objectMapper.readerFor(DoacaoDoadorProdutoCreateDto.class);
+        List<DoacaoDoadorProdutoCreateDto> itens = new ArrayList<>();
+
+        try (BufferedReader linhas = new BufferedReader(new InputStreamReader(corpo, StandardCharsets.UTF_8))) {
+            String linha;
+            while ((linha = linhas.readLine()) != null) {
+                if (linha.isBlank()) {
+                    continue;
+                }
+                if (itens.size() == MAX_ITENS_LOTE) {
+                    return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+                }
+                try {
+                    itens.add(leitor.readValue(linha));
+                } catch (JsonProcessingException e) {
+                    // linha ilegível: vira um item INVALIDO sem derrubar o lote
+                    itens.add(null);
+                }
+            }
+        }
+        return processarLote(itens);
+    }
+
     @GetMapping("/{doacaoId}/{doadorId}/{produtoId}")
     @Operation(summary = "Obter associação Doação↔Doador↔Produto pelo ID composto")
     @ApiResponses({
@@ -96,31 +183,40 @@ public class DoacaoDoadorProdutoController {
         if (opt.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
-        DoacaoDoadorProduto d = opt.get();
-        DoacaoDoadorProdutoDto dto = DoacaoDoadorProdutoDto.builder()
-                .doacaoId(d.getDoacao().getId())
-                .doadorId(d.getDoador().getId())
-                .produtoId(d.getProduto().getId())
-                .quantidade(d.getQuantidade())
-                .build();
-
-        return ResponseEntity.ok(dto);
+        return ResponseEntity.ok(toDto(opt.get()));
     }
 
     @GetMapping
     @Operation(summary = "Listar todas as associações Doação↔Doador↔Produto")
     @ApiResponse(responseCode = "200", description = "Lista retornada")
-    public ResponseEntity<List<DoacaoDoadorProdutoDto>> getAll() {
-        List<DoacaoDoadorProdutoDto> lista = doacaoDoadorProdutoService.getAll().stream()
-                .map(d -> DoacaoDoadorProdutoDto.builder()
-                        .doacaoId(d.getDoacao().getId())
-                        .doadorId(d.getDoador().getId())
-                        .produtoId(d.getProduto().getId())
-                        .quantidade(d.getQuantidade())
-                        .build()
-                )
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<CursorSliceDto<DoacaoDoadorProdutoDto>> getAll(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        Slice<DoacaoDoadorProdutoDto> pagina = doacaoDoadorProdutoService.getAll(
+                decodeCursor(cursor), KeysetCursor.pageRequest(size, CHAVE));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, Function.identity(), DoacaoDoadorProdutoController::encodeCursor));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Exportar todas as associações Doação↔Doador↔Produto em streaming (NDJSON ou CSV)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Exportação transmitida"),
+            @ApiResponse(responseCode = "400", description = "Formato inválido")
+    })
+    public void export(
+            @RequestParam(value = "format", defaultValue = "ndjson") String format,
+            HttpServletResponse response) throws IOException {
+        ExportFormat formato = ExportFormat.from(format);
+        response.setContentType(formato.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"doacoes-doadores-produtos." + formato.getExtensao() + "\"");
+
+        try (RowExportWriter writer = RowExportWriter.open(
+                formato, response.getOutputStream(), objectMapper.getFactory(),
+                "doacaoId", "doadorId", "produtoId", "quantidade")) {
+            doacaoDoadorProdutoService.exportAll(d -> writer.writeRow(d.getDoacaoId(), d.getDoadorId(), d.getProdutoId(), d.getQuantidade()));
+        }
     }
 
     @DeleteMapping("/{doacaoId}/{doadorId}/{produtoId}")
@@ -145,66 +241,94 @@ public class DoacaoDoadorProdutoController {
     @GetMapping("/search/doacao/{doacaoId}")
     @Operation(summary = "Buscar associações por ID de doação")
     @ApiResponse(responseCode = "200", description = "Associações retornadas")
-    public ResponseEntity<List<DoacaoDoadorProdutoDto>> findByDoacaoId(@PathVariable UUID doacaoId) {
-        List<DoacaoDoadorProdutoDto> lista = doacaoDoadorProdutoService.findByDoacaoId(doacaoId).stream()
-                .map(d -> DoacaoDoadorProdutoDto.builder()
-                        .doacaoId(d.getDoacao().getId())
-                        .doadorId(d.getDoador().getId())
-                        .produtoId(d.getProduto().getId())
-                        .quantidade(d.getQuantidade())
-                        .build()
-                )
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<CursorSliceDto<DoacaoDoadorProdutoDto>> findByDoacaoId(
+            @PathVariable UUID doacaoId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        Slice<DoacaoDoadorProdutoDto> pagina = doacaoDoadorProdutoService.findByDoacaoId(
+                doacaoId, decodeCursor(cursor), KeysetCursor.pageRequest(size, CHAVE));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, Function.identity(), DoacaoDoadorProdutoController::encodeCursor));
     }
 
     @GetMapping("/search/doador/{doadorId}")
     @Operation(summary = "Buscar associações por ID de doador")
     @ApiResponse(responseCode = "200", description = "Associações retornadas")
-    public ResponseEntity<List<DoacaoDoadorProdutoDto>> findByDoadorId(@PathVariable UUID doadorId) {
-        List<DoacaoDoadorProdutoDto> lista = doacaoDoadorProdutoService.findByDoadorId(doadorId).stream()
-                .map(d -> DoacaoDoadorProdutoDto.builder()
-                        .doacaoId(d.getDoacao().getId())
-                        .doadorId(d.getDoador().getId())
-                        .produtoId(d.getProduto().getId())
-                        .quantidade(d.getQuantidade())
-                        .build()
-                )
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<CursorSliceDto<DoacaoDoadorProdutoDto>> findByDoadorId(
+            @PathVariable UUID doadorId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        Slice<DoacaoDoadorProdutoDto> pagina = doacaoDoadorProdutoService.findByDoadorId(
+                doadorId, decodeCursor(cursor), KeysetCursor.pageRequest(size, CHAVE));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, Function.identity(), DoacaoDoadorProdutoController::encodeCursor));
     }
 
     @GetMapping("/search/produto/{produtoId}")
     @Operation(summary = "Buscar associações por ID de produto")
     @ApiResponse(responseCode = "200", description = "Associações retornadas")
-    public ResponseEntity<List<DoacaoDoadorProdutoDto>> findByProdutoId(@PathVariable UUID produtoId) {
-        List<DoacaoDoadorProdutoDto> lista = doacaoDoadorProdutoService.findByProdutoId(produtoId).stream()
-                .map(d -> DoacaoDoadorProdutoDto.builder()
-                        .doacaoId(d.getDoacao().getId())
-                        .doadorId(d.getDoador().getId())
-                        .produtoId(d.getProduto().getId())
-                        .quantidade(d.getQuantidade())
-                        .build()
-                )
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<CursorSliceDto<DoacaoDoadorProdutoDto>> findByProdutoId(
+            @PathVariable UUID produtoId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        Slice<DoacaoDoadorProdutoDto> pagina = doacaoDoadorProdutoService.findByProdutoId(
+                produtoId, decodeCursor(cursor), KeysetCursor.pageRequest(size, CHAVE));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, Function.identity(), DoacaoDoadorProdutoController::encodeCursor));
     }
 
     @GetMapping("/sum/doador/{doadorId}/produto/{produtoId}")
     @Operation(summary = "Somar quantidades de um produto em todas as doações de um mesmo doador")
     @ApiResponse(responseCode = "200", description = "Soma retornada")
-    public ResponseEntity<Integer> sumQuantidadeByDoadorIdAndProdutoId(
+    public ResponseEntity<Long> sumQuantidadeByDoadorIdAndProdutoId(
             @PathVariable UUID doadorId,
             @PathVariable UUID produtoId) {
-        Integer soma = doacaoDoadorProdutoService.sumQuantidadeByDoadorIdAndProdutoId(doadorId, produtoId);
+        Long soma = doacaoDoadorProdutoService.sumQuantidadeByDoadorIdAndProdutoId(doadorId, produtoId);
         return ResponseEntity.ok(soma);
     }
 
     @GetMapping("/sum/produto/{produtoId}")
     @Operation(summary = "Somar quantidades totais de um produto em todas as doações")
     @ApiResponse(responseCode = "200", description = "Soma retornada")
-    public ResponseEntity<Integer> sumQuantidadeByProdutoId(@PathVariable UUID produtoId) {
-        Integer soma = doacaoDoadorProdutoService.sumQuantidadeByProdutoId(produtoId);
+    public ResponseEntity<Long> sumQuantidadeByProdutoId(@PathVariable UUID produtoId) {
+        Long soma = doacaoDoadorProdutoService.sumQuantidadeByProdutoId(produtoId);
         return ResponseEntity.ok(soma);
     }
+
+    private ResponseEntity<BulkResultDto> processarLote(List<DoacaoDoadorProdutoCreateDto> itens) {
+        if (itens.size() > MAX_ITENS_LOTE) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+
+        List<BulkItemResultDto> resultados = doacaoDoadorProdutoService.createBulk(itens);
+        int criados = (int) resultados.stream()
+                .filter(r -> BulkItemResultDto.CRIADO.equals(r.getStatus()))
+                .count();
+
+        BulkResultDto resposta = BulkResultDto.builder()
+                .recebidos(itens.size())
+                .criados(criados)
+                .rejeitados(itens.size() - criados)
+                .itens(resultados)
+                .build();
+        return ResponseEntity.ok(resposta);
+    }
+
+    static DoacaoDoadorProdutoDto toDto(DoacaoDoadorProduto d) {
+        return DoacaoDoadorProdutoDto.builder()
+                .doacaoId(d.getId().getDoacaoId())
+                .doadorId(d.getId().getDoadorId())
+                .produtoId(d.getId().getProdutoId())
+                .quantidade(d.getQuantidade())
+                .build();
+    }
+
+    private static DoacaoDoadorProdutoId decodeCursor(String cursor) {
+        UUID[] chave = KeysetCursor.decode(cursor, 3);
+        return new DoacaoDoadorProdutoId(chave[0], chave[1], chave[2]);
+    }
+
+    private static String encodeCursor(DoacaoDoadorProdutoDto d) {
+        return KeysetCursor.encode(
+                d.getDoacaoId(),
+                d.getDoadorId(),
+                d.getProdutoId());
+    }
 }
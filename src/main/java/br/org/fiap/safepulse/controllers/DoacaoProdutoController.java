@@ -1,44 +1,56 @@
 package br.org.fiap.safepulse.controllers;
 
+import br.org.fiap.safepulse.domain.dtos.CursorSliceDto;
 import br.org.fiap.safepulse.domain.dtos.DoacaoProdutoCreateDto;
 import br.org.fiap.safepulse.domain.dtos.DoacaoProdutoDto;
 import br.org.fiap.safepulse.domain.entities.DoacaoProduto;
 import br.org.fiap.safepulse.domain.entities.DoacaoProdutoId;
-import br.org.fiap.safepulse.domain.entities.Doacao;
-import br.org.fiap.safepulse.domain.entities.Produto;
+import br.org.fiap.safepulse.infra.export.ExportFormat;
+import br.org.fiap.safepulse.infra.export.RowExportWriter;
+import br.org.fiap.safepulse.infra.pagination.KeysetCursor;
 import br.org.fiap.safepulse.services.DoacaoProdutoService;
 import br.org.fiap.safepulse.services.DoacaoService;
 import br.org.fiap.safepulse.services.ProdutoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/doacoes-produtos")
 @Tag(name = "DoacaoProduto", description = "Operações relacionadas a Doação↔Produto")
 public class DoacaoProdutoController {
 
+    /** Chave de ordenação da paginação por cursor: a própria chave primária composta. */
+    private static final String[] CHAVE = {"id.doacaoId", "id.produtoId"};
+
     private final DoacaoProdutoService doacaoProdutoService;
     private final DoacaoService doacaoService;
     private final ProdutoService produtoService;
+    private final ObjectMapper objectMapper;
 
     public DoacaoProdutoController(
             DoacaoProdutoService doacaoProdutoService,
             DoacaoService doacaoService,
-            ProdutoService produtoService
+            ProdutoService produtoService,
+            ObjectMapper objectMapper
     ) {
         this.doacaoProdutoService = doacaoProdutoService;
         this.doacaoService = doacaoService;
         this.produtoService = produtoService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -48,15 +60,14 @@ public class DoacaoProdutoController {
             @ApiResponse(responseCode = "400", description = "Requisição inválida")
     })
     public ResponseEntity<DoacaoProdutoDto> create(@Valid @RequestBody DoacaoProdutoCreateDto dto) {
-        Optional<Doacao> optDo = doacaoService.getById(dto.getDoacaoId());
-        Optional<Produto> optPr = produtoService.getById(dto.getProdutoId());
-        if (optDo.isEmpty() || optPr.isEmpty()) {
+        if (!doacaoService.existsById(dto.getDoacaoId())
+                || !produtoService.existsById(dto.getProdutoId())) {
             return ResponseEntity.badRequest().build();
         }
 
         DoacaoProduto entidade = DoacaoProduto.builder()
-                .doacao(optDo.get())
-                .produto(optPr.get())
+                .doacao(doacaoService.getReference(dto.getDoacaoId()))
+                .produto(produtoService.getReference(dto.getProdutoId()))
                 .quantidade(dto.getQuantidade())
                 .build();
 
@@ -71,6 +82,22 @@ public class DoacaoProdutoController {
         return ResponseEntity.status(201).body(resposta);
     }
 
+    @PostMapping("/increment")
+    @Operation(summary = "Somar quantidade a uma associação Doação↔Produto, criando-a se não existir")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Quantidade resultante retornada"),
+            @ApiResponse(responseCode = "400", description = "Requisição inválida")
+    })
+    public ResponseEntity<DoacaoProdutoDto> incrementar(@Valid @RequestBody DoacaoProdutoCreateDto dto) {
+        if (!doacaoService.existsById(dto.getDoacaoId())
+                || !produtoService.existsById(dto.getProdutoId())) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        DoacaoProdutoId id = new DoacaoProdutoId(dto.getDoacaoId(), dto.getProdutoId());
+        return ResponseEntity.ok(doacaoProdutoService.incrementar(id, dto.getQuantidade()));
+    }
+
     @GetMapping("/{doacaoId}/{produtoId}")
     @Operation(summary = "Obter associação Doação↔Produto pelo ID composto")
     @ApiResponses({
@@ -85,29 +112,40 @@ public class DoacaoProdutoController {
         if (opt.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
-        DoacaoProduto d = opt.get();
-        DoacaoProdutoDto dto = DoacaoProdutoDto.builder()
-                .doacaoId(d.getDoacao().getId())
-                .produtoId(d.getProduto().getId())
-                .quantidade(d.getQuantidade())
-                .build();
-
-        return ResponseEntity.ok(dto);
+        return ResponseEntity.ok(toDto(opt.get()));
     }
 
     @GetMapping
     @Operation(summary = "Listar todas as associações Doação↔Produto")
     @ApiResponse(responseCode = "200", description = "Lista retornada")
-    public ResponseEntity<List<DoacaoProdutoDto>> getAll() {
-        List<DoacaoProdutoDto> lista = doacaoProdutoService.getAll().stream()
-                .map(d -> DoacaoProdutoDto.builder()
-                        .doacaoId(d.getDoacao().getId())
-                        .produtoId(d.getProduto().getId())
-                        .quantidade(d.getQuantidade())
-                        .build()
-                )
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<CursorSliceDto<DoacaoProdutoDto>> getAll(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        Slice<DoacaoProdutoDto> pagina = doacaoProdutoService.getAll(
+                decodeCursor(cursor), KeysetCursor.pageRequest(size, CHAVE));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, Function.identity(), DoacaoProdutoController::encodeCursor));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Exportar todas as associações Doação↔Produto em streaming (NDJSON ou CSV)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Exportação transmitida"),
+            @ApiResponse(responseCode = "400", description = "Formato inválido")
+    })
+    public void export(
+            @RequestParam(value = "format", defaultValue = "ndjson") String format,
+            HttpServletResponse response) throws IOException {
+        ExportFormat formato = ExportFormat.from(format);
+        response.setContentType(formato.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"doacoes-produtos." + formato.getExtensao() + "\"");
+
+        try (RowExportWriter writer = RowExportWriter.open(
+                formato, response.getOutputStream(), objectMapper.getFactory(),
+                "doacaoId", "produtoId", "quantidade")) {
+            doacaoProdutoService.exportAll(d -> writer.writeRow(d.getDoacaoId(), d.getProdutoId(), d.getQuantidade()));
+        }
     }
 
     @DeleteMapping("/{doacaoId}/{produtoId}")
@@ -131,46 +169,59 @@ public class DoacaoProdutoController {
     @GetMapping("/search/doacao/{doacaoId}")
     @Operation(summary = "Buscar associações por ID de doação")
     @ApiResponse(responseCode = "200", description = "Associações retornadas")
-    public ResponseEntity<List<DoacaoProdutoDto>> findByDoacaoId(@PathVariable UUID doacaoId) {
-        List<DoacaoProdutoDto> lista = doacaoProdutoService.findByDoacaoId(doacaoId).stream()
-                .map(d -> DoacaoProdutoDto.builder()
-                        .doacaoId(d.getDoacao().getId())
-                        .produtoId(d.getProduto().getId())
-                        .quantidade(d.getQuantidade())
-                        .build()
-                )
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<CursorSliceDto<DoacaoProdutoDto>> findByDoacaoId(
+            @PathVariable UUID doacaoId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        Slice<DoacaoProdutoDto> pagina = doacaoProdutoService.findByDoacaoId(
+                doacaoId, decodeCursor(cursor), KeysetCursor.pageRequest(size, CHAVE));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, Function.identity(), DoacaoProdutoController::encodeCursor));
     }
 
     @GetMapping("/search/produto/{produtoId}")
     @Operation(summary = "Buscar associações por ID de produto")
     @ApiResponse(responseCode = "200", description = "Associações retornadas")
-    public ResponseEntity<List<DoacaoProdutoDto>> findByProdutoId(@PathVariable UUID produtoId) {
-        List<DoacaoProdutoDto> lista = doacaoProdutoService.findByProdutoId(produtoId).stream()
-                .map(d -> DoacaoProdutoDto.builder()
-                        .doacaoId(d.getDoacao().getId())
-                        .produtoId(d.getProduto().getId())
-                        .quantidade(d.getQuantidade())
-                        .build()
-                )
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<CursorSliceDto<DoacaoProdutoDto>> findByProdutoId(
+            @PathVariable UUID produtoId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        Slice<DoacaoProdutoDto> pagina = doacaoProdutoService.findByProdutoId(
+                produtoId, decodeCursor(cursor), KeysetCursor.pageRequest(size, CHAVE));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, Function.identity(), DoacaoProdutoController::encodeCursor));
     }
 
     @GetMapping("/sum/doacao/{doacaoId}")
     @Operation(summary = "Somar quantidades de produtos em uma doação específica")
     @ApiResponse(responseCode = "200", description = "Soma retornada")
-    public ResponseEntity<Integer> sumQuantidadeByDoacaoId(@PathVariable UUID doacaoId) {
-        Integer soma = doacaoProdutoService.sumQuantidadeByDoacaoId(doacaoId);
+    public ResponseEntity<Long> sumQuantidadeByDoacaoId(@PathVariable UUID doacaoId) {
+        Long soma = doacaoProdutoService.sumQuantidadeByDoacaoId(doacaoId);
         return ResponseEntity.ok(soma);
     }
 
     @GetMapping("/sum/produto/{produtoId}")
     @Operation(summary = "Somar quantidades de um produto específico em todas as doações")
     @ApiResponse(responseCode = "200", description = "Soma retornada")
-    public ResponseEntity<Integer> sumQuantidadeByProdutoId(@PathVariable UUID produtoId) {
-        Integer soma = doacaoProdutoService.sumQuantidadeByProdutoId(produtoId);
+    public ResponseEntity<Long> sumQuantidadeByProdutoId(@PathVariable UUID produtoId) {
+        Long soma = doacaoProdutoService.sumQuantidadeByProdutoId(produtoId);
         return ResponseEntity.ok(soma);
     }
+
+    static DoacaoProdutoDto toDto(DoacaoProduto d) {
+        return DoacaoProdutoDto.builder()
+                .doacaoId(d.getId().getDoacaoId())
+                .produtoId(d.getId().getProdutoId())
+                .quantidade(d.getQuantidade())
+                .build();
+    }
+
+    private static DoacaoProdutoId decodeCursor(String cursor) {
+        UUID[] chave = KeysetCursor.decode(cursor, 2);
+        return new DoacaoProdutoId(chave[0], chave[1]);
+    }
+
+    private static String encodeCursor(DoacaoProdutoDto d) {
+        return KeysetCursor.encode(
+                d.getDoacaoId(),
+                d.getProdutoId());
+    }
 }
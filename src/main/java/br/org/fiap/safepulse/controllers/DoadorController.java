@@ -1,21 +1,27 @@
 package br.org.fiap.safepulse.controllers;
 
+import br.org.fiap.safepulse.domain.dtos.BatchRequestDto;
+import br.org.fiap.safepulse.domain.dtos.BatchResultDto;
+import br.org.fiap.safepulse.domain.dtos.CursorSliceDto;
 import br.org.fiap.safepulse.domain.dtos.DoadorCreateDto;
 import br.org.fiap.safepulse.domain.dtos.DoadorDto;
+import br.org.fiap.safepulse.domain.dtos.DoadorPatchDto;
 import br.org.fiap.safepulse.domain.entities.Doador;
+import br.org.fiap.safepulse.infra.lote.LoteIds;
+import br.org.fiap.safepulse.infra.pagination.KeysetCursor;
 import br.org.fiap.safepulse.services.DoadorService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/doadores")
@@ -80,22 +86,26 @@ public class DoadorController {
         return ResponseEntity.ok(dto);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Obter vários doadores pelos IDs, na ordem pedida")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Doadores encontrados e IDs inexistentes"),
+            @ApiResponse(responseCode = "400", description = "Lista de IDs vazia ou acima de " + BatchRequestDto.MAX_IDS)
+    })
+    public ResponseEntity<BatchResultDto<DoadorDto>> getByIds(@Valid @RequestBody BatchRequestDto dto) {
+        UUID[] ids = LoteIds.distintos(dto.getIds());
+        return ResponseEntity.ok(LoteIds.toResult(ids, doadorService.getByIds(ids), Doador::getId, DoadorController::toDto));
+    }
+
     @GetMapping
     @Operation(summary = "Listar todos os doadores")
     @ApiResponse(responseCode = "200", description = "Lista de doadores retornada")
-    public ResponseEntity<List<DoadorDto>> getAll() {
-        List<DoadorDto> lista = doadorService.getAll().stream()
-                .map(d -> DoadorDto.builder()
-                        .id(d.getId())
-                        .nome(d.getNome())
-                        .ong(d.getOng())
-                        .email(d.getEmail())
-                        .telefone(d.getTelefone())
-                        .endereco(d.getEndereco())
-                        .build()
-                )
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<CursorSliceDto<DoadorDto>> getAll(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        Slice<Doador> pagina = doadorService.getAll(
+                KeysetCursor.decodeId(cursor), KeysetCursor.pageRequest(size, "id"));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, DoadorController::toDto, d -> KeysetCursor.encode(d.getId())));
     }
 
     @PutMapping("/{id}")
@@ -136,6 +146,20 @@ public class DoadorController {
         return ResponseEntity.ok(resposta);
     }
 
+    @PatchMapping("/{id}")
+    @Operation(summary = "Alterar campos de um doador (campos ausentes ficam como estão)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Doador alterado"),
+            @ApiResponse(responseCode = "404", description = "Doador não encontrado"),
+            @ApiResponse(responseCode = "400", description = "Requisição inválida")
+    })
+    public ResponseEntity<Void> patch(@PathVariable UUID id, @Valid @RequestBody DoadorPatchDto dto) {
+        if (!doadorService.atualizarParcial(id, dto)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Remover um doador pelo ID")
     @ApiResponses({
@@ -174,37 +198,25 @@ public class DoadorController {
     @GetMapping("/search/nome")
     @Operation(summary = "Buscar doadores por nome (parcial, case‐insensitive)")
     @ApiResponse(responseCode = "200", description = "Doadores retornados")
-    public ResponseEntity<List<DoadorDto>> findByNome(@RequestParam String nome) {
-        List<DoadorDto> lista = doadorService.findByNome(nome).stream()
-                .map(d -> DoadorDto.builder()
-                        .id(d.getId())
-                        .nome(d.getNome())
-                        .ong(d.getOng())
-                        .email(d.getEmail())
-                        .telefone(d.getTelefone())
-                        .endereco(d.getEndereco())
-                        .build()
-                )
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<CursorSliceDto<DoadorDto>> findByNome(
+            @RequestParam String nome,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        Slice<Doador> pagina = doadorService.findByNome(
+                nome, KeysetCursor.decodeId(cursor), KeysetCursor.pageRequest(size, "id"));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, DoadorController::toDto, d -> KeysetCursor.encode(d.getId())));
     }
 
     @GetMapping("/search/ong")
     @Operation(summary = "Buscar doadores por ONG (parcial, case‐insensitive)")
     @ApiResponse(responseCode = "200", description = "Doadores retornados")
-    public ResponseEntity<List<DoadorDto>> findByOng(@RequestParam String ong) {
-        List<DoadorDto> lista = doadorService.findByOng(ong).stream()
-                .map(d -> DoadorDto.builder()
-                        .id(d.getId())
-                        .nome(d.getNome())
-                        .ong(d.getOng())
-                        .email(d.getEmail())
-                        .telefone(d.getTelefone())
-                        .endereco(d.getEndereco())
-                        .build()
-                )
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<CursorSliceDto<DoadorDto>> findByOng(
+            @RequestParam String ong,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        Slice<Doador> pagina = doadorService.findByOng(
+                ong, KeysetCursor.decodeId(cursor), KeysetCursor.pageRequest(size, "id"));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, DoadorController::toDto, d -> KeysetCursor.encode(d.getId())));
     }
 
     @GetMapping("/exists/telefone")
@@ -214,4 +226,27 @@ public class DoadorController {
         boolean exists = doadorService.existsByTelefone(telefone);
         return ResponseEntity.ok(exists);
     }
+
+    @GetMapping("/search/similar")
+    @Operation(summary = "Buscar doadores por nome aproximado, ordenados por similaridade")
+    @ApiResponse(responseCode = "200", description = "Doadores retornados")
+    public ResponseEntity<List<DoadorDto>> findSimilarByNome(
+            @RequestParam String termo,
+            @RequestParam(value = "limite", defaultValue = "20") int limite) {
+        List<DoadorDto> lista = doadorService.findSimilarByNome(termo, limite).stream()
+                .map(DoadorController::toDto)
+                .toList();
+        return ResponseEntity.ok(lista);
+    }
+
+    static DoadorDto toDto(Doador d) {
+        return DoadorDto.builder()
+                .id(d.getId())
+                .nome(d.getNome())
+                .ong(d.getOng())
+                .email(d.getEmail())
+                .telefone(d.getTelefone())
+                .endereco(d.getEndereco())
+                .build();
+    }
 }
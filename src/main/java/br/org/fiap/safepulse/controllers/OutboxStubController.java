@@ -0,0 +1,60 @@
+package br.org.fiap.safepulse.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Destino HTTP de mentira para o outbox, ativo só com o profile "outbox-stub".
+ * Aceita os lotes, conta os eventos recebidos e permite simular indisponibilidade.
+ */
+@Slf4j
+@Profile("outbox-stub")
+@RestController
+@RequestMapping("/stub/outbox")
+@Tag(name = "Outbox (stub)", description = "Receptor local de eventos do outbox, para testes")
+public class OutboxStubController {
+
+    private final AtomicLong recebidos = new AtomicLong();
+    private final AtomicLong lotes = new AtomicLong();
+    private volatile boolean indisponivel;
+
+    @PostMapping
+    @Operation(summary = "Receber um lote de eventos do outbox")
+    @ApiResponse(responseCode = "204", description = "Lote aceito")
+    public ResponseEntity<Void> receber(@RequestBody JsonNode lote) {
+        if (indisponivel) {
+            return ResponseEntity.status(503).build();
+        }
+        lotes.incrementAndGet();
+        long total = recebidos.addAndGet(lote.size());
+        log.debug("stub outbox: lote de {} evento(s), {} no total", lote.size(), total);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping
+    @Operation(summary = "Contadores do receptor")
+    @ApiResponse(responseCode = "200", description = "Contadores retornados")
+    public ResponseEntity<Map<String, Object>> contadores() {
+        return ResponseEntity.ok(Map.of(
+                "eventos", recebidos.get(),
+                "lotes", lotes.get(),
+                "indisponivel", indisponivel));
+    }
+
+    @PutMapping("/indisponivel")
+    @Operation(summary = "Liga ou desliga respostas 503, para exercitar as novas tentativas")
+    @ApiResponse(responseCode = "204", description = "Estado alterado")
+    public ResponseEntity<Void> simularIndisponibilidade(@RequestParam boolean valor) {
+        indisponivel = valor;
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,21 +1,27 @@
 package br.org.fiap.safepulse.controllers;
 
+import br.org.fiap.safepulse.domain.dtos.BatchRequestDto;
+import br.org.fiap.safepulse.domain.dtos.BatchResultDto;
+import br.org.fiap.safepulse.domain.dtos.CursorSliceDto;
 import br.org.fiap.safepulse.domain.dtos.ProdutoCreateDto;
 import br.org.fiap.safepulse.domain.dtos.ProdutoDto;
+import br.org.fiap.safepulse.domain.dtos.ProdutoPatchDto;
 import br.org.fiap.safepulse.domain.entities.Produto;
+import br.org.fiap.safepulse.infra.lote.LoteIds;
+import br.org.fiap.safepulse.infra.pagination.KeysetCursor;
 import br.org.fiap.safepulse.services.ProdutoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/produtos")
@@ -74,20 +80,26 @@ public class ProdutoController {
         return ResponseEntity.ok(dto);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Obter vários produtos pelos IDs, na ordem pedida")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Produtos encontrados e IDs inexistentes"),
+            @ApiResponse(responseCode = "400", description = "Lista de IDs vazia ou acima de " + BatchRequestDto.MAX_IDS)
+    })
+    public ResponseEntity<BatchResultDto<ProdutoDto>> getByIds(@Valid @RequestBody BatchRequestDto dto) {
+        UUID[] ids = LoteIds.distintos(dto.getIds());
+        return ResponseEntity.ok(LoteIds.toResult(ids, produtoService.getByIds(ids), Produto::getId, ProdutoController::toDto));
+    }
+
     @GetMapping
     @Operation(summary = "Listar todos os produtos")
     @ApiResponse(responseCode = "200", description = "Lista de produtos retornada")
-    public ResponseEntity<List<ProdutoDto>> getAll() {
-        List<ProdutoDto> lista = produtoService.getAll().stream()
-                .map(p -> ProdutoDto.builder()
-                        .id(p.getId())
-                        .nome(p.getNome())
-                        .descricao(p.getDescricao())
-                        .unidade(p.getUnidade())
-                        .build()
-                )
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<CursorSliceDto<ProdutoDto>> getAll(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        Slice<Produto> pagina = produtoService.getAll(
+                KeysetCursor.decodeId(cursor), KeysetCursor.pageRequest(size, "id"));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, ProdutoController::toDto, p -> KeysetCursor.encode(p.getId())));
     }
 
     @PutMapping("/{id}")
@@ -124,6 +136,20 @@ public class ProdutoController {
         return ResponseEntity.ok(resposta);
     }
 
+    @PatchMapping("/{id}")
+    @Operation(summary = "Alterar campos de um produto (campos ausentes ficam como estão)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Produto alterado"),
+            @ApiResponse(responseCode = "404", description = "Produto não encontrado"),
+            @ApiResponse(responseCode = "400", description = "Requisição inválida")
+    })
+    public ResponseEntity<Void> patch(@PathVariable UUID id, @Valid @RequestBody ProdutoPatchDto dto) {
+        if (!produtoService.atualizarParcial(id, dto)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Remover um produto pelo ID")
     @ApiResponses({
@@ -142,33 +168,25 @@ public class ProdutoController {
     @GetMapping("/search/nome")
     @Operation(summary = "Buscar produtos por nome (parcial, case‐insensitive)")
     @ApiResponse(responseCode = "200", description = "Produtos retornados")
-    public ResponseEntity<List<ProdutoDto>> findByNome(@RequestParam String nome) {
-        List<ProdutoDto> lista = produtoService.findByNome(nome).stream()
-                .map(p -> ProdutoDto.builder()
-                        .id(p.getId())
-                        .nome(p.getNome())
-                        .descricao(p.getDescricao())
-                        .unidade(p.getUnidade())
-                        .build()
-                )
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<CursorSliceDto<ProdutoDto>> findByNome(
+            @RequestParam String nome,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        Slice<Produto> pagina = produtoService.findByNome(
+                nome, KeysetCursor.decodeId(cursor), KeysetCursor.pageRequest(size, "id"));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, ProdutoController::toDto, p -> KeysetCursor.encode(p.getId())));
     }
 
     @GetMapping("/search/unidade")
     @Operation(summary = "Buscar produtos por unidade")
     @ApiResponse(responseCode = "200", description = "Produtos retornados")
-    public ResponseEntity<List<ProdutoDto>> findByUnidade(@RequestParam String unidade) {
-        List<ProdutoDto> lista = produtoService.findByUnidade(unidade).stream()
-                .map(p -> ProdutoDto.builder()
-                        .id(p.getId())
-                        .nome(p.getNome())
-                        .descricao(p.getDescricao())
-                        .unidade(p.getUnidade())
-                        .build()
-                )
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<CursorSliceDto<ProdutoDto>> findByUnidade(
+            @RequestParam String unidade,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        Slice<Produto> pagina = produtoService.findByUnidade(
+                unidade, KeysetCursor.decodeId(cursor), KeysetCursor.pageRequest(size, "id"));
+        return ResponseEntity.ok(KeysetCursor.toSlice(pagina, ProdutoController::toDto, p -> KeysetCursor.encode(p.getId())));
     }
 
     @GetMapping("/exists/nome")
@@ -178,4 +196,25 @@ public class ProdutoController {
         boolean exists = produtoService.existsByNome(nome);
         return ResponseEntity.ok(exists);
     }
+
+    @GetMapping("/search/similar")
+    @Operation(summary = "Buscar produtos por nome aproximado, ordenados por similaridade")
+    @ApiResponse(responseCode = "200", description = "Produtos retornados")
+    public ResponseEntity<List<ProdutoDto>> findSimilarByNome(
+            @RequestParam String termo,
+            @RequestParam(value = "limite", defaultValue = "20") int limite) {
+        List<ProdutoDto> lista = produtoService.findSimilarByNome(termo, limite).stream()
+                .map(ProdutoController::toDto)
+                .toList();
+        return ResponseEntity.ok(lista);
+    }
+
+    static ProdutoDto toDto(Produto p) {
+        return ProdutoDto.builder()
+                .id(p.getId())
+                .nome(p.getNome())
+                .descricao(p.getDescricao())
+                .unidade(p.getUnidade())
+                .build();
+    }
 }
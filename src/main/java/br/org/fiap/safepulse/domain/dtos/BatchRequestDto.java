@@ -0,0 +1,29 @@
+package br.org.fiap.safepulse.domain.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchRequestDto {
+
+    /** Maior quantidade de IDs por requisição; acima disso o cliente deve dividir a busca. */
+    public static final int MAX_IDS = 1_000;
+
+    @NotEmpty
+    @Size(max = MAX_IDS)
+    @Schema(description = "IDs buscados, na ordem em que devem voltar (repetidos são ignorados)",
+            example = "[\"0190a1b2-c3d4-7e5f-8a6b-7c8d9e0f1a2b\"]")
+    private List<@NotNull UUID> ids;
+}
@@ -0,0 +1,23 @@
+package br.org.fiap.safepulse.domain.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchResultDto<T> {
+
+    @Schema(description = "Registros encontrados, na ordem dos IDs pedidos")
+    private List<T> itens;
+
+    @Schema(description = "IDs pedidos que não existem, na ordem em que foram pedidos")
+    private List<UUID> naoEncontrados;
+}
@@ -0,0 +1,34 @@
+package br.org.fiap.safepulse.domain.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Alteração parcial: campos nulos ou ausentes mantêm o valor atual. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BeneficiarioPatchDto {
+
+    @Schema(description = "Nome do beneficiário", example = "Maria Silva")
+    @Pattern(regexp = "(?s).*\\S.*", message = "não deve estar em branco")
+    private String nome;
+
+    @Schema(description = "Nome da ONG", example = "ONG Ajuda Já")
+    private String ong;
+
+    @Schema(description = "Email do beneficiário", example = "maria.silva@example.com")
+    @Email
+    private String email;
+
+    @Schema(description = "Telefone do beneficiário", example = "(81) 99999-0000")
+    private String telefone;
+
+    @Schema(description = "Endereço completo do beneficiário", example = "Rua das Flores, 123, Recife - PE")
+    private String endereco;
+}
@@ -0,0 +1,29 @@
+package br.org.fiap.safepulse.domain.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkItemResultDto {
+
+    public static final String CRIADO = "CRIADO";
+    public static final String INVALIDO = "INVALIDO";
+    public static final String REFERENCIA_INEXISTENTE = "REFERENCIA_INEXISTENTE";
+    public static final String DUPLICADO = "DUPLICADO";
+
+    @Schema(description = "Posição do item no lote (0 = primeiro)", example = "0")
+    private int indice;
+
+    @Schema(description = "Resultado do item", example = "CRIADO",
+            allowableValues = {CRIADO, INVALIDO, REFERENCIA_INEXISTENTE, DUPLICADO})
+    private String status;
+
+    @Schema(description = "Detalhe do erro, quando houver", example = "produtoId inexistente")
+    private String mensagem;
+}
@@ -0,0 +1,28 @@
+package br.org.fiap.safepulse.domain.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkResultDto {
+
+    @Schema(description = "Quantidade de itens recebidos no lote", example = "1000")
+    private int recebidos;
+
+    @Schema(description = "Quantidade de itens gravados", example = "998")
+    private int criados;
+
+    @Schema(description = "Quantidade de itens rejeitados", example = "2")
+    private int rejeitados;
+
+    @Schema(description = "Resultado de cada item, na ordem do lote")
+    private List<BulkItemResultDto> itens;
+}
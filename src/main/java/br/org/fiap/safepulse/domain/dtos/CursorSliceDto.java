@@ -0,0 +1,29 @@
+package br.org.fiap.safepulse.domain.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorSliceDto<T> {
+
+    @Schema(description = "Itens da página atual")
+    private List<T> content;
+
+    @Schema(description = "Quantidade de itens na página atual", example = "50")
+    private int size;
+
+    @Schema(description = "Indica se existe uma próxima página", example = "true")
+    private boolean hasNext;
+
+    @Schema(description = "Cursor opaco para buscar a próxima página (nulo na última página)",
+            example = "AZeIhX3rcq-Bx2m0kTQZ0w")
+    private String nextCursor;
+}
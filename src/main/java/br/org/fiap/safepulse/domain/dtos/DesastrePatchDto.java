@@ -0,0 +1,31 @@
+package br.org.fiap.safepulse.domain.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/** Alteração parcial: campos nulos ou ausentes mantêm o valor atual. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DesastrePatchDto {
+
+    @Schema(description = "Nome do desastre", example = "Enchente 2025")
+    @Pattern(regexp = "(?s).*\\S.*", message = "não deve estar em branco")
+    private String nome;
+
+    @Schema(description = "Descrição do desastre", example = "Enchente histórica na região metropolitana")
+    private String descricao;
+
+    @Schema(description = "Localização do desastre", example = "Recife, PE")
+    private String localizacao;
+
+    @Schema(description = "Data em que o desastre ocorreu", format = "yyyy-MM-dd", example = "2025-06-10")
+    private LocalDate dataDesastre;
+}
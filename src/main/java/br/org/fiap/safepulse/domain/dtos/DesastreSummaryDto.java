@@ -0,0 +1,44 @@
+package br.org.fiap.safepulse.domain.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DesastreSummaryDto {
+
+    @Schema(description = "ID do desastre", example = "3fa85f64-5717-4562-b3fc-2c963f66afa6")
+    private UUID desastreId;
+
+    @Schema(description = "Quantidade total de doações do desastre", example = "420")
+    private long totalDoacoes;
+
+    @Schema(description = "Quantidade de doações por status (doações sem status aparecem como SEM_STATUS)",
+            example = "{\"PENDENTE\": 120, \"ENTREGUE\": 300}")
+    private Map<String, Long> doacoesPorStatus;
+
+    @Schema(description = "Quantidade de beneficiários distintos atendidos", example = "380")
+    private long beneficiariosDistintos;
+
+    @Schema(description = "Quantidade de doadores distintos que contribuíram", example = "95")
+    private long doadoresDistintos;
+
+    @Schema(description = "Quantidades totais por produto nas doações (doacao_produto)")
+    private List<ProdutoQuantidadeDto> produtosDoacoes;
+
+    @Schema(description = "Quantidades totais por produto informadas pelos doadores (doacao_doador_produto)")
+    private List<ProdutoQuantidadeDto> produtosDoadores;
+
+    @Schema(description = "Momento em que o resumo foi calculado; pode estar defasado em até o TTL do cache")
+    private Instant calculadoEm;
+}
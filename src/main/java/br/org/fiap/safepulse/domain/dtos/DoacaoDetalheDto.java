@@ -0,0 +1,38 @@
+package br.org.fiap.safepulse.domain.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DoacaoDetalheDto {
+
+    @Schema(description = "ID da doação", example = "3fa85f64-5717-4562-b3fc-2c963f66afa6")
+    private UUID id;
+
+    @Schema(description = "Status da doação", example = "PENDENTE")
+    private String status;
+
+    @Schema(description = "Desastre associado")
+    private DesastreDto desastre;
+
+    @Schema(description = "Beneficiário associado")
+    private BeneficiarioDto beneficiario;
+
+    @Schema(description = "Doadores da doação (doacao_doador)")
+    private List<DoadorDto> doadores;
+
+    @Schema(description = "Produtos pedidos na doação (doacao_produto)")
+    private List<DoacaoDetalheProdutoDto> produtos;
+
+    @Schema(description = "Itens prometidos por cada doador (doacao_doador_produto)")
+    private List<DoacaoDetalheItemDto> itens;
+}
@@ -0,0 +1,23 @@
+package br.org.fiap.safepulse.domain.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DoacaoDetalheItemDto {
+
+    @Schema(description = "Doador que prometeu o item")
+    private DoadorDto doador;
+
+    @Schema(description = "Produto prometido")
+    private ProdutoDto produto;
+
+    @Schema(description = "Quantidade prometida", example = "5")
+    private Integer quantidade;
+}
@@ -0,0 +1,20 @@
+package br.org.fiap.safepulse.domain.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DoacaoDetalheProdutoDto {
+
+    @Schema(description = "Produto pedido")
+    private ProdutoDto produto;
+
+    @Schema(description = "Quantidade pedida", example = "10")
+    private Integer quantidade;
+}
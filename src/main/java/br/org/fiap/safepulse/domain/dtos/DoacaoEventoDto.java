@@ -0,0 +1,55 @@
+package br.org.fiap.safepulse.domain.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Alteração em uma doação, publicada após o commit e entregue aos assinantes do
+ * stream de eventos (GET /api/doacoes/stream). Um lote da transição de status em
+ * massa gera um único TRANSICAO_EM_LOTE, sem doacaoId, com os filtros da transição
+ * e a quantidade de doações alteradas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DoacaoEventoDto {
+
+    public enum Tipo {
+        CRIADA,
+        ATUALIZADA,
+        STATUS_ALTERADO,
+        TRANSICAO_EM_LOTE
+    }
+
+    @Schema(description = "Tipo do evento", example = "STATUS_ALTERADO")
+    private Tipo tipo;
+
+    @Schema(description = "ID da doação", example = "3fa85f64-5717-4562-b3fc-2c963f66afa6")
+    private UUID doacaoId;
+
+    @Schema(description = "ID do desastre (em TRANSICAO_EM_LOTE, o filtro da transição, se houver)", example = "3fa85f64-5717-4562-b3fc-2c963f66afa6")
+    private UUID desastreId;
+
+    @Schema(description = "ID do beneficiário", example = "3fa85f64-5717-4562-b3fc-2c963f66afa6")
+    private UUID beneficiarioId;
+
+    @Schema(description = "Status atual da doação", example = "ENTREGUE")
+    private String status;
+
+    @Schema(description = "Status anterior (apenas em atualizações; em TRANSICAO_EM_LOTE, o filtro, se houver)",
+            example = "PENDENTE")
+    private String statusAnterior;
+
+    @Schema(description = "Doações alteradas (apenas em TRANSICAO_EM_LOTE)", example = "1000")
+    private Integer quantidade;
+
+    @Schema(description = "Momento da alteração")
+    private Instant ocorridoEm;
+}
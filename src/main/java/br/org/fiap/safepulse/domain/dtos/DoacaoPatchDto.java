@@ -0,0 +1,26 @@
+package br.org.fiap.safepulse.domain.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/** Alteração parcial: campos nulos ou ausentes mantêm o valor atual. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DoacaoPatchDto {
+
+    @Schema(description = "ID do desastre associado", example = "3fa85f64-5717-4562-b3fc-2c963f66afa6")
+    private UUID desastreId;
+
+    @Schema(description = "ID do beneficiário associado", example = "3fa85f64-5717-4562-b3fc-2c963f66afa6")
+    private UUID beneficiarioId;
+
+    @Schema(description = "Status da doação", example = "EM_TRANSITO")
+    private String status;
+}
@@ -0,0 +1,42 @@
+package br.org.fiap.safepulse.domain.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Transição de status em massa. Os filtros se combinam (E) e ao menos um é
+ * obrigatório; doações que já estão no novo status ficam de fora.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DoacaoTransicaoStatusDto {
+
+    /** Maior lista de IDs aceita; para mais doações, filtre por desastre ou status. */
+    public static final int MAX_IDS = 100_000;
+
+    @NotBlank
+    @Schema(description = "Status para o qual as doações vão", example = "ENTREGUE")
+    private String statusNovo;
+
+    @Schema(description = "Apenas doações deste desastre", example = "3fa85f64-5717-4562-b3fc-2c963f66afa6")
+    private UUID desastreId;
+
+    @Schema(description = "Apenas doações neste status", example = "EM_TRANSITO")
+    private String statusAtual;
+
+    @Size(max = MAX_IDS)
+    @Schema(description = "Apenas estas doações (repetidos e inexistentes são ignorados)",
+            example = "[\"0190a1b2-c3d4-7e5f-8a6b-7c8d9e0f1a2b\"]")
+    private List<@NotNull UUID> ids;
+}
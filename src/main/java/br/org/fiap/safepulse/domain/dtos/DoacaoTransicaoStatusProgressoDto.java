@@ -0,0 +1,50 @@
+package br.org.fiap.safepulse.domain.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/** Andamento de uma transição de status em massa (GET /api/doacoes/status-transitions/{id}). */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DoacaoTransicaoStatusProgressoDto {
+
+    public enum Situacao {
+        AGUARDANDO,
+        EM_ANDAMENTO,
+        CONCLUIDA,
+        FALHOU
+    }
+
+    @Schema(description = "ID da transição; conhecido só pela instância que recebeu o pedido, até ela reiniciar",
+            example = "0190a1b2-c3d4-7e5f-8a6b-7c8d9e0f1a2b")
+    private UUID id;
+
+    @Schema(description = "Situação da transição", example = "EM_ANDAMENTO")
+    private Situacao situacao;
+
+    @Schema(description = "Status para o qual as doações vão", example = "ENTREGUE")
+    private String statusNovo;
+
+    @Schema(description = "Doações já alteradas (lotes confirmados)", example = "42000")
+    private long atualizadas;
+
+    @Schema(description = "Lotes confirmados", example = "42")
+    private int lotes;
+
+    @Schema(description = "Momento do pedido")
+    private Instant iniciadaEm;
+
+    @Schema(description = "Momento do fim, com sucesso ou falha")
+    private Instant concluidaEm;
+
+    @Schema(description = "Motivo da falha; os lotes já confirmados permanecem alterados")
+    private String erro;
+}
@@ -0,0 +1,34 @@
+package br.org.fiap.safepulse.domain.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Alteração parcial: campos nulos ou ausentes mantêm o valor atual. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DoadorPatchDto {
+
+    @Schema(description = "Nome do doador", example = "João Pereira")
+    @Pattern(regexp = "(?s).*\\S.*", message = "não deve estar em branco")
+    private String nome;
+
+    @Schema(description = "Nome da ONG", example = "ONG Doe Esperança")
+    private String ong;
+
+    @Schema(description = "Email do doador", example = "joao.pereira@example.com")
+    @Email
+    private String email;
+
+    @Schema(description = "Telefone do doador", example = "(81) 98888-1111")
+    private String telefone;
+
+    @Schema(description = "Endereço completo do doador", example = "Av. Boa Viagem, 456, Recife - PE")
+    private String endereco;
+}
@@ -0,0 +1,26 @@
+package br.org.fiap.safepulse.domain.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Alteração parcial: campos nulos ou ausentes mantêm o valor atual. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProdutoPatchDto {
+
+    @Schema(description = "Nome do produto", example = "Cobertor Térmico")
+    @Pattern(regexp = "(?s).*\\S.*", message = "não deve estar em branco")
+    private String nome;
+
+    @Schema(description = "Descrição do produto", example = "Cobertor térmico para uso em abrigos")
+    private String descricao;
+
+    @Schema(description = "Unidade de medida (p.ex.: 'un', 'kg')", example = "un")
+    private String unidade;
+}
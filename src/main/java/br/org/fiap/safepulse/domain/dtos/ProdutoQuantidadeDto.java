@@ -0,0 +1,25 @@
+package br.org.fiap.safepulse.domain.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProdutoQuantidadeDto {
+
+    @Schema(description = "ID do produto", example = "3fa85f64-5717-4562-b3fc-2c963f66afa6")
+    private UUID produtoId;
+
+    @Schema(description = "Nome do produto", example = "Água mineral")
+    private String nome;
+
+    @Schema(description = "Quantidade total do produto", example = "1500")
+    private Long quantidade;
+}
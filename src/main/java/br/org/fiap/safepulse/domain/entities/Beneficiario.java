@@ -1,13 +1,19 @@
 package br.org.fiap.safepulse.domain.entities;
 
+import br.org.fiap.safepulse.infra.ids.UuidV7;
 import lombok.*;
-import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import jakarta.persistence.*;
 import java.util.UUID;
 
 @Entity
 @Table(name = "beneficiario")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "beneficiario")
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -15,11 +21,7 @@ import java.util.UUID;
 public class Beneficiario {
 
     @Id
-    @GeneratedValue(generator = "UUID")
-    @GenericGenerator(
-            name = "UUID",
-            strategy = "org.hibernate.id.UUIDGenerator"
-    )
+    @UuidV7
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
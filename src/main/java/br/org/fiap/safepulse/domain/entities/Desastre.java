@@ -1,7 +1,10 @@
 package br.org.fiap.safepulse.domain.entities;
 
+import br.org.fiap.safepulse.infra.ids.UuidV7;
 import lombok.*;
-import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import jakarta.persistence.*;
 import java.time.LocalDate;
@@ -9,6 +12,9 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "desastre")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "desastre")
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,11 +22,7 @@ import java.util.UUID;
 public class Desastre {
 
     @Id
-    @GeneratedValue(generator = "UUID")
-    @GenericGenerator(
-            name = "UUID",
-            strategy = "org.hibernate.id.UUIDGenerator"
-    )
+    @UuidV7
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
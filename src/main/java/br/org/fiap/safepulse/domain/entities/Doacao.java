@@ -1,7 +1,7 @@
 package br.org.fiap.safepulse.domain.entities;
 
+import br.org.fiap.safepulse.infra.ids.UuidV7;
 import lombok.*;
-import org.hibernate.annotations.GenericGenerator;
 
 import jakarta.persistence.*;
 import java.util.UUID;
@@ -15,11 +15,7 @@ import java.util.UUID;
 public class Doacao {
 
     @Id
-    @GeneratedValue(generator = "UUID")
-    @GenericGenerator(
-            name = "UUID",
-            strategy = "org.hibernate.id.UUIDGenerator"
-    )
+    @UuidV7
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
@@ -3,6 +3,7 @@ package br.org.fiap.safepulse.domain.entities;
 import lombok.*;
 
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
 
 @Entity
 @Table(name = "doacao_doador")
@@ -10,10 +11,12 @@ import jakarta.persistence.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class DoacaoDoador {
+public class DoacaoDoador implements Persistable<DoacaoDoadorId> {
 
+    // instância vazia: o Hibernate preenche as colunas pelo @MapsId ao persistir
     @EmbeddedId
-    private DoacaoDoadorId id;
+    @Builder.Default
+    private DoacaoDoadorId id = new DoacaoDoadorId();
 
     @ManyToOne(fetch = FetchType.LAZY)
     @MapsId("doacaoId")
@@ -24,4 +27,27 @@ public class DoacaoDoador {
     @MapsId("doadorId")
     @JoinColumn(name = "doador_id", nullable = false)
     private Doador doador;
+
+    /*
+     * O ID nunca é nulo, então o save() do Spring Data não distingue sozinho uma
+     * associação nova de uma existente e faria merge (um SELECT antes de cada INSERT).
+     */
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean novo = true;
+
+    @Override
+    public boolean isNew() {
+        return novo;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarPersistido() {
+        novo = false;
+    }
 }
@@ -3,6 +3,7 @@ package br.org.fiap.safepulse.domain.entities;
 import lombok.*;
 
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
 
 @Entity
 @Table(name = "doacao_doador_produto")
@@ -10,10 +11,12 @@ import jakarta.persistence.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class DoacaoDoadorProduto {
+public class DoacaoDoadorProduto implements Persistable<DoacaoDoadorProdutoId> {
 
+    // instância vazia: o Hibernate preenche as colunas pelo @MapsId ao persistir
     @EmbeddedId
-    private DoacaoDoadorProdutoId id;
+    @Builder.Default
+    private DoacaoDoadorProdutoId id = new DoacaoDoadorProdutoId();
 
     @ManyToOne(fetch = FetchType.LAZY)
     @MapsId("doacaoId")
@@ -32,4 +35,27 @@ public class DoacaoDoadorProduto {
 
     @Column(name = "quantidade", nullable = false)
     private Integer quantidade;
+
+    /*
+     * O ID nunca é nulo, então o save() do Spring Data não distingue sozinho uma
+     * associação nova de uma existente e faria merge (um SELECT antes de cada INSERT).
+     */
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean novo = true;
+
+    @Override
+    public boolean isNew() {
+        return novo;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarPersistido() {
+        novo = false;
+    }
 }
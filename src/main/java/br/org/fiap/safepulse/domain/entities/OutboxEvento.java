@@ -0,0 +1,54 @@
+package br.org.fiap.safepulse.domain.entities;
+
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Evento pendente de entrega aos sistemas externos, gravado na mesma transação
+ * da escrita que o originou (padrão outbox). O {@code payload} é o DTO do agregado
+ * serializado em JSON.
+ */
+@Entity
+@Table(name = "outbox_evento")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvento {
+
+    public static final String CRIADO = "CRIADO";
+    public static final String ATUALIZADO = "ATUALIZADO";
+    public static final String REMOVIDO = "REMOVIDO";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_evento_seq")
+    @SequenceGenerator(name = "outbox_evento_seq", sequenceName = "outbox_evento_seq", allocationSize = 50)
+    @Column(name = "id", updatable = false, nullable = false)
+    private Long id;
+
+    @Column(name = "agregado", nullable = false, updatable = false, length = 50)
+    private String agregado;
+
+    @Column(name = "agregado_id", nullable = false, updatable = false, length = 120)
+    private String agregadoId;
+
+    @Column(name = "tipo", nullable = false, updatable = false, length = 30)
+    private String tipo;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "payload", nullable = false, updatable = false)
+    private String payload;
+
+    @Column(name = "criado_em", nullable = false, updatable = false)
+    private Instant criadoEm;
+
+    @Column(name = "tentativas", nullable = false)
+    private int tentativas;
+
+    @Column(name = "proxima_tentativa_em", nullable = false)
+    private Instant proximaTentativaEm;
+}
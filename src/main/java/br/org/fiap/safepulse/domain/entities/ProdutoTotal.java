@@ -0,0 +1,40 @@
+package br.org.fiap.safepulse.domain.entities;
+
+import lombok.*;
+
+import jakarta.persistence.*;
+import java.util.UUID;
+
+/**
+ * Total acumulado de quantidade doada por produto, mantido a cada inclusão ou
+ * remoção em doacao_doador_produto (origem DDP) e doacao_produto (origem DP).
+ *
+ * O total de um produto é a soma de até {@code FAIXAS} linhas ("faixas"): cada
+ * escrita incrementa uma faixa sorteada, de modo que escritas concorrentes no
+ * mesmo produto raramente disputam o lock da mesma linha. Linhas com
+ * {@code doadorId = TODOS_DOADORES} guardam o total do produto; as demais, o total
+ * do produto para um doador específico.
+ */
+@Entity
+@Table(name = "produto_total")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProdutoTotal {
+
+    public static final String ORIGEM_DOACAO_DOADOR_PRODUTO = "DDP";
+    public static final String ORIGEM_DOACAO_PRODUTO = "DP";
+
+    /** Quantidade de faixas por produto. */
+    public static final int FAIXAS = 16;
+
+    /** Marcador das linhas que totalizam o produto para todos os doadores. */
+    public static final UUID TODOS_DOADORES = new UUID(0L, 0L);
+
+    @EmbeddedId
+    private ProdutoTotalId id;
+
+    @Column(name = "quantidade", nullable = false)
+    private Long quantidade;
+}
@@ -0,0 +1,28 @@
+package br.org.fiap.safepulse.domain.entities;
+
+import lombok.*;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.UUID;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProdutoTotalId implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Column(name = "produto_id", nullable = false)
+    private UUID produtoId;
+
+    @Column(name = "doador_id", nullable = false)
+    private UUID doadorId;
+
+    @Column(name = "origem", nullable = false, length = 3)
+    private String origem;
+
+    @Column(name = "faixa", nullable = false)
+    private Short faixa;
+}
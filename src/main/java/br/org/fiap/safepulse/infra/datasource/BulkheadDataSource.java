@@ -0,0 +1,124 @@
+package br.org.fiap.safepulse.infra.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limita as conexões em uso a um semáforo do tamanho do pool Hikari.
+ *
+ * Com threads virtuais, milhares de requisições podem pedir conexão ao mesmo tempo;
+ * esperando no semáforo, cada uma apenas estaciona (sem ocupar thread de
+ * plataforma), em fila justa, e só chega ao Hikari quando há conexão livre, em vez
+ * de milhares de threads disputando a fila interna do pool. A espera máxima é o
+ * {@code connectionTimeout} do pool; esgotada, o erro é o mesmo tipo que o Hikari
+ * lançaria.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    private final String nome;
+    private final Semaphore permissoes;
+    private final long esperaMaximaMillis;
+    private Counter rejeicoes;
+
+    /** Sem nome configurado, o pool só recebe um do Hikari ao iniciar; usa-se o padrão informado. */
+    public BulkheadDataSource(HikariDataSource pool, String nomePadrao) {
+        this(pool, pool.getPoolName() != null ? pool.getPoolName() : nomePadrao,
+                pool.getMaximumPoolSize(), Duration.ofMillis(pool.getConnectionTimeout()));
+    }
+
+    public BulkheadDataSource(DataSource alvo, String nome, int permissoes, Duration esperaMaxima) {
+        super(alvo);
+        this.nome = nome;
+        this.permissoes = new Semaphore(permissoes, true);
+        this.esperaMaximaMillis = esperaMaxima.toMillis();
+    }
+
+    /** Publica safepulse.datasource.bulkhead.aguardando e .rejeicoes, com a tag pool. */
+    public BulkheadDataSource registrarMetricas(MeterRegistry registry) {
+        Gauge.builder("safepulse.datasource.bulkhead.aguardando", permissoes, Semaphore::getQueueLength)
+                .tag("pool", nome)
+                .register(registry);
+        this.rejeicoes = Counter.builder("safepulse.datasource.bulkhead.rejeicoes")
+                .tag("pool", nome)
+                .register(registry);
+        return this;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        try {
+            return liberandoAoFechar(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        try {
+            return liberandoAoFechar(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    private void adquirir() throws SQLException {
+        boolean adquirida;
+        try {
+            adquirida = permissoes.tryAcquire(esperaMaximaMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException(nome + " - espera por conexão interrompida", e);
+        }
+        if (!adquirida) {
+            if (rejeicoes != null) {
+                rejeicoes.increment();
+            }
+            throw new SQLTransientConnectionException(
+                    nome + " - nenhuma conexão livre após " + esperaMaximaMillis + "ms (bulkhead)");
+        }
+    }
+
+    /* Devolve a permissão no primeiro close(); closes repetidos não liberam de novo. */
+    private Connection liberandoAoFechar(Connection conexao) {
+        AtomicBoolean fechada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, metodo, args) -> {
+                    if (metodo.getName().equals("close") && metodo.getParameterCount() == 0) {
+                        try {
+                            conexao.close();
+                        } finally {
+                            if (fechada.compareAndSet(false, true)) {
+                                permissoes.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return metodo.invoke(conexao, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
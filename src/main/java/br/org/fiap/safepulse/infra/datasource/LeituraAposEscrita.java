@@ -0,0 +1,73 @@
+package br.org.fiap.safepulse.infra.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+/**
+ * Garante "read-your-writes" para o cliente que acabou de escrever: depois de uma
+ * transação de escrita, a resposta leva um cookie com o instante até o qual as
+ * leituras desse cliente devem ir ao primário. Na mesma requisição o efeito é
+ * imediato, via atributo da requisição.
+ *
+ * Fora de uma requisição HTTP (jobs agendados) não há sessão a preservar e nada é feito.
+ */
+public final class LeituraAposEscrita {
+
+    static final String COOKIE = "sp-primario-ate";
+    private static final String ATRIBUTO = LeituraAposEscrita.class.getName();
+
+    private LeituraAposEscrita() {
+    }
+
+    static void registrarEscrita(Duration janela) {
+        ServletRequestAttributes atributos = atributosAtuais();
+        if (atributos == null || atributos.getAttribute(ATRIBUTO, RequestAttributes.SCOPE_REQUEST) != null) {
+            return;
+        }
+        atributos.setAttribute(ATRIBUTO, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+
+        HttpServletResponse response = atributos.getResponse();
+        if (response != null && !response.isCommitted()) {
+            long ate = System.currentTimeMillis() + janela.toMillis();
+            Cookie cookie = new Cookie(COOKIE, Long.toString(ate));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, janela.toSeconds()));
+            response.addCookie(cookie);
+        }
+    }
+
+    static boolean exigePrimario() {
+        ServletRequestAttributes atributos = atributosAtuais();
+        if (atributos == null) {
+            return false;
+        }
+        if (atributos.getAttribute(ATRIBUTO, RequestAttributes.SCOPE_REQUEST) != null) {
+            return true;
+        }
+        HttpServletRequest request = atributos.getRequest();
+        if (request.getCookies() == null) {
+            return false;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static ServletRequestAttributes atributosAtuais() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes s ? s : null;
+    }
+}
@@ -0,0 +1,63 @@
+package br.org.fiap.safepulse.infra.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Mede periodicamente o atraso de replicação de cada réplica e informa ao
+ * {@link RoteamentoDataSource} quais podem receber leituras. Réplica inacessível ou
+ * acima de {@code atrasoMaximo} sai do rodízio até voltar ao normal.
+ *
+ * A primeira verificação roda no agendador, logo depois da inicialização, e não no
+ * construtor: réplica lenta ou fora do ar não atrasa a subida da aplicação. Até lá
+ * nenhuma réplica está disponível e as leituras vão para o primário.
+ */
+@Slf4j
+public class MonitorAtrasoReplicas {
+
+    /** Zero quando a réplica já aplicou tudo o que recebeu; caso contrário, segundos desde a última transação aplicada. */
+    private static final String CONSULTA_ATRASO = """
+            SELECT CASE
+                     WHEN NOT pg_is_in_recovery() THEN 0
+                     WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                     ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END
+            """;
+
+    private final RoteamentoDataSource roteamento;
+    private final Map<String, JdbcTemplate> replicas = new HashMap<>();
+    private final double atrasoMaximoSegundos;
+
+    public MonitorAtrasoReplicas(RoteamentoDataSource roteamento, Duration atrasoMaximo) {
+        this.roteamento = roteamento;
+        roteamento.getReplicas().forEach((nome, dataSource) -> {
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            jdbc.setQueryTimeout(2);
+            this.replicas.put(nome, jdbc);
+        });
+        this.atrasoMaximoSegundos = atrasoMaximo.toMillis() / 1000.0;
+    }
+
+    @Scheduled(fixedDelayString = "${safepulse.datasource.roteamento.intervalo-monitoramento:2s}")
+    public void verificar() {
+        replicas.forEach((nome, jdbc) -> {
+            boolean disponivel;
+            try {
+                Double atraso = jdbc.queryForObject(CONSULTA_ATRASO, Double.class);
+                disponivel = atraso != null && atraso <= atrasoMaximoSegundos;
+                if (!disponivel) {
+                    log.warn("Réplica {} com atraso de {} s; leituras vão para o primário", nome, atraso);
+                }
+            } catch (RuntimeException e) {
+                disponivel = false;
+                log.warn("Réplica {} inacessível: {}", nome, e.getMessage());
+            }
+            roteamento.marcarDisponivel(nome, disponivel);
+        });
+    }
+}
@@ -0,0 +1,151 @@
+package br.org.fiap.safepulse.infra.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envia transações {@code readOnly = true} para uma réplica disponível (rodízio) e
+ * todo o resto para o primário. Cai para o primário quando não há réplica dentro
+ * do atraso máximo ou quando o cliente escreveu há pouco ({@link LeituraAposEscrita}).
+ *
+ * Precisa ficar atrás de um {@code LazyConnectionDataSourceProxy}: a conexão física
+ * só é obtida no primeiro comando, quando a transação já está marcada como somente
+ * leitura.
+ *
+ * A janela de leitura após escrita só é aberta quando uma transação que de fato
+ * escreveu é confirmada: a conexão do primário marca a transação no primeiro
+ * comando que não é SELECT (ou em qualquer {@code createStatement}, cujo SQL só
+ * aparece na execução), e o cookie sai no {@code afterCommit}. Transações de
+ * escrita que só validam (existsById, buscas de referência) ou que são desfeitas
+ * não mandam o cliente para o primário.
+ */
+public class RoteamentoDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARIO = "primario";
+
+    private final Map<String, DataSource> replicas;
+    private final List<String> nomesReplicas;
+    private final Set<String> replicasDisponiveis = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger proxima = new AtomicInteger();
+    private final Duration janelaLeituraAposEscrita;
+    private final Object escritaNaTransacao = new Object();
+
+    public RoteamentoDataSource(DataSource primario,
+                                Map<String, DataSource> replicas,
+                                Duration janelaLeituraAposEscrita) {
+        this.replicas = Map.copyOf(replicas);
+        this.nomesReplicas = List.copyOf(replicas.keySet());
+        this.janelaLeituraAposEscrita = janelaLeituraAposEscrita;
+
+        Map<Object, Object> alvos = new HashMap<>(replicas);
+        alvos.put(PRIMARIO, primario);
+        setTargetDataSources(alvos);
+        setDefaultTargetDataSource(primario);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARIO;
+        }
+        if (LeituraAposEscrita.exigePrimario()) {
+            return PRIMARIO;
+        }
+
+        int total = nomesReplicas.size();
+        int inicio = Math.floorMod(proxima.getAndIncrement(), Math.max(total, 1));
+        for (int i = 0; i < total; i++) {
+            String replica = nomesReplicas.get((inicio + i) % total);
+            if (replicasDisponiveis.contains(replica)) {
+                return replica;
+            }
+        }
+        return PRIMARIO;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return rastrearEscrita(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return rastrearEscrita(super.getConnection(username, password));
+    }
+
+    private Connection rastrearEscrita(Connection conexao) {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return conexao;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, metodo, argumentos) -> {
+                    String nome = metodo.getName();
+                    if (nome.equals("createStatement")
+                            || (nome.startsWith("prepare") && argumentos != null
+                            && argumentos[0] instanceof String sql && escreve(sql))) {
+                        marcarEscrita();
+                    }
+                    try {
+                        return metodo.invoke(conexao, argumentos);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    private static boolean escreve(String sql) {
+        return !sql.stripLeading().regionMatches(true, 0, "select", 0, 6);
+    }
+
+    /** Na primeira escrita da transação, agenda o registro para depois do commit. */
+    private void marcarEscrita() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(escritaNaTransacao)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(escritaNaTransacao, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                LeituraAposEscrita.registrarEscrita(janelaLeituraAposEscrita);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(escritaNaTransacao);
+            }
+        });
+    }
+
+    void marcarDisponivel(String replica, boolean disponivel) {
+        if (disponivel) {
+            replicasDisponiveis.add(replica);
+        } else {
+            replicasDisponiveis.remove(replica);
+        }
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    public Set<String> getReplicasDisponiveis() {
+        return Set.copyOf(replicasDisponiveis);
+    }
+}
@@ -0,0 +1,42 @@
+package br.org.fiap.safepulse.infra.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuração do roteamento de leituras para réplicas
+ * (prefixo {@code safepulse.datasource.roteamento}).
+ */
+@Data
+@ConfigurationProperties(prefix = "safepulse.datasource.roteamento")
+public class RoteamentoProperties {
+
+    /** Liga o roteamento; desligado, a aplicação usa apenas spring.datasource. */
+    private boolean habilitado = false;
+
+    /**
+     * Por quanto tempo, após uma escrita, as leituras do mesmo cliente continuam no
+     * primário. Deve cobrir o atraso típico de replicação.
+     */
+    private Duration janelaLeituraAposEscrita = Duration.ofSeconds(5);
+
+    /** Atraso de replicação acima do qual a réplica deixa de receber leituras. */
+    private Duration atrasoMaximo = Duration.ofSeconds(2);
+
+    /** Intervalo entre as medições de atraso das réplicas. */
+    private Duration intervaloMonitoramento = Duration.ofSeconds(2);
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int tamanhoPool = 10;
+    }
+}
@@ -0,0 +1,329 @@
+package br.org.fiap.safepulse.infra.eventos;
+
+import br.org.fiap.safepulse.domain.dtos.DoacaoEventoDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Distribui os eventos de doação aos assinantes do stream SSE.
+ *
+ * Conexões abertas não ocupam thread: o Tomcat as mantém em modo assíncrono e cada
+ * assinante tem apenas uma fila limitada. Quando um evento chega, ele é serializado
+ * uma única vez e enfileirado para quem o aceita; uma thread virtual drena a fila de
+ * cada assinante e existe só enquanto houver algo a enviar, então um cliente lento
+ * não segura a entrega dos demais. Se a fila de um assinante enche, ele recebe um
+ * evento "reset" e é desconectado: ao reconectar com Last-Event-ID, recupera o que
+ * ainda estiver no histórico.
+ *
+ * O histórico é um buffer circular em memória. Os IDs têm a forma
+ * {@code <instância>-<sequência>}; um Last-Event-ID de outra instância (p.ex. antes
+ * de um restart) ou já fora do histórico também gera "reset", indicando ao cliente
+ * que recarregue o estado pela API REST. Cada instância só conhece as alterações
+ * confirmadas por ela mesma.
+ *
+ * Eventos TRANSICAO_EM_LOTE não trazem beneficiário: vão para todo assinante cujo
+ * filtro de desastre o lote pode ter atingido, filtrado ou não por beneficiário.
+ */
+@Slf4j
+@Component
+public class DoacaoEventosHub {
+
+    static final String EVENTO_RESET = "reset";
+
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final int capacidadeFila;
+
+    private final String instancia = Long.toString(System.currentTimeMillis(), 36);
+    private final Registro[] historico;
+    private long sequencia;
+
+    private final Set<Assinante> semFiltro = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Set<Assinante>> porDesastre = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<Assinante>> porBeneficiario = new ConcurrentHashMap<>();
+    private final Set<Assinante> todos = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService envio = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("sse-doacao-", 0).factory());
+    private final Counter desconexoesPorAtraso;
+
+    public DoacaoEventosHub(ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${safepulse.eventos.doacao.historico:4096}") int tamanhoHistorico,
+                            @Value("${safepulse.eventos.doacao.fila-por-cliente:256}") int capacidadeFila,
+                            @Value("${safepulse.eventos.doacao.timeout:30m}") Duration timeout) {
+        this.objectMapper = objectMapper;
+        this.historico = new Registro[tamanhoHistorico];
+        this.capacidadeFila = capacidadeFila;
+        this.timeout = timeout;
+        meterRegistry.gauge("safepulse.sse.assinantes", todos, Set::size);
+        this.desconexoesPorAtraso = Counter.builder("safepulse.sse.desconexoes")
+                .tag("motivo", "atraso")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Abre um stream filtrado por desastre e/ou beneficiário (filtros nulos aceitam
+     * tudo). Com {@code ultimoEventoId}, reenvia primeiro os eventos perdidos.
+     */
+    public SseEmitter assinar(UUID desastreId, UUID beneficiarioId, String ultimoEventoId) {
+        SseEmitter emitter = novoEmitter(timeout.toMillis());
+        Assinante assinante = new Assinante(emitter, desastreId, beneficiarioId);
+        emitter.onCompletion(() -> remover(assinante));
+        emitter.onTimeout(() -> {
+            remover(assinante);
+            emitter.complete();
+        });
+        emitter.onError(erro -> remover(assinante));
+
+        // sob o mesmo monitor da publicação: nenhum evento fica entre o replay e o ao vivo
+        synchronized (this) {
+            if (ultimoEventoId != null && !ultimoEventoId.isBlank()) {
+                reenviar(assinante, ultimoEventoId);
+            }
+            indice(assinante).add(assinante);
+            todos.add(assinante);
+        }
+        assinante.agendar();
+        return emitter;
+    }
+
+    /** Ponto de extensão dos testes, que observam (e seguram) o que cada assinante recebe. */
+    SseEmitter novoEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    @TransactionalEventListener
+    public void publicar(DoacaoEventoDto evento) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(evento);
+        } catch (JsonProcessingException e) {
+            log.warn("Evento de doação não serializado: {}", evento, e);
+            return;
+        }
+
+        synchronized (this) {
+            long seq = ++sequencia;
+            Registro registro = new Registro(seq, instancia + "-" + seq, evento.getTipo().name(), json, evento);
+            historico[(int) (seq % historico.length)] = registro;
+
+            entregar(semFiltro, registro);
+            if (lote(evento)) {
+                if (evento.getDesastreId() != null) {
+                    entregar(porDesastre.get(evento.getDesastreId()), registro);
+                } else {
+                    porDesastre.values().forEach(assinantes -> entregar(assinantes, registro));
+                }
+                porBeneficiario.values().forEach(assinantes -> entregar(assinantes, registro));
+                return;
+            }
+            if (evento.getDesastreId() != null) {
+                entregar(porDesastre.get(evento.getDesastreId()), registro);
+            }
+            if (evento.getBeneficiarioId() != null) {
+                entregar(porBeneficiario.get(evento.getBeneficiarioId()), registro);
+            }
+        }
+    }
+
+    /** Comentário periódico: mantém proxies abertos e detecta conexões mortas. */
+    @Scheduled(fixedDelayString = "${safepulse.eventos.doacao.heartbeat:15s}")
+    public void heartbeat() {
+        for (Assinante assinante : todos) {
+            assinante.enfileirar(Registro.HEARTBEAT);
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        envio.shutdownNow();
+        for (Assinante assinante : todos) {
+            assinante.emitter.complete();
+        }
+    }
+
+    private void entregar(Set<Assinante> assinantes, Registro registro) {
+        if (assinantes == null) {
+            return;
+        }
+        for (Assinante assinante : assinantes) {
+            if (assinante.aceita(registro.evento())) {
+                assinante.enfileirar(registro);
+            }
+        }
+    }
+
+    private static boolean lote(DoacaoEventoDto evento) {
+        return evento.getTipo() == DoacaoEventoDto.Tipo.TRANSICAO_EM_LOTE;
+    }
+
+    private void reenviar(Assinante assinante, String ultimoEventoId) {
+        int separador = ultimoEventoId.lastIndexOf('-');
+        long ultimo = -1;
+        if (separador > 0 && ultimoEventoId.substring(0, separador).equals(instancia)) {
+            try {
+                ultimo = Long.parseLong(ultimoEventoId.substring(separador + 1));
+            } catch (NumberFormatException e) {
+                ultimo = -1;
+            }
+        }
+
+        long primeiroDisponivel = Math.max(1, sequencia - historico.length + 1);
+        if (ultimo < primeiroDisponivel - 1 || ultimo > sequencia) {
+            assinante.enfileirar(Registro.RESET);
+            return;
+        }
+        for (long seq = ultimo + 1; seq <= sequencia; seq++) {
+            Registro registro = historico[(int) (seq % historico.length)];
+            if (assinante.aceita(registro.evento())) {
+                assinante.enfileirar(registro);
+            }
+        }
+    }
+
+    /*
+     * Cada assinante fica em um único índice, o mais seletivo disponível; o filtro
+     * restante é conferido em aceita().
+     */
+    private Set<Assinante> indice(Assinante assinante) {
+        if (assinante.desastreId != null) {
+            return porDesastre.computeIfAbsent(assinante.desastreId, id -> ConcurrentHashMap.newKeySet());
+        }
+        if (assinante.beneficiarioId != null) {
+            return porBeneficiario.computeIfAbsent(assinante.beneficiarioId, id -> ConcurrentHashMap.newKeySet());
+        }
+        return semFiltro;
+    }
+
+    private void remover(Assinante assinante) {
+        if (!todos.remove(assinante)) {
+            return;
+        }
+        if (assinante.desastreId != null) {
+            porDesastre.computeIfPresent(assinante.desastreId, (id, set) -> {
+                set.remove(assinante);
+                return set.isEmpty() ? null : set;
+            });
+        } else if (assinante.beneficiarioId != null) {
+            porBeneficiario.computeIfPresent(assinante.beneficiarioId, (id, set) -> {
+                set.remove(assinante);
+                return set.isEmpty() ? null : set;
+            });
+        } else {
+            semFiltro.remove(assinante);
+        }
+    }
+
+    private record Registro(long sequencia, String id, String nome, String json, DoacaoEventoDto evento) {
+
+        static final Registro HEARTBEAT = new Registro(0, null, null, null, null);
+        static final Registro RESET = new Registro(0, null, EVENTO_RESET, null, null);
+
+        SseEmitter.SseEventBuilder paraEnvio() {
+            if (this == HEARTBEAT) {
+                return SseEmitter.event().comment("ping");
+            }
+            if (this == RESET) {
+                return SseEmitter.event().name(EVENTO_RESET).data("recarregue o estado pela API");
+            }
+            return SseEmitter.event().id(id).name(nome).data(json);
+        }
+    }
+
+    private final class Assinante {
+
+        private final SseEmitter emitter;
+        private final UUID desastreId;
+        private final UUID beneficiarioId;
+        private final BlockingQueue<Registro> fila;
+        private final AtomicBoolean agendado = new AtomicBoolean();
+        private volatile boolean atrasado;
+
+        private Assinante(SseEmitter emitter, UUID desastreId, UUID beneficiarioId) {
+            this.emitter = emitter;
+            this.desastreId = desastreId;
+            this.beneficiarioId = beneficiarioId;
+            this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+        }
+
+        private boolean aceita(DoacaoEventoDto evento) {
+            if (lote(evento)) {
+                return desastreId == null || evento.getDesastreId() == null || desastreId.equals(evento.getDesastreId());
+            }
+            return (desastreId == null || desastreId.equals(evento.getDesastreId()))
+                    && (beneficiarioId == null || beneficiarioId.equals(evento.getBeneficiarioId()));
+        }
+
+        private void enfileirar(Registro registro) {
+            if (!fila.offer(registro)) {
+                atrasado = true;
+            }
+            agendar();
+        }
+
+        private void agendar() {
+            if (!fila.isEmpty() || atrasado) {
+                if (agendado.compareAndSet(false, true)) {
+                    try {
+                        envio.execute(this::drenar);
+                    } catch (RuntimeException e) {
+                        // executor encerrado no shutdown
+                        agendado.set(false);
+                    }
+                }
+            }
+        }
+
+        private void drenar() {
+            try {
+                if (atrasado) {
+                    desconexoesPorAtraso.increment();
+                    remover(this);
+                    fila.clear();
+                    emitter.send(Registro.RESET.paraEnvio());
+                    emitter.complete();
+                    return;
+                }
+                List<Registro> lote = new ArrayList<>(capacidadeFila);
+                while (fila.drainTo(lote) > 0) {
+                    for (Registro registro : lote) {
+                        emitter.send(registro.paraEnvio());
+                    }
+                    lote.clear();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // cliente desconectado ou emitter já concluído
+                remover(this);
+                fila.clear();
+                return;
+            } finally {
+                agendado.set(false);
+            }
+            agendar();
+        }
+    }
+}
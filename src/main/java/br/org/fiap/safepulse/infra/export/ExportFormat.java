@@ -0,0 +1,29 @@
+package br.org.fiap.safepulse.infra.export;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Formatos suportados pelos endpoints de exportação em streaming.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extensao;
+
+    public static ExportFormat from(String valor) {
+        for (ExportFormat formato : values()) {
+            if (formato.name().equalsIgnoreCase(valor)) {
+                return formato;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Formato de exportação inválido: " + valor);
+    }
+}
@@ -0,0 +1,129 @@
+package br.org.fiap.safepulse.infra.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Escreve linhas diretamente no corpo da resposta, uma por registro, sem acumular
+ * nada em memória além do buffer de saída.
+ *
+ * NDJSON: um objeto JSON por linha, com as colunas como propriedades.
+ * CSV: cabeçalho com as colunas seguido de uma linha por registro.
+ */
+public abstract class RowExportWriter implements Closeable {
+
+    protected final String[] colunas;
+
+    protected RowExportWriter(String[] colunas) {
+        this.colunas = colunas;
+    }
+
+    public static RowExportWriter open(ExportFormat formato,
+                                       OutputStream saida,
+                                       JsonFactory jsonFactory,
+                                       String... colunas) throws IOException {
+        return switch (formato) {
+            case NDJSON -> new Ndjson(jsonFactory.createGenerator(saida), colunas);
+            case CSV -> new Csv(new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8)), colunas);
+        };
+    }
+
+    /**
+     * Escreve um registro; os valores seguem a ordem das colunas. Falhas de I/O
+     * (p.ex. cliente desconectado) são propagadas como {@link UncheckedIOException}
+     * para interromper a leitura do cursor.
+     */
+    public void writeRow(Object... valores) {
+        try {
+            escrever(valores);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    protected abstract void escrever(Object[] valores) throws IOException;
+
+    private static final class Ndjson extends RowExportWriter {
+
+        private final JsonGenerator gerador;
+
+        private Ndjson(JsonGenerator gerador, String[] colunas) {
+            super(colunas);
+            this.gerador = gerador;
+            this.gerador.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+        }
+
+        @Override
+        protected void escrever(Object[] valores) throws IOException {
+            gerador.writeStartObject();
+            for (int i = 0; i < colunas.length; i++) {
+                Object valor = valores[i];
+                if (valor == null) {
+                    gerador.writeNullField(colunas[i]);
+                } else if (valor instanceof Number numero) {
+                    gerador.writeNumberField(colunas[i], numero.longValue());
+                } else {
+                    gerador.writeStringField(colunas[i], valor.toString());
+                }
+            }
+            gerador.writeEndObject();
+        }
+
+        @Override
+        public void close() throws IOException {
+            gerador.writeRaw('\n');
+            gerador.close();
+        }
+    }
+
+    private static final class Csv extends RowExportWriter {
+
+        private final Writer escritor;
+
+        private Csv(Writer escritor, String[] colunas) throws IOException {
+            super(colunas);
+            this.escritor = escritor;
+            escreverLinha(colunas);
+        }
+
+        @Override
+        protected void escrever(Object[] valores) throws IOException {
+            escreverLinha(valores);
+        }
+
+        private void escreverLinha(Object[] valores) throws IOException {
+            for (int i = 0; i < valores.length; i++) {
+                if (i > 0) {
+                    escritor.write(',');
+                }
+                if (valores[i] != null) {
+                    escritor.write(escapar(valores[i].toString()));
+                }
+            }
+            escritor.write('\n');
+        }
+
+        private static String escapar(String valor) {
+            if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0
+                    && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+                return valor;
+            }
+            return '"' + valor.replace("\"", "\"\"") + '"';
+        }
+
+        @Override
+        public void close() throws IOException {
+            escritor.close();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package br.org.fiap.safepulse.infra.ids;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Gera o identificador da entidade como UUID versão 7 (ordenado por tempo).
+ *
+ * Substitui o par {@code @GeneratedValue}/{@code @GenericGenerator} com
+ * {@code UUIDGenerator}: a coluna continua {@code uuid}, então IDs v4 já gravados
+ * permanecem válidos e convivem com os novos.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface UuidV7 {
+}
@@ -0,0 +1,49 @@
+package br.org.fiap.safepulse.infra.lote;
+
+import br.org.fiap.safepulse.domain.dtos.BatchResultDto;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Apoio aos endpoints {@code POST .../batch}: a consulta por {@code id = ANY(?)} devolve
+ * as linhas em qualquer ordem, então o resultado é remontado aqui na ordem pedida, com
+ * os IDs que não vieram do banco.
+ */
+public final class LoteIds {
+
+    private LoteIds() {
+    }
+
+    /** IDs sem repetição, mantendo a primeira ocorrência de cada um. */
+    public static UUID[] distintos(List<UUID> ids) {
+        return new LinkedHashSet<>(ids).toArray(UUID[]::new);
+    }
+
+    public static <E, T> BatchResultDto<T> toResult(UUID[] ids, List<E> encontrados,
+                                                    Function<E, UUID> id, Function<E, T> mapper) {
+        Map<UUID, E> porId = HashMap.newHashMap(encontrados.size());
+        for (E entidade : encontrados) {
+            porId.put(id.apply(entidade), entidade);
+        }
+        List<T> itens = new ArrayList<>(encontrados.size());
+        List<UUID> naoEncontrados = new ArrayList<>();
+        for (UUID pedido : ids) {
+            E entidade = porId.get(pedido);
+            if (entidade == null) {
+                naoEncontrados.add(pedido);
+            } else {
+                itens.add(mapper.apply(entidade));
+            }
+        }
+        return BatchResultDto.<T>builder()
+                .itens(itens)
+                .naoEncontrados(naoEncontrados)
+                .build();
+    }
+}
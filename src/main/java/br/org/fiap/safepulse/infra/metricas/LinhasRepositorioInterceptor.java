@@ -0,0 +1,71 @@
+package br.org.fiap.safepulse.infra.metricas;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Registra em safepulse.repositorio.linhas (tags repository e method, como em
+ * spring.data.repository.invocations) quantas linhas cada método de repositório
+ * devolveu: tamanho de listas e páginas, 0/1 para Optional e buscas por entidade.
+ * Contagens, exists, Streams e comandos de escrita não são medidos.
+ */
+public class LinhasRepositorioInterceptor implements MethodInterceptor {
+
+    static final String METRICA = "safepulse.repositorio.linhas";
+
+    private final Supplier<MeterRegistry> registry;
+    private final String repositorio;
+    private final Class<?> tipoDominio;
+    private final Map<Method, DistributionSummary> porMetodo = new ConcurrentHashMap<>();
+
+    public LinhasRepositorioInterceptor(Supplier<MeterRegistry> registry, Class<?> repositorio, Class<?> tipoDominio) {
+        this.registry = registry;
+        this.repositorio = repositorio.getSimpleName();
+        this.tipoDominio = tipoDominio;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object resultado = invocation.proceed();
+        long linhas = linhas(invocation.getMethod(), resultado);
+        if (linhas >= 0) {
+            porMetodo.computeIfAbsent(invocation.getMethod(), this::sumario).record(linhas);
+        }
+        return resultado;
+    }
+
+    private long linhas(Method metodo, Object resultado) {
+        if (resultado instanceof Collection<?> colecao) {
+            return colecao.size();
+        }
+        if (resultado instanceof Slice<?> pagina) {
+            return pagina.getNumberOfElements();
+        }
+        if (resultado instanceof Optional<?> opcional) {
+            return opcional.isPresent() ? 1 : 0;
+        }
+        if (tipoDominio.isAssignableFrom(metodo.getReturnType())) {
+            return resultado == null ? 0 : 1;
+        }
+        return -1;
+    }
+
+    private DistributionSummary sumario(Method metodo) {
+        return DistributionSummary.builder(METRICA)
+                .description("Linhas devolvidas por método de repositório")
+                .baseUnit("rows")
+                .tag("repository", repositorio)
+                .tag("method", metodo.getName())
+                .register(registry.get());
+    }
+}
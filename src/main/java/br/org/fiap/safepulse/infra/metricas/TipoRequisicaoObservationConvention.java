@@ -0,0 +1,30 @@
+package br.org.fiap.safepulse.infra.metricas;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Acrescenta a tag {@code tipo} a http.server.requests, para separar no Prometheus
+ * as buscas ({@code /search/*}) do CRUD da API: {@code search}, {@code crud} ou
+ * {@code outro} (actuator, documentação, rotas inexistentes).
+ */
+@Component
+public class TipoRequisicaoObservationConvention extends DefaultServerRequestObservationConvention {
+
+    static final String TAG = "tipo";
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context).and(KeyValue.of(TAG, tipo(context.getPathPattern())));
+    }
+
+    static String tipo(String padrao) {
+        if (padrao == null || !padrao.startsWith("/api/")) {
+            return "outro";
+        }
+        return padrao.contains("/search/") ? "search" : "crud";
+    }
+}
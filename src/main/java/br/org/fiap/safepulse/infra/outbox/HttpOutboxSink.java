@@ -0,0 +1,67 @@
+package br.org.fiap.safepulse.infra.outbox;
+
+import br.org.fiap.safepulse.domain.entities.OutboxEvento;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Envia cada lote em um único POST com um array JSON de eventos
+ * ({@code id, agregado, agregadoId, tipo, criadoEm, payload}). Qualquer resposta
+ * fora de 2xx é tratada como falha e o lote volta para a fila.
+ */
+public class HttpOutboxSink implements OutboxSink {
+
+    private final RestClient restClient;
+    private final JsonFactory jsonFactory;
+
+    public HttpOutboxSink(String url, Duration timeout, JsonFactory jsonFactory) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(
+                HttpClient.newBuilder().connectTimeout(timeout).build());
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = RestClient.builder()
+                .baseUrl(url)
+                .requestFactory(requestFactory)
+                .build();
+        this.jsonFactory = jsonFactory;
+    }
+
+    @Override
+    public void enviar(List<OutboxEvento> lote) throws IOException {
+        restClient.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-Outbox-Ultimo-Id", String.valueOf(lote.get(lote.size() - 1).getId()))
+                .body(serializar(lote))
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    /* O payload já está em JSON: é copiado sem ser interpretado de novo. */
+    private String serializar(List<OutboxEvento> lote) throws IOException {
+        StringWriter saida = new StringWriter(256 * lote.size());
+        try (JsonGenerator gerador = jsonFactory.createGenerator(saida)) {
+            gerador.writeStartArray();
+            for (OutboxEvento evento : lote) {
+                gerador.writeStartObject();
+                gerador.writeNumberField("id", evento.getId());
+                gerador.writeStringField("agregado", evento.getAgregado());
+                gerador.writeStringField("agregadoId", evento.getAgregadoId());
+                gerador.writeStringField("tipo", evento.getTipo());
+                gerador.writeStringField("criadoEm", evento.getCriadoEm().toString());
+                gerador.writeFieldName("payload");
+                gerador.writeRawValue(evento.getPayload());
+                gerador.writeEndObject();
+            }
+            gerador.writeEndArray();
+        }
+        return saida.toString();
+    }
+}
@@ -0,0 +1,19 @@
+package br.org.fiap.safepulse.infra.outbox;
+
+import br.org.fiap.safepulse.domain.entities.OutboxEvento;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/** Apenas registra os eventos no log; destino padrão em desenvolvimento. */
+@Slf4j
+public class LogOutboxSink implements OutboxSink {
+
+    @Override
+    public void enviar(List<OutboxEvento> lote) {
+        for (OutboxEvento evento : lote) {
+            log.info("outbox #{} {} {} {}: {}", evento.getId(), evento.getAgregado(),
+                    evento.getAgregadoId(), evento.getTipo(), evento.getPayload());
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package br.org.fiap.safepulse.infra.outbox;
+
+import br.org.fiap.safepulse.domain.entities.OutboxEvento;
+import br.org.fiap.safepulse.infra.repositories.OutboxEventoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drena o outbox em segundo plano.
+ *
+ * Cada um dos {@code paralelismo} workers repete: reserva até {@code tamanhoLote}
+ * eventos numa transação curta (proxima_tentativa_em vira o fim da
+ * {@code reserva}), entrega o lote ao {@link OutboxSink} fora de transação e, em
+ * outra transação curta, remove os eventos entregues. Nenhuma conexão fica presa
+ * durante o envio. Enquanto os lotes vêm cheios o worker segue direto para o
+ * próximo; com a fila vazia, espera {@code intervalo}. Se o sink falha, o lote é
+ * adiado com espera exponencial e não bloqueia os eventos de outros agregados.
+ *
+ * Entrega pelo menos uma vez: se o worker cair entre o envio e a remoção, o lote
+ * volta à fila quando a reserva vence e é reenviado. Não há garantia de ordem, nem
+ * entre eventos de um mesmo agregado (ver {@link OutboxEventoRepository#reservarLote}
+ * e {@link OutboxSink}).
+ *
+ * Métricas: safepulse.outbox.eventos (enviados/falhas), safepulse.outbox.envio
+ * (duração de cada lote no sink), safepulse.outbox.atraso (da gravação à entrega,
+ * por evento) e safepulse.outbox.atraso.atual (idade do evento mais antigo do
+ * último lote reservado, em segundos).
+ */
+@Slf4j
+public class OutboxDispatcher {
+
+    private final OutboxEventoRepository outboxEventoRepository;
+    private final OutboxSink sink;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService workers;
+
+    private final Counter enviados;
+    private final Counter falhas;
+    private final Timer envio;
+    private final Timer atraso;
+    private final AtomicLong atrasoAtualMillis = new AtomicLong();
+
+    public OutboxDispatcher(OutboxEventoRepository outboxEventoRepository,
+                            OutboxSink sink,
+                            OutboxProperties properties,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.outboxEventoRepository = outboxEventoRepository;
+        this.sink = sink;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        AtomicInteger contador = new AtomicInteger();
+        this.workers = Executors.newScheduledThreadPool(properties.getParalelismo(), tarefa -> {
+            Thread thread = new Thread(tarefa, "outbox-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.enviados = Counter.builder("safepulse.outbox.eventos").tag("resultado", "enviado").register(meterRegistry);
+        this.falhas = Counter.builder("safepulse.outbox.eventos").tag("resultado", "falha").register(meterRegistry);
+        this.envio = Timer.builder("safepulse.outbox.envio").register(meterRegistry);
+        this.atraso = Timer.builder("safepulse.outbox.atraso").publishPercentiles(0.5, 0.99).register(meterRegistry);
+        meterRegistry.gauge("safepulse.outbox.atraso.atual", atrasoAtualMillis, valor -> valor.get() / 1000.0);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        long intervalo = properties.getIntervalo().toMillis();
+        for (int i = 0; i < properties.getParalelismo(); i++) {
+            workers.scheduleWithFixedDelay(this::drenar, intervalo, intervalo, TimeUnit.MILLISECONDS);
+        }
+        log.info("Outbox: {} dispatcher(s), lotes de {}, sink {}",
+                properties.getParalelismo(), properties.getTamanhoLote(), sink.getClass().getSimpleName());
+    }
+
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void drenar() {
+        try {
+            while (!workers.isShutdown() && processarLote() == properties.getTamanhoLote()) {
+                // lote cheio: provavelmente há mais eventos esperando
+            }
+        } catch (RuntimeException e) {
+            // exceção não tratada cancelaria o agendamento do worker
+            log.warn("Falha ao drenar o outbox: {}", e.toString());
+        }
+    }
+
+    /** Processa um lote e devolve quantos eventos foram entregues. */
+    int processarLote() {
+        List<OutboxEvento> reservados = transactionTemplate.execute(status -> outboxEventoRepository
+                .reservarLote(properties.getTamanhoLote(), Instant.now().plus(properties.getReserva())));
+        if (reservados == null || reservados.isEmpty()) {
+            atrasoAtualMillis.set(0);
+            return 0;
+        }
+        // RETURNING não garante ordem; dentro do lote, o sink recebe os eventos em ordem de ID
+        List<OutboxEvento> lote = reservados.stream().sorted(Comparator.comparing(OutboxEvento::getId)).toList();
+        Instant agora = Instant.now();
+        atrasoAtualMillis.set(Duration.between(lote.get(0).getCriadoEm(), agora).toMillis());
+        List<Long> ids = lote.stream().map(OutboxEvento::getId).toList();
+
+        Timer.Sample amostra = Timer.start();
+        try {
+            sink.enviar(lote);
+        } catch (Exception e) {
+            amostra.stop(envio);
+            int tentativas = lote.stream().mapToInt(OutboxEvento::getTentativas).max().orElse(0);
+            Instant proxima = Instant.now().plus(espera(tentativas));
+            transactionTemplate.executeWithoutResult(status -> outboxEventoRepository.adiar(ids, proxima));
+            falhas.increment(lote.size());
+            log.warn("Outbox: lote de {} evento(s) não entregue (tentativa {}): {}",
+                    lote.size(), tentativas + 1, e.toString());
+            return 0;
+        }
+        amostra.stop(envio);
+
+        transactionTemplate.executeWithoutResult(status -> outboxEventoRepository.deleteByIds(ids));
+        enviados.increment(lote.size());
+        Instant entregueEm = Instant.now();
+        for (OutboxEvento evento : lote) {
+            atraso.record(Duration.between(evento.getCriadoEm(), entregueEm));
+        }
+        return lote.size();
+    }
+
+    private Duration espera(int tentativas) {
+        Duration espera = properties.getEsperaInicial().multipliedBy(1L << Math.min(tentativas, 20));
+        return espera.compareTo(properties.getEsperaMaxima()) > 0 ? properties.getEsperaMaxima() : espera;
+    }
+}
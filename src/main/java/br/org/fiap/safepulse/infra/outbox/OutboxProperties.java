@@ -0,0 +1,50 @@
+package br.org.fiap.safepulse.infra.outbox;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuração do outbox (prefixo {@code safepulse.outbox}).
+ */
+@Data
+@ConfigurationProperties(prefix = "safepulse.outbox")
+public class OutboxProperties {
+
+    /** Liga o dispatcher; desligado, os eventos apenas se acumulam na tabela. */
+    private boolean habilitado = true;
+
+    /** Destino dos eventos: "log", "http" ou o nome de um sink próprio. */
+    private String sink = "log";
+
+    /** Eventos reservados e enviados por transação. */
+    private int tamanhoLote = 200;
+
+    /** Quantos dispatchers drenam a tabela ao mesmo tempo, cada um com seu lote. */
+    private int paralelismo = 2;
+
+    /** Pausa de um dispatcher depois de encontrar a fila vazia. */
+    private Duration intervalo = Duration.ofMillis(500);
+
+    /** Espera antes da primeira nova tentativa; dobra a cada falha até {@link #esperaMaxima}. */
+    private Duration esperaInicial = Duration.ofSeconds(1);
+
+    private Duration esperaMaxima = Duration.ofMinutes(5);
+
+    /**
+     * Por quanto tempo um lote reservado fica fora da fila enquanto é enviado. Se o
+     * dispatcher não confirmar nem adiar o lote nesse prazo (caiu no meio do envio),
+     * os eventos voltam a ser reservados e são reenviados. Precisa cobrir o envio de
+     * um lote inteiro, com folga sobre o timeout do sink.
+     */
+    private Duration reserva = Duration.ofMinutes(1);
+
+    private Http http = new Http();
+
+    @Data
+    public static class Http {
+        private String url = "http://localhost:8080/stub/outbox";
+        private Duration timeout = Duration.ofSeconds(5);
+    }
+}
@@ -0,0 +1,22 @@
+package br.org.fiap.safepulse.infra.outbox;
+
+import br.org.fiap.safepulse.domain.entities.OutboxEvento;
+
+import java.util.List;
+
+/**
+ * Destino dos eventos do outbox. Recebe um lote em ordem de ID; retornar sem
+ * exceção confirma a entrega do lote inteiro, e qualquer exceção faz o lote ser
+ * reenviado mais tarde. A entrega é "pelo menos uma vez" e sem ordem garantida,
+ * nem entre eventos de um mesmo agregado: o destino deve tolerar repetições (o ID
+ * do evento serve como chave de deduplicação) e eventos fora de ordem, tratando o
+ * payload como aviso de mudança e relendo o agregado pela API quando precisar do
+ * estado atual.
+ *
+ * A implementação é escolhida por {@code safepulse.outbox.sink} (log ou http); com
+ * outro valor, basta declarar um bean próprio desta interface.
+ */
+public interface OutboxSink {
+
+    void enviar(List<OutboxEvento> lote) throws Exception;
+}
@@ -0,0 +1,105 @@
+package br.org.fiap.safepulse.infra.pagination;
+
+import br.org.fiap.safepulse.domain.dtos.CursorSliceDto;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Utilitários para paginação por cursor (keyset).
+ *
+ * O cursor é opaco para o cliente: contém a chave (simples ou composta) do último
+ * registro retornado, codificada em Base64 URL-safe. A próxima página é buscada com
+ * "chave > cursor ORDER BY chave", sem OFFSET, usando o índice da chave primária.
+ */
+public final class KeysetCursor {
+
+    public static final int TAMANHO_PADRAO = 50;
+    public static final int TAMANHO_MAXIMO = 500;
+
+    /** Menor UUID possível; usado como ponto de partida da primeira página. */
+    public static final UUID INICIO = new UUID(0L, 0L);
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * Cria a requisição de página ordenada pelas chaves informadas, limitando o tamanho
+     * a {@link #TAMANHO_MAXIMO}. O deslocamento é sempre zero: quem avança é o cursor.
+     */
+    public static Pageable pageRequest(Integer size, String... chaves) {
+        int tamanho = size == null ? TAMANHO_PADRAO : Math.max(1, Math.min(size, TAMANHO_MAXIMO));
+        return PageRequest.of(0, tamanho, Sort.by(chaves));
+    }
+
+    public static String encode(UUID... chaves) {
+        ByteBuffer buffer = ByteBuffer.allocate(16 * chaves.length);
+        for (UUID chave : chaves) {
+            buffer.putLong(chave.getMostSignificantBits());
+            buffer.putLong(chave.getLeastSignificantBits());
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decodifica um cursor com a quantidade de partes esperada. Cursor nulo ou vazio
+     * representa a primeira página; cursor inválido resulta em 400.
+     */
+    public static UUID[] decode(String cursor, int partes) {
+        UUID[] chaves = new UUID[partes];
+        if (cursor == null || cursor.isBlank()) {
+            Arrays.fill(chaves, INICIO);
+            return chaves;
+        }
+
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+        }
+        if (bytes.length != 16 * partes) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        for (int i = 0; i < partes; i++) {
+            chaves[i] = new UUID(buffer.getLong(), buffer.getLong());
+        }
+        return chaves;
+    }
+
+    public static UUID decodeId(String cursor) {
+        return decode(cursor, 1)[0];
+    }
+
+    /**
+     * Converte um {@link Slice} em {@link CursorSliceDto}, gerando o cursor a partir
+     * do último elemento quando houver próxima página.
+     */
+    public static <E, D> CursorSliceDto<D> toSlice(Slice<E> slice,
+                                                   Function<E, D> mapper,
+                                                   Function<E, String> cursorDe) {
+        List<E> conteudo = slice.getContent();
+        String proximo = slice.hasNext() && !conteudo.isEmpty()
+                ? cursorDe.apply(conteudo.get(conteudo.size() - 1))
+                : null;
+
+        return CursorSliceDto.<D>builder()
+                .content(conteudo.stream().map(mapper).toList())
+                .size(conteudo.size())
+                .hasNext(slice.hasNext())
+                .nextCursor(proximo)
+                .build();
+    }
+}
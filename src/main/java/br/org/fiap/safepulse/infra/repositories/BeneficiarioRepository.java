@@ -1,8 +1,15 @@
 package br.org.fiap.safepulse.infra.repositories;
 
 import br.org.fiap.safepulse.domain.entities.Beneficiario;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,11 +18,38 @@ import java.util.UUID;
 @Repository
 public interface BeneficiarioRepository extends JpaRepository<Beneficiario, UUID> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Beneficiario> findByEmail(String email);
 
-    List<Beneficiario> findByNomeContainingIgnoreCase(String nome);
+    Slice<Beneficiario> findByIdGreaterThan(UUID id, Pageable pageable);
 
-    List<Beneficiario> findByOngContainingIgnoreCase(String ong);
+    @Query("SELECT b FROM Beneficiario b WHERE b.nome ILIKE concat('%', :#{escape(#nome)}, '%') ESCAPE :#{escapeCharacter()} AND b.id > :id")
+    Slice<Beneficiario> findByNomeContainingIgnoreCaseAndIdGreaterThan(@Param("nome") String nome, @Param("id") UUID id, Pageable pageable);
 
+    @Query("SELECT b FROM Beneficiario b WHERE b.ong ILIKE concat('%', :#{escape(#ong)}, '%') ESCAPE :#{escapeCharacter()} AND b.id > :id")
+    Slice<Beneficiario> findByOngContainingIgnoreCaseAndIdGreaterThan(@Param("ong") String ong, @Param("id") UUID id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByTelefone(String telefone);
+
+    /**
+     * Busca aproximada por nome com pg_trgm: aceita trechos (ILIKE) e grafias
+     * parecidas (operador %), ordenando pela similaridade. Usa o índice GIN
+     * beneficiario_nome_trgm_idx. Curingas no termo (%, _ e \\) valem como texto, como
+     * nas buscas JPQL.
+     */
+    @Query(value = """
+            SELECT * FROM beneficiario
+            WHERE nome ILIKE concat('%', :#{escape(#termo)}, '%') ESCAPE :#{escapeCharacter()} OR nome % :termo
+            ORDER BY similarity(nome, :termo) DESC, id
+            LIMIT :limite
+            """, nativeQuery = true)
+    List<Beneficiario> findSimilarByNome(@Param("termo") String termo, @Param("limite") int limite);
+
+    /**
+     * Registros com os IDs informados, em uma única consulta com um só parâmetro
+     * (array), qualquer que seja a quantidade; a ordem do resultado não é garantida.
+     */
+    @Query(value = "SELECT * FROM beneficiario WHERE id = ANY(CAST(:ids AS uuid[]))", nativeQuery = true)
+    List<Beneficiario> findByIds(@Param("ids") UUID[] ids);
 }
@@ -1,11 +1,16 @@
 package br.org.fiap.safepulse.infra.repositories;
 
 import br.org.fiap.safepulse.domain.entities.Desastre;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -16,12 +21,36 @@ public interface DesastreRepository
         extends JpaRepository<Desastre, UUID>,                 // herda métodos básicos (findAll, save, etc.)
         JpaSpecificationExecutor<Desastre> {
 
-    List<Desastre> findByNomeContainingIgnoreCase(String nome);
+    @Query("SELECT d FROM Desastre d WHERE d.nome ILIKE concat('%', :#{escape(#nome)}, '%') ESCAPE :#{escapeCharacter()} AND d.id > :id")
+    Slice<Desastre> findByNomeContainingIgnoreCaseAndIdGreaterThan(@Param("nome") String nome, @Param("id") UUID id, Pageable pageable);
 
-    List<Desastre> findByDataDesastreBetween(LocalDate inicio, LocalDate fim);
+    Slice<Desastre> findByDataDesastreBetweenAndIdGreaterThan(LocalDate inicio, LocalDate fim, UUID id, Pageable pageable);
 
-    List<Desastre> findByLocalizacaoContainingIgnoreCase(String localizacao);
+    @Query("SELECT d FROM Desastre d WHERE d.localizacao ILIKE concat('%', :#{escape(#localizacao)}, '%') ESCAPE :#{escapeCharacter()} AND d.id > :id")
+    Slice<Desastre> findByLocalizacaoContainingIgnoreCaseAndIdGreaterThan(@Param("localizacao") String localizacao, @Param("id") UUID id, Pageable pageable);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT COUNT(d) FROM Desastre d WHERE d.dataDesastre > :dataReferencia")
     long countByDataDesastreAfter(@Param("dataReferencia") LocalDate dataReferencia);
+
+    /**
+     * Busca aproximada por nome com pg_trgm: aceita trechos (ILIKE) e grafias
+     * parecidas (operador %), ordenando pela similaridade. Usa o índice GIN
+     * desastre_nome_trgm_idx. Curingas no termo (%, _ e \\) valem como texto, como
+     * nas buscas JPQL.
+     */
+    @Query(value = """
+            SELECT * FROM desastre
+            WHERE nome ILIKE concat('%', :#{escape(#termo)}, '%') ESCAPE :#{escapeCharacter()} OR nome % :termo
+            ORDER BY similarity(nome, :termo) DESC, id
+            LIMIT :limite
+            """, nativeQuery = true)
+    List<Desastre> findSimilarByNome(@Param("termo") String termo, @Param("limite") int limite);
+
+    /**
+     * Registros com os IDs informados, em uma única consulta com um só parâmetro
+     * (array), qualquer que seja a quantidade; a ordem do resultado não é garantida.
+     */
+    @Query(value = "SELECT * FROM desastre WHERE id = ANY(CAST(:ids AS uuid[]))", nativeQuery = true)
+    List<Desastre> findByIds(@Param("ids") UUID[] ids);
 }
@@ -1,28 +1,121 @@
 package br.org.fiap.safepulse.infra.repositories;
 
+import br.org.fiap.safepulse.domain.dtos.DoacaoDoadorProdutoDto;
+import br.org.fiap.safepulse.domain.dtos.ProdutoQuantidadeDto;
 import br.org.fiap.safepulse.domain.entities.DoacaoDoadorProduto;
 import br.org.fiap.safepulse.domain.entities.DoacaoDoadorProdutoId;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface DoacaoDoadorProdutoRepository extends JpaRepository<DoacaoDoadorProduto, DoacaoDoadorProdutoId> {
 
-    List<DoacaoDoadorProduto> findByIdDoacaoId(UUID doacaoId);
+    /*
+     * Listagens: projetam apenas as colunas da chave composta e a quantidade direto
+     * no DTO, em uma única consulta, sem instanciar entidades nem tocar nas
+     * associações LAZY.
+     */
+    @Query("SELECT new br.org.fiap.safepulse.domain.dtos.DoacaoDoadorProdutoDto(" +
+            "ddp.id.doacaoId, ddp.id.doadorId, ddp.id.produtoId, ddp.quantidade) " +
+            "FROM DoacaoDoadorProduto ddp " +
+            "WHERE (ddp.id.doacaoId, ddp.id.doadorId, ddp.id.produtoId) > (:doacaoId, :doadorId, :produtoId)")
+    Slice<DoacaoDoadorProdutoDto> findAfter(@Param("doacaoId") UUID doacaoId,
+                                            @Param("doadorId") UUID doadorId,
+                                            @Param("produtoId") UUID produtoId,
+                                            Pageable pageable);
 
-    List<DoacaoDoadorProduto> findByIdDoadorId(UUID doadorId);
+    @Query("SELECT new br.org.fiap.safepulse.domain.dtos.DoacaoDoadorProdutoDto(" +
+            "ddp.id.doacaoId, ddp.id.doadorId, ddp.id.produtoId, ddp.quantidade) " +
+            "FROM DoacaoDoadorProduto ddp " +
+            "WHERE ddp.id.doacaoId = :filtro " +
+            "AND (ddp.id.doacaoId, ddp.id.doadorId, ddp.id.produtoId) > (:doacaoId, :doadorId, :produtoId)")
+    Slice<DoacaoDoadorProdutoDto> findByDoacaoIdAfter(@Param("filtro") UUID filtro,
+                                                      @Param("doacaoId") UUID doacaoId,
+                                                      @Param("doadorId") UUID doadorId,
+                                                      @Param("produtoId") UUID produtoId,
+                                                      Pageable pageable);
 
-    List<DoacaoDoadorProduto> findByIdProdutoId(UUID produtoId);
+    @Query("SELECT new br.org.fiap.safepulse.domain.dtos.DoacaoDoadorProdutoDto(" +
+            "ddp.id.doacaoId, ddp.id.doadorId, ddp.id.produtoId, ddp.quantidade) " +
+            "FROM DoacaoDoadorProduto ddp " +
+            "WHERE ddp.id.doadorId = :filtro " +
+            "AND (ddp.id.doacaoId, ddp.id.doadorId, ddp.id.produtoId) > (:doacaoId, :doadorId, :produtoId)")
+    Slice<DoacaoDoadorProdutoDto> findByDoadorIdAfter(@Param("filtro") UUID filtro,
+                                                      @Param("doacaoId") UUID doacaoId,
+                                                      @Param("doadorId") UUID doadorId,
+                                                      @Param("produtoId") UUID produtoId,
+                                                      Pageable pageable);
 
-    @Query("SELECT COALESCE(SUM(ddp.quantidade), 0) FROM DoacaoDoadorProduto ddp WHERE ddp.doador.id = :doadorId AND ddp.produto.id = :produtoId")
-    Integer sumQuantidadeByDoadorIdAndProdutoId(@Param("doadorId") UUID doadorId,
-                                                @Param("produtoId") UUID produtoId);
+    @Query("SELECT new br.org.fiap.safepulse.domain.dtos.DoacaoDoadorProdutoDto(" +
+            "ddp.id.doacaoId, ddp.id.doadorId, ddp.id.produtoId, ddp.quantidade) " +
+            "FROM DoacaoDoadorProduto ddp " +
+            "WHERE ddp.id.produtoId = :filtro " +
+            "AND (ddp.id.doacaoId, ddp.id.doadorId, ddp.id.produtoId) > (:doacaoId, :doadorId, :produtoId)")
+    Slice<DoacaoDoadorProdutoDto> findByProdutoIdAfter(@Param("filtro") UUID filtro,
+                                                       @Param("doacaoId") UUID doacaoId,
+                                                       @Param("doadorId") UUID doadorId,
+                                                       @Param("produtoId") UUID produtoId,
+                                                       Pageable pageable);
 
-    @Query("SELECT COALESCE(SUM(ddp.quantidade), 0) FROM DoacaoDoadorProduto ddp WHERE ddp.produto.id = :produtoId")
-    Integer sumQuantidadeByProdutoId(@Param("produtoId") UUID produtoId);
+    /**
+     * Lê todas as linhas por um cursor do servidor (fetch size de 1000), projetando
+     * direto no DTO para não carregar entidades nem associações no contexto de
+     * persistência. Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new br.org.fiap.safepulse.domain.dtos.DoacaoDoadorProdutoDto(" +
+            "ddp.id.doacaoId, ddp.id.doadorId, ddp.id.produtoId, ddp.quantidade) " +
+            "FROM DoacaoDoadorProduto ddp")
+    Stream<DoacaoDoadorProdutoDto> streamAll();
+
+    @Query("SELECT ddp.id FROM DoacaoDoadorProduto ddp WHERE ddp.id IN :ids")
+    List<DoacaoDoadorProdutoId> findExistingIds(@Param("ids") Collection<DoacaoDoadorProdutoId> ids);
+
+    /** Resumo por desastre: quantidade total de cada produto informada pelos doadores. */
+    @Query("SELECT new br.org.fiap.safepulse.domain.dtos.ProdutoQuantidadeDto(p.id, p.nome, SUM(ddp.quantidade)) " +
+            "FROM DoacaoDoadorProduto ddp JOIN ddp.doacao d JOIN ddp.produto p " +
+            "WHERE d.desastre.id = :desastreId " +
+            "GROUP BY p.id, p.nome ORDER BY p.nome")
+    List<ProdutoQuantidadeDto> sumQuantidadeByProdutoForDesastre(@Param("desastreId") UUID desastreId);
+
+    @Query("SELECT COUNT(DISTINCT ddp.id.doadorId) FROM DoacaoDoadorProduto ddp JOIN ddp.doacao d " +
+            "WHERE d.desastre.id = :desastreId")
+    long countDistinctDoadoresByDesastreId(@Param("desastreId") UUID desastreId);
+
+    /** Itens prometidos da doação, com doador e produto carregados no mesmo SELECT, para o detalhe. */
+    @EntityGraph(attributePaths = {"doador", "produto"})
+    @Query("SELECT ddp FROM DoacaoDoadorProduto ddp WHERE ddp.id.doacaoId = :doacaoId ORDER BY ddp.id.doadorId, ddp.id.produtoId")
+    List<DoacaoDoadorProduto> findDetalheByDoacaoId(@Param("doacaoId") UUID doacaoId);
+
+    /**
+     * Soma {@code delta} à quantidade da associação, criando-a se ainda não existir.
+     * É um único comando, sem SELECT prévio: a linha fica travada só durante o próprio
+     * UPDATE, e incrementos concorrentes na mesma chave se somam em vez de falhar ou se
+     * perder. Devolve uma linha [quantidade, inserido]; inserido vem de xmax = 0, que
+     * só vale para a versão criada pelo INSERT, não para a atualizada no conflito.
+     */
+    @Query(value = """
+            INSERT INTO doacao_doador_produto (doacao_id, doador_id, produto_id, quantidade)
+            VALUES (:doacaoId, :doadorId, :produtoId, :delta)
+            ON CONFLICT (doacao_id, doador_id, produto_id)
+            DO UPDATE SET quantidade = doacao_doador_produto.quantidade + EXCLUDED.quantidade
+            RETURNING quantidade, (xmax = 0) AS inserido
+            """, nativeQuery = true)
+    List<Object[]> incrementar(@Param("doacaoId") UUID doacaoId,
+                               @Param("doadorId") UUID doadorId,
+                               @Param("produtoId") UUID produtoId,
+                               @Param("delta") int delta);
 }
@@ -1,7 +1,11 @@
 package br.org.fiap.safepulse.infra.repositories;
 
+import br.org.fiap.safepulse.domain.dtos.DoacaoDoadorDto;
 import br.org.fiap.safepulse.domain.entities.DoacaoDoador;
 import br.org.fiap.safepulse.domain.entities.DoacaoDoadorId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.Query;
@@ -13,13 +17,44 @@ import java.util.UUID;
 @Repository
 public interface DoacaoDoadorRepository extends JpaRepository<DoacaoDoador, DoacaoDoadorId> {
 
-    List<DoacaoDoador> findByIdDoacaoId(UUID doacaoId);
+    /*
+     * Listagens: projetam apenas as colunas da chave composta direto
+     * no DTO, em uma única consulta, sem instanciar entidades nem tocar nas
+     * associações LAZY.
+     */
+    @Query("SELECT new br.org.fiap.safepulse.domain.dtos.DoacaoDoadorDto(dd.id.doacaoId, dd.id.doadorId) " +
+            "FROM DoacaoDoador dd " +
+            "WHERE (dd.id.doacaoId, dd.id.doadorId) > (:doacaoId, :doadorId)")
+    Slice<DoacaoDoadorDto> findAfter(@Param("doacaoId") UUID doacaoId,
+                                     @Param("doadorId") UUID doadorId,
+                                     Pageable pageable);
 
-    List<DoacaoDoador> findByIdDoadorId(UUID doadorId);
+    @Query("SELECT new br.org.fiap.safepulse.domain.dtos.DoacaoDoadorDto(dd.id.doacaoId, dd.id.doadorId) " +
+            "FROM DoacaoDoador dd " +
+            "WHERE dd.id.doacaoId = :filtro " +
+            "AND (dd.id.doacaoId, dd.id.doadorId) > (:doacaoId, :doadorId)")
+    Slice<DoacaoDoadorDto> findByDoacaoIdAfter(@Param("filtro") UUID filtro,
+                                               @Param("doacaoId") UUID doacaoId,
+                                               @Param("doadorId") UUID doadorId,
+                                               Pageable pageable);
+
+    @Query("SELECT new br.org.fiap.safepulse.domain.dtos.DoacaoDoadorDto(dd.id.doacaoId, dd.id.doadorId) " +
+            "FROM DoacaoDoador dd " +
+            "WHERE dd.id.doadorId = :filtro " +
+            "AND (dd.id.doacaoId, dd.id.doadorId) > (:doacaoId, :doadorId)")
+    Slice<DoacaoDoadorDto> findByDoadorIdAfter(@Param("filtro") UUID filtro,
+                                               @Param("doacaoId") UUID doacaoId,
+                                               @Param("doadorId") UUID doadorId,
+                                               Pageable pageable);
 
     @Query("SELECT dd.doador FROM DoacaoDoador dd WHERE dd.doacao.id = :doacaoId")
     List<br.org.fiap.safepulse.domain.entities.Doador> findDoadoresByDoacaoId(@Param("doacaoId") UUID doacaoId);
 
     @Query("SELECT dd.doacao FROM DoacaoDoador dd WHERE dd.doador.id = :doadorId")
     List<br.org.fiap.safepulse.domain.entities.Doacao> findDoacoesByDoadorId(@Param("doadorId") UUID doadorId);
+
+    /** Doadores da doação, com o doador carregado no mesmo SELECT, para o detalhe. */
+    @EntityGraph(attributePaths = "doador")
+    @Query("SELECT dd FROM DoacaoDoador dd WHERE dd.id.doacaoId = :doacaoId ORDER BY dd.id.doadorId")
+    List<DoacaoDoador> findDetalheByDoacaoId(@Param("doacaoId") UUID doacaoId);
 }
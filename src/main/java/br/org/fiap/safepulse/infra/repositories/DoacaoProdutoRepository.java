@@ -1,25 +1,98 @@
 package br.org.fiap.safepulse.infra.repositories;
 
+import br.org.fiap.safepulse.domain.dtos.DoacaoProdutoDto;
+import br.org.fiap.safepulse.domain.dtos.ProdutoQuantidadeDto;
 import br.org.fiap.safepulse.domain.entities.DoacaoProduto;
 import br.org.fiap.safepulse.domain.entities.DoacaoProdutoId;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface DoacaoProdutoRepository extends JpaRepository<DoacaoProduto, DoacaoProdutoId> {
 
-    List<DoacaoProduto> findByIdDoacaoId(UUID doacaoId);
+    /*
+     * Listagens: projetam apenas as colunas da chave composta e a quantidade direto
+     * no DTO, em uma única consulta, sem instanciar entidades nem tocar nas
+     * associações LAZY.
+     */
+    @Query("SELECT new br.org.fiap.safepulse.domain.dtos.DoacaoProdutoDto(" +
+            "dp.id.doacaoId, dp.id.produtoId, dp.quantidade) " +
+            "FROM DoacaoProduto dp " +
+            "WHERE (dp.id.doacaoId, dp.id.produtoId) > (:doacaoId, :produtoId)")
+    Slice<DoacaoProdutoDto> findAfter(@Param("doacaoId") UUID doacaoId,
+                                      @Param("produtoId") UUID produtoId,
+                                      Pageable pageable);
 
-    List<DoacaoProduto> findByIdProdutoId(UUID produtoId);
+    @Query("SELECT new br.org.fiap.safepulse.domain.dtos.DoacaoProdutoDto(" +
+            "dp.id.doacaoId, dp.id.produtoId, dp.quantidade) " +
+            "FROM DoacaoProduto dp " +
+            "WHERE dp.id.doacaoId = :filtro " +
+            "AND (dp.id.doacaoId, dp.id.produtoId) > (:doacaoId, :produtoId)")
+    Slice<DoacaoProdutoDto> findByDoacaoIdAfter(@Param("filtro") UUID filtro,
+                                                @Param("doacaoId") UUID doacaoId,
+                                                @Param("produtoId") UUID produtoId,
+                                                Pageable pageable);
+
+    @Query("SELECT new br.org.fiap.safepulse.domain.dtos.DoacaoProdutoDto(" +
+            "dp.id.doacaoId, dp.id.produtoId, dp.quantidade) " +
+            "FROM DoacaoProduto dp " +
+            "WHERE dp.id.produtoId = :filtro " +
+            "AND (dp.id.doacaoId, dp.id.produtoId) > (:doacaoId, :produtoId)")
+    Slice<DoacaoProdutoDto> findByProdutoIdAfter(@Param("filtro") UUID filtro,
+                                                 @Param("doacaoId") UUID doacaoId,
+                                                 @Param("produtoId") UUID produtoId,
+                                                 Pageable pageable);
 
     @Query("SELECT COALESCE(SUM(dp.quantidade), 0) FROM DoacaoProduto dp WHERE dp.doacao.id = :doacaoId")
-    Integer sumQuantidadeByDoacaoId(@Param("doacaoId") UUID doacaoId);
+    Long sumQuantidadeByDoacaoId(@Param("doacaoId") UUID doacaoId);
+
+    /**
+     * Lê todas as linhas por um cursor do servidor (fetch size de 1000), projetando
+     * direto no DTO. Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new br.org.fiap.safepulse.domain.dtos.DoacaoProdutoDto(" +
+            "dp.id.doacaoId, dp.id.produtoId, dp.quantidade) " +
+            "FROM DoacaoProduto dp")
+    Stream<DoacaoProdutoDto> streamAll();
+
+    /** Resumo por desastre: quantidade total de cada produto nas doações. */
+    @Query("SELECT new br.org.fiap.safepulse.domain.dtos.ProdutoQuantidadeDto(p.id, p.nome, SUM(dp.quantidade)) " +
+            "FROM DoacaoProduto dp JOIN dp.doacao d JOIN dp.produto p " +
+            "WHERE d.desastre.id = :desastreId " +
+            "GROUP BY p.id, p.nome ORDER BY p.nome")
+    List<ProdutoQuantidadeDto> sumQuantidadeByProdutoForDesastre(@Param("desastreId") UUID desastreId);
+
+    /** Produtos pedidos da doação, com o produto carregado no mesmo SELECT, para o detalhe. */
+    @EntityGraph(attributePaths = "produto")
+    @Query("SELECT dp FROM DoacaoProduto dp WHERE dp.id.doacaoId = :doacaoId ORDER BY dp.id.produtoId")
+    List<DoacaoProduto> findDetalheByDoacaoId(@Param("doacaoId") UUID doacaoId);
 
-    @Query("SELECT COALESCE(SUM(dp.quantidade), 0) FROM DoacaoProduto dp WHERE dp.produto.id = :produtoId")
-    Integer sumQuantidadeByProdutoId(@Param("produtoId") UUID produtoId);
+    /**
+     * Soma {@code delta} à quantidade pedida, criando a associação se ainda não
+     * existir, e devolve a quantidade resultante; mesmo comando único de
+     * {@link DoacaoDoadorProdutoRepository#incrementar}.
+     */
+    @Query(value = """
+            INSERT INTO doacao_produto (doacao_id, produto_id, quantidade)
+            VALUES (:doacaoId, :produtoId, :delta)
+            ON CONFLICT (doacao_id, produto_id)
+            DO UPDATE SET quantidade = doacao_produto.quantidade + EXCLUDED.quantidade
+            RETURNING quantidade
+            """, nativeQuery = true)
+    int incrementar(@Param("doacaoId") UUID doacaoId,
+                    @Param("produtoId") UUID produtoId,
+                    @Param("delta") int delta);
 }
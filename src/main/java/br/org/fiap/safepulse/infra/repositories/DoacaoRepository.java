@@ -1,31 +1,194 @@
 package br.org.fiap.safepulse.infra.repositories;
 
 import br.org.fiap.safepulse.domain.entities.Doacao;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
 public interface DoacaoRepository extends JpaRepository<Doacao, UUID> {
 
-    List<Doacao> findByDesastreId(UUID desastreId);
+    Slice<Doacao> findByIdGreaterThan(UUID id, Pageable pageable);
 
-    List<Doacao> findByBeneficiarioId(UUID beneficiarioId);
+    Slice<Doacao> findByDesastreIdAndIdGreaterThan(UUID desastreId, UUID id, Pageable pageable);
 
-    List<Doacao> findByStatus(String status);
+    Slice<Doacao> findByBeneficiarioIdAndIdGreaterThan(UUID beneficiarioId, UUID id, Pageable pageable);
 
-    List<Doacao> findByDesastreIdAndStatus(UUID desastreId, String status);
+    Slice<Doacao> findByStatusAndIdGreaterThan(String status, UUID id, Pageable pageable);
 
-    List<Doacao> findByBeneficiarioIdAndStatus(UUID beneficiarioId, String status);
+    Slice<Doacao> findByDesastreIdAndStatusAndIdGreaterThan(UUID desastreId, String status, UUID id, Pageable pageable);
+
+    Slice<Doacao> findByBeneficiarioIdAndStatusAndIdGreaterThan(UUID beneficiarioId, String status, UUID id, Pageable pageable);
 
     long countByStatus(String status);
 
-    @Query("SELECT d.id FROM Doacao d WHERE d.beneficiario.id = :beneficiarioId AND d.desastre.dataDesastre > :dataReferencia")
-    List<UUID> findIdsByBeneficiarioIdAndDataDesastreAfter(@Param("beneficiarioId") UUID beneficiarioId,
-                                                           @Param("dataReferencia") LocalDate dataReferencia);
+    @Query("SELECT d.id FROM Doacao d WHERE d.beneficiario.id = :beneficiarioId " +
+            "AND d.desastre.dataDesastre > :dataReferencia AND d.id > :after")
+    Slice<UUID> findIdsByBeneficiarioIdAndDataDesastreAfter(@Param("beneficiarioId") UUID beneficiarioId,
+                                                            @Param("dataReferencia") LocalDate dataReferencia,
+                                                            @Param("after") UUID after,
+                                                            Pageable pageable);
+
+    @Query("SELECT d.id FROM Doacao d WHERE d.id IN :ids")
+    Set<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    /** Resumo por desastre: pares [status, quantidade]; o status pode ser nulo. */
+    @Query("SELECT d.status, COUNT(d) FROM Doacao d WHERE d.desastre.id = :desastreId GROUP BY d.status")
+    List<Object[]> countByStatusForDesastre(@Param("desastreId") UUID desastreId);
+
+    @Query("SELECT COUNT(DISTINCT d.beneficiario.id) FROM Doacao d WHERE d.desastre.id = :desastreId")
+    long countDistinctBeneficiariosByDesastreId(@Param("desastreId") UUID desastreId);
+
+    /** Doação com desastre e beneficiário no mesmo SELECT, para o detalhe. */
+    @EntityGraph(attributePaths = {"desastre", "beneficiario"})
+    @Query("SELECT d FROM Doacao d WHERE d.id = :id")
+    Optional<Doacao> findDetalheById(@Param("id") UUID id);
+
+    /**
+     * Alteração parcial em um único comando, sem carregar a doação: nulo mantém o
+     * valor atual. A subconsulta trava a linha e fornece o status anterior, devolvido
+     * junto com a linha nova como [id, desastre_id, beneficiario_id, status,
+     * status_anterior]. Lista vazia quando o ID não existe.
+     */
+    @Query(value = """
+            UPDATE doacao d
+            SET desastre_id = COALESCE(CAST(:desastreId AS uuid), d.desastre_id),
+                beneficiario_id = COALESCE(CAST(:beneficiarioId AS uuid), d.beneficiario_id),
+                status = COALESCE(CAST(:status AS varchar), d.status)
+            FROM (SELECT id, status FROM doacao WHERE id = :id FOR UPDATE) anterior
+            WHERE d.id = anterior.id
+            RETURNING d.id, d.desastre_id, d.beneficiario_id, d.status, anterior.status
+            """, nativeQuery = true)
+    List<Object[]> atualizarParcial(@Param("id") UUID id,
+                                    @Param("desastreId") UUID desastreId,
+                                    @Param("beneficiarioId") UUID beneficiarioId,
+                                    @Param("status") String status);
+
+    /*
+     * Lotes da transição de status em massa. Cada método pega até "limite" doações
+     * candidatas com ID depois de "apos", em ordem de ID e sem travar, e então trava e
+     * altera as que ainda atendem ao filtro: o FOR UPDATE reavalia o filtro nas linhas
+     * alteradas por outra transação e descarta as que deixaram de atendê-lo. Devolve uma
+     * linha por candidata, ordenadas por ID, como [id, desastre_id, beneficiario_id,
+     * status, status_anterior, alterada]; nas descartadas só o ID vem preenchido. A
+     * última candidata é o cursor do lote seguinte, e menos de "limite" candidatas
+     * indica o fim do filtro.
+     *
+     * Um método por combinação de filtros, para que cada um use o índice que cobre o
+     * filtro e a ordem: doacao_desastre_status_idx, doacao_desastre_idx (por desastre,
+     * com o IS DISTINCT FROM como filtro sobre o índice) ou doacao_status_idx. O UPDATE
+     * recebe os IDs travados como array, e não por join com o lote: com mil linhas, o
+     * join levaria o planejador a ler a tabela inteira.
+     */
+
+    @Query(value = """
+            WITH candidatas AS (
+                SELECT id FROM doacao
+                WHERE desastre_id = :desastreId AND status = :statusAtual AND id > :apos
+                ORDER BY id LIMIT :limite
+            ), lote AS (
+                SELECT id, status FROM doacao
+                WHERE id = ANY(ARRAY(SELECT id FROM candidatas))
+                  AND desastre_id = :desastreId AND status = :statusAtual
+                ORDER BY id FOR UPDATE
+            ), alteradas AS (
+                UPDATE doacao SET status = :statusNovo
+                WHERE id = ANY(ARRAY(SELECT id FROM lote))
+                RETURNING id, desastre_id, beneficiario_id, status
+            )
+            SELECT c.id, a.desastre_id, a.beneficiario_id, a.status, lote.status, a.id IS NOT NULL
+            FROM candidatas c
+            LEFT JOIN alteradas a ON a.id = c.id
+            LEFT JOIN lote ON lote.id = c.id
+            ORDER BY c.id
+            """, nativeQuery = true)
+    List<Object[]> transicionarPorDesastreEStatus(@Param("desastreId") UUID desastreId,
+                                                  @Param("statusAtual") String statusAtual,
+                                                  @Param("statusNovo") String statusNovo,
+                                                  @Param("apos") UUID apos,
+                                                  @Param("limite") int limite);
+
+    @Query(value = """
+            WITH candidatas AS (
+                SELECT id FROM doacao
+                WHERE desastre_id = :desastreId AND status IS DISTINCT FROM :statusNovo AND id > :apos
+                ORDER BY id LIMIT :limite
+            ), lote AS (
+                SELECT id, status FROM doacao
+                WHERE id = ANY(ARRAY(SELECT id FROM candidatas))
+                  AND desastre_id = :desastreId AND status IS DISTINCT FROM :statusNovo
+                ORDER BY id FOR UPDATE
+            ), alteradas AS (
+                UPDATE doacao SET status = :statusNovo
+                WHERE id = ANY(ARRAY(SELECT id FROM lote))
+                RETURNING id, desastre_id, beneficiario_id, status
+            )
+            SELECT c.id, a.desastre_id, a.beneficiario_id, a.status, lote.status, a.id IS NOT NULL
+            FROM candidatas c
+            LEFT JOIN alteradas a ON a.id = c.id
+            LEFT JOIN lote ON lote.id = c.id
+            ORDER BY c.id
+            """, nativeQuery = true)
+    List<Object[]> transicionarPorDesastre(@Param("desastreId") UUID desastreId,
+                                           @Param("statusNovo") String statusNovo,
+                                           @Param("apos") UUID apos,
+                                           @Param("limite") int limite);
+
+    @Query(value = """
+            WITH candidatas AS (
+                SELECT id FROM doacao
+                WHERE status = :statusAtual AND id > :apos
+                ORDER BY id LIMIT :limite
+            ), lote AS (
+                SELECT id, status FROM doacao
+                WHERE id = ANY(ARRAY(SELECT id FROM candidatas))
+                  AND status = :statusAtual
+                ORDER BY id FOR UPDATE
+            ), alteradas AS (
+                UPDATE doacao SET status = :statusNovo
+                WHERE id = ANY(ARRAY(SELECT id FROM lote))
+                RETURNING id, desastre_id, beneficiario_id, status
+            )
+            SELECT c.id, a.desastre_id, a.beneficiario_id, a.status, lote.status, a.id IS NOT NULL
+            FROM candidatas c
+            LEFT JOIN alteradas a ON a.id = c.id
+            LEFT JOIN lote ON lote.id = c.id
+            ORDER BY c.id
+            """, nativeQuery = true)
+    List<Object[]> transicionarPorStatus(@Param("statusAtual") String statusAtual,
+                                         @Param("statusNovo") String statusNovo,
+                                         @Param("apos") UUID apos,
+                                         @Param("limite") int limite);
+
+    /**
+     * Lote de uma transição por lista de IDs: a lista já vem fatiada, e os demais
+     * filtros, opcionais, só descartam linhas encontradas pela chave primária.
+     */
+    @Query(value = """
+            UPDATE doacao d
+            SET status = :statusNovo
+            FROM (SELECT id, status FROM doacao
+                  WHERE id = ANY(CAST(:ids AS uuid[]))
+                    AND (CAST(:desastreId AS uuid) IS NULL OR desastre_id = CAST(:desastreId AS uuid))
+                    AND (CAST(:statusAtual AS varchar) IS NULL OR status = CAST(:statusAtual AS varchar))
+                    AND status IS DISTINCT FROM :statusNovo
+                  ORDER BY id FOR UPDATE) anterior
+            WHERE d.id = anterior.id
+            RETURNING d.id, d.desastre_id, d.beneficiario_id, d.status, anterior.status
+            """, nativeQuery = true)
+    List<Object[]> transicionarPorIds(@Param("ids") UUID[] ids,
+                                      @Param("desastreId") UUID desastreId,
+                                      @Param("statusAtual") String statusAtual,
+                                      @Param("statusNovo") String statusNovo);
 }
@@ -1,21 +1,60 @@
 package br.org.fiap.safepulse.infra.repositories;
 
 import br.org.fiap.safepulse.domain.entities.Doador;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
 public interface DoadorRepository extends JpaRepository<Doador, UUID> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Doador> findByEmail(String email);
 
-    List<Doador> findByNomeContainingIgnoreCase(String nome);
+    Slice<Doador> findByIdGreaterThan(UUID id, Pageable pageable);
 
-    List<Doador> findByOngContainingIgnoreCase(String ong);
+    @Query("SELECT d FROM Doador d WHERE d.nome ILIKE concat('%', :#{escape(#nome)}, '%') ESCAPE :#{escapeCharacter()} AND d.id > :id")
+    Slice<Doador> findByNomeContainingIgnoreCaseAndIdGreaterThan(@Param("nome") String nome, @Param("id") UUID id, Pageable pageable);
 
+    @Query("SELECT d FROM Doador d WHERE d.ong ILIKE concat('%', :#{escape(#ong)}, '%') ESCAPE :#{escapeCharacter()} AND d.id > :id")
+    Slice<Doador> findByOngContainingIgnoreCaseAndIdGreaterThan(@Param("ong") String ong, @Param("id") UUID id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByTelefone(String telefone);
+
+    @Query("SELECT d.id FROM Doador d WHERE d.id IN :ids")
+    Set<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Busca aproximada por nome com pg_trgm: aceita trechos (ILIKE) e grafias
+     * parecidas (operador %), ordenando pela similaridade. Usa o índice GIN
+     * doador_nome_trgm_idx. Curingas no termo (%, _ e \\) valem como texto, como
+     * nas buscas JPQL.
+     */
+    @Query(value = """
+            SELECT * FROM doador
+            WHERE nome ILIKE concat('%', :#{escape(#termo)}, '%') ESCAPE :#{escapeCharacter()} OR nome % :termo
+            ORDER BY similarity(nome, :termo) DESC, id
+            LIMIT :limite
+            """, nativeQuery = true)
+    List<Doador> findSimilarByNome(@Param("termo") String termo, @Param("limite") int limite);
+
+    /**
+     * Registros com os IDs informados, em uma única consulta com um só parâmetro
+     * (array), qualquer que seja a quantidade; a ordem do resultado não é garantida.
+     */
+    @Query(value = "SELECT * FROM doador WHERE id = ANY(CAST(:ids AS uuid[]))", nativeQuery = true)
+    List<Doador> findByIds(@Param("ids") UUID[] ids);
 }
@@ -0,0 +1,48 @@
+package br.org.fiap.safepulse.infra.repositories;
+
+import br.org.fiap.safepulse.domain.entities.OutboxEvento;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventoRepository extends JpaRepository<OutboxEvento, Long> {
+
+    /**
+     * Reserva os eventos mais antigos prontos para envio, empurrando
+     * proxima_tentativa_em para {@code reservadoAte}: até lá nenhum outro dispatcher
+     * os pega, e se este cair antes de confirmar, eles voltam sozinhos para a fila.
+     * SKIP LOCKED faz dispatchers concorrentes pegarem lotes diferentes em vez de
+     * esperar uns pelos outros.
+     *
+     * "Mais antigos" é aproximado: o ID vem de uma sequência com alocação em blocos
+     * de 50 por instância, então não segue a ordem de commit, e um evento adiado ou
+     * reservado por outro dispatcher não segura os seguintes do mesmo agregado.
+     * Roda como consulta, sem @Modifying, para devolver as linhas do RETURNING.
+     */
+    @Query(value = "WITH candidatos AS (" +
+            "SELECT id FROM outbox_evento " +
+            "WHERE proxima_tentativa_em <= now() " +
+            "ORDER BY id LIMIT :limite " +
+            "FOR UPDATE SKIP LOCKED) " +
+            "UPDATE outbox_evento SET proxima_tentativa_em = :reservadoAte " +
+            "WHERE id = ANY(ARRAY(SELECT id FROM candidatos)) " +
+            "RETURNING *",
+            nativeQuery = true)
+    List<OutboxEvento> reservarLote(@Param("limite") int limite, @Param("reservadoAte") Instant reservadoAte);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvento o WHERE o.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE OutboxEvento o SET o.tentativas = o.tentativas + 1, o.proximaTentativaEm = :proxima " +
+            "WHERE o.id IN :ids")
+    int adiar(@Param("ids") Collection<Long> ids, @Param("proxima") Instant proxima);
+}
@@ -1,18 +1,55 @@
 package br.org.fiap.safepulse.infra.repositories;
 
 import br.org.fiap.safepulse.domain.entities.Produto;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
 public interface ProdutoRepository extends JpaRepository<Produto, UUID> {
 
-    List<Produto> findByNomeContainingIgnoreCase(String nome);
+    Slice<Produto> findByIdGreaterThan(UUID id, Pageable pageable);
 
-    List<Produto> findByUnidade(String unidade);
+    @Query("SELECT p FROM Produto p WHERE p.nome ILIKE concat('%', :#{escape(#nome)}, '%') ESCAPE :#{escapeCharacter()} AND p.id > :id")
+    Slice<Produto> findByNomeContainingIgnoreCaseAndIdGreaterThan(@Param("nome") String nome, @Param("id") UUID id, Pageable pageable);
 
+    Slice<Produto> findByUnidadeAndIdGreaterThan(String unidade, UUID id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByNome(String nome);
+
+    @Query("SELECT p.id FROM Produto p WHERE p.id IN :ids")
+    Set<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Busca aproximada por nome com pg_trgm: aceita trechos (ILIKE) e grafias
+     * parecidas (operador %), ordenando pela similaridade. Usa o índice GIN
+     * produto_nome_trgm_idx. Curingas no termo (%, _ e \\) valem como texto, como
+     * nas buscas JPQL.
+     */
+    @Query(value = """
+            SELECT * FROM produto
+            WHERE nome ILIKE concat('%', :#{escape(#termo)}, '%') ESCAPE :#{escapeCharacter()} OR nome % :termo
+            ORDER BY similarity(nome, :termo) DESC, id
+            LIMIT :limite
+            """, nativeQuery = true)
+    List<Produto> findSimilarByNome(@Param("termo") String termo, @Param("limite") int limite);
+
+    /**
+     * Registros com os IDs informados, em uma única consulta com um só parâmetro
+     * (array), qualquer que seja a quantidade; a ordem do resultado não é garantida.
+     */
+    @Query(value = "SELECT * FROM produto WHERE id = ANY(CAST(:ids AS uuid[]))", nativeQuery = true)
+    List<Produto> findByIds(@Param("ids") UUID[] ids);
 }
@@ -0,0 +1,103 @@
+package br.org.fiap.safepulse.infra.repositories;
+
+import br.org.fiap.safepulse.domain.entities.ProdutoTotal;
+import br.org.fiap.safepulse.domain.entities.ProdutoTotalId;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ProdutoTotalRepository extends JpaRepository<ProdutoTotal, ProdutoTotalId> {
+
+    /**
+     * Soma {@code delta} à faixa informada, criando a linha se ainda não existir.
+     * Um único comando atômico: não há leitura prévia nem corrida entre INSERT e UPDATE.
+     * O query space restringe a invalidação do cache de segundo nível a produto_total
+     * (sem ele, o Hibernate descartaria todas as regiões a cada incremento).
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "produto_total"))
+    @Query(value = """
+            INSERT INTO produto_total (produto_id, doador_id, origem, faixa, quantidade)
+            VALUES (:produtoId, :doadorId, :origem, :faixa, :delta)
+            ON CONFLICT (produto_id, doador_id, origem, faixa)
+            DO UPDATE SET quantidade = produto_total.quantidade + EXCLUDED.quantidade
+            """, nativeQuery = true)
+    void incrementar(@Param("produtoId") UUID produtoId,
+                     @Param("doadorId") UUID doadorId,
+                     @Param("origem") String origem,
+                     @Param("faixa") int faixa,
+                     @Param("delta") long delta);
+
+    /**
+     * Vários incrementos na mesma faixa em um único comando: a linha i soma
+     * {@code deltas[i]} a (produtos[i], doadores[i]). As chaves não podem se repetir
+     * e são travadas na ordem dos arrays.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "produto_total"))
+    @Query(value = """
+            INSERT INTO produto_total (produto_id, doador_id, origem, faixa, quantidade)
+            SELECT t.produto_id, t.doador_id, :origem, :faixa, t.delta
+            FROM unnest(CAST(:produtos AS uuid[]), CAST(:doadores AS uuid[]), CAST(:deltas AS bigint[]))
+                 AS t (produto_id, doador_id, delta)
+            ON CONFLICT (produto_id, doador_id, origem, faixa)
+            DO UPDATE SET quantidade = produto_total.quantidade + EXCLUDED.quantidade
+            """, nativeQuery = true)
+    void incrementarLote(@Param("produtos") UUID[] produtos,
+                         @Param("doadores") UUID[] doadores,
+                         @Param("deltas") long[] deltas,
+                         @Param("origem") String origem,
+                         @Param("faixa") int faixa);
+
+    /** Lê as (no máximo {@code FAIXAS}) linhas do produto pela chave primária. */
+    @Query("SELECT COALESCE(SUM(t.quantidade), 0) FROM ProdutoTotal t " +
+            "WHERE t.id.produtoId = :produtoId AND t.id.doadorId = :doadorId AND t.id.origem = :origem")
+    long somar(@Param("produtoId") UUID produtoId,
+               @Param("doadorId") UUID doadorId,
+               @Param("origem") String origem);
+
+    /**
+     * Tenta a trava consultiva {@code chave} até o fim da transação atual, sem
+     * esperar; devolve {@code false} se outra sessão já a tem.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:chave)", nativeQuery = true)
+    boolean travar(@Param("chave") long chave);
+
+    /**
+     * Compara os totais mantidos com a soma das tabelas de origem. Cada linha do
+     * resultado é (produto_id, doador_id, origem, diferença), onde diferença é quanto
+     * falta somar aos contadores para que batam com a origem.
+     */
+    @Query(value = """
+            WITH esperado AS (
+                SELECT produto_id, CAST('00000000-0000-0000-0000-000000000000' AS uuid) AS doador_id,
+                       'DDP' AS origem, SUM(quantidade) AS quantidade
+                FROM doacao_doador_produto GROUP BY produto_id
+                UNION ALL
+                SELECT produto_id, doador_id, 'DDP', SUM(quantidade)
+                FROM doacao_doador_produto GROUP BY produto_id, doador_id
+                UNION ALL
+                SELECT produto_id, CAST('00000000-0000-0000-0000-000000000000' AS uuid),
+                       'DP', SUM(quantidade)
+                FROM doacao_produto GROUP BY produto_id
+            ), atual AS (
+                SELECT produto_id, doador_id, origem, SUM(quantidade) AS quantidade
+                FROM produto_total GROUP BY produto_id, doador_id, origem
+            )
+            SELECT produto_id, doador_id, origem,
+                   CAST(COALESCE(e.quantidade, 0) - COALESCE(a.quantidade, 0) AS bigint) AS diferenca
+            FROM esperado e
+            FULL JOIN atual a USING (produto_id, doador_id, origem)
+            WHERE COALESCE(e.quantidade, 0) <> COALESCE(a.quantidade, 0)
+            """, nativeQuery = true)
+    List<Object[]> findDivergencias();
+}
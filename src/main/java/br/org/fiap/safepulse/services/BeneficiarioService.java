@@ -1,8 +1,14 @@
 package br.org.fiap.safepulse.services;
 
+import br.org.fiap.safepulse.config.CacheConfig;
+import br.org.fiap.safepulse.domain.dtos.BeneficiarioPatchDto;
 import br.org.fiap.safepulse.domain.entities.Beneficiario;
 import br.org.fiap.safepulse.infra.repositories.BeneficiarioRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,41 +21,92 @@ import java.util.UUID;
 @Transactional
 public class BeneficiarioService {
 
+    /** Maior quantidade de resultados aceita na busca por similaridade. */
+    private static final int LIMITE_SIMILAR_MAXIMO = 100;
+
     private final BeneficiarioRepository beneficiarioRepository;
 
     public Beneficiario create(Beneficiario beneficiario) {
         return beneficiarioRepository.save(beneficiario);
     }
 
+    @Transactional(readOnly = true)
     public Optional<Beneficiario> getById(UUID id) {
         return beneficiarioRepository.findById(id);
     }
 
-    public List<Beneficiario> getAll() {
-        return beneficiarioRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<Beneficiario> getByIds(UUID[] ids) {
+        return beneficiarioRepository.findByIds(ids);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<Beneficiario> getAll(UUID after, Pageable pageable) {
+        return beneficiarioRepository.findByIdGreaterThan(after, pageable);
     }
 
+    /**
+     * Existência do ID, servida pelo cache quando já confirmada (ver {@link CacheConfig}).
+     * Usada para validar escritas, por isso consulta o primário e não uma réplica.
+     */
+    @Cacheable(cacheNames = CacheConfig.BENEFICIARIOS, unless = "!#result")
+    public boolean existsById(UUID id) {
+        return beneficiarioRepository.existsById(id);
+    }
+
+    /** Proxy para associações; não consulta o banco. */
+    public Beneficiario getReference(UUID id) {
+        return beneficiarioRepository.getReferenceById(id);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.BENEFICIARIOS, key = "#beneficiario.id")
     public Beneficiario update(Beneficiario beneficiario) {
         return beneficiarioRepository.save(beneficiario);
     }
 
+    /** Alteração parcial como em {@link DoadorService#atualizarParcial}; falso se o beneficiário não existe. */
+    public boolean atualizarParcial(UUID id, BeneficiarioPatchDto dto) {
+        return beneficiarioRepository.findById(id).map(beneficiario -> {
+            Optional.ofNullable(dto.getNome()).ifPresent(beneficiario::setNome);
+            Optional.ofNullable(dto.getOng()).ifPresent(beneficiario::setOng);
+            Optional.ofNullable(dto.getEmail()).ifPresent(beneficiario::setEmail);
+            Optional.ofNullable(dto.getTelefone()).ifPresent(beneficiario::setTelefone);
+            Optional.ofNullable(dto.getEndereco()).ifPresent(beneficiario::setEndereco);
+            return true;
+        }).orElse(false);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.BENEFICIARIOS, key = "#id")
     public void delete(UUID id) {
         beneficiarioRepository.deleteById(id);
     }
 
+    @Transactional(readOnly = true)
     public Optional<Beneficiario> findByEmail(String email) {
         return beneficiarioRepository.findByEmail(email);
     }
 
-    public List<Beneficiario> findByNome(String nome) {
-        return beneficiarioRepository.findByNomeContainingIgnoreCase(nome);
+    @Transactional(readOnly = true)
+    public Slice<Beneficiario> findByNome(String nome, UUID after, Pageable pageable) {
+        return beneficiarioRepository.findByNomeContainingIgnoreCaseAndIdGreaterThan(nome, after, pageable);
     }
 
-    public List<Beneficiario> findByOng(String ong) {
-        return beneficiarioRepository.findByOngContainingIgnoreCase(ong);
+    @Transactional(readOnly = true)
+    public Slice<Beneficiario> findByOng(String ong, UUID after, Pageable pageable) {
+        return beneficiarioRepository.findByOngContainingIgnoreCaseAndIdGreaterThan(ong, after, pageable);
     }
 
+    @Transactional(readOnly = true)
     public boolean existsByTelefone(String telefone) {
         return beneficiarioRepository.existsByTelefone(telefone);
     }
+
+    /**
+     * Busca por nome ordenada por similaridade (pg_trgm), limitada a
+     * {@link #LIMITE_SIMILAR_MAXIMO} resultados.
+     */
+    @Transactional(readOnly = true)
+    public List<Beneficiario> findSimilarByNome(String termo, int limite) {
+        return beneficiarioRepository.findSimilarByNome(termo, Math.max(1, Math.min(limite, LIMITE_SIMILAR_MAXIMO)));
+    }
 }
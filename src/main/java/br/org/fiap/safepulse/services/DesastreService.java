@@ -1,15 +1,29 @@
 package br.org.fiap.safepulse.services;
 
+import br.org.fiap.safepulse.config.CacheConfig;
+import br.org.fiap.safepulse.domain.dtos.DesastreSummaryDto;
+import br.org.fiap.safepulse.domain.dtos.DesastrePatchDto;
 import br.org.fiap.safepulse.domain.entities.Desastre;
 import br.org.fiap.safepulse.infra.repositories.DesastreRepository;
+import br.org.fiap.safepulse.infra.repositories.DoacaoDoadorProdutoRepository;
+import br.org.fiap.safepulse.infra.repositories.DoacaoProdutoRepository;
+import br.org.fiap.safepulse.infra.repositories.DoacaoRepository;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import jakarta.persistence.criteria.Predicate;   // ← usa jakarta, não javax
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -18,40 +32,114 @@ import java.util.UUID;
 @Transactional
 public class DesastreService {
 
+    /** Maior quantidade de resultados aceita na busca por similaridade. */
+    private static final int LIMITE_SIMILAR_MAXIMO = 100;
+
+    /** Chave usada no resumo para doações sem status. */
+    private static final String SEM_STATUS = "SEM_STATUS";
+
     private final DesastreRepository desastreRepository;
+    private final DoacaoRepository doacaoRepository;
+    private final DoacaoProdutoRepository doacaoProdutoRepository;
+    private final DoacaoDoadorProdutoRepository doacaoDoadorProdutoRepository;
 
     public Desastre create(Desastre desastre) {
         return desastreRepository.save(desastre);
     }
 
+    @Transactional(readOnly = true)
     public Optional<Desastre> getById(UUID id) {
         return desastreRepository.findById(id);
     }
 
-    public List<Desastre> getAll() {
-        return desastreRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<Desastre> getByIds(UUID[] ids) {
+        return desastreRepository.findByIds(ids);
+    }
+
+    /**
+     * Existência do ID, servida pelo cache quando já confirmada (ver {@link CacheConfig}).
+     * Usada para validar escritas, por isso consulta o primário e não uma réplica.
+     */
+    @Cacheable(cacheNames = CacheConfig.DESASTRES, unless = "!#result")
+    public boolean existsById(UUID id) {
+        return desastreRepository.existsById(id);
     }
 
+    /** Proxy para associações; não consulta o banco. */
+    public Desastre getReference(UUID id) {
+        return desastreRepository.getReferenceById(id);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.DESASTRES, key = "#desastre.id")
     public Desastre update(Desastre desastre) {
         return desastreRepository.save(desastre);
     }
 
+    /** Alteração parcial como em {@link DoadorService#atualizarParcial}; falso se o desastre não existe. */
+    public boolean atualizarParcial(UUID id, DesastrePatchDto dto) {
+        return desastreRepository.findById(id).map(desastre -> {
+            Optional.ofNullable(dto.getNome()).ifPresent(desastre::setNome);
+            Optional.ofNullable(dto.getDescricao()).ifPresent(desastre::setDescricao);
+            Optional.ofNullable(dto.getLocalizacao()).ifPresent(desastre::setLocalizacao);
+            Optional.ofNullable(dto.getDataDesastre()).ifPresent(desastre::setDataDesastre);
+            return true;
+        }).orElse(false);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.DESASTRES, key = "#id")
     public void delete(UUID id) {
         desastreRepository.deleteById(id);
     }
 
-    public List<Desastre> findByNome(String nome) {
-        return desastreRepository.findByNomeContainingIgnoreCase(nome);
+    @Transactional(readOnly = true)
+    public Slice<Desastre> findByNome(String nome, UUID after, Pageable pageable) {
+        return desastreRepository.findByNomeContainingIgnoreCaseAndIdGreaterThan(nome, after, pageable);
     }
 
-    public List<Desastre> findByDataRange(LocalDate inicio, LocalDate fim) {
-        return desastreRepository.findByDataDesastreBetween(inicio, fim);
+    @Transactional(readOnly = true)
+    public Slice<Desastre> findByDataRange(LocalDate inicio, LocalDate fim, UUID after, Pageable pageable) {
+        return desastreRepository.findByDataDesastreBetweenAndIdGreaterThan(inicio, fim, after, pageable);
     }
 
-    public List<Desastre> findByLocalizacao(String localizacao) {
-        return desastreRepository.findByLocalizacaoContainingIgnoreCase(localizacao);
+    @Transactional(readOnly = true)
+    public Slice<Desastre> findByLocalizacao(String localizacao, UUID after, Pageable pageable) {
+        return desastreRepository.findByLocalizacaoContainingIgnoreCaseAndIdGreaterThan(localizacao, after, pageable);
     }
 
+    /**
+     * Resumo do desastre para painéis: doações por status, quantidades por produto e
+     * doadores/beneficiários distintos, em cinco consultas agregadas. Fica em cache por
+     * um TTL curto; {@code sync} garante um único cálculo por desastre quando várias
+     * requisições chegam ao mesmo tempo com o cache vazio. A meta de latência do
+     * painel vale para o acerto no cache; o cálculo frio de um desastre grande lê as
+     * associações pelas chaves primárias e pode passar dela.
+     */
+    @Cacheable(cacheNames = CacheConfig.RESUMOS_DESASTRE, sync = true)
+    @Transactional(readOnly = true)
+    public DesastreSummaryDto getSummary(UUID desastreId) {
+        Map<String, Long> porStatus = new LinkedHashMap<>();
+        long totalDoacoes = 0;
+        for (Object[] linha : doacaoRepository.countByStatusForDesastre(desastreId)) {
+            String status = linha[0] == null ? SEM_STATUS : (String) linha[0];
+            long quantidade = (Long) linha[1];
+            porStatus.merge(status, quantidade, Long::sum);
+            totalDoacoes += quantidade;
+        }
+
+        return DesastreSummaryDto.builder()
+                .desastreId(desastreId)
+                .totalDoacoes(totalDoacoes)
+                .doacoesPorStatus(porStatus)
+                .beneficiariosDistintos(doacaoRepository.countDistinctBeneficiariosByDesastreId(desastreId))
+                .doadoresDistintos(doacaoDoadorProdutoRepository.countDistinctDoadoresByDesastreId(desastreId))
+                .produtosDoacoes(doacaoProdutoRepository.sumQuantidadeByProdutoForDesastre(desastreId))
+                .produtosDoadores(doacaoDoadorProdutoRepository.sumQuantidadeByProdutoForDesastre(desastreId))
+                .calculadoEm(Instant.now())
+                .build();
+    }
+
+    @Transactional(readOnly = true)
     public long countAfterDate(LocalDate dataReferencia) {
         return desastreRepository.countByDataDesastreAfter(dataReferencia);
     }
@@ -63,29 +151,43 @@ public class DesastreService {
      * - intervalo de datas (inicio/fim)
      *
      * Se todos os parâmetros forem null (ou vazios), retorna todos os registros.
+     * A página começa após o ID informado em {@code after} (paginação por cursor).
      */
-    public List<Desastre> getByFilters(String nome,
-                                       String localizacao,
-                                       LocalDate inicio,
-                                       LocalDate fim) {
+    @Transactional(readOnly = true)
+    public Slice<Desastre> getByFilters(String nome,
+                                        String localizacao,
+                                        LocalDate inicio,
+                                        LocalDate fim,
+                                        UUID after,
+                                        Pageable pageable) {
+        return desastreRepository.findBy(filtros(nome, localizacao, inicio, fim, after), q -> q.slice(pageable));
+    }
 
-        Specification<Desastre> spec = (root, query, cb) -> {
+    /** Specification usada por {@link #getByFilters}; sem estado, para poder ser medida isoladamente. */
+    static Specification<Desastre> filtros(String nome,
+                                           String localizacao,
+                                           LocalDate inicio,
+                                           LocalDate fim,
+                                           UUID after) {
+        return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
+            predicates.add(cb.greaterThan(root.<UUID>get("id"), after));
+
             if (nome != null && !nome.isBlank()) {
                 predicates.add(
-                        cb.like(
-                                cb.lower(root.get("nome")),
-                                "%" + nome.toLowerCase() + "%"
+                        ((HibernateCriteriaBuilder) cb).ilike(
+                                root.get("nome"),
+                                "%" + nome + "%"
                         )
                 );
             }
 
             if (localizacao != null && !localizacao.isBlank()) {
                 predicates.add(
-                        cb.like(
-                                cb.lower(root.get("localizacao")),
-                                "%" + localizacao.toLowerCase() + "%"
+                        ((HibernateCriteriaBuilder) cb).ilike(
+                                root.get("localizacao"),
+                                "%" + localizacao + "%"
                         )
                 );
             }
@@ -104,13 +206,16 @@ public class DesastreService {
                 );
             }
 
-            if (predicates.isEmpty()) {
-                return cb.conjunction();
-            }
-
             return cb.and(predicates.toArray(new Predicate[0]));
         };
+    }
 
-        return desastreRepository.findAll(spec);
+    /**
+     * Busca por nome ordenada por similaridade (pg_trgm), limitada a
+     * {@link #LIMITE_SIMILAR_MAXIMO} resultados.
+     */
+    @Transactional(readOnly = true)
+    public List<Desastre> findSimilarByNome(String termo, int limite) {
+        return desastreRepository.findSimilarByNome(termo, Math.max(1, Math.min(limite, LIMITE_SIMILAR_MAXIMO)));
     }
 }
@@ -1,56 +1,287 @@
 package br.org.fiap.safepulse.services;
 
+import br.org.fiap.safepulse.domain.dtos.BulkItemResultDto;
+import br.org.fiap.safepulse.domain.dtos.DoacaoDoadorProdutoCreateDto;
+import br.org.fiap.safepulse.domain.dtos.DoacaoDoadorProdutoDto;
 import br.org.fiap.safepulse.domain.entities.DoacaoDoadorProduto;
 import br.org.fiap.safepulse.domain.entities.DoacaoDoadorProdutoId;
+import br.org.fiap.safepulse.domain.entities.OutboxEvento;
 import br.org.fiap.safepulse.infra.repositories.DoacaoDoadorProdutoRepository;
+import br.org.fiap.safepulse.infra.repositories.DoacaoRepository;
+import br.org.fiap.safepulse.infra.repositories.DoadorRepository;
+import br.org.fiap.safepulse.infra.repositories.ProdutoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class DoacaoDoadorProdutoService {
 
+    /** Itens gravados por flush; acompanha hibernate.jdbc.batch_size. */
+    private static final int TAMANHO_LOTE = 500;
+
+    /** IDs por consulta IN, para ficar longe do limite de parâmetros do driver. */
+    private static final int TAMANHO_CONSULTA_IN = 1000;
+
     private final DoacaoDoadorProdutoRepository doacaoDoadorProdutoRepository;
+    private final DoacaoRepository doacaoRepository;
+    private final DoadorRepository doadorRepository;
+    private final ProdutoRepository produtoRepository;
+    private final ProdutoTotalService produtoTotalService;
+    private final OutboxService outboxService;
+    private final EntityManager entityManager;
+    private final Validator validator;
 
     public DoacaoDoadorProduto create(DoacaoDoadorProduto entity) {
-        return doacaoDoadorProdutoRepository.save(entity);
+        // como no lote, as referências do @MapsId precisam ser desta sessão
+        entity.setDoacao(doacaoRepository.getReferenceById(entity.getDoacao().getId()));
+        entity.setDoador(doadorRepository.getReferenceById(entity.getDoador().getId()));
+        entity.setProduto(produtoRepository.getReferenceById(entity.getProduto().getId()));
+        DoacaoDoadorProduto salvo = doacaoDoadorProdutoRepository.save(entity);
+        produtoTotalService.registrarDoacaoDoadorProduto(
+                salvo.getProduto().getId(), salvo.getDoador().getId(), salvo.getQuantidade());
+        registrarOutbox(OutboxEvento.CRIADO, chave(salvo), salvo.getQuantidade());
+        return salvo;
+    }
+
+    /**
+     * Soma a quantidade à associação, criando-a se preciso, com um upsert em vez de
+     * ler e depois gravar; o total do produto é incrementado na mesma transação.
+     */
+    public DoacaoDoadorProdutoDto incrementar(DoacaoDoadorProdutoId id, int delta) {
+        Object[] linha = doacaoDoadorProdutoRepository.incrementar(
+                id.getDoacaoId(), id.getDoadorId(), id.getProdutoId(), delta).get(0);
+        int quantidade = ((Number) linha[0]).intValue();
+        produtoTotalService.registrarDoacaoDoadorProduto(id.getProdutoId(), id.getDoadorId(), delta);
+        registrarOutbox((Boolean) linha[1] ? OutboxEvento.CRIADO : OutboxEvento.ATUALIZADO, id, quantidade);
+        return new DoacaoDoadorProdutoDto(id.getDoacaoId(), id.getDoadorId(), id.getProdutoId(), quantidade);
     }
 
+    @Transactional(readOnly = true)
     public Optional<DoacaoDoadorProduto> getById(DoacaoDoadorProdutoId id) {
         return doacaoDoadorProdutoRepository.findById(id);
     }
 
-    public List<DoacaoDoadorProduto> getAll() {
-        return doacaoDoadorProdutoRepository.findAll();
+    @Transactional(readOnly = true)
+    public Slice<DoacaoDoadorProdutoDto> getAll(DoacaoDoadorProdutoId after, Pageable pageable) {
+        return doacaoDoadorProdutoRepository.findAfter(
+                after.getDoacaoId(), after.getDoadorId(), after.getProdutoId(), pageable);
     }
 
     public void delete(DoacaoDoadorProdutoId id) {
-        doacaoDoadorProdutoRepository.deleteById(id);
+        doacaoDoadorProdutoRepository.findById(id).ifPresent(existente -> {
+            doacaoDoadorProdutoRepository.delete(existente);
+            produtoTotalService.registrarDoacaoDoadorProduto(
+                    id.getProdutoId(), id.getDoadorId(), -existente.getQuantidade());
+            registrarOutbox(OutboxEvento.REMOVIDO, id, existente.getQuantidade());
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<DoacaoDoadorProdutoDto> findByDoacaoId(UUID doacaoId, DoacaoDoadorProdutoId after, Pageable pageable) {
+        return doacaoDoadorProdutoRepository.findByDoacaoIdAfter(
+                doacaoId, after.getDoacaoId(), after.getDoadorId(), after.getProdutoId(), pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<DoacaoDoadorProdutoDto> findByDoadorId(UUID doadorId, DoacaoDoadorProdutoId after, Pageable pageable) {
+        return doacaoDoadorProdutoRepository.findByDoadorIdAfter(
+                doadorId, after.getDoacaoId(), after.getDoadorId(), after.getProdutoId(), pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<DoacaoDoadorProdutoDto> findByProdutoId(UUID produtoId, DoacaoDoadorProdutoId after, Pageable pageable) {
+        return doacaoDoadorProdutoRepository.findByProdutoIdAfter(
+                produtoId, after.getDoacaoId(), after.getDoadorId(), after.getProdutoId(), pageable);
+    }
+
+    /** Lido dos totais mantidos em produto_total, sem varrer as associações. */
+    @Transactional(readOnly = true)
+    public Long sumQuantidadeByDoadorIdAndProdutoId(UUID doadorId, UUID produtoId) {
+        return produtoTotalService.totalDoacaoDoadorProduto(produtoId, doadorId);
+    }
+
+    /** Lido dos totais mantidos em produto_total, sem varrer as associações. */
+    @Transactional(readOnly = true)
+    public Long sumQuantidadeByProdutoId(UUID produtoId) {
+        return produtoTotalService.totalDoacaoDoadorProduto(produtoId);
+    }
+
+    /**
+     * Percorre todas as linhas em streaming, entregando cada uma ao consumidor.
+     * A transação (somente leitura) fica aberta enquanto o cursor é lido.
+     */
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<DoacaoDoadorProdutoDto> consumidor) {
+        try (Stream<DoacaoDoadorProdutoDto> linhas = doacaoDoadorProdutoRepository.streamAll()) {
+            linhas.forEach(consumidor);
+        }
+    }
+
+    /**
+     * Grava um lote de associações em uma única transação, devolvendo o resultado de
+     * cada item na ordem recebida. Itens nulos representam entradas ilegíveis.
+     *
+     * As referências são validadas com uma consulta IN por tipo (Doação, Doador,
+     * Produto) e as linhas já existentes com uma consulta IN sobre a chave composta.
+     * Os INSERTs usam referências (sem SELECT) e saem em lotes JDBC de
+     * {@link #TAMANHO_LOTE}, com flush/clear entre lotes para manter o contexto de
+     * persistência pequeno. Os totais por produto são acumulados e registrados em um
+     * único comando no fim, com as chaves em ordem.
+     */
+    public List<BulkItemResultDto> createBulk(List<DoacaoDoadorProdutoCreateDto> itens) {
+        BulkItemResultDto[] resultados = new BulkItemResultDto[itens.size()];
+
+        Set<UUID> doacaoIds = new HashSet<>();
+        Set<UUID> doadorIds = new HashSet<>();
+        Set<UUID> produtoIds = new HashSet<>();
+        for (int i = 0; i < itens.size(); i++) {
+            DoacaoDoadorProdutoCreateDto dto = itens.get(i);
+            if (dto == null) {
+                resultados[i] = resultado(i, BulkItemResultDto.INVALIDO, "Item ilegível");
+                continue;
+            }
+            Set<ConstraintViolation<DoacaoDoadorProdutoCreateDto>> violacoes = validator.validate(dto);
+            if (!violacoes.isEmpty()) {
+                String mensagem = violacoes.stream()
+                        .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                resultados[i] = resultado(i, BulkItemResultDto.INVALIDO, mensagem);
+                continue;
+            }
+            doacaoIds.add(dto.getDoacaoId());
+            doadorIds.add(dto.getDoadorId());
+            produtoIds.add(dto.getProdutoId());
+        }
+
+        Set<UUID> doacoes = buscarExistentes(doacaoIds, doacaoRepository::findExistingIds);
+        Set<UUID> doadores = buscarExistentes(doadorIds, doadorRepository::findExistingIds);
+        Set<UUID> produtos = buscarExistentes(produtoIds, produtoRepository::findExistingIds);
+
+        Set<DoacaoDoadorProdutoId> chavesDoLote = new HashSet<>();
+        for (int i = 0; i < itens.size(); i++) {
+            if (resultados[i] != null) {
+                continue;
+            }
+            DoacaoDoadorProdutoCreateDto dto = itens.get(i);
+            List<String> faltantes = new ArrayList<>();
+            if (!doacoes.contains(dto.getDoacaoId())) {
+                faltantes.add("doacaoId");
+            }
+            if (!doadores.contains(dto.getDoadorId())) {
+                faltantes.add("doadorId");
+            }
+            if (!produtos.contains(dto.getProdutoId())) {
+                faltantes.add("produtoId");
+            }
+            if (!faltantes.isEmpty()) {
+                resultados[i] = resultado(i, BulkItemResultDto.REFERENCIA_INEXISTENTE,
+                        String.join(", ", faltantes) + " inexistente");
+            } else if (!chavesDoLote.add(chave(dto))) {
+                resultados[i] = resultado(i, BulkItemResultDto.DUPLICADO, "Item repetido no lote");
+            }
+        }
+
+        Set<DoacaoDoadorProdutoId> jaGravadas =
+                buscarExistentes(chavesDoLote, doacaoDoadorProdutoRepository::findExistingIds);
+
+        List<DoacaoDoadorProduto> pendentes = new ArrayList<>(TAMANHO_LOTE);
+        Map<UUID, Map<UUID, Long>> totais = new TreeMap<>();
+        for (int i = 0; i < itens.size(); i++) {
+            if (resultados[i] != null) {
+                continue;
+            }
+            DoacaoDoadorProdutoCreateDto dto = itens.get(i);
+            if (jaGravadas.contains(chave(dto))) {
+                resultados[i] = resultado(i, BulkItemResultDto.DUPLICADO, "Associação já cadastrada");
+                continue;
+            }
+
+            pendentes.add(DoacaoDoadorProduto.builder()
+                    .doacao(doacaoRepository.getReferenceById(dto.getDoacaoId()))
+                    .doador(doadorRepository.getReferenceById(dto.getDoadorId()))
+                    .produto(produtoRepository.getReferenceById(dto.getProdutoId()))
+                    .quantidade(dto.getQuantidade())
+                    .build());
+            resultados[i] = resultado(i, BulkItemResultDto.CRIADO, null);
+
+            if (pendentes.size() == TAMANHO_LOTE) {
+                gravarLote(pendentes, totais);
+            }
+        }
+        gravarLote(pendentes, totais);
+        produtoTotalService.registrarLoteDoacaoDoadorProduto(totais);
+
+        return Arrays.asList(resultados);
+    }
+
+    private void gravarLote(List<DoacaoDoadorProduto> lote, Map<UUID, Map<UUID, Long>> totais) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        doacaoDoadorProdutoRepository.saveAll(lote);
+        ProdutoTotalService.acumular(totais, lote);
+        for (DoacaoDoadorProduto item : lote) {
+            registrarOutbox(OutboxEvento.CRIADO, chave(item), item.getQuantidade());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        lote.clear();
     }
 
-    public List<DoacaoDoadorProduto> findByDoacaoId(UUID doacaoId) {
-        return doacaoDoadorProdutoRepository.findByIdDoacaoId(doacaoId);
+    private void registrarOutbox(String tipo, DoacaoDoadorProdutoId id, Integer quantidade) {
+        outboxService.registrar(OutboxService.DOACAO_DOADOR_PRODUTO,
+                id.getDoacaoId() + ":" + id.getDoadorId() + ":" + id.getProdutoId(), tipo,
+                new DoacaoDoadorProdutoDto(id.getDoacaoId(), id.getDoadorId(), id.getProdutoId(), quantidade));
     }
 
-    public List<DoacaoDoadorProduto> findByDoadorId(UUID doadorId) {
-        return doacaoDoadorProdutoRepository.findByIdDoadorId(doadorId);
+    private static <T> Set<T> buscarExistentes(Set<T> ids, Function<List<T>, Collection<T>> consulta) {
+        Set<T> existentes = new HashSet<>();
+        List<T> lista = new ArrayList<>(ids);
+        for (int i = 0; i < lista.size(); i += TAMANHO_CONSULTA_IN) {
+            existentes.addAll(consulta.apply(lista.subList(i, Math.min(i + TAMANHO_CONSULTA_IN, lista.size()))));
+        }
+        return existentes;
     }
 
-    public List<DoacaoDoadorProduto> findByProdutoId(UUID produtoId) {
-        return doacaoDoadorProdutoRepository.findByIdProdutoId(produtoId);
+    /* Pelas associações: os proxies informam o ID sem consultar o banco. */
+    private static DoacaoDoadorProdutoId chave(DoacaoDoadorProduto entidade) {
+        return new DoacaoDoadorProdutoId(
+                entidade.getDoacao().getId(), entidade.getDoador().getId(), entidade.getProduto().getId());
     }
 
-    public Integer sumQuantidadeByDoadorIdAndProdutoId(UUID doadorId, UUID produtoId) {
-        return doacaoDoadorProdutoRepository.sumQuantidadeByDoadorIdAndProdutoId(doadorId, produtoId);
+    private static DoacaoDoadorProdutoId chave(DoacaoDoadorProdutoCreateDto dto) {
+        return new DoacaoDoadorProdutoId(dto.getDoacaoId(), dto.getDoadorId(), dto.getProdutoId());
     }
 
-    public Integer sumQuantidadeByProdutoId(UUID produtoId) {
-        return doacaoDoadorProdutoRepository.sumQuantidadeByProdutoId(produtoId);
+    private static BulkItemResultDto resultado(int indice, String status, String mensagem) {
+        return BulkItemResultDto.builder()
+                .indice(indice)
+                .status(status)
+                .mensagem(mensagem)
+                .build();
     }
 }
@@ -1,9 +1,16 @@
 package br.org.fiap.safepulse.services;
 
+import br.org.fiap.safepulse.domain.dtos.DoacaoDoadorDto;
+import br.org.fiap.safepulse.domain.entities.Doacao;
 import br.org.fiap.safepulse.domain.entities.DoacaoDoador;
 import br.org.fiap.safepulse.domain.entities.DoacaoDoadorId;
+import br.org.fiap.safepulse.domain.entities.Doador;
+import br.org.fiap.safepulse.domain.entities.OutboxEvento;
 import br.org.fiap.safepulse.infra.repositories.DoacaoDoadorRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,36 +24,58 @@ import java.util.UUID;
 public class DoacaoDoadorService {
 
     private final DoacaoDoadorRepository doacaoDoadorRepository;
+    private final OutboxService outboxService;
+    private final EntityManager entityManager;
 
     public DoacaoDoador create(DoacaoDoador doacaoDoador) {
-        return doacaoDoadorRepository.save(doacaoDoador);
+        // o @MapsId tira a chave dos proxies; os recebidos vêm de uma sessão já fechada
+        doacaoDoador.setDoacao(entityManager.getReference(Doacao.class, doacaoDoador.getDoacao().getId()));
+        doacaoDoador.setDoador(entityManager.getReference(Doador.class, doacaoDoador.getDoador().getId()));
+        DoacaoDoador salvo = doacaoDoadorRepository.save(doacaoDoador);
+        registrarOutbox(OutboxEvento.CRIADO,
+                new DoacaoDoadorId(salvo.getDoacao().getId(), salvo.getDoador().getId()));
+        return salvo;
     }
 
+    @Transactional(readOnly = true)
     public Optional<DoacaoDoador> getById(DoacaoDoadorId id) {
         return doacaoDoadorRepository.findById(id);
     }
 
-    public List<DoacaoDoador> getAll() {
-        return doacaoDoadorRepository.findAll();
+    @Transactional(readOnly = true)
+    public Slice<DoacaoDoadorDto> getAll(DoacaoDoadorId after, Pageable pageable) {
+        return doacaoDoadorRepository.findAfter(after.getDoacaoId(), after.getDoadorId(), pageable);
     }
 
     public void delete(DoacaoDoadorId id) {
         doacaoDoadorRepository.deleteById(id);
+        registrarOutbox(OutboxEvento.REMOVIDO, id);
     }
 
-    public List<DoacaoDoador> findByDoacaoId(UUID doacaoId) {
-        return doacaoDoadorRepository.findByIdDoacaoId(doacaoId);
+    @Transactional(readOnly = true)
+    public Slice<DoacaoDoadorDto> findByDoacaoId(UUID doacaoId, DoacaoDoadorId after, Pageable pageable) {
+        return doacaoDoadorRepository.findByDoacaoIdAfter(
+                doacaoId, after.getDoacaoId(), after.getDoadorId(), pageable);
     }
 
-    public List<DoacaoDoador> findByDoadorId(UUID doadorId) {
-        return doacaoDoadorRepository.findByIdDoadorId(doadorId);
+    @Transactional(readOnly = true)
+    public Slice<DoacaoDoadorDto> findByDoadorId(UUID doadorId, DoacaoDoadorId after, Pageable pageable) {
+        return doacaoDoadorRepository.findByDoadorIdAfter(
+                doadorId, after.getDoacaoId(), after.getDoadorId(), pageable);
     }
 
-    public List<br.org.fiap.safepulse.domain.entities.Doador> findDoadoresByDoacaoId(UUID doacaoId) {
+    @Transactional(readOnly = true)
+    public List<Doador> findDoadoresByDoacaoId(UUID doacaoId) {
         return doacaoDoadorRepository.findDoadoresByDoacaoId(doacaoId);
     }
 
-    public List<br.org.fiap.safepulse.domain.entities.Doacao> findDoacoesByDoadorId(UUID doadorId) {
+    @Transactional(readOnly = true)
+    public List<Doacao> findDoacoesByDoadorId(UUID doadorId) {
         return doacaoDoadorRepository.findDoacoesByDoadorId(doadorId);
     }
+
+    private void registrarOutbox(String tipo, DoacaoDoadorId id) {
+        outboxService.registrar(OutboxService.DOACAO_DOADOR, id.getDoacaoId() + ":" + id.getDoadorId(), tipo,
+                new DoacaoDoadorDto(id.getDoacaoId(), id.getDoadorId()));
+    }
 }
@@ -1,15 +1,22 @@
 package br.org.fiap.safepulse.services;
 
+import br.org.fiap.safepulse.domain.dtos.DoacaoProdutoDto;
+import br.org.fiap.safepulse.domain.entities.Doacao;
 import br.org.fiap.safepulse.domain.entities.DoacaoProduto;
 import br.org.fiap.safepulse.domain.entities.DoacaoProdutoId;
+import br.org.fiap.safepulse.domain.entities.Produto;
 import br.org.fiap.safepulse.infra.repositories.DoacaoProdutoRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -17,36 +24,73 @@ import java.util.UUID;
 public class DoacaoProdutoService {
 
     private final DoacaoProdutoRepository doacaoProdutoRepository;
+    private final ProdutoTotalService produtoTotalService;
+    private final EntityManager entityManager;
 
     public DoacaoProduto create(DoacaoProduto doacaoProduto) {
-        return doacaoProdutoRepository.save(doacaoProduto);
+        // referências reabertas nesta sessão: o @MapsId não aceita proxies de uma sessão fechada
+        doacaoProduto.setDoacao(entityManager.getReference(Doacao.class, doacaoProduto.getDoacao().getId()));
+        doacaoProduto.setProduto(entityManager.getReference(Produto.class, doacaoProduto.getProduto().getId()));
+        DoacaoProduto salvo = doacaoProdutoRepository.save(doacaoProduto);
+        produtoTotalService.registrarDoacaoProduto(salvo.getProduto().getId(), salvo.getQuantidade());
+        return salvo;
     }
 
+    /** Soma a quantidade à associação com um upsert, criando-a se preciso, e atualiza o total do produto. */
+    public DoacaoProdutoDto incrementar(DoacaoProdutoId id, int delta) {
+        int quantidade = doacaoProdutoRepository.incrementar(id.getDoacaoId(), id.getProdutoId(), delta);
+        produtoTotalService.registrarDoacaoProduto(id.getProdutoId(), delta);
+        return new DoacaoProdutoDto(id.getDoacaoId(), id.getProdutoId(), quantidade);
+    }
+
+    @Transactional(readOnly = true)
     public Optional<DoacaoProduto> getById(DoacaoProdutoId id) {
         return doacaoProdutoRepository.findById(id);
     }
 
-    public List<DoacaoProduto> getAll() {
-        return doacaoProdutoRepository.findAll();
+    @Transactional(readOnly = true)
+    public Slice<DoacaoProdutoDto> getAll(DoacaoProdutoId after, Pageable pageable) {
+        return doacaoProdutoRepository.findAfter(after.getDoacaoId(), after.getProdutoId(), pageable);
     }
 
     public void delete(DoacaoProdutoId id) {
-        doacaoProdutoRepository.deleteById(id);
+        doacaoProdutoRepository.findById(id).ifPresent(existente -> {
+            doacaoProdutoRepository.delete(existente);
+            produtoTotalService.registrarDoacaoProduto(id.getProdutoId(), -existente.getQuantidade());
+        });
     }
 
-    public List<DoacaoProduto> findByDoacaoId(UUID doacaoId) {
-        return doacaoProdutoRepository.findByIdDoacaoId(doacaoId);
+    @Transactional(readOnly = true)
+    public Slice<DoacaoProdutoDto> findByDoacaoId(UUID doacaoId, DoacaoProdutoId after, Pageable pageable) {
+        return doacaoProdutoRepository.findByDoacaoIdAfter(
+                doacaoId, after.getDoacaoId(), after.getProdutoId(), pageable);
     }
 
-    public List<DoacaoProduto> findByProdutoId(UUID produtoId) {
-        return doacaoProdutoRepository.findByIdProdutoId(produtoId);
+    @Transactional(readOnly = true)
+    public Slice<DoacaoProdutoDto> findByProdutoId(UUID produtoId, DoacaoProdutoId after, Pageable pageable) {
+        return doacaoProdutoRepository.findByProdutoIdAfter(
+                produtoId, after.getDoacaoId(), after.getProdutoId(), pageable);
     }
 
-    public Integer sumQuantidadeByDoacaoId(UUID doacaoId) {
+    @Transactional(readOnly = true)
+    public Long sumQuantidadeByDoacaoId(UUID doacaoId) {
         return doacaoProdutoRepository.sumQuantidadeByDoacaoId(doacaoId);
     }
 
-    public Integer sumQuantidadeByProdutoId(UUID produtoId) {
-        return doacaoProdutoRepository.sumQuantidadeByProdutoId(produtoId);
+    /** Lido dos totais mantidos em produto_total, sem varrer as associações. */
+    @Transactional(readOnly = true)
+    public Long sumQuantidadeByProdutoId(UUID produtoId) {
+        return produtoTotalService.totalDoacaoProduto(produtoId);
+    }
+
+    /**
+     * Percorre todas as linhas em streaming, entregando cada uma ao consumidor.
+     * A transação (somente leitura) fica aberta enquanto o cursor é lido.
+     */
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<DoacaoProdutoDto> consumidor) {
+        try (Stream<DoacaoProdutoDto> linhas = doacaoProdutoRepository.streamAll()) {
+            linhas.forEach(consumidor);
+        }
     }
 }
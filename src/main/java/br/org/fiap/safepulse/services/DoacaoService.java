@@ -1,13 +1,37 @@
 package br.org.fiap.safepulse.services;
 
+import br.org.fiap.safepulse.config.CacheConfig;
+import br.org.fiap.safepulse.domain.dtos.DoacaoDto;
+import br.org.fiap.safepulse.domain.dtos.DoacaoEventoDto;
+import br.org.fiap.safepulse.domain.dtos.DoacaoPatchDto;
+import br.org.fiap.safepulse.domain.entities.Beneficiario;
+import br.org.fiap.safepulse.domain.entities.Desastre;
+import br.org.fiap.safepulse.domain.entities.OutboxEvento;
 import br.org.fiap.safepulse.domain.entities.Doacao;
+import br.org.fiap.safepulse.domain.entities.DoacaoDoador;
+import br.org.fiap.safepulse.domain.entities.DoacaoDoadorProduto;
+import br.org.fiap.safepulse.domain.entities.DoacaoProduto;
+import br.org.fiap.safepulse.infra.repositories.DoacaoDoadorProdutoRepository;
+import br.org.fiap.safepulse.infra.repositories.DoacaoDoadorRepository;
+import br.org.fiap.safepulse.infra.repositories.DoacaoProdutoRepository;
 import br.org.fiap.safepulse.infra.repositories.DoacaoRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -17,52 +41,258 @@ import java.util.UUID;
 public class DoacaoService {
 
     private final DoacaoRepository doacaoRepository;
+    private final DoacaoDoadorRepository doacaoDoadorRepository;
+    private final DoacaoProdutoRepository doacaoProdutoRepository;
+    private final DoacaoDoadorProdutoRepository doacaoDoadorProdutoRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxService outboxService;
 
+    /**
+     * Salva a doação, grava o evento no outbox na mesma transação e publica o evento
+     * CRIADA, entregue ao stream após o commit.
+     */
     public Doacao create(Doacao doacao) {
-        return doacaoRepository.save(doacao);
+        Doacao salva = doacaoRepository.save(doacao);
+        registrarOutbox(OutboxEvento.CRIADO, salva);
+        eventPublisher.publishEvent(evento(DoacaoEventoDto.Tipo.CRIADA, salva, null));
+        return salva;
     }
 
+    @Transactional(readOnly = true)
     public Optional<Doacao> getById(UUID id) {
         return doacaoRepository.findById(id);
     }
 
-    public List<Doacao> getAll() {
-        return doacaoRepository.findAll();
+    /** Doação com tudo que a tela de detalhe mostra, já carregado. */
+    public record Detalhe(Doacao doacao, List<DoacaoDoador> doadores, List<DoacaoProduto> produtos,
+                          List<DoacaoDoadorProduto> itens) {
     }
 
+    /**
+     * Carrega o detalhe em no máximo quatro SELECTs, qualquer que seja o número de
+     * doadores e itens: a doação com desastre e beneficiário, e uma consulta com join
+     * para cada associação. Nada fica para carga preguiçosa fora da transação.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Detalhe> getDetalhe(UUID id) {
+        return doacaoRepository.findDetalheById(id).map(doacao -> new Detalhe(
+                doacao,
+                doacaoDoadorRepository.findDetalheByDoacaoId(id),
+                doacaoProdutoRepository.findDetalheByDoacaoId(id),
+                doacaoDoadorProdutoRepository.findDetalheByDoacaoId(id)));
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<Doacao> getAll(UUID after, Pageable pageable) {
+        return doacaoRepository.findByIdGreaterThan(after, pageable);
+    }
+
+    /**
+     * Existência do ID, servida pelo cache quando já confirmada (ver {@link CacheConfig}).
+     * Usada para validar escritas, por isso consulta o primário e não uma réplica.
+     */
+    @Cacheable(cacheNames = CacheConfig.DOACOES, unless = "!#result")
+    public boolean existsById(UUID id) {
+        return doacaoRepository.existsById(id);
+    }
+
+    /** Proxy para associações; não consulta o banco. */
+    public Doacao getReference(UUID id) {
+        return doacaoRepository.getReferenceById(id);
+    }
+
+    /**
+     * Atualiza a doação e publica ATUALIZADA ou, se o status mudou, STATUS_ALTERADO.
+     * A leitura do status anterior não custa uma consulta extra: o merge do save
+     * reaproveita a entidade já carregada no contexto de persistência.
+     */
+    @CacheEvict(cacheNames = CacheConfig.DOACOES, key = "#doacao.id")
     public Doacao update(Doacao doacao) {
-        return doacaoRepository.save(doacao);
+        String statusAnterior = doacaoRepository.findById(doacao.getId())
+                .map(Doacao::getStatus)
+                .orElse(null);
+        Doacao atualizada = doacaoRepository.save(doacao);
+        publicarAlteracao(atualizada, statusAnterior);
+        return atualizada;
+    }
+
+    /**
+     * Alteração parcial com um só UPDATE (sem SELECT antes nem merge), com os mesmos
+     * outbox e evento de {@link #update}. Vazio se a doação não existe.
+     */
+    public Optional<Doacao> atualizarParcial(UUID id, DoacaoPatchDto dto) {
+        List<Object[]> linhas = doacaoRepository.atualizarParcial(
+                id, dto.getDesastreId(), dto.getBeneficiarioId(), dto.getStatus());
+        return publicarAlteradas(linhas).stream().findFirst();
+    }
+
+    /**
+     * Lote de uma transição de status em massa: quantas doações candidatas o lote
+     * percorreu, quantas mudaram e o cursor do lote seguinte (a última candidata).
+     */
+    public record LoteTransicao(int candidatas, int atualizadas, UUID ultimoId) {
+    }
+
+    /**
+     * Altera o status do próximo lote de até {@code limite} doações filtradas por
+     * desastre e/ou status atual, depois de {@code apos} na ordem de ID. Cada lote tem
+     * a própria transação, que só trava as linhas do lote e termina com ele. O outbox
+     * recebe um evento por doação, como em {@link #update}; o stream SSE recebe um só
+     * TRANSICAO_EM_LOTE por lote, para não enfileirar mil eventos por assinante a cada
+     * lote (o que derrubaria clientes por fila cheia). Candidatas alteradas por
+     * outra transação a ponto de sair do filtro ficam de fora, mas contam no lote.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public LoteTransicao transicionarLote(UUID desastreId, String statusAtual, String statusNovo,
+                                          UUID apos, int limite) {
+        List<Object[]> linhas;
+        if (desastreId == null) {
+            linhas = doacaoRepository.transicionarPorStatus(statusAtual, statusNovo, apos, limite);
+        } else if (statusAtual == null) {
+            linhas = doacaoRepository.transicionarPorDesastre(desastreId, statusNovo, apos, limite);
+        } else {
+            linhas = doacaoRepository.transicionarPorDesastreEStatus(desastreId, statusAtual, statusNovo, apos, limite);
+        }
+        List<Object[]> alteradas = linhas.stream().filter(linha -> (Boolean) linha[5]).toList();
+        publicarLote(registrarAlteradas(alteradas), desastreId, statusAtual, statusNovo);
+        return new LoteTransicao(linhas.size(), alteradas.size(),
+                linhas.isEmpty() ? null : (UUID) linhas.get(linhas.size() - 1)[0]);
+    }
+
+    /** Como {@link #transicionarLote}, para uma fatia de uma lista de IDs; devolve quantas mudaram. */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int transicionarIds(UUID[] ids, UUID desastreId, String statusAtual, String statusNovo) {
+        List<Doacao> alteradas = registrarAlteradas(
+                doacaoRepository.transicionarPorIds(ids, desastreId, statusAtual, statusNovo));
+        publicarLote(alteradas, desastreId, statusAtual, statusNovo);
+        return alteradas.size();
     }
 
+    @CacheEvict(cacheNames = CacheConfig.DOACOES, key = "#id")
     public void delete(UUID id) {
-        doacaoRepository.deleteById(id);
+        doacaoRepository.findById(id).ifPresent(existente -> {
+            doacaoRepository.delete(existente);
+            registrarOutbox(OutboxEvento.REMOVIDO, existente);
+        });
     }
 
-    public List<Doacao> findByDesastreId(UUID desastreId) {
-        return doacaoRepository.findByDesastreId(desastreId);
+    @Transactional(readOnly = true)
+    public Slice<Doacao> findByDesastreId(UUID desastreId, UUID after, Pageable pageable) {
+        return doacaoRepository.findByDesastreIdAndIdGreaterThan(desastreId, after, pageable);
     }
 
-    public List<Doacao> findByBeneficiarioId(UUID beneficiarioId) {
-        return doacaoRepository.findByBeneficiarioId(beneficiarioId);
+    @Transactional(readOnly = true)
+    public Slice<Doacao> findByBeneficiarioId(UUID beneficiarioId, UUID after, Pageable pageable) {
+        return doacaoRepository.findByBeneficiarioIdAndIdGreaterThan(beneficiarioId, after, pageable);
     }
 
-    public List<Doacao> findByStatus(String status) {
-        return doacaoRepository.findByStatus(status);
+    @Transactional(readOnly = true)
+    public Slice<Doacao> findByStatus(String status, UUID after, Pageable pageable) {
+        return doacaoRepository.findByStatusAndIdGreaterThan(status, after, pageable);
     }
 
-    public List<Doacao> findByDesastreIdAndStatus(UUID desastreId, String status) {
-        return doacaoRepository.findByDesastreIdAndStatus(desastreId, status);
+    @Transactional(readOnly = true)
+    public Slice<Doacao> findByDesastreIdAndStatus(UUID desastreId, String status, UUID after, Pageable pageable) {
+        return doacaoRepository.findByDesastreIdAndStatusAndIdGreaterThan(desastreId, status, after, pageable);
     }
 
-    public List<Doacao> findByBeneficiarioIdAndStatus(UUID beneficiarioId, String status) {
-        return doacaoRepository.findByBeneficiarioIdAndStatus(beneficiarioId, status);
+    @Transactional(readOnly = true)
+    public Slice<Doacao> findByBeneficiarioIdAndStatus(UUID beneficiarioId, String status, UUID after, Pageable pageable) {
+        return doacaoRepository.findByBeneficiarioIdAndStatusAndIdGreaterThan(beneficiarioId, status, after, pageable);
     }
 
+    @Transactional(readOnly = true)
     public long countByStatus(String status) {
         return doacaoRepository.countByStatus(status);
     }
 
-    public List<UUID> findIdsByBeneficiarioIdAndDataDesastreAfter(UUID beneficiarioId, LocalDate dataReferencia) {
-        return doacaoRepository.findIdsByBeneficiarioIdAndDataDesastreAfter(beneficiarioId, dataReferencia);
+    @Transactional(readOnly = true)
+    public Slice<UUID> findIdsByBeneficiarioIdAndDataDesastreAfter(UUID beneficiarioId, LocalDate dataReferencia,
+                                                                   UUID after, Pageable pageable) {
+        return doacaoRepository.findIdsByBeneficiarioIdAndDataDesastreAfter(beneficiarioId, dataReferencia, after, pageable);
+    }
+
+    /** Como {@link #registrarAlteradas}, com um evento para o stream por linha. */
+    private List<Doacao> publicarAlteradas(List<Object[]> linhas) {
+        List<Doacao> alteradas = registrarAlteradas(linhas);
+        for (int i = 0; i < alteradas.size(); i++) {
+            eventPublisher.publishEvent(eventoAlteracao(alteradas.get(i), (String) linhas.get(i)[4]));
+        }
+        return alteradas;
+    }
+
+    /**
+     * Outbox de cada linha [id, desastre_id, beneficiario_id, status, status_anterior]
+     * devolvida por um UPDATE nativo, na ordem recebida. Os eventos do outbox saem em
+     * lotes JDBC, o que pesa nos lotes da transição em massa.
+     */
+    private List<Doacao> registrarAlteradas(List<Object[]> linhas) {
+        List<Doacao> alteradas = new ArrayList<>(linhas.size());
+        Map<String, DoacaoDto> payloads = LinkedHashMap.newLinkedHashMap(linhas.size());
+        for (Object[] linha : linhas) {
+            // associações só com o ID: evento e outbox não leem outros campos
+            Doacao atualizada = Doacao.builder()
+                    .id((UUID) linha[0])
+                    .desastre(Desastre.builder().id((UUID) linha[1]).build())
+                    .beneficiario(Beneficiario.builder().id((UUID) linha[2]).build())
+                    .status((String) linha[3])
+                    .build();
+            alteradas.add(atualizada);
+            payloads.put(atualizada.getId().toString(), payload(atualizada));
+        }
+        outboxService.registrarLote(OutboxService.DOACAO, OutboxEvento.ATUALIZADO, payloads);
+        return alteradas;
+    }
+
+    /** Um TRANSICAO_EM_LOTE para o stream, se o lote alterou alguma doação. */
+    private void publicarLote(List<Doacao> alteradas, UUID desastreId, String statusAtual, String statusNovo) {
+        if (alteradas.isEmpty()) {
+            return;
+        }
+        eventPublisher.publishEvent(DoacaoEventoDto.builder()
+                .tipo(DoacaoEventoDto.Tipo.TRANSICAO_EM_LOTE)
+                .desastreId(desastreId)
+                .status(statusNovo)
+                .statusAnterior(statusAtual)
+                .quantidade(alteradas.size())
+                .ocorridoEm(Instant.now())
+                .build());
+    }
+
+    private void publicarAlteracao(Doacao atualizada, String statusAnterior) {
+        registrarOutbox(OutboxEvento.ATUALIZADO, atualizada);
+        eventPublisher.publishEvent(eventoAlteracao(atualizada, statusAnterior));
+    }
+
+    private static DoacaoEventoDto eventoAlteracao(Doacao atualizada, String statusAnterior) {
+        DoacaoEventoDto.Tipo tipo = Objects.equals(statusAnterior, atualizada.getStatus())
+                ? DoacaoEventoDto.Tipo.ATUALIZADA
+                : DoacaoEventoDto.Tipo.STATUS_ALTERADO;
+        return evento(tipo, atualizada, statusAnterior);
+    }
+
+    private static DoacaoEventoDto evento(DoacaoEventoDto.Tipo tipo, Doacao doacao, String statusAnterior) {
+        return DoacaoEventoDto.builder()
+                .tipo(tipo)
+                .doacaoId(doacao.getId())
+                .desastreId(doacao.getDesastre().getId())
+                .beneficiarioId(doacao.getBeneficiario().getId())
+                .status(doacao.getStatus())
+                .statusAnterior(statusAnterior)
+                .ocorridoEm(Instant.now())
+                .build();
+    }
+
+    private void registrarOutbox(String tipo, Doacao doacao) {
+        outboxService.registrar(OutboxService.DOACAO, doacao.getId().toString(), tipo, payload(doacao));
+    }
+
+    private static DoacaoDto payload(Doacao doacao) {
+        return DoacaoDto.builder()
+                .id(doacao.getId())
+                .desastreId(doacao.getDesastre().getId())
+                .beneficiarioId(doacao.getBeneficiario().getId())
+                .status(doacao.getStatus())
+                .build();
     }
 }
@@ -0,0 +1,173 @@
+package br.org.fiap.safepulse.services;
+
+import br.org.fiap.safepulse.domain.dtos.DoacaoTransicaoStatusDto;
+import br.org.fiap.safepulse.domain.dtos.DoacaoTransicaoStatusProgressoDto;
+import br.org.fiap.safepulse.domain.dtos.DoacaoTransicaoStatusProgressoDto.Situacao;
+import br.org.fiap.safepulse.infra.ids.UuidV7Generator;
+import br.org.fiap.safepulse.infra.lote.LoteIds;
+import br.org.fiap.safepulse.infra.pagination.KeysetCursor;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Transições de status em massa (p.ex. ao encerrar uma fase de um desastre), em
+ * segundo plano.
+ *
+ * Cada pedido vira um job que percorre as doações filtradas em lotes de
+ * {@code tamanhoLote}, cada lote com um UPDATE e uma transação própria
+ * ({@link DoacaoService#transicionarLote}): as travas duram só o lote e o que já foi
+ * confirmado fica confirmado se o job falhar. Refazer o mesmo pedido continua de onde
+ * parou, já que doações no novo status não entram de novo. Os jobs rodam um de cada
+ * vez, na ordem dos pedidos.
+ *
+ * O andamento fica em memória, nos últimos {@code historico} jobs, e só a instância
+ * que recebeu o pedido o conhece.
+ */
+@Slf4j
+@Service
+public class DoacaoTransicaoStatusService {
+
+    private final DoacaoService doacaoService;
+    private final int tamanhoLote;
+    private final Map<UUID, Transicao> transicoes;
+    private final ExecutorService execucao = Executors.newSingleThreadExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "transicao-status");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public DoacaoTransicaoStatusService(DoacaoService doacaoService,
+                                        @Value("${safepulse.doacoes.transicao.tamanho-lote:1000}") int tamanhoLote,
+                                        @Value("${safepulse.doacoes.transicao.historico:100}") int historico) {
+        this.doacaoService = doacaoService;
+        this.tamanhoLote = tamanhoLote;
+        this.transicoes = Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Transicao> maisAntiga) {
+                return size() > historico;
+            }
+        });
+    }
+
+    /** Enfileira a transição e devolve o andamento inicial, sem consultar o banco. */
+    public DoacaoTransicaoStatusProgressoDto iniciar(DoacaoTransicaoStatusDto pedido) {
+        Transicao transicao = new Transicao(UuidV7Generator.gerar(), pedido.getStatusNovo());
+        transicoes.put(transicao.id, transicao);
+        execucao.execute(() -> executar(transicao, pedido));
+        return transicao.toDto();
+    }
+
+    public Optional<DoacaoTransicaoStatusProgressoDto> getProgresso(UUID id) {
+        return Optional.ofNullable(transicoes.get(id)).map(Transicao::toDto);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        execucao.shutdownNow();
+    }
+
+    private void executar(Transicao transicao, DoacaoTransicaoStatusDto pedido) {
+        transicao.situacao = Situacao.EM_ANDAMENTO;
+        try {
+            if (pedido.getIds() != null && !pedido.getIds().isEmpty()) {
+                porIds(transicao, pedido);
+            } else {
+                porFiltro(transicao, pedido);
+            }
+            if (execucao.isShutdown()) {
+                transicao.falhar("Interrompida pelo encerramento da aplicação");
+            } else {
+                transicao.concluir();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Transição de status {} interrompida após {} lote(s): {}",
+                    transicao.id, transicao.lotes, e.toString());
+            transicao.falhar(e.toString());
+        }
+    }
+
+    private void porFiltro(Transicao transicao, DoacaoTransicaoStatusDto pedido) {
+        UUID apos = KeysetCursor.INICIO;
+        while (!execucao.isShutdown()) {
+            DoacaoService.LoteTransicao lote = doacaoService.transicionarLote(
+                    pedido.getDesastreId(), pedido.getStatusAtual(), pedido.getStatusNovo(), apos, tamanhoLote);
+            transicao.registrarLote(lote.atualizadas());
+            // só candidatas a menos indicam o fim: atualizadas a menos podem ser só
+            // linhas que outra transação tirou do filtro
+            if (lote.candidatas() < tamanhoLote) {
+                return;
+            }
+            apos = lote.ultimoId();
+        }
+    }
+
+    private void porIds(Transicao transicao, DoacaoTransicaoStatusDto pedido) {
+        UUID[] ids = LoteIds.distintos(pedido.getIds());
+        for (int inicio = 0; inicio < ids.length && !execucao.isShutdown(); inicio += tamanhoLote) {
+            UUID[] fatia = Arrays.copyOfRange(ids, inicio, Math.min(inicio + tamanhoLote, ids.length));
+            transicao.registrarLote(doacaoService.transicionarIds(
+                    fatia, pedido.getDesastreId(), pedido.getStatusAtual(), pedido.getStatusNovo()));
+        }
+    }
+
+    /** Andamento de um job; escrito só pela thread do job. */
+    private static final class Transicao {
+
+        private final UUID id;
+        private final String statusNovo;
+        private final Instant iniciadaEm = Instant.now();
+        private volatile Situacao situacao = Situacao.AGUARDANDO;
+        private volatile long atualizadas;
+        private volatile int lotes;
+        private volatile Instant concluidaEm;
+        private volatile String erro;
+
+        Transicao(UUID id, String statusNovo) {
+            this.id = id;
+            this.statusNovo = statusNovo;
+        }
+
+        void registrarLote(int alteradas) {
+            atualizadas += alteradas;
+            lotes++;
+        }
+
+        void concluir() {
+            concluidaEm = Instant.now();
+            situacao = Situacao.CONCLUIDA;
+        }
+
+        void falhar(String motivo) {
+            erro = motivo;
+            concluidaEm = Instant.now();
+            situacao = Situacao.FALHOU;
+        }
+
+        DoacaoTransicaoStatusProgressoDto toDto() {
+            // situação lida antes dos totais: quem a vê concluída vê também os totais finais
+            Situacao atual = situacao;
+            return DoacaoTransicaoStatusProgressoDto.builder()
+                    .id(id)
+                    .situacao(atual)
+                    .statusNovo(statusNovo)
+                    .atualizadas(atualizadas)
+                    .lotes(lotes)
+                    .iniciadaEm(iniciadaEm)
+                    .concluidaEm(concluidaEm)
+                    .erro(erro)
+                    .build();
+        }
+    }
+}
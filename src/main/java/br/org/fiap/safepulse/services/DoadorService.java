@@ -1,8 +1,14 @@
 package br.org.fiap.safepulse.services;
 
+import br.org.fiap.safepulse.config.CacheConfig;
+import br.org.fiap.safepulse.domain.dtos.DoadorPatchDto;
 import br.org.fiap.safepulse.domain.entities.Doador;
 import br.org.fiap.safepulse.infra.repositories.DoadorRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,41 +21,97 @@ import java.util.UUID;
 @Transactional
 public class DoadorService {
 
+    /** Maior quantidade de resultados aceita na busca por similaridade. */
+    private static final int LIMITE_SIMILAR_MAXIMO = 100;
+
     private final DoadorRepository doadorRepository;
 
     public Doador create(Doador doador) {
         return doadorRepository.save(doador);
     }
 
+    @Transactional(readOnly = true)
     public Optional<Doador> getById(UUID id) {
         return doadorRepository.findById(id);
     }
 
-    public List<Doador> getAll() {
-        return doadorRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<Doador> getByIds(UUID[] ids) {
+        return doadorRepository.findByIds(ids);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<Doador> getAll(UUID after, Pageable pageable) {
+        return doadorRepository.findByIdGreaterThan(after, pageable);
     }
 
+    /**
+     * Existência do ID, servida pelo cache quando já confirmada (ver {@link CacheConfig}).
+     * Usada para validar escritas, por isso consulta o primário e não uma réplica.
+     */
+    @Cacheable(cacheNames = CacheConfig.DOADORES, unless = "!#result")
+    public boolean existsById(UUID id) {
+        return doadorRepository.existsById(id);
+    }
+
+    /** Proxy para associações; não consulta o banco. */
+    public Doador getReference(UUID id) {
+        return doadorRepository.getReferenceById(id);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.DOADORES, key = "#doador.id")
     public Doador update(Doador doador) {
         return doadorRepository.save(doador);
     }
 
+    /**
+     * Aplica a alteração parcial; falso se o doador não existe. Carrega o doador (do
+     * cache de segundo nível, quando está lá) em vez de um UPDATE em lote, que
+     * invalidaria a região "doador" inteira: o UPDATE gerado no flush grava só as
+     * colunas alteradas (@DynamicUpdate) e atualiza apenas a entrada deste doador.
+     */
+    public boolean atualizarParcial(UUID id, DoadorPatchDto dto) {
+        return doadorRepository.findById(id).map(doador -> {
+            Optional.ofNullable(dto.getNome()).ifPresent(doador::setNome);
+            Optional.ofNullable(dto.getOng()).ifPresent(doador::setOng);
+            Optional.ofNullable(dto.getEmail()).ifPresent(doador::setEmail);
+            Optional.ofNullable(dto.getTelefone()).ifPresent(doador::setTelefone);
+            Optional.ofNullable(dto.getEndereco()).ifPresent(doador::setEndereco);
+            return true;
+        }).orElse(false);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.DOADORES, key = "#id")
     public void delete(UUID id) {
         doadorRepository.deleteById(id);
     }
 
+    @Transactional(readOnly = true)
     public Optional<Doador> findByEmail(String email) {
         return doadorRepository.findByEmail(email);
     }
 
-    public List<Doador> findByNome(String nome) {
-        return doadorRepository.findByNomeContainingIgnoreCase(nome);
+    @Transactional(readOnly = true)
+    public Slice<Doador> findByNome(String nome, UUID after, Pageable pageable) {
+        return doadorRepository.findByNomeContainingIgnoreCaseAndIdGreaterThan(nome, after, pageable);
     }
 
-    public List<Doador> findByOng(String ong) {
-        return doadorRepository.findByOngContainingIgnoreCase(ong);
+    @Transactional(readOnly = true)
+    public Slice<Doador> findByOng(String ong, UUID after, Pageable pageable) {
+        return doadorRepository.findByOngContainingIgnoreCaseAndIdGreaterThan(ong, after, pageable);
     }
 
+    @Transactional(readOnly = true)
     public boolean existsByTelefone(String telefone) {
         return doadorRepository.existsByTelefone(telefone);
     }
+
+    /**
+     * Busca por nome ordenada por similaridade (pg_trgm), limitada a
+     * {@link #LIMITE_SIMILAR_MAXIMO} resultados.
+     */
+    @Transactional(readOnly = true)
+    public List<Doador> findSimilarByNome(String termo, int limite) {
+        return doadorRepository.findSimilarByNome(termo, Math.max(1, Math.min(limite, LIMITE_SIMILAR_MAXIMO)));
+    }
 }
@@ -0,0 +1,68 @@
+package br.org.fiap.safepulse.services;
+
+import br.org.fiap.safepulse.domain.entities.OutboxEvento;
+import br.org.fiap.safepulse.infra.repositories.OutboxEventoRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Grava eventos no outbox. Exige uma transação em andamento: o evento só existe
+ * se a escrita que o originou for confirmada, e a entrega fica a cargo do
+ * OutboxDispatcher, fora da requisição.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxService {
+
+    public static final String DOACAO = "Doacao";
+    public static final String DOACAO_DOADOR = "DoacaoDoador";
+    public static final String DOACAO_DOADOR_PRODUTO = "DoacaoDoadorProduto";
+
+    private final OutboxEventoRepository outboxEventoRepository;
+    private final ObjectMapper objectMapper;
+
+    public void registrar(String agregado, String agregadoId, String tipo, Object payload) {
+        outboxEventoRepository.save(evento(agregado, agregadoId, tipo, payload, Instant.now()));
+    }
+
+    /**
+     * Um evento do mesmo tipo para cada agregado do mapa (ID do agregado para payload).
+     * Os IDs vêm do gerador da entidade, um nextval a cada 50 eventos, e os INSERTs
+     * saem em lotes JDBC no flush.
+     */
+    public void registrarLote(String agregado, String tipo, Map<String, ?> payloads) {
+        Instant agora = Instant.now();
+        List<OutboxEvento> eventos = new ArrayList<>(payloads.size());
+        payloads.forEach((agregadoId, payload) -> eventos.add(evento(agregado, agregadoId, tipo, payload, agora)));
+        outboxEventoRepository.saveAll(eventos);
+    }
+
+    private OutboxEvento evento(String agregado, String agregadoId, String tipo, Object payload, Instant agora) {
+        return OutboxEvento.builder()
+                .agregado(agregado)
+                .agregadoId(agregadoId)
+                .tipo(tipo)
+                .payload(json(agregado, payload))
+                .criadoEm(agora)
+                .proximaTentativaEm(agora)
+                .build();
+    }
+
+    private String json(String agregado, Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Payload do outbox não serializável: " + agregado, e);
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package br.org.fiap.safepulse.services;
 
+import br.org.fiap.safepulse.config.CacheConfig;
+import br.org.fiap.safepulse.domain.dtos.ProdutoPatchDto;
 import br.org.fiap.safepulse.domain.entities.Produto;
 import br.org.fiap.safepulse.infra.repositories.ProdutoRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,37 +21,85 @@ import java.util.UUID;
 @Transactional
 public class ProdutoService {
 
+    /** Maior quantidade de resultados aceita na busca por similaridade. */
+    private static final int LIMITE_SIMILAR_MAXIMO = 100;
+
     private final ProdutoRepository produtoRepository;
 
     public Produto create(Produto produto) {
         return produtoRepository.save(produto);
     }
 
+    @Transactional(readOnly = true)
     public Optional<Produto> getById(UUID id) {
         return produtoRepository.findById(id);
     }
 
-    public List<Produto> getAll() {
-        return produtoRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<Produto> getByIds(UUID[] ids) {
+        return produtoRepository.findByIds(ids);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<Produto> getAll(UUID after, Pageable pageable) {
+        return produtoRepository.findByIdGreaterThan(after, pageable);
     }
 
+    /**
+     * Existência do ID, servida pelo cache quando já confirmada (ver {@link CacheConfig}).
+     * Usada para validar escritas, por isso consulta o primário e não uma réplica.
+     */
+    @Cacheable(cacheNames = CacheConfig.PRODUTOS, unless = "!#result")
+    public boolean existsById(UUID id) {
+        return produtoRepository.existsById(id);
+    }
+
+    /** Proxy para associações; não consulta o banco. */
+    public Produto getReference(UUID id) {
+        return produtoRepository.getReferenceById(id);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.PRODUTOS, key = "#produto.id")
     public Produto update(Produto produto) {
         return produtoRepository.save(produto);
     }
 
+    /** Alteração parcial como em {@link DoadorService#atualizarParcial}; falso se o produto não existe. */
+    public boolean atualizarParcial(UUID id, ProdutoPatchDto dto) {
+        return produtoRepository.findById(id).map(produto -> {
+            Optional.ofNullable(dto.getNome()).ifPresent(produto::setNome);
+            Optional.ofNullable(dto.getDescricao()).ifPresent(produto::setDescricao);
+            Optional.ofNullable(dto.getUnidade()).ifPresent(produto::setUnidade);
+            return true;
+        }).orElse(false);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.PRODUTOS, key = "#id")
     public void delete(UUID id) {
         produtoRepository.deleteById(id);
     }
 
-    public List<Produto> findByNome(String nome) {
-        return produtoRepository.findByNomeContainingIgnoreCase(nome);
+    @Transactional(readOnly = true)
+    public Slice<Produto> findByNome(String nome, UUID after, Pageable pageable) {
+        return produtoRepository.findByNomeContainingIgnoreCaseAndIdGreaterThan(nome, after, pageable);
     }
 
-    public List<Produto> findByUnidade(String unidade) {
-        return produtoRepository.findByUnidade(unidade);
+    @Transactional(readOnly = true)
+    public Slice<Produto> findByUnidade(String unidade, UUID after, Pageable pageable) {
+        return produtoRepository.findByUnidadeAndIdGreaterThan(unidade, after, pageable);
     }
 
+    @Transactional(readOnly = true)
     public boolean existsByNome(String nome) {
         return produtoRepository.existsByNome(nome);
     }
+
+    /**
+     * Busca por nome ordenada por similaridade (pg_trgm), limitada a
+     * {@link #LIMITE_SIMILAR_MAXIMO} resultados.
+     */
+    @Transactional(readOnly = true)
+    public List<Produto> findSimilarByNome(String termo, int limite) {
+        return produtoRepository.findSimilarByNome(termo, Math.max(1, Math.min(limite, LIMITE_SIMILAR_MAXIMO)));
+    }
 }
@@ -0,0 +1,32 @@
+package br.org.fiap.safepulse.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Job periódico que confere os totais por produto contra as tabelas de origem e
+ * corrige eventuais diferenças (p.ex. linhas alteradas direto no banco). Com
+ * várias instâncias, só uma reconcilia por vez; as outras pulam a execução.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProdutoTotalReconciliacao {
+
+    private final ProdutoTotalService produtoTotalService;
+
+    @Scheduled(cron = "${safepulse.totais.reconciliacao.cron:0 17 * * * *}")
+    public void reconciliar() {
+        Optional<List<Object[]>> divergencias = produtoTotalService.reconciliar();
+        if (divergencias.isEmpty()) {
+            log.info("Reconciliação dos totais por produto já em andamento em outra instância; pulando");
+        } else if (!divergencias.get().isEmpty()) {
+            log.warn("Totais por produto divergentes em {} chave(s); corrigidos", divergencias.get().size());
+        }
+    }
+}
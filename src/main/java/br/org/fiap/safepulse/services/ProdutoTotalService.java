@@ -0,0 +1,156 @@
+package br.org.fiap.safepulse.services;
+
+import br.org.fiap.safepulse.domain.entities.DoacaoDoadorProduto;
+import br.org.fiap.safepulse.domain.entities.ProdutoTotal;
+import br.org.fiap.safepulse.infra.repositories.ProdutoTotalRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static br.org.fiap.safepulse.domain.entities.ProdutoTotal.ORIGEM_DOACAO_DOADOR_PRODUTO;
+import static br.org.fiap.safepulse.domain.entities.ProdutoTotal.ORIGEM_DOACAO_PRODUTO;
+import static br.org.fiap.safepulse.domain.entities.ProdutoTotal.TODOS_DOADORES;
+
+/**
+ * Mantém e lê os totais por produto (ver {@link ProdutoTotal}). As escritas
+ * participam da transação de quem chama, então o total só muda junto com a linha
+ * de origem.
+ *
+ * Cada transação usa uma única faixa, sorteada no primeiro incremento: duas
+ * transações que tocam os mesmos produtos nunca travam faixas diferentes em ordens
+ * opostas.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ProdutoTotalService {
+
+    /** Chave da trava consultiva da reconciliação; qualquer valor fixo que ninguém mais use. */
+    static final long TRAVA_RECONCILIACAO = 0x7072_6f64_746f_7431L;
+
+    private final ProdutoTotalRepository produtoTotalRepository;
+    private final Object faixaDaTransacao = new Object();
+
+    public void registrarDoacaoDoadorProduto(UUID produtoId, UUID doadorId, long delta) {
+        int faixa = faixa();
+        produtoTotalRepository.incrementar(produtoId, TODOS_DOADORES, ORIGEM_DOACAO_DOADOR_PRODUTO, faixa, delta);
+        produtoTotalRepository.incrementar(produtoId, doadorId, ORIGEM_DOACAO_DOADOR_PRODUTO, faixa, delta);
+    }
+
+    public void registrarDoacaoProduto(UUID produtoId, long delta) {
+        produtoTotalRepository.incrementar(produtoId, TODOS_DOADORES, ORIGEM_DOACAO_PRODUTO, faixa(), delta);
+    }
+
+    /**
+     * Soma as quantidades de {@code linhas} em {@code porProduto} (produto, doador,
+     * quantidade), para que um lote gravado em partes registre os totais de uma vez
+     * com {@link #registrarLoteDoacaoDoadorProduto(Map)}.
+     */
+    public static void acumular(Map<UUID, Map<UUID, Long>> porProduto, Iterable<DoacaoDoadorProduto> linhas) {
+        for (DoacaoDoadorProduto linha : linhas) {
+            porProduto.computeIfAbsent(linha.getProduto().getId(), p -> new TreeMap<>())
+                    .merge(linha.getDoador().getId(), linha.getQuantidade().longValue(), Long::sum);
+        }
+    }
+
+    /**
+     * Registra um lote de inclusões com um incremento por produto e um por
+     * produto+doador, em vez de um por linha, todos em um único comando. As chaves
+     * vão em ordem para que lotes concorrentes travem as linhas na mesma sequência
+     * (sem deadlock); por isso o lote inteiro deve vir em uma só chamada.
+     */
+    public void registrarLoteDoacaoDoadorProduto(Map<UUID, Map<UUID, Long>> quantidades) {
+        if (quantidades.isEmpty()) {
+            return;
+        }
+        Map<UUID, Map<UUID, Long>> porProduto = new TreeMap<>();
+        quantidades.forEach((produto, doadores) -> porProduto.put(produto, new TreeMap<>(doadores)));
+
+        int chaves = porProduto.size() + porProduto.values().stream().mapToInt(Map::size).sum();
+        UUID[] produtos = new UUID[chaves];
+        UUID[] doadores = new UUID[chaves];
+        long[] deltas = new long[chaves];
+        int i = 0;
+        for (Map.Entry<UUID, Map<UUID, Long>> produto : porProduto.entrySet()) {
+            int linhaTotal = i++;
+            long total = 0;
+            for (Map.Entry<UUID, Long> doador : produto.getValue().entrySet()) {
+                produtos[i] = produto.getKey();
+                doadores[i] = doador.getKey();
+                deltas[i++] = doador.getValue();
+                total += doador.getValue();
+            }
+            produtos[linhaTotal] = produto.getKey();
+            doadores[linhaTotal] = TODOS_DOADORES;
+            deltas[linhaTotal] = total;
+        }
+        produtoTotalRepository.incrementarLote(produtos, doadores, deltas, ORIGEM_DOACAO_DOADOR_PRODUTO, faixa());
+    }
+
+    @Transactional(readOnly = true)
+    public long totalDoacaoDoadorProduto(UUID produtoId) {
+        return produtoTotalRepository.somar(produtoId, TODOS_DOADORES, ORIGEM_DOACAO_DOADOR_PRODUTO);
+    }
+
+    @Transactional(readOnly = true)
+    public long totalDoacaoDoadorProduto(UUID produtoId, UUID doadorId) {
+        return produtoTotalRepository.somar(produtoId, doadorId, ORIGEM_DOACAO_DOADOR_PRODUTO);
+    }
+
+    @Transactional(readOnly = true)
+    public long totalDoacaoProduto(UUID produtoId) {
+        return produtoTotalRepository.somar(produtoId, TODOS_DOADORES, ORIGEM_DOACAO_PRODUTO);
+    }
+
+    /**
+     * Confere os totais contra as tabelas de origem e aplica as diferenças na faixa 0,
+     * em uma só transação. A comparação é um único comando, então origem e
+     * contadores são lidos no mesmo snapshot; como toda escrita altera os dois na
+     * mesma transação e incrementos são comutativos, escritas concorrentes continuam
+     * contadas corretamente. Não é somente leitura de propósito: a leitura precisa
+     * ser feita no primário, onde as correções serão aplicadas.
+     *
+     * Uma trava consultiva garante uma reconciliação por vez entre instâncias: duas
+     * rodando juntas aplicariam a mesma correção duas vezes. Se a trava já está com
+     * outra transação, nada é feito e o retorno é vazio; senão, são devolvidas as
+     * divergências corrigidas.
+     */
+    public Optional<List<Object[]>> reconciliar() {
+        if (!produtoTotalRepository.travar(TRAVA_RECONCILIACAO)) {
+            return Optional.empty();
+        }
+        List<Object[]> divergencias = produtoTotalRepository.findDivergencias();
+        for (Object[] d : divergencias) {
+            produtoTotalRepository.incrementar((UUID) d[0], (UUID) d[1], (String) d[2], 0, ((Number) d[3]).longValue());
+        }
+        return Optional.of(divergencias);
+    }
+
+    /** Faixa desta transação; sorteada e guardada na primeira chamada. */
+    private int faixa() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return ThreadLocalRandom.current().nextInt(ProdutoTotal.FAIXAS);
+        }
+        Integer faixa = (Integer) TransactionSynchronizationManager.getResource(faixaDaTransacao);
+        if (faixa == null) {
+            faixa = ThreadLocalRandom.current().nextInt(ProdutoTotal.FAIXAS);
+            TransactionSynchronizationManager.bindResource(faixaDaTransacao, faixa);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(faixaDaTransacao);
+                }
+            });
+        }
+        return faixa;
+    }
+}
@@ -0,0 +1,17 @@
+-- Listagens por produto e por doador nas tabelas de associação: o keyset ordena
+-- pela chave primária (doacao_id primeiro), e com o filtro fixo essa é a ordem de
+-- (filtro, doacao_id, ...). Os índices de V2 só em (produto_id) e (doador_id)
+-- achavam as linhas, mas não nessa ordem: cada página lia todas as linhas do filtro
+-- e ordenava. Como em V9, estes os substituem, inclusive para as FKs.
+-- CONCURRENTLY, como em V2 (ver o .conf).
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS doacao_doador_produto_produto_doacao_idx
+    ON doacao_doador_produto (produto_id, doacao_id, doador_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS doacao_produto_produto_doacao_idx
+    ON doacao_produto (produto_id, doacao_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS doacao_doador_doador_doacao_idx
+    ON doacao_doador (doador_id, doacao_id);
+
+DROP INDEX CONCURRENTLY IF EXISTS doacao_doador_produto_produto_idx;
+DROP INDEX CONCURRENTLY IF EXISTS doacao_produto_produto_idx;
+DROP INDEX CONCURRENTLY IF EXISTS doacao_doador_doador_idx;
@@ -0,0 +1,10 @@
+-- Listagem e transição em massa por desastre sem filtro de status
+-- (DoacaoRepository.findByDesastreIdAndIdGreaterThan e transicionarPorDesastre):
+-- ambas seguem a ordem de id. doacao_desastre_status_idx tem o status no meio e só
+-- serve a essa ordem com igualdade no status; sem ela, cada página ou lote lia
+-- todas as doações do desastre e ordenava. O status vai no INCLUDE para que o
+-- filtro IS DISTINCT FROM da transição seja avaliado no próprio índice (index-only
+-- scan). CONCURRENTLY, como em V2 (ver o .conf).
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS doacao_desastre_idx
+    ON doacao (desastre_id, id) INCLUDE (status);
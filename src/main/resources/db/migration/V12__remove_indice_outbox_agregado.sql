@@ -0,0 +1,7 @@
+-- A reserva de lotes do OutboxDispatcher deixou de conferir eventos anteriores do
+-- mesmo agregado (OutboxEventoRepository.reservarLote): os IDs vêm de uma sequência
+-- alocada em blocos, que não segue a ordem de commit, então a checagem não garantia
+-- a ordem que prometia. Sem ela, outbox_evento_agregado_idx (V8) só custava escrita.
+-- CONCURRENTLY, como em V2 (ver o .conf).
+
+DROP INDEX CONCURRENTLY IF EXISTS outbox_evento_agregado_idx;
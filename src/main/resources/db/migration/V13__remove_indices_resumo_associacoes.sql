@@ -0,0 +1,10 @@
+-- Os índices de cobertura de V5 sobre as associações repetiam o início das chaves
+-- primárias, (doacao_id, produto_id) e (doacao_id, doador_id, produto_id), só para
+-- levar a quantidade no INCLUDE e poupar o heap no cálculo frio do resumo por
+-- desastre. O resumo é servido do cache (DesastreService.getSummary); o cálculo frio
+-- passa a usar as chaves primárias, e as duas tabelas mais escritas do sistema
+-- deixam de manter uma cópia a mais de cada linha. CONCURRENTLY, como em V2 (ver o
+-- .conf).
+
+DROP INDEX CONCURRENTLY IF EXISTS doacao_produto_resumo_idx;
+DROP INDEX CONCURRENTLY IF EXISTS doacao_doador_produto_resumo_idx;
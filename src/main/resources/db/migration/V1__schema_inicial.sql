@@ -0,0 +1,78 @@
+-- Esquema inicial, equivalente ao que o Hibernate gerava com ddl-auto=update.
+-- Bancos já existentes são marcados nesta versão (spring.flyway.baseline-on-migrate)
+-- e seguem direto para as migrações seguintes.
+
+CREATE TABLE desastre (
+    id            uuid         NOT NULL,
+    nome          varchar(255) NOT NULL,
+    descricao     varchar(255),
+    localizacao   varchar(255),
+    data_desastre date,
+    CONSTRAINT desastre_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE beneficiario (
+    id       uuid         NOT NULL,
+    nome     varchar(255) NOT NULL,
+    ong      varchar(255),
+    email    varchar(255),
+    telefone varchar(255),
+    endereco varchar(255),
+    CONSTRAINT beneficiario_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE doador (
+    id       uuid         NOT NULL,
+    nome     varchar(255) NOT NULL,
+    ong      varchar(255),
+    email    varchar(255),
+    telefone varchar(255),
+    endereco varchar(255),
+    CONSTRAINT doador_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE produto (
+    id        uuid         NOT NULL,
+    nome      varchar(255) NOT NULL,
+    descricao varchar(255),
+    unidade   varchar(255),
+    CONSTRAINT produto_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE doacao (
+    id              uuid NOT NULL,
+    desastre_id     uuid NOT NULL,
+    beneficiario_id uuid NOT NULL,
+    status          varchar(255),
+    CONSTRAINT doacao_pkey PRIMARY KEY (id),
+    CONSTRAINT doacao_desastre_fk FOREIGN KEY (desastre_id) REFERENCES desastre (id),
+    CONSTRAINT doacao_beneficiario_fk FOREIGN KEY (beneficiario_id) REFERENCES beneficiario (id)
+);
+
+CREATE TABLE doacao_doador (
+    doacao_id uuid NOT NULL,
+    doador_id uuid NOT NULL,
+    CONSTRAINT doacao_doador_pkey PRIMARY KEY (doacao_id, doador_id),
+    CONSTRAINT doacao_doador_doacao_fk FOREIGN KEY (doacao_id) REFERENCES doacao (id),
+    CONSTRAINT doacao_doador_doador_fk FOREIGN KEY (doador_id) REFERENCES doador (id)
+);
+
+CREATE TABLE doacao_produto (
+    doacao_id  uuid    NOT NULL,
+    produto_id uuid    NOT NULL,
+    quantidade integer NOT NULL,
+    CONSTRAINT doacao_produto_pkey PRIMARY KEY (doacao_id, produto_id),
+    CONSTRAINT doacao_produto_doacao_fk FOREIGN KEY (doacao_id) REFERENCES doacao (id),
+    CONSTRAINT doacao_produto_produto_fk FOREIGN KEY (produto_id) REFERENCES produto (id)
+);
+
+CREATE TABLE doacao_doador_produto (
+    doacao_id  uuid    NOT NULL,
+    doador_id  uuid    NOT NULL,
+    produto_id uuid    NOT NULL,
+    quantidade integer NOT NULL,
+    CONSTRAINT doacao_doador_produto_pkey PRIMARY KEY (doacao_id, doador_id, produto_id),
+    CONSTRAINT doacao_doador_produto_doacao_fk FOREIGN KEY (doacao_id) REFERENCES doacao (id),
+    CONSTRAINT doacao_doador_produto_doador_fk FOREIGN KEY (doador_id) REFERENCES doador (id),
+    CONSTRAINT doacao_doador_produto_produto_fk FOREIGN KEY (produto_id) REFERENCES produto (id)
+);
@@ -0,0 +1,37 @@
+-- Índices para as consultas dos repositórios. CONCURRENTLY não bloqueia escritas,
+-- mas não roda dentro de transação (ver V2__indices_secundarios.sql.conf).
+-- IF NOT EXISTS permite reexecutar após uma falha, que deixa o índice INVALID:
+-- nesse caso, remova-o com DROP INDEX CONCURRENTLY antes de repetir.
+
+-- doacao: filtros por desastre/beneficiário (com ou sem status) e por status,
+-- sempre paginados por id (keyset)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS doacao_desastre_status_idx
+    ON doacao (desastre_id, status, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS doacao_beneficiario_status_idx
+    ON doacao (beneficiario_id, status, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS doacao_status_idx
+    ON doacao (status, id);
+
+-- tabelas de associação: a PK começa por doacao_id, as demais colunas precisam do próprio índice
+CREATE INDEX CONCURRENTLY IF NOT EXISTS doacao_doador_produto_doador_idx
+    ON doacao_doador_produto (doador_id, produto_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS doacao_doador_produto_produto_idx
+    ON doacao_doador_produto (produto_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS doacao_doador_doador_idx
+    ON doacao_doador (doador_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS doacao_produto_produto_idx
+    ON doacao_produto (produto_id);
+
+-- buscas por igualdade
+CREATE INDEX CONCURRENTLY IF NOT EXISTS desastre_data_desastre_idx
+    ON desastre (data_desastre);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS produto_unidade_idx
+    ON produto (unidade, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS doador_email_idx
+    ON doador (email);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS doador_telefone_idx
+    ON doador (telefone);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS beneficiario_email_idx
+    ON beneficiario (email);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS beneficiario_telefone_idx
+    ON beneficiario (telefone);
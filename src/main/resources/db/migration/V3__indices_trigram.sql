@@ -0,0 +1,19 @@
+-- Índices trigram para as buscas por trecho (ILIKE '%termo%') e por similaridade.
+-- Em bancos que já rodaram o antigo schema.sql os índices existem e são mantidos.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS desastre_nome_trgm_idx
+    ON desastre USING gin (nome gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS desastre_localizacao_trgm_idx
+    ON desastre USING gin (localizacao gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS doador_nome_trgm_idx
+    ON doador USING gin (nome gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS doador_ong_trgm_idx
+    ON doador USING gin (ong gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS beneficiario_nome_trgm_idx
+    ON beneficiario USING gin (nome gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS beneficiario_ong_trgm_idx
+    ON beneficiario USING gin (ong gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS produto_nome_trgm_idx
+    ON produto USING gin (nome gin_trgm_ops);
@@ -0,0 +1,24 @@
+-- Totais por produto mantidos incrementalmente (ver ProdutoTotal).
+-- doador_id = 00000000-0000-0000-0000-000000000000 marca o total de todos os doadores.
+
+CREATE TABLE produto_total (
+    produto_id uuid       NOT NULL,
+    doador_id  uuid       NOT NULL,
+    origem     varchar(3) NOT NULL,
+    faixa      smallint   NOT NULL,
+    quantidade bigint     NOT NULL,
+    CONSTRAINT produto_total_pkey PRIMARY KEY (produto_id, doador_id, origem, faixa)
+);
+
+-- Carga inicial na faixa 0 a partir dos dados existentes
+INSERT INTO produto_total (produto_id, doador_id, origem, faixa, quantidade)
+SELECT produto_id, '00000000-0000-0000-0000-000000000000', 'DDP', 0, SUM(quantidade)
+FROM doacao_doador_produto GROUP BY produto_id;
+
+INSERT INTO produto_total (produto_id, doador_id, origem, faixa, quantidade)
+SELECT produto_id, doador_id, 'DDP', 0, SUM(quantidade)
+FROM doacao_doador_produto GROUP BY produto_id, doador_id;
+
+INSERT INTO produto_total (produto_id, doador_id, origem, faixa, quantidade)
+SELECT produto_id, '00000000-0000-0000-0000-000000000000', 'DP', 0, SUM(quantidade)
+FROM doacao_produto GROUP BY produto_id;
@@ -0,0 +1,10 @@
+-- Índices de cobertura para o resumo por desastre (GET /api/desastres/{id}/summary):
+-- as agregações leem só colunas do índice (index-only scan), sem visitar o heap
+-- das tabelas de associação. CONCURRENTLY, como em V2 (ver o .conf).
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS doacao_desastre_beneficiario_idx
+    ON doacao (desastre_id, beneficiario_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS doacao_produto_resumo_idx
+    ON doacao_produto (doacao_id) INCLUDE (produto_id, quantidade);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS doacao_doador_produto_resumo_idx
+    ON doacao_doador_produto (doacao_id) INCLUDE (doador_id, produto_id, quantidade);
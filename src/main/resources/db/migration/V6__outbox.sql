@@ -0,0 +1,18 @@
+-- Outbox transacional: eventos gravados na mesma transação das escritas e
+-- entregues depois pelo OutboxDispatcher. Linhas entregues são removidas.
+-- O incremento da sequência acompanha o allocationSize de OutboxEvento: o
+-- Hibernate reserva 50 IDs por chamada a nextval.
+
+CREATE SEQUENCE outbox_evento_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE outbox_evento (
+    id                  bigint       NOT NULL,
+    agregado            varchar(50)  NOT NULL,
+    agregado_id         varchar(120) NOT NULL,
+    tipo                varchar(30)  NOT NULL,
+    payload             jsonb        NOT NULL,
+    criado_em           timestamptz  NOT NULL,
+    tentativas          integer      NOT NULL DEFAULT 0,
+    proxima_tentativa_em timestamptz NOT NULL,
+    CONSTRAINT outbox_evento_pkey PRIMARY KEY (id)
+);
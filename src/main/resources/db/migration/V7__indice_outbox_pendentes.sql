@@ -0,0 +1,7 @@
+-- Reserva de lotes do OutboxDispatcher (OutboxEventoRepository.reservarLote): sem
+-- índice em proxima_tentativa_em, cada ciclo lê a tabela inteira. Normalmente o
+-- outbox está quase vazio, mas com o destino fora do ar os eventos se acumulam
+-- adiados e a varredura cresce junto. CONCURRENTLY, como em V2 (ver o .conf).
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS outbox_evento_proxima_tentativa_idx
+    ON outbox_evento (proxima_tentativa_em);
@@ -0,0 +1,7 @@
+-- Ordem por agregado no OutboxDispatcher (OutboxEventoRepository.reservarLote): um
+-- evento só é reservado se não houver evento anterior do mesmo agregado ainda na
+-- tabela. Sem este índice, a checagem lê o outbox inteiro para cada candidato.
+-- CONCURRENTLY, como em V2 (ver o .conf).
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS outbox_evento_agregado_idx
+    ON outbox_evento (agregado, agregado_id, id);
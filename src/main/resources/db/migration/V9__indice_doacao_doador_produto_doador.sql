@@ -0,0 +1,11 @@
+-- Listagem por doador (DoacaoDoadorProdutoRepository.findByDoadorIdAfter): o keyset
+-- ordena por (doacao_id, doador_id, produto_id), e com o doador fixo isso é a ordem
+-- de (doador_id, doacao_id, produto_id). O índice de V2 em (doador_id, produto_id)
+-- achava as linhas do doador, mas não as entregava nessa ordem: cada página lia
+-- todas elas e ordenava. Este o substitui, inclusive para a FK de doador_id.
+-- CONCURRENTLY, como em V2 (ver o .conf).
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS doacao_doador_produto_doador_doacao_idx
+    ON doacao_doador_produto (doador_id, doacao_id, produto_id);
+
+DROP INDEX CONCURRENTLY IF EXISTS doacao_doador_produto_doador_idx;
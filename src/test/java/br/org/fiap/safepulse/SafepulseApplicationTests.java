@@ -1,10 +1,10 @@
 package br.org.fiap.safepulse;
 
+import br.org.fiap.safepulse.suporte.TesteIntegracao;
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
-class SafepulseApplicationTests {
+/** Sobe o contexto completo sobre o PostgreSQL embutido, com as migrações aplicadas. */
+class SafepulseApplicationTests extends TesteIntegracao {
 
 	@Test
 	void contextLoads() {
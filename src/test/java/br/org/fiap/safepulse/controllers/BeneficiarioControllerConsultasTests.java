@@ -0,0 +1,142 @@
+package br.org.fiap.safepulse.controllers;
+
+import br.org.fiap.safepulse.suporte.MassaTeste;
+import br.org.fiap.safepulse.suporte.OrcamentoSql;
+import br.org.fiap.safepulse.suporte.TesteIntegracao;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class BeneficiarioControllerConsultasTests extends TesteIntegracao {
+
+    @Test
+    @OrcamentoSql(1)
+    void create() throws Exception {
+        String sufixo = UUID.randomUUID().toString();
+        mockMvc.perform(post("/api/beneficiarios").contentType(MediaType.APPLICATION_JSON)
+                        .content(json(corpo("Abrigo " + sufixo, sufixo + "@teste.safepulse"))))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void getById() throws Exception {
+        mockMvc.perform(get("/api/beneficiarios/{id}", MassaTeste.beneficiario(1)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void getByIds() throws Exception {
+        UUID inexistente = UUID.randomUUID();
+        mockMvc.perform(post("/api/beneficiarios/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("ids", List.of(MassaTeste.beneficiario(2), inexistente, MassaTeste.beneficiario(0), MassaTeste.beneficiario(2))))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens[*].id", contains(MassaTeste.beneficiario(2).toString(), MassaTeste.beneficiario(0).toString())))
+                .andExpect(jsonPath("$.naoEncontrados", contains(inexistente.toString())));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void getAll() throws Exception {
+        mockMvc.perform(get("/api/beneficiarios").param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N)));
+    }
+
+    @Test
+    @OrcamentoSql(2)
+    void update() throws Exception {
+        int i = MassaTeste.N - 1;
+        mockMvc.perform(put("/api/beneficiarios/{id}", MassaTeste.beneficiario(i)).contentType(MediaType.APPLICATION_JSON)
+                        .content(json(corpo("Abrigo " + i + " (atualizado)", MassaTeste.email("beneficiario", i)))))
+                .andExpect(status().isOk());
+    }
+
+    /** SELECT (o cache de segundo nível começa vazio) e UPDATE só da coluna alterada. */
+    @Test
+    @OrcamentoSql(2)
+    void patchParcial() throws Exception {
+        int i = MassaTeste.N - 1;
+        mockMvc.perform(patch("/api/beneficiarios/{id}", MassaTeste.beneficiario(i)).contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("endereco", "Rua " + i + ", fundos"))))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @OrcamentoSql(2)
+    void deleteById() throws Exception {
+        UUID id = UUID.randomUUID();
+        jdbc.update("INSERT INTO beneficiario (id, nome) VALUES (?, 'Temporário')", id);
+        mockMvc.perform(delete("/api/beneficiarios/{id}", id))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void findByEmail() throws Exception {
+        mockMvc.perform(get("/api/beneficiarios/search/email").param("email", MassaTeste.email("beneficiario", 1)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void findByNome() throws Exception {
+        mockMvc.perform(get("/api/beneficiarios/search/nome").param("nome", "Abrigo").param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N)));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void findByOng() throws Exception {
+        mockMvc.perform(get("/api/beneficiarios/search/ong").param("ong", MassaTeste.ONG).param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N)));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void existsByTelefone() throws Exception {
+        mockMvc.perform(get("/api/beneficiarios/exists/telefone").param("telefone", MassaTeste.telefone(1)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void findSimilarByNome() throws Exception {
+        mockMvc.perform(get("/api/beneficiarios/search/similar").param("termo", "Abrigo"))
+                .andExpect(status().isOk());
+    }
+
+    /** Curingas do ILIKE no termo são texto: "%" não traz a tabela toda. */
+    @Test
+    @OrcamentoSql(1)
+    void findSimilarByNomeComCuringa() throws Exception {
+        mockMvc.perform(get("/api/beneficiarios/search/similar").param("termo", "%"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    private static Map<String, Object> corpo(String nome, String email) {
+        return Map.of(
+                "nome", nome,
+                "ong", MassaTeste.ONG,
+                "email", email,
+                "telefone", "51988887777",
+                "endereco", "Rua de teste");
+    }
+}
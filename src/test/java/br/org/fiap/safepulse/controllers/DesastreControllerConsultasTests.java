@@ -0,0 +1,170 @@
+package br.org.fiap.safepulse.controllers;
+
+import br.org.fiap.safepulse.suporte.MassaTeste;
+import br.org.fiap.safepulse.suporte.OrcamentoSql;
+import br.org.fiap.safepulse.suporte.TesteIntegracao;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class DesastreControllerConsultasTests extends TesteIntegracao {
+
+    @Test
+    @OrcamentoSql(1)
+    void create() throws Exception {
+        mockMvc.perform(post("/api/desastres").contentType(MediaType.APPLICATION_JSON)
+                        .content(json(corpo("Deslizamento"))))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void getById() throws Exception {
+        mockMvc.perform(get("/api/desastres/{id}", MassaTeste.desastre(1)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @OrcamentoSql(6)
+    void getSummary() throws Exception {
+        mockMvc.perform(get("/api/desastres/{id}/summary", MassaTeste.desastre(0)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalDoacoes", greaterThanOrEqualTo(MassaTeste.N)));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void getByIds() throws Exception {
+        UUID inexistente = UUID.randomUUID();
+        mockMvc.perform(post("/api/desastres/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("ids", List.of(MassaTeste.desastre(2), inexistente, MassaTeste.desastre(0), MassaTeste.desastre(2))))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens[*].id", contains(MassaTeste.desastre(2).toString(), MassaTeste.desastre(0).toString())))
+                .andExpect(jsonPath("$.naoEncontrados", contains(inexistente.toString())));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void getAll() throws Exception {
+        mockMvc.perform(get("/api/desastres").param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N)));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void getAllComFiltros() throws Exception {
+        mockMvc.perform(get("/api/desastres")
+                        .param("nome", "Enchente")
+                        .param("localizacao", MassaTeste.LOCALIZACAO)
+                        .param("inicio", MassaTeste.DATA.toString())
+                        .param("fim", MassaTeste.DATA.plusDays(MassaTeste.N).toString())
+                        .param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N)));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void update() throws Exception {
+        int i = MassaTeste.N - 1;
+        Map<String, Object> corpo = corpo("Enchente " + i);
+        corpo.put("dataDesastre", MassaTeste.DATA.plusDays(i).toString());
+        mockMvc.perform(put("/api/desastres/{id}", MassaTeste.desastre(i)).contentType(MediaType.APPLICATION_JSON)
+                        .content(json(corpo)))
+                .andExpect(status().isOk());
+    }
+
+    /** SELECT (o cache de segundo nível começa vazio) e UPDATE só da coluna alterada. */
+    @Test
+    @OrcamentoSql(2)
+    void patchParcial() throws Exception {
+        int i = MassaTeste.N - 1;
+        mockMvc.perform(patch("/api/desastres/{id}", MassaTeste.desastre(i)).contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("descricao", "Desastre de teste atualizado"))))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @OrcamentoSql(2)
+    void deleteById() throws Exception {
+        UUID id = UUID.randomUUID();
+        jdbc.update("INSERT INTO desastre (id, nome, data_desastre) VALUES (?, 'Temporário', CURRENT_DATE)", id);
+        mockMvc.perform(delete("/api/desastres/{id}", id))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void findByNome() throws Exception {
+        mockMvc.perform(get("/api/desastres/search/nome").param("nome", "Enchente").param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N)));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void findByDataRange() throws Exception {
+        mockMvc.perform(get("/api/desastres/search/datarange")
+                        .param("inicio", MassaTeste.DATA.toString())
+                        .param("fim", MassaTeste.DATA.plusDays(MassaTeste.N).toString())
+                        .param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N)));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void findByLocalizacao() throws Exception {
+        mockMvc.perform(get("/api/desastres/search/localizacao")
+                        .param("localizacao", MassaTeste.LOCALIZACAO).param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N)));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void countAfterDate() throws Exception {
+        mockMvc.perform(get("/api/desastres/count/apos").param("dataReferencia", "2000-01-01"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void findSimilarByNome() throws Exception {
+        mockMvc.perform(get("/api/desastres/search/similar").param("termo", "Enchent"))
+                .andExpect(status().isOk());
+    }
+
+    /** Curingas do ILIKE no termo são texto: "%" não traz a tabela toda. */
+    @Test
+    @OrcamentoSql(1)
+    void findSimilarByNomeComCuringa() throws Exception {
+        mockMvc.perform(get("/api/desastres/search/similar").param("termo", "%"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    private static Map<String, Object> corpo(String nome) {
+        Map<String, Object> corpo = new HashMap<>();
+        corpo.put("nome", nome);
+        corpo.put("descricao", "Desastre de teste");
+        corpo.put("localizacao", MassaTeste.LOCALIZACAO);
+        corpo.put("dataDesastre", MassaTeste.DATA.toString());
+        return corpo;
+    }
+}
@@ -0,0 +1,199 @@
+package br.org.fiap.safepulse.controllers;
+
+import br.org.fiap.safepulse.suporte.MassaTeste;
+import br.org.fiap.safepulse.suporte.OrcamentoSql;
+import br.org.fiap.safepulse.suporte.TesteIntegracao;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class DoacaoControllerConsultasTests extends TesteIntegracao {
+
+    @Test
+    @OrcamentoSql(5)
+    void create() throws Exception {
+        mockMvc.perform(post("/api/doacoes").contentType(MediaType.APPLICATION_JSON)
+                        .content(json(corpo("PENDENTE"))))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @OrcamentoSql(0)
+    void stream() throws Exception {
+        mockMvc.perform(get("/api/doacoes/stream").param("desastreId", MassaTeste.desastre(0).toString()))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void getById() throws Exception {
+        mockMvc.perform(get("/api/doacoes/{id}", MassaTeste.doacao(1)))
+                .andExpect(status().isOk());
+    }
+
+    /** A doação 0 tem N doadores, produtos e itens: o detalhe não pode crescer com eles. */
+    @Test
+    @OrcamentoSql(4)
+    void getDetalhe() throws Exception {
+        mockMvc.perform(get("/api/doacoes/{id}/detail", MassaTeste.doacao(0)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.desastre.id").value(MassaTeste.desastre(0).toString()))
+                .andExpect(jsonPath("$.beneficiario.id").value(MassaTeste.beneficiario(0).toString()))
+                .andExpect(jsonPath("$.doadores.length()").value(MassaTeste.N))
+                .andExpect(jsonPath("$.produtos.length()").value(MassaTeste.N))
+                .andExpect(jsonPath("$.itens.length()").value(MassaTeste.N));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void getAll() throws Exception {
+        mockMvc.perform(get("/api/doacoes").param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N)));
+    }
+
+    @Test
+    @OrcamentoSql(6)
+    void update() throws Exception {
+        mockMvc.perform(put("/api/doacoes/{id}", MassaTeste.doacao(MassaTeste.N - 1))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(corpo(MassaTeste.STATUS))))
+                .andExpect(status().isOk());
+    }
+
+    /** UPDATE com RETURNING e o INSERT do evento no outbox. */
+    @Test
+    @OrcamentoSql(2)
+    void patchParcial() throws Exception {
+        mockMvc.perform(patch("/api/doacoes/{id}", MassaTeste.doacao(MassaTeste.N - 1))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("status", MassaTeste.STATUS))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.desastreId").value(MassaTeste.desastre(0).toString()))
+                .andExpect(jsonPath("$.status").value(MassaTeste.STATUS));
+    }
+
+    /** O 404 vem das linhas afetadas pelo UPDATE, sem consulta de existência antes. */
+    @Test
+    @OrcamentoSql(1)
+    void patchInexistente() throws Exception {
+        mockMvc.perform(patch("/api/doacoes/{id}", UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("status", MassaTeste.STATUS))))
+                .andExpect(status().isNotFound());
+    }
+
+    /** Só enfileira o job: os lotes rodam fora da requisição. */
+    @Test
+    @OrcamentoSql(0)
+    void transicionarStatus() throws Exception {
+        mockMvc.perform(post("/api/doacoes/status-transitions").contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("desastreId", UUID.randomUUID(), "statusNovo", "CANCELADA"))))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andExpect(jsonPath("$.statusNovo").value("CANCELADA"));
+    }
+
+    @Test
+    @OrcamentoSql(0)
+    void getTransicaoStatus() throws Exception {
+        String location = mockMvc.perform(post("/api/doacoes/status-transitions").contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("ids", List.of(UUID.randomUUID()), "statusNovo", "CANCELADA"))))
+                .andReturn().getResponse().getHeader("Location");
+        mockMvc.perform(get(location))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.situacao").exists());
+    }
+
+    @Test
+    @OrcamentoSql(4)
+    void deleteById() throws Exception {
+        UUID id = UUID.randomUUID();
+        jdbc.update("INSERT INTO doacao (id, desastre_id, beneficiario_id, status) VALUES (?, ?, ?, 'PENDENTE')",
+                id, MassaTeste.desastre(1), MassaTeste.beneficiario(1));
+        mockMvc.perform(delete("/api/doacoes/{id}", id))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void findByDesastreId() throws Exception {
+        mockMvc.perform(get("/api/doacoes/search/desastre/{id}", MassaTeste.desastre(0)).param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N)));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void findByBeneficiarioId() throws Exception {
+        mockMvc.perform(get("/api/doacoes/search/beneficiario/{id}", MassaTeste.beneficiario(0)).param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N)));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void findByStatus() throws Exception {
+        mockMvc.perform(get("/api/doacoes/search/status").param("status", MassaTeste.STATUS).param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N - 1)));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void findByDesastreIdAndStatus() throws Exception {
+        mockMvc.perform(get("/api/doacoes/search/desastre/{id}/status", MassaTeste.desastre(0))
+                        .param("status", MassaTeste.STATUS).param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N - 1)));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void findByBeneficiarioIdAndStatus() throws Exception {
+        mockMvc.perform(get("/api/doacoes/search/beneficiario/{id}/status", MassaTeste.beneficiario(0))
+                        .param("status", MassaTeste.STATUS).param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N - 1)));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void countByStatus() throws Exception {
+        mockMvc.perform(get("/api/doacoes/count/status").param("status", MassaTeste.STATUS))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void findIdsByBeneficiarioIdAndDataDesastreAfter() throws Exception {
+        mockMvc.perform(get("/api/doacoes/ids/beneficiario/{id}/apos", MassaTeste.beneficiario(0))
+                        .param("dataReferencia", "2000-01-01")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(5))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+    }
+
+    private static Map<String, Object> corpo(String status) {
+        return Map.of(
+                "desastreId", MassaTeste.desastre(0),
+                "beneficiarioId", MassaTeste.beneficiario(0),
+                "status", status);
+    }
+}
@@ -0,0 +1,69 @@
+package br.org.fiap.safepulse.controllers;
+
+import br.org.fiap.safepulse.suporte.MassaTeste;
+import br.org.fiap.safepulse.suporte.OrcamentoSql;
+import br.org.fiap.safepulse.suporte.TesteIntegracao;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.Map;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class DoacaoDoadorControllerConsultasTests extends TesteIntegracao {
+
+    @Test
+    @OrcamentoSql(4)
+    void create() throws Exception {
+        jdbc.update("DELETE FROM doacao_doador WHERE doacao_id = ? AND doador_id = ?",
+                MassaTeste.doacao(1), MassaTeste.doador(1));
+        mockMvc.perform(post("/api/doacoes-doadores").contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("doacaoId", MassaTeste.doacao(1), "doadorId", MassaTeste.doador(1)))))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void getById() throws Exception {
+        mockMvc.perform(get("/api/doacoes-doadores/{doacaoId}/{doadorId}", MassaTeste.doacao(0), MassaTeste.doador(1)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void getAll() throws Exception {
+        mockMvc.perform(get("/api/doacoes-doadores").param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N)));
+    }
+
+    @Test
+    @OrcamentoSql(4)
+    void deleteById() throws Exception {
+        jdbc.update("INSERT INTO doacao_doador (doacao_id, doador_id) VALUES (?, ?) ON CONFLICT DO NOTHING",
+                MassaTeste.doacao(2), MassaTeste.doador(2));
+        mockMvc.perform(delete("/api/doacoes-doadores/{doacaoId}/{doadorId}", MassaTeste.doacao(2), MassaTeste.doador(2)))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void findByDoacaoId() throws Exception {
+        mockMvc.perform(get("/api/doacoes-doadores/search/doacao/{id}", MassaTeste.doacao(0)).param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N)));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void findByDoadorId() throws Exception {
+        mockMvc.perform(get("/api/doacoes-doadores/search/doador/{id}", MassaTeste.doador(0)).param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N)));
+    }
+}
@@ -0,0 +1,204 @@
+package br.org.fiap.safepulse.controllers;
+
+import br.org.fiap.safepulse.suporte.ContadorConsultas;
+import br.org.fiap.safepulse.suporte.MassaTeste;
+import br.org.fiap.safepulse.suporte.OrcamentoSql;
+import br.org.fiap.safepulse.suporte.TesteIntegracao;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class DoacaoDoadorProdutoControllerConsultasTests extends TesteIntegracao {
+
+    @Test
+    @OrcamentoSql(7)
+    void create() throws Exception {
+        removerItens(MassaTeste.doacao(1), MassaTeste.doador(1));
+        mockMvc.perform(post("/api/doacoes-doadores-produtos").contentType(MediaType.APPLICATION_JSON)
+                        .content(json(item(MassaTeste.doacao(1), MassaTeste.doador(1), MassaTeste.produto(1)))))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @OrcamentoSql(7)
+    void createBulk() throws Exception {
+        removerItens(MassaTeste.doacao(3), MassaTeste.doador(3));
+        List<Map<String, Object>> itens = new ArrayList<>();
+        for (int i = 0; i < MassaTeste.N; i++) {
+            itens.add(item(MassaTeste.doacao(3), MassaTeste.doador(3), MassaTeste.produto(i)));
+        }
+        mockMvc.perform(post("/api/doacoes-doadores-produtos/bulk").contentType(MediaType.APPLICATION_JSON)
+                        .content(json(itens)))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * Lote com várias linhas: todas gravadas, com um único INSERT em lote JDBC (sem
+     * merge nem SELECT por linha) e os totais por produto atualizados.
+     */
+    @Test
+    @OrcamentoSql(7)
+    void createBulkGravaLinhasEmLote() throws Exception {
+        removerItens(MassaTeste.doacao(5), MassaTeste.doador(5));
+        List<Map<String, Object>> itens = new ArrayList<>();
+        for (int i = 0; i < MassaTeste.N; i++) {
+            itens.add(item(MassaTeste.doacao(5), MassaTeste.doador(5), MassaTeste.produto(i)));
+        }
+        long totalAntes = totalDoador(MassaTeste.doador(5));
+
+        mockMvc.perform(post("/api/doacoes-doadores-produtos/bulk").contentType(MediaType.APPLICATION_JSON)
+                        .content(json(itens)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.criados").value(MassaTeste.N))
+                .andExpect(jsonPath("$.rejeitados").value(0));
+
+        assertEquals(MassaTeste.N, jdbc.queryForObject("SELECT COUNT(*) FROM doacao_doador_produto "
+                        + "WHERE doacao_id = ? AND doador_id = ? AND quantidade = 3",
+                Integer.class, MassaTeste.doacao(5), MassaTeste.doador(5)));
+        assertEquals(totalAntes + 3L * MassaTeste.N, totalDoador(MassaTeste.doador(5)));
+        List<String> comandos = ContadorConsultas.requisicoes().get(0).comandos();
+        assertEquals(1, comandos.stream()
+                .filter(sql -> sql.startsWith("insert into doacao_doador_produto")
+                        && sql.endsWith("[lote de " + MassaTeste.N + "]"))
+                .count(), () -> String.join("\n", comandos));
+    }
+
+    @Test
+    @OrcamentoSql(7)
+    void createBulkNdjson() throws Exception {
+        removerItens(MassaTeste.doacao(4), MassaTeste.doador(4));
+        StringBuilder corpo = new StringBuilder();
+        for (int i = 0; i < MassaTeste.N; i++) {
+            corpo.append(json(item(MassaTeste.doacao(4), MassaTeste.doador(4), MassaTeste.produto(i)))).append('\n');
+        }
+        mockMvc.perform(post("/api/doacoes-doadores-produtos/bulk").contentType("application/x-ndjson")
+                        .content(corpo.toString()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @OrcamentoSql(7)
+    void incrementar() throws Exception {
+        mockMvc.perform(post("/api/doacoes-doadores-produtos/increment").contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of(
+                                "doacaoId", MassaTeste.doacao(3),
+                                "doadorId", MassaTeste.doador(3),
+                                "produtoId", MassaTeste.produto(3),
+                                "quantidade", 2))))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void getById() throws Exception {
+        mockMvc.perform(get("/api/doacoes-doadores-produtos/{doacaoId}/{doadorId}/{produtoId}",
+                        MassaTeste.doacao(0), MassaTeste.doador(0), MassaTeste.produto(1)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void getAll() throws Exception {
+        mockMvc.perform(get("/api/doacoes-doadores-produtos").param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N)));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void export() throws Exception {
+        mockMvc.perform(get("/api/doacoes-doadores-produtos/export"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @OrcamentoSql(6)
+    void deleteById() throws Exception {
+        jdbc.update("INSERT INTO doacao_doador_produto (doacao_id, doador_id, produto_id, quantidade) "
+                + "VALUES (?, ?, ?, 1) ON CONFLICT DO NOTHING", MassaTeste.doacao(2), MassaTeste.doador(2), MassaTeste.produto(2));
+        mockMvc.perform(delete("/api/doacoes-doadores-produtos/{doacaoId}/{doadorId}/{produtoId}",
+                        MassaTeste.doacao(2), MassaTeste.doador(2), MassaTeste.produto(2)))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void findByDoacaoId() throws Exception {
+        mockMvc.perform(get("/api/doacoes-doadores-produtos/search/doacao/{id}", MassaTeste.doacao(0)).param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N)));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void findByDoadorId() throws Exception {
+        mockMvc.perform(get("/api/doacoes-doadores-produtos/search/doador/{id}", MassaTeste.doador(0)).param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N)));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void findByProdutoId() throws Exception {
+        mockMvc.perform(get("/api/doacoes-doadores-produtos/search/produto/{id}", MassaTeste.produto(0)).param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N)));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void sumQuantidadeByDoadorIdAndProdutoId() throws Exception {
+        mockMvc.perform(get("/api/doacoes-doadores-produtos/sum/doador/{doadorId}/produto/{produtoId}",
+                        MassaTeste.doador(0), MassaTeste.produto(0)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void sumQuantidadeByProdutoId() throws Exception {
+        mockMvc.perform(get("/api/doacoes-doadores-produtos/sum/produto/{id}", MassaTeste.produto(0)))
+                .andExpect(status().isOk());
+    }
+
+    /** Totais acima de Integer.MAX_VALUE saem inteiros, sem estouro. */
+    @Test
+    @OrcamentoSql(1)
+    void sumQuantidadeByProdutoIdAcimaDeInt() throws Exception {
+        UUID produtoId = UUID.randomUUID();
+        jdbc.update("INSERT INTO produto_total (produto_id, doador_id, origem, faixa, quantidade) "
+                + "VALUES (?, '00000000-0000-0000-0000-000000000000', 'DDP', 0, 3000000000)", produtoId);
+        try {
+            mockMvc.perform(get("/api/doacoes-doadores-produtos/sum/produto/{id}", produtoId))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("3000000000"));
+        } finally {
+            jdbc.update("DELETE FROM produto_total WHERE produto_id = ?", produtoId);
+        }
+    }
+
+    private void removerItens(UUID doacaoId, UUID doadorId) {
+        jdbc.update("DELETE FROM doacao_doador_produto WHERE doacao_id = ? AND doador_id = ?", doacaoId, doadorId);
+    }
+
+    private long totalDoador(UUID doadorId) {
+        return jdbc.queryForObject("SELECT COALESCE(SUM(quantidade), 0) FROM produto_total "
+                + "WHERE doador_id = ? AND origem = 'DDP'", Long.class, doadorId);
+    }
+
+    private static Map<String, Object> item(UUID doacaoId, UUID doadorId, UUID produtoId) {
+        return Map.of("doacaoId", doacaoId, "doadorId", doadorId, "produtoId", produtoId, "quantidade", 3);
+    }
+}
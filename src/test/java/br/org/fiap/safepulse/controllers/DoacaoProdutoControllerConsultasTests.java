@@ -0,0 +1,104 @@
+package br.org.fiap.safepulse.controllers;
+
+import br.org.fiap.safepulse.suporte.MassaTeste;
+import br.org.fiap.safepulse.suporte.OrcamentoSql;
+import br.org.fiap.safepulse.suporte.TesteIntegracao;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.Map;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class DoacaoProdutoControllerConsultasTests extends TesteIntegracao {
+
+    @Test
+    @OrcamentoSql(4)
+    void create() throws Exception {
+        jdbc.update("DELETE FROM doacao_produto WHERE doacao_id = ? AND produto_id = ?",
+                MassaTeste.doacao(1), MassaTeste.produto(1));
+        mockMvc.perform(post("/api/doacoes-produtos").contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of(
+                                "doacaoId", MassaTeste.doacao(1),
+                                "produtoId", MassaTeste.produto(1),
+                                "quantidade", 5))))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @OrcamentoSql(4)
+    void incrementar() throws Exception {
+        mockMvc.perform(post("/api/doacoes-produtos/increment").contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of(
+                                "doacaoId", MassaTeste.doacao(3),
+                                "produtoId", MassaTeste.produto(3),
+                                "quantidade", 2))))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void getById() throws Exception {
+        mockMvc.perform(get("/api/doacoes-produtos/{doacaoId}/{produtoId}", MassaTeste.doacao(0), MassaTeste.produto(1)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void getAll() throws Exception {
+        mockMvc.perform(get("/api/doacoes-produtos").param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N)));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void export() throws Exception {
+        mockMvc.perform(get("/api/doacoes-produtos/export").param("format", "csv"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @OrcamentoSql(4)
+    void deleteById() throws Exception {
+        jdbc.update("INSERT INTO doacao_produto (doacao_id, produto_id, quantidade) VALUES (?, ?, 1) "
+                + "ON CONFLICT DO NOTHING", MassaTeste.doacao(2), MassaTeste.produto(2));
+        mockMvc.perform(delete("/api/doacoes-produtos/{doacaoId}/{produtoId}", MassaTeste.doacao(2), MassaTeste.produto(2)))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void findByDoacaoId() throws Exception {
+        mockMvc.perform(get("/api/doacoes-produtos/search/doacao/{id}", MassaTeste.doacao(0)).param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N)));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void findByProdutoId() throws Exception {
+        mockMvc.perform(get("/api/doacoes-produtos/search/produto/{id}", MassaTeste.produto(0)).param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N)));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void sumQuantidadeByDoacaoId() throws Exception {
+        mockMvc.perform(get("/api/doacoes-produtos/sum/doacao/{id}", MassaTeste.doacao(0)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void sumQuantidadeByProdutoId() throws Exception {
+        mockMvc.perform(get("/api/doacoes-produtos/sum/produto/{id}", MassaTeste.produto(0)))
+                .andExpect(status().isOk());
+    }
+}
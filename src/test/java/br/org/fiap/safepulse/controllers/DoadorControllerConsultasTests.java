@@ -0,0 +1,142 @@
+package br.org.fiap.safepulse.controllers;
+
+import br.org.fiap.safepulse.suporte.MassaTeste;
+import br.org.fiap.safepulse.suporte.OrcamentoSql;
+import br.org.fiap.safepulse.suporte.TesteIntegracao;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class DoadorControllerConsultasTests extends TesteIntegracao {
+
+    @Test
+    @OrcamentoSql(1)
+    void create() throws Exception {
+        String sufixo = UUID.randomUUID().toString();
+        mockMvc.perform(post("/api/doadores").contentType(MediaType.APPLICATION_JSON)
+                        .content(json(corpo("Doador " + sufixo, sufixo + "@teste.safepulse"))))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void getById() throws Exception {
+        mockMvc.perform(get("/api/doadores/{id}", MassaTeste.doador(1)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void getByIds() throws Exception {
+        UUID inexistente = UUID.randomUUID();
+        mockMvc.perform(post("/api/doadores/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("ids", List.of(MassaTeste.doador(2), inexistente, MassaTeste.doador(0), MassaTeste.doador(2))))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens[*].id", contains(MassaTeste.doador(2).toString(), MassaTeste.doador(0).toString())))
+                .andExpect(jsonPath("$.naoEncontrados", contains(inexistente.toString())));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void getAll() throws Exception {
+        mockMvc.perform(get("/api/doadores").param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N)));
+    }
+
+    @Test
+    @OrcamentoSql(2)
+    void update() throws Exception {
+        int i = MassaTeste.N - 1;
+        mockMvc.perform(put("/api/doadores/{id}", MassaTeste.doador(i)).contentType(MediaType.APPLICATION_JSON)
+                        .content(json(corpo("Doador " + i + " (atualizado)", MassaTeste.email("doador", i)))))
+                .andExpect(status().isOk());
+    }
+
+    /** SELECT (o cache de segundo nível começa vazio) e UPDATE só da coluna alterada. */
+    @Test
+    @OrcamentoSql(2)
+    void patchParcial() throws Exception {
+        int i = MassaTeste.N - 1;
+        mockMvc.perform(patch("/api/doadores/{id}", MassaTeste.doador(i)).contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("endereco", "Rua " + i + ", fundos"))))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @OrcamentoSql(2)
+    void deleteById() throws Exception {
+        UUID id = UUID.randomUUID();
+        jdbc.update("INSERT INTO doador (id, nome) VALUES (?, 'Temporário')", id);
+        mockMvc.perform(delete("/api/doadores/{id}", id))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void findByEmail() throws Exception {
+        mockMvc.perform(get("/api/doadores/search/email").param("email", MassaTeste.email("doador", 1)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void findByNome() throws Exception {
+        mockMvc.perform(get("/api/doadores/search/nome").param("nome", "Doador").param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N)));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void findByOng() throws Exception {
+        mockMvc.perform(get("/api/doadores/search/ong").param("ong", MassaTeste.ONG).param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N)));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void existsByTelefone() throws Exception {
+        mockMvc.perform(get("/api/doadores/exists/telefone").param("telefone", MassaTeste.telefone(1)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void findSimilarByNome() throws Exception {
+        mockMvc.perform(get("/api/doadores/search/similar").param("termo", "Doador"))
+                .andExpect(status().isOk());
+    }
+
+    /** Curingas do ILIKE no termo são texto: "%" não traz a tabela toda. */
+    @Test
+    @OrcamentoSql(1)
+    void findSimilarByNomeComCuringa() throws Exception {
+        mockMvc.perform(get("/api/doadores/search/similar").param("termo", "%"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    private static Map<String, Object> corpo(String nome, String email) {
+        return Map.of(
+                "nome", nome,
+                "ong", MassaTeste.ONG,
+                "email", email,
+                "telefone", "51988887777",
+                "endereco", "Rua de teste");
+    }
+}
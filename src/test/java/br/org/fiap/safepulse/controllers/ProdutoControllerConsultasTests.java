@@ -0,0 +1,129 @@
+package br.org.fiap.safepulse.controllers;
+
+import br.org.fiap.safepulse.suporte.MassaTeste;
+import br.org.fiap.safepulse.suporte.OrcamentoSql;
+import br.org.fiap.safepulse.suporte.TesteIntegracao;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ProdutoControllerConsultasTests extends TesteIntegracao {
+
+    @Test
+    @OrcamentoSql(1)
+    void create() throws Exception {
+        mockMvc.perform(post("/api/produtos").contentType(MediaType.APPLICATION_JSON)
+                        .content(json(corpo("Cobertor " + UUID.randomUUID()))))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void getById() throws Exception {
+        mockMvc.perform(get("/api/produtos/{id}", MassaTeste.produto(1)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void getByIds() throws Exception {
+        UUID inexistente = UUID.randomUUID();
+        mockMvc.perform(post("/api/produtos/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("ids", List.of(MassaTeste.produto(2), inexistente, MassaTeste.produto(0), MassaTeste.produto(2))))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens[*].id", contains(MassaTeste.produto(2).toString(), MassaTeste.produto(0).toString())))
+                .andExpect(jsonPath("$.naoEncontrados", contains(inexistente.toString())));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void getAll() throws Exception {
+        mockMvc.perform(get("/api/produtos").param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N)));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void update() throws Exception {
+        int i = MassaTeste.N - 1;
+        mockMvc.perform(put("/api/produtos/{id}", MassaTeste.produto(i)).contentType(MediaType.APPLICATION_JSON)
+                        .content(json(corpo("Agua " + i))))
+                .andExpect(status().isOk());
+    }
+
+    /** SELECT (o cache de segundo nível começa vazio) e UPDATE só da coluna alterada. */
+    @Test
+    @OrcamentoSql(2)
+    void patchParcial() throws Exception {
+        int i = MassaTeste.N - 1;
+        mockMvc.perform(patch("/api/produtos/{id}", MassaTeste.produto(i)).contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("descricao", "Produto de teste atualizado"))))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @OrcamentoSql(2)
+    void deleteById() throws Exception {
+        UUID id = UUID.randomUUID();
+        jdbc.update("INSERT INTO produto (id, nome) VALUES (?, 'Temporário')", id);
+        mockMvc.perform(delete("/api/produtos/{id}", id))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void findByNome() throws Exception {
+        mockMvc.perform(get("/api/produtos/search/nome").param("nome", "Agua").param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N)));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void findByUnidade() throws Exception {
+        mockMvc.perform(get("/api/produtos/search/unidade").param("unidade", MassaTeste.UNIDADE).param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", greaterThanOrEqualTo(MassaTeste.N)));
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void existsByNome() throws Exception {
+        mockMvc.perform(get("/api/produtos/exists/nome").param("nome", "Agua 1"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @OrcamentoSql(1)
+    void findSimilarByNome() throws Exception {
+        mockMvc.perform(get("/api/produtos/search/similar").param("termo", "Agua"))
+                .andExpect(status().isOk());
+    }
+
+    /** Curingas do ILIKE no termo são texto: "%" não traz a tabela toda. */
+    @Test
+    @OrcamentoSql(1)
+    void findSimilarByNomeComCuringa() throws Exception {
+        mockMvc.perform(get("/api/produtos/search/similar").param("termo", "%"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    private static Map<String, Object> corpo(String nome) {
+        return Map.of("nome", nome, "descricao", "Produto de teste", "unidade", MassaTeste.UNIDADE);
+    }
+}
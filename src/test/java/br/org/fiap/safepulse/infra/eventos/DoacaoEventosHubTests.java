@@ -0,0 +1,303 @@
+package br.org.fiap.safepulse.infra.eventos;
+
+import br.org.fiap.safepulse.domain.dtos.DoacaoEventoDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Hub SSE sem o contexto Spring, com histórico e filas pequenos: filtros, retomada
+ * por Last-Event-ID e desconexão de assinante lento. Cada emitter registra o que
+ * recebe e pode ser segurado, simulando um cliente que não lê.
+ */
+class DoacaoEventosHubTests {
+
+    private static final int HISTORICO = 8;
+    private static final int FILA = 4;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<EmitterTeste> emitters = new CopyOnWriteArrayList<>();
+    private DoacaoEventosHub hub;
+
+    @BeforeEach
+    void criarHub() {
+        hub = new DoacaoEventosHub(new ObjectMapper().findAndRegisterModules(), meterRegistry,
+                HISTORICO, FILA, Duration.ofMinutes(1)) {
+            @Override
+            SseEmitter novoEmitter(long timeoutMillis) {
+                EmitterTeste emitter = new EmitterTeste(timeoutMillis);
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    @AfterEach
+    void encerrarHub() {
+        hub.encerrar();
+    }
+
+    @Test
+    void filtroPorDesastre() {
+        UUID desastre = UUID.randomUUID();
+        EmitterTeste assinante = assinar(desastre, null, null);
+
+        hub.publicar(evento(UUID.randomUUID(), UUID.randomUUID()));
+        DoacaoEventoDto doDesastre = evento(desastre, UUID.randomUUID());
+        hub.publicar(doDesastre);
+
+        aguardar(() -> assinante.eventos().size() == 1);
+        assertEquals(List.of(doDesastre.getDoacaoId().toString()), assinante.doacoes());
+    }
+
+    @Test
+    void filtroPorBeneficiario() {
+        UUID beneficiario = UUID.randomUUID();
+        UUID desastre = UUID.randomUUID();
+        EmitterTeste soBeneficiario = assinar(null, beneficiario, null);
+        EmitterTeste ambos = assinar(desastre, beneficiario, null);
+
+        DoacaoEventoDto outroDesastre = evento(UUID.randomUUID(), beneficiario);
+        DoacaoEventoDto doisFiltros = evento(desastre, beneficiario);
+        hub.publicar(outroDesastre);
+        hub.publicar(evento(desastre, UUID.randomUUID()));
+        hub.publicar(doisFiltros);
+
+        aguardar(() -> soBeneficiario.eventos().size() == 2 && ambos.eventos().size() == 1);
+        assertEquals(List.of(outroDesastre.getDoacaoId().toString(), doisFiltros.getDoacaoId().toString()),
+                soBeneficiario.doacoes());
+        assertEquals(List.of(doisFiltros.getDoacaoId().toString()), ambos.doacoes());
+    }
+
+    /** Lote sem beneficiário: chega a quem filtra pelo desastre do lote ou só por beneficiário. */
+    @Test
+    void transicaoEmLoteChegaATodoFiltroQueOLotePodeTerAtingido() {
+        UUID desastre = UUID.randomUUID();
+        EmitterTeste doDesastre = assinar(desastre, null, null);
+        EmitterTeste outroDesastre = assinar(UUID.randomUUID(), null, null);
+        EmitterTeste porBeneficiario = assinar(null, UUID.randomUUID(), null);
+        EmitterTeste semFiltro = assinar(null, null, null);
+
+        hub.publicar(lote(desastre));
+        hub.publicar(lote(null));
+
+        aguardar(() -> doDesastre.eventos().size() == 2 && porBeneficiario.eventos().size() == 2
+                && semFiltro.eventos().size() == 2 && outroDesastre.eventos().size() == 1);
+        assertEquals(List.of("TRANSICAO_EM_LOTE", "TRANSICAO_EM_LOTE"), doDesastre.nomes());
+        assertTrue(outroDesastre.eventos().get(0).contains("\"quantidade\":1000"));
+        assertFalse(outroDesastre.eventos().get(0).contains(desastre.toString()));
+    }
+
+    /** Retomada dentro do histórico: reenvia só o que veio depois e segue ao vivo, sem "reset". */
+    @Test
+    void retomadaDentroDoHistorico() {
+        EmitterTeste primeiro = assinar(null, null, null);
+        List<DoacaoEventoDto> eventos = publicar(3, primeiro);
+
+        EmitterTeste retomado = assinar(null, null, primeiro.ids().get(0));
+        DoacaoEventoDto aoVivo = evento(UUID.randomUUID(), UUID.randomUUID());
+        hub.publicar(aoVivo);
+
+        aguardar(() -> retomado.eventos().size() == 3);
+        assertEquals(List.of(eventos.get(1).getDoacaoId().toString(), eventos.get(2).getDoacaoId().toString(),
+                aoVivo.getDoacaoId().toString()), retomado.doacoes());
+        assertEquals(primeiro.ids().subList(1, 3), retomado.ids().subList(0, 2));
+    }
+
+    @Test
+    void retomadaAlemDoHistoricoRecebeReset() {
+        EmitterTeste primeiro = assinar(null, null, null);
+        publicar(HISTORICO + 2, primeiro);
+
+        EmitterTeste retomado = assinar(null, null, primeiro.ids().get(0));
+
+        aguardar(() -> !retomado.eventos().isEmpty());
+        assertEquals(List.of(DoacaoEventosHub.EVENTO_RESET), retomado.nomes());
+    }
+
+    @Test
+    void idDeOutraInstanciaRecebeReset() {
+        EmitterTeste primeiro = assinar(null, null, null);
+        publicar(1, primeiro);
+        String id = primeiro.ids().get(0);
+        String deOutraInstancia = "outra" + id.substring(id.lastIndexOf('-'));
+
+        EmitterTeste retomado = assinar(null, null, deOutraInstancia);
+
+        aguardar(() -> !retomado.eventos().isEmpty());
+        assertEquals(List.of(DoacaoEventosHub.EVENTO_RESET), retomado.nomes());
+    }
+
+    /** Fila cheia: só o assinante lento recebe "reset" e é desconectado; o outro recebe tudo. */
+    @Test
+    void filaCheiaDesconectaSoOAssinanteLento() {
+        EmitterTeste lento = assinar(null, null, null);
+        EmitterTeste rapido = assinar(null, null, null);
+        lento.segurar();
+
+        publicar(1, rapido);
+        aguardar(lento::segurado);
+        publicar(FILA * 2, rapido);
+        lento.liberar();
+
+        aguardar(lento::concluido);
+        assertEquals(DoacaoEventosHub.EVENTO_RESET, lento.nomes().get(lento.nomes().size() - 1));
+        assertFalse(rapido.concluido());
+        assertTrue(rapido.nomes().stream().noneMatch(DoacaoEventosHub.EVENTO_RESET::equals));
+        assertEquals(1.0, meterRegistry.get("safepulse.sse.assinantes").gauge().value());
+        assertEquals(1.0, meterRegistry.get("safepulse.sse.desconexoes").counter().count());
+    }
+
+    private EmitterTeste assinar(UUID desastreId, UUID beneficiarioId, String ultimoEventoId) {
+        hub.assinar(desastreId, beneficiarioId, ultimoEventoId);
+        return emitters.get(emitters.size() - 1);
+    }
+
+    /** Publica um a um, esperando cada evento chegar ao assinante que acompanha o ritmo. */
+    private List<DoacaoEventoDto> publicar(int quantidade, EmitterTeste acompanhante) {
+        List<DoacaoEventoDto> eventos = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            DoacaoEventoDto evento = evento(UUID.randomUUID(), UUID.randomUUID());
+            int recebidos = acompanhante.eventos().size();
+            hub.publicar(evento);
+            aguardar(() -> acompanhante.eventos().size() > recebidos);
+            eventos.add(evento);
+        }
+        return eventos;
+    }
+
+    private static DoacaoEventoDto evento(UUID desastreId, UUID beneficiarioId) {
+        return DoacaoEventoDto.builder()
+                .tipo(DoacaoEventoDto.Tipo.STATUS_ALTERADO)
+                .doacaoId(UUID.randomUUID())
+                .desastreId(desastreId)
+                .beneficiarioId(beneficiarioId)
+                .status("ENTREGUE")
+                .statusAnterior("EM_TRANSITO")
+                .ocorridoEm(Instant.now())
+                .build();
+    }
+
+    private static DoacaoEventoDto lote(UUID desastreId) {
+        return DoacaoEventoDto.builder()
+                .tipo(DoacaoEventoDto.Tipo.TRANSICAO_EM_LOTE)
+                .desastreId(desastreId)
+                .status("ENTREGUE")
+                .quantidade(1000)
+                .ocorridoEm(Instant.now())
+                .build();
+    }
+
+    private static void aguardar(BooleanSupplier condicao) {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicao.getAsBoolean()) {
+            if (System.nanoTime() > limite) {
+                fail("condição não atingida em 5 s");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /** Registra os eventos enviados como texto SSE; segurado, bloqueia o envio como um cliente que não lê. */
+    private static final class EmitterTeste extends SseEmitter {
+
+        private static final Pattern ID = Pattern.compile("^id:(.*)$", Pattern.MULTILINE);
+        private static final Pattern NOME = Pattern.compile("^event:(.*)$", Pattern.MULTILINE);
+        private static final Pattern DOACAO = Pattern.compile("\"doacaoId\":\"([^\"]+)\"");
+
+        private final List<String> eventos = new CopyOnWriteArrayList<>();
+        private volatile CountDownLatch trava;
+        private volatile boolean segurado;
+        private volatile boolean concluido;
+
+        private EmitterTeste(long timeoutMillis) {
+            super(timeoutMillis);
+        }
+
+        @Override
+        public void send(SseEventBuilder evento) {
+            CountDownLatch atual = trava;
+            if (atual != null) {
+                segurado = true;
+                try {
+                    atual.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+            }
+            StringBuilder texto = new StringBuilder();
+            evento.build().forEach(parte -> texto.append(parte.getData()));
+            if (!texto.toString().startsWith(":")) {
+                eventos.add(texto.toString());
+            }
+        }
+
+        @Override
+        public void complete() {
+            concluido = true;
+        }
+
+        void segurar() {
+            trava = new CountDownLatch(1);
+        }
+
+        void liberar() {
+            CountDownLatch atual = trava;
+            trava = null;
+            atual.countDown();
+        }
+
+        boolean segurado() {
+            return segurado;
+        }
+
+        boolean concluido() {
+            return concluido;
+        }
+
+        List<String> eventos() {
+            return eventos;
+        }
+
+        List<String> ids() {
+            return extrair(ID);
+        }
+
+        List<String> nomes() {
+            return extrair(NOME);
+        }
+
+        List<String> doacoes() {
+            return extrair(DOACAO);
+        }
+
+        private List<String> extrair(Pattern padrao) {
+            return eventos.stream()
+                    .map(padrao::matcher)
+                    .filter(Matcher::find)
+                    .map(m -> m.group(1))
+                    .toList();
+        }
+    }
+}
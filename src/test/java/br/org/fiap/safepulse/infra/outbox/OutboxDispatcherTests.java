@@ -0,0 +1,104 @@
+package br.org.fiap.safepulse.infra.outbox;
+
+import br.org.fiap.safepulse.domain.entities.OutboxEvento;
+import br.org.fiap.safepulse.infra.repositories.OutboxEventoRepository;
+import br.org.fiap.safepulse.suporte.TesteIntegracao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ciclo de um lote do dispatcher: reserva em transação curta, envio sem conexão
+ * presa e adiamento que não segura os demais eventos.
+ */
+class OutboxDispatcherTests extends TesteIntegracao {
+
+    @Autowired
+    private OutboxEventoRepository outboxEventoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<List<Long>> enviados = new ArrayList<>();
+
+    /* O dispatcher pega os eventos mais antigos da tabela, inclusive os de outros testes. */
+    @BeforeEach
+    void limparOutbox() {
+        jdbc.update("DELETE FROM outbox_evento");
+    }
+
+    @Test
+    void eventoAdiadoNaoSeguraOsDemais() {
+        long a1 = evento("A", "1 hour");
+        long a2 = evento("A", "-1 second");
+        long b1 = evento("B", "-1 second");
+        OutboxDispatcher dispatcher = dispatcher(lote -> enviados.add(ids(lote)));
+
+        assertEquals(2, dispatcher.processarLote());
+        assertEquals(List.of(List.of(a2, b1)), enviados);
+
+        jdbc.update("UPDATE outbox_evento SET proxima_tentativa_em = now() WHERE id = ?", a1);
+        assertEquals(1, dispatcher.processarLote());
+        assertEquals(List.of(a1), enviados.get(1));
+        assertEquals(0, pendentes());
+    }
+
+    @Test
+    void enviaForaDaTransacaoComOLoteReservado() {
+        long a1 = evento("A", "-1 second");
+        OutboxDispatcher dispatcher = dispatcher(lote -> {
+            // outra conexão: a linha não está bloqueada, mas já não está pronta para envio
+            assertEquals(a1, jdbc.queryForObject(
+                    "SELECT id FROM outbox_evento WHERE id = ? FOR UPDATE NOWAIT", Long.class, a1));
+            assertTrue(jdbc.queryForObject(
+                    "SELECT proxima_tentativa_em > now() FROM outbox_evento WHERE id = ?", Boolean.class, a1));
+            enviados.add(ids(lote));
+        });
+
+        assertEquals(1, dispatcher.processarLote());
+        assertEquals(List.of(List.of(a1)), enviados);
+        assertEquals(0, pendentes());
+    }
+
+    @Test
+    void falhaNoEnvioAdiaOLote() {
+        long a1 = evento("A", "-1 second");
+        OutboxDispatcher dispatcher = dispatcher(lote -> {
+            throw new IllegalStateException("destino fora do ar");
+        });
+
+        assertEquals(0, dispatcher.processarLote());
+        assertEquals(1, jdbc.queryForObject(
+                "SELECT tentativas FROM outbox_evento WHERE id = ? AND proxima_tentativa_em > now()",
+                Integer.class, a1));
+    }
+
+    private OutboxDispatcher dispatcher(OutboxSink sink) {
+        return new OutboxDispatcher(outboxEventoRepository, sink, new OutboxProperties(),
+                transactionManager, new SimpleMeterRegistry());
+    }
+
+    private long evento(String agregadoId, String pronto) {
+        return jdbc.queryForObject("INSERT INTO outbox_evento (id, agregado, agregado_id, tipo, payload, "
+                        + "criado_em, tentativas, proxima_tentativa_em) "
+                        + "VALUES (nextval('outbox_evento_seq'), 'DOACAO', ?, 'CRIADO', '{}', now(), 0, "
+                        + "now() + ?::interval) RETURNING id",
+                Long.class, agregadoId, pronto);
+    }
+
+    private int pendentes() {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM outbox_evento", Integer.class);
+    }
+
+    private static List<Long> ids(List<OutboxEvento> lote) {
+        return lote.stream().map(OutboxEvento::getId).toList();
+    }
+}
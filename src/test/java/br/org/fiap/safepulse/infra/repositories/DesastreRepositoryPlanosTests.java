@@ -0,0 +1,62 @@
+package br.org.fiap.safepulse.infra.repositories;
+
+import br.org.fiap.safepulse.infra.pagination.KeysetCursor;
+import br.org.fiap.safepulse.suporte.MassaVolume;
+import br.org.fiap.safepulse.suporte.TestePlanos;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+class DesastreRepositoryPlanosTests extends TestePlanos {
+
+    @Autowired
+    private DesastreRepository repository;
+
+    @Override
+    protected Class<?> repositorio() {
+        return DesastreRepository.class;
+    }
+
+    @Test
+    void findByNomeContainingIgnoreCaseAndIdGreaterThan() {
+        plano(() -> repository.findByNomeContainingIgnoreCaseAndIdGreaterThan("1234", KeysetCursor.INICIO,
+                KeysetCursor.pageRequest(50, "id")))
+                .semSeqScan().custoAte(50);
+    }
+
+    @Test
+    void findByDataDesastreBetweenAndIdGreaterThan() {
+        plano(() -> repository.findByDataDesastreBetweenAndIdGreaterThan(LocalDate.of(2021, 1, 1),
+                LocalDate.of(2021, 1, 31), KeysetCursor.INICIO, KeysetCursor.pageRequest(50, "id")))
+                .semSeqScan().custoAte(100);
+    }
+
+    @Test
+    void findByLocalizacaoContainingIgnoreCaseAndIdGreaterThan() {
+        plano(() -> repository.findByLocalizacaoContainingIgnoreCaseAndIdGreaterThan("Canoas", KeysetCursor.INICIO,
+                KeysetCursor.pageRequest(50, "id")))
+                .semSeqScan().custoAte(100);
+    }
+
+    @Test
+    void countByDataDesastreAfter() {
+        plano(() -> repository.countByDataDesastreAfter(LocalDate.of(2023, 6, 1)))
+                .semSeqScan().custoAte(100);
+    }
+
+    @Test
+    void findSimilarByNome() {
+        plano(() -> repository.findSimilarByNome("desastre 1234", 20))
+                .semSeqScan().custoAte(500);
+    }
+
+    @Test
+    void findByIds() {
+        UUID[] ids = IntStream.range(0, 100).mapToObj(i -> MassaVolume.desastre(i * 19)).toArray(UUID[]::new);
+        plano(() -> repository.findByIds(ids))
+                .semSeqScan().custoAte(1000);
+    }
+}
@@ -0,0 +1,116 @@
+package br.org.fiap.safepulse.infra.repositories;
+
+import br.org.fiap.safepulse.domain.entities.DoacaoDoadorProdutoId;
+import br.org.fiap.safepulse.infra.pagination.KeysetCursor;
+import br.org.fiap.safepulse.suporte.MassaVolume;
+import br.org.fiap.safepulse.suporte.TestePlanos;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static br.org.fiap.safepulse.infra.pagination.KeysetCursor.INICIO;
+
+class DoacaoDoadorProdutoRepositoryPlanosTests extends TestePlanos {
+
+    private static final Pageable PAGINA = KeysetCursor.pageRequest(50, "id.doacaoId", "id.doadorId", "id.produtoId");
+
+    @Autowired
+    private DoacaoDoadorProdutoRepository repository;
+
+    @Override
+    protected Class<?> repositorio() {
+        return DoacaoDoadorProdutoRepository.class;
+    }
+
+    @Test
+    void findAfter() {
+        plano(() -> repository.findAfter(MassaVolume.doacao(50_000), INICIO, INICIO, PAGINA))
+                .semSeqScan().custoAte(20);
+    }
+
+    @Test
+    void findByDoacaoIdAfter() {
+        plano(() -> repository.findByDoacaoIdAfter(MassaVolume.doacao(7), INICIO, INICIO, INICIO, PAGINA))
+                .semSeqScan().custoAte(50);
+    }
+
+    /**
+     * A PK começa por doacao_id: o filtro por doador depende do índice próprio, que
+     * segue a ordem do keyset. Com as ~2000 linhas do grande doador, a página sai
+     * direto do índice, sem ler todas e ordenar.
+     */
+    @Test
+    void findByDoadorIdAfter() {
+        plano(() -> repository.findByDoadorIdAfter(MassaVolume.doador(MassaVolume.GRANDE_DOADOR),
+                INICIO, INICIO, INICIO, PAGINA))
+                .semSeqScan().semOrdenacao().usaIndice("doacao_doador_produto_doador_doacao_idx").custoAte(250);
+    }
+
+    /** Página seguinte, com o cursor no meio das linhas do doador. */
+    @Test
+    void findByDoadorIdAfterComCursor() {
+        UUID doador = MassaVolume.doador(MassaVolume.GRANDE_DOADOR);
+        plano(() -> repository.findByDoadorIdAfter(doador, MassaVolume.doacao(50_000), doador,
+                MassaVolume.produto(MassaVolume.produtoDaDoacao(50_000, 0)), PAGINA))
+                .semSeqScan().semOrdenacao().usaIndice("doacao_doador_produto_doador_doacao_idx").custoAte(250);
+    }
+
+    @Test
+    void findByProdutoIdAfter() {
+        plano(() -> repository.findByProdutoIdAfter(MassaVolume.produto(MassaVolume.produtoDaDoacao(7, 0)),
+                INICIO, INICIO, INICIO, PAGINA))
+                .semSeqScan().semOrdenacao().usaIndice("doacao_doador_produto_produto_doacao_idx").custoAte(1000);
+    }
+
+    /** Exportação: lê a tabela inteira de propósito, então só o custo é limitado. */
+    @Test
+    void streamAll() {
+        plano(() -> {
+            try (Stream<?> linhas = repository.streamAll()) {
+                linhas.findFirst();
+            }
+        }).custoAte(10000);
+    }
+
+    @Test
+    void findExistingIds() {
+        List<DoacaoDoadorProdutoId> ids = IntStream.range(0, 100)
+                .map(i -> i * 997)
+                .mapToObj(i -> new DoacaoDoadorProdutoId(MassaVolume.doacao(i),
+                        MassaVolume.doador(MassaVolume.doadorDaDoacao(i)),
+                        MassaVolume.produto(MassaVolume.produtoDaDoacao(i, 0))))
+                .toList();
+        plano(() -> repository.findExistingIds(ids))
+                .semSeqScan().custoAte(1000);
+    }
+
+    @Test
+    void sumQuantidadeByProdutoForDesastre() {
+        plano(() -> repository.sumQuantidadeByProdutoForDesastre(MassaVolume.desastre(7)))
+                .semSeqScan().usaIndice("doacao_doador_produto_pkey").custoAte(2000);
+    }
+
+    @Test
+    void countDistinctDoadoresByDesastreId() {
+        plano(() -> repository.countDistinctDoadoresByDesastreId(MassaVolume.desastre(7)))
+                .semSeqScan().usaIndice("doacao_doador_produto_pkey").custoAte(2000);
+    }
+
+    @Test
+    void findDetalheByDoacaoId() {
+        plano(() -> repository.findDetalheByDoacaoId(MassaVolume.doacao(7)))
+                .semSeqScan().custoAte(100);
+    }
+
+    @Test
+    void incrementar() {
+        plano(() -> repository.incrementar(MassaVolume.doacao(7), MassaVolume.doador(MassaVolume.doadorDaDoacao(7)),
+                MassaVolume.produto(MassaVolume.produtoDaDoacao(7, 0)), 3))
+                .semSeqScan().custoAte(1);
+    }
+}
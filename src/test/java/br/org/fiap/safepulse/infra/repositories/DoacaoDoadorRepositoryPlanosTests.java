@@ -0,0 +1,60 @@
+package br.org.fiap.safepulse.infra.repositories;
+
+import br.org.fiap.safepulse.infra.pagination.KeysetCursor;
+import br.org.fiap.safepulse.suporte.MassaVolume;
+import br.org.fiap.safepulse.suporte.TestePlanos;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+
+import static br.org.fiap.safepulse.infra.pagination.KeysetCursor.INICIO;
+
+class DoacaoDoadorRepositoryPlanosTests extends TestePlanos {
+
+    private static final Pageable PAGINA = KeysetCursor.pageRequest(50, "id.doacaoId", "id.doadorId");
+
+    @Autowired
+    private DoacaoDoadorRepository repository;
+
+    @Override
+    protected Class<?> repositorio() {
+        return DoacaoDoadorRepository.class;
+    }
+
+    @Test
+    void findAfter() {
+        plano(() -> repository.findAfter(MassaVolume.doacao(50_000), INICIO, PAGINA))
+                .semSeqScan().usaIndice("doacao_doador_pkey").custoAte(10);
+    }
+
+    @Test
+    void findByDoacaoIdAfter() {
+        plano(() -> repository.findByDoacaoIdAfter(MassaVolume.doacao(7), INICIO, INICIO, PAGINA))
+                .semSeqScan().custoAte(20);
+    }
+
+    @Test
+    void findByDoadorIdAfter() {
+        plano(() -> repository.findByDoadorIdAfter(MassaVolume.doador(MassaVolume.GRANDE_DOADOR),
+                INICIO, INICIO, PAGINA))
+                .semSeqScan().semOrdenacao().usaIndice("doacao_doador_doador_doacao_idx").custoAte(200);
+    }
+
+    @Test
+    void findDoadoresByDoacaoId() {
+        plano(() -> repository.findDoadoresByDoacaoId(MassaVolume.doacao(7)))
+                .semSeqScan().custoAte(50);
+    }
+
+    @Test
+    void findDoacoesByDoadorId() {
+        plano(() -> repository.findDoacoesByDoadorId(MassaVolume.doador(MassaVolume.doadorDaDoacao(7))))
+                .semSeqScan().usaIndice("doacao_doador_doador_doacao_idx").custoAte(200);
+    }
+
+    @Test
+    void findDetalheByDoacaoId() {
+        plano(() -> repository.findDetalheByDoacaoId(MassaVolume.doacao(7)))
+                .semSeqScan().custoAte(50);
+    }
+}
@@ -0,0 +1,78 @@
+package br.org.fiap.safepulse.infra.repositories;
+
+import br.org.fiap.safepulse.infra.pagination.KeysetCursor;
+import br.org.fiap.safepulse.suporte.MassaVolume;
+import br.org.fiap.safepulse.suporte.TestePlanos;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+
+import java.util.stream.Stream;
+
+import static br.org.fiap.safepulse.infra.pagination.KeysetCursor.INICIO;
+
+class DoacaoProdutoRepositoryPlanosTests extends TestePlanos {
+
+    private static final Pageable PAGINA = KeysetCursor.pageRequest(50, "id.doacaoId", "id.produtoId");
+
+    @Autowired
+    private DoacaoProdutoRepository repository;
+
+    @Override
+    protected Class<?> repositorio() {
+        return DoacaoProdutoRepository.class;
+    }
+
+    @Test
+    void findAfter() {
+        plano(() -> repository.findAfter(MassaVolume.doacao(50_000), INICIO, PAGINA))
+                .semSeqScan().custoAte(20);
+    }
+
+    @Test
+    void findByDoacaoIdAfter() {
+        plano(() -> repository.findByDoacaoIdAfter(MassaVolume.doacao(7), INICIO, INICIO, PAGINA))
+                .semSeqScan().custoAte(50);
+    }
+
+    @Test
+    void findByProdutoIdAfter() {
+        plano(() -> repository.findByProdutoIdAfter(MassaVolume.produto(MassaVolume.produtoDaDoacao(7, 0)),
+                INICIO, INICIO, PAGINA))
+                .semSeqScan().semOrdenacao().usaIndice("doacao_produto_produto_doacao_idx").custoAte(1000);
+    }
+
+    @Test
+    void sumQuantidadeByDoacaoId() {
+        plano(() -> repository.sumQuantidadeByDoacaoId(MassaVolume.doacao(7)))
+                .semSeqScan().custoAte(50);
+    }
+
+    /** Exportação: lê a tabela inteira de propósito, então só o custo é limitado. */
+    @Test
+    void streamAll() {
+        plano(() -> {
+            try (Stream<?> linhas = repository.streamAll()) {
+                linhas.findFirst();
+            }
+        }).custoAte(10000);
+    }
+
+    @Test
+    void sumQuantidadeByProdutoForDesastre() {
+        plano(() -> repository.sumQuantidadeByProdutoForDesastre(MassaVolume.desastre(7)))
+                .semSeqScan().usaIndice("doacao_produto_pkey").custoAte(2000);
+    }
+
+    @Test
+    void findDetalheByDoacaoId() {
+        plano(() -> repository.findDetalheByDoacaoId(MassaVolume.doacao(7)))
+                .semSeqScan().custoAte(100);
+    }
+
+    @Test
+    void incrementar() {
+        plano(() -> repository.incrementar(MassaVolume.doacao(7), MassaVolume.produto(MassaVolume.produtoDaDoacao(7, 0)), 3))
+                .semSeqScan().custoAte(1);
+    }
+}
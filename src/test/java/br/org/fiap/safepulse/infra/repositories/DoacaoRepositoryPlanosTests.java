@@ -0,0 +1,136 @@
+package br.org.fiap.safepulse.infra.repositories;
+
+import br.org.fiap.safepulse.infra.pagination.KeysetCursor;
+import br.org.fiap.safepulse.suporte.MassaVolume;
+import br.org.fiap.safepulse.suporte.TestePlanos;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+class DoacaoRepositoryPlanosTests extends TestePlanos {
+
+    @Autowired
+    private DoacaoRepository repository;
+
+    @Override
+    protected Class<?> repositorio() {
+        return DoacaoRepository.class;
+    }
+
+    @Test
+    void findByIdGreaterThan() {
+        plano(() -> repository.findByIdGreaterThan(MassaVolume.doacao(50_000), KeysetCursor.pageRequest(50, "id")))
+                .semSeqScan().custoAte(10);
+    }
+
+    @Test
+    void findByDesastreIdAndIdGreaterThan() {
+        plano(() -> repository.findByDesastreIdAndIdGreaterThan(MassaVolume.desastre(MassaVolume.GRANDE_DESASTRE),
+                KeysetCursor.INICIO, KeysetCursor.pageRequest(50, "id")))
+                .semSeqScan().semOrdenacao().custoAte(500);
+    }
+
+    @Test
+    void findByBeneficiarioIdAndIdGreaterThan() {
+        plano(() -> repository.findByBeneficiarioIdAndIdGreaterThan(MassaVolume.beneficiario(7), KeysetCursor.INICIO,
+                KeysetCursor.pageRequest(50, "id")))
+                .semSeqScan().custoAte(100);
+    }
+
+    @Test
+    void findByStatusAndIdGreaterThan() {
+        plano(() -> repository.findByStatusAndIdGreaterThan("CANCELADA", KeysetCursor.INICIO,
+                KeysetCursor.pageRequest(50, "id")))
+                .semSeqScan().usaIndice("doacao_status_idx").custoAte(500);
+    }
+
+    @Test
+    void findByDesastreIdAndStatusAndIdGreaterThan() {
+        plano(() -> repository.findByDesastreIdAndStatusAndIdGreaterThan(MassaVolume.desastre(7), "ENTREGUE",
+                KeysetCursor.INICIO, KeysetCursor.pageRequest(50, "id")))
+                .semSeqScan().custoAte(500);
+    }
+
+    @Test
+    void findByBeneficiarioIdAndStatusAndIdGreaterThan() {
+        plano(() -> repository.findByBeneficiarioIdAndStatusAndIdGreaterThan(MassaVolume.beneficiario(7), "ENTREGUE",
+                KeysetCursor.INICIO, KeysetCursor.pageRequest(50, "id")))
+                .semSeqScan().custoAte(50);
+    }
+
+    @Test
+    void countByStatus() {
+        plano(() -> repository.countByStatus("PENDENTE"))
+                .semSeqScan().custoAte(5000);
+    }
+
+    @Test
+    void findIdsByBeneficiarioIdAndDataDesastreAfter() {
+        plano(() -> repository.findIdsByBeneficiarioIdAndDataDesastreAfter(MassaVolume.beneficiario(7),
+                LocalDate.of(2021, 1, 1), KeysetCursor.INICIO, KeysetCursor.pageRequest(50, "id")))
+                .semSeqScan().custoAte(200);
+    }
+
+    @Test
+    void findExistingIds() {
+        List<UUID> ids = IntStream.range(0, 100).mapToObj(i -> MassaVolume.doacao(i * 997)).toList();
+        plano(() -> repository.findExistingIds(ids))
+                .semSeqScan().custoAte(1000);
+    }
+
+    @Test
+    void countByStatusForDesastre() {
+        plano(() -> repository.countByStatusForDesastre(MassaVolume.desastre(7)))
+                .semSeqScan().custoAte(20);
+    }
+
+    @Test
+    void countDistinctBeneficiariosByDesastreId() {
+        plano(() -> repository.countDistinctBeneficiariosByDesastreId(MassaVolume.desastre(7)))
+                .semSeqScan().usaIndice("doacao_desastre_beneficiario_idx").custoAte(20);
+    }
+
+    @Test
+    void findDetalheById() {
+        plano(() -> repository.findDetalheById(MassaVolume.doacao(7)))
+                .semSeqScan().usaIndice("doacao_pkey").custoAte(100);
+    }
+
+    @Test
+    void atualizarParcial() {
+        plano(() -> repository.atualizarParcial(MassaVolume.doacao(7), null, null, "EM_TRANSITO"))
+                .semSeqScan().usaIndice("doacao_pkey").custoAte(50);
+    }
+
+    @Test
+    void transicionarPorDesastreEStatus() {
+        plano(() -> repository.transicionarPorDesastreEStatus(MassaVolume.desastre(7), "PENDENTE", "ENTREGUE",
+                KeysetCursor.INICIO, 1000))
+                .semSeqScan().usaIndice("doacao_desastre_status_idx").custoAte(200);
+    }
+
+    /** Lote de 1000 entre as 10 mil doações do grande desastre, direto na ordem do índice. */
+    @Test
+    void transicionarPorDesastre() {
+        plano(() -> repository.transicionarPorDesastre(MassaVolume.desastre(MassaVolume.GRANDE_DESASTRE), "ENTREGUE",
+                KeysetCursor.INICIO, 1000))
+                .semSeqScan().semOrdenacao().usaIndice("doacao_desastre_idx").custoAte(500);
+    }
+
+    @Test
+    void transicionarPorStatus() {
+        plano(() -> repository.transicionarPorStatus("CANCELADA", "ENTREGUE", KeysetCursor.INICIO, 1000))
+                .semSeqScan().usaIndice("doacao_status_idx").usaIndice("doacao_pkey").custoAte(5000);
+    }
+
+    @Test
+    void transicionarPorIds() {
+        UUID[] ids = IntStream.range(0, 1000).mapToObj(MassaVolume::doacao).toArray(UUID[]::new);
+        plano(() -> repository.transicionarPorIds(ids, null, null, "ENTREGUE"))
+                .semSeqScan().usaIndice("doacao_pkey").custoAte(10000);
+    }
+}
@@ -0,0 +1,75 @@
+package br.org.fiap.safepulse.infra.repositories;
+
+import br.org.fiap.safepulse.infra.pagination.KeysetCursor;
+import br.org.fiap.safepulse.suporte.MassaVolume;
+import br.org.fiap.safepulse.suporte.TestePlanos;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+class DoadorRepositoryPlanosTests extends TestePlanos {
+
+    @Autowired
+    private DoadorRepository repository;
+
+    @Override
+    protected Class<?> repositorio() {
+        return DoadorRepository.class;
+    }
+
+    @Test
+    void findByEmail() {
+        plano(() -> repository.findByEmail(MassaVolume.email("doador", 7)))
+                .semSeqScan().usaIndice("doador_email_idx").custoAte(20);
+    }
+
+    @Test
+    void findByIdGreaterThan() {
+        plano(() -> repository.findByIdGreaterThan(MassaVolume.doador(10_000), KeysetCursor.pageRequest(50, "id")))
+                .semSeqScan().custoAte(10);
+    }
+
+    @Test
+    void findByNomeContainingIgnoreCaseAndIdGreaterThan() {
+        plano(() -> repository.findByNomeContainingIgnoreCaseAndIdGreaterThan("Cavalcanti", KeysetCursor.INICIO,
+                KeysetCursor.pageRequest(50, "id")))
+                .semSeqScan().custoAte(200);
+    }
+
+    @Test
+    void findByOngContainingIgnoreCaseAndIdGreaterThan() {
+        plano(() -> repository.findByOngContainingIgnoreCaseAndIdGreaterThan("ONG 123", KeysetCursor.INICIO,
+                KeysetCursor.pageRequest(50, "id")))
+                .semSeqScan().custoAte(500);
+    }
+
+    @Test
+    void existsByTelefone() {
+        plano(() -> repository.existsByTelefone(MassaVolume.telefone(7)))
+                .semSeqScan().usaIndice("doador_telefone_idx").custoAte(20);
+    }
+
+    @Test
+    void findExistingIds() {
+        List<UUID> ids = IntStream.range(0, 100).mapToObj(i -> MassaVolume.doador(i * 197)).toList();
+        plano(() -> repository.findExistingIds(ids))
+                .semSeqScan().custoAte(1000);
+    }
+
+    /** Trecho de nome com erro de digitação, como chega da busca. */
+    @Test
+    void findSimilarByNome() {
+        plano(() -> repository.findSimilarByNome("Vanesa Carvalho", 20))
+                .semSeqScan().usaIndice("doador_nome_trgm_idx").custoAte(1000);
+    }
+
+    @Test
+    void findByIds() {
+        UUID[] ids = IntStream.range(0, 100).mapToObj(i -> MassaVolume.doador(i * 19)).toArray(UUID[]::new);
+        plano(() -> repository.findByIds(ids))
+                .semSeqScan().usaIndice("doador_pkey").custoAte(1000);
+    }
+}
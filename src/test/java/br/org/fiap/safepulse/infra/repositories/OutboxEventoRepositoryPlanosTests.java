@@ -0,0 +1,45 @@
+package br.org.fiap.safepulse.infra.repositories;
+
+import br.org.fiap.safepulse.suporte.MassaVolume;
+import br.org.fiap.safepulse.suporte.TestePlanos;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.LongStream;
+
+class OutboxEventoRepositoryPlanosTests extends TestePlanos {
+
+    /** Um lote do dispatcher, espalhado pela tabela. */
+    private static final List<Long> LOTE = LongStream.range(0, 200)
+            .map(i -> 1 + i * (MassaVolume.OUTBOX / 200))
+            .boxed()
+            .toList();
+
+    @Autowired
+    private OutboxEventoRepository repository;
+
+    @Override
+    protected Class<?> repositorio() {
+        return OutboxEventoRepository.class;
+    }
+
+    @Test
+    void reservarLote() {
+        plano(() -> repository.reservarLote(200, Instant.now().plusSeconds(60)))
+                .semSeqScan().custoAte(1000);
+    }
+
+    @Test
+    void deleteByIds() {
+        plano(() -> repository.deleteByIds(LOTE))
+                .semSeqScan().usaIndice("outbox_evento_pkey").custoAte(1000);
+    }
+
+    @Test
+    void adiar() {
+        plano(() -> repository.adiar(LOTE, Instant.now()))
+                .semSeqScan().usaIndice("outbox_evento_pkey").custoAte(1000);
+    }
+}
@@ -0,0 +1,68 @@
+package br.org.fiap.safepulse.infra.repositories;
+
+import br.org.fiap.safepulse.infra.pagination.KeysetCursor;
+import br.org.fiap.safepulse.suporte.MassaVolume;
+import br.org.fiap.safepulse.suporte.TestePlanos;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+class ProdutoRepositoryPlanosTests extends TestePlanos {
+
+    @Autowired
+    private ProdutoRepository repository;
+
+    @Override
+    protected Class<?> repositorio() {
+        return ProdutoRepository.class;
+    }
+
+    @Test
+    void findByIdGreaterThan() {
+        plano(() -> repository.findByIdGreaterThan(MassaVolume.produto(1_000), KeysetCursor.pageRequest(50, "id")))
+                .semSeqScan().custoAte(10);
+    }
+
+    @Test
+    void findByNomeContainingIgnoreCaseAndIdGreaterThan() {
+        plano(() -> repository.findByNomeContainingIgnoreCaseAndIdGreaterThan("1234", KeysetCursor.INICIO,
+                KeysetCursor.pageRequest(50, "id")))
+                .semSeqScan().custoAte(50);
+    }
+
+    @Test
+    void findByUnidadeAndIdGreaterThan() {
+        plano(() -> repository.findByUnidadeAndIdGreaterThan("KG", KeysetCursor.INICIO,
+                KeysetCursor.pageRequest(50, "id")))
+                .semSeqScan().custoAte(50);
+    }
+
+    @Test
+    void existsByNome() {
+        plano(() -> repository.existsByNome("Produto 1234"))
+                .semSeqScan().custoAte(100);
+    }
+
+    @Test
+    void findExistingIds() {
+        List<UUID> ids = IntStream.range(0, 100).mapToObj(i -> MassaVolume.produto(i * 19)).toList();
+        plano(() -> repository.findExistingIds(ids))
+                .semSeqScan().custoAte(200);
+    }
+
+    @Test
+    void findSimilarByNome() {
+        plano(() -> repository.findSimilarByNome("produto 1234", 20))
+                .semSeqScan().custoAte(500);
+    }
+
+    @Test
+    void findByIds() {
+        UUID[] ids = IntStream.range(0, 100).mapToObj(i -> MassaVolume.produto(i * 19)).toArray(UUID[]::new);
+        plano(() -> repository.findByIds(ids))
+                .semSeqScan().custoAte(1000);
+    }
+}
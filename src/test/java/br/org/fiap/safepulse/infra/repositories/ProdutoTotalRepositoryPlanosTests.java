@@ -0,0 +1,56 @@
+package br.org.fiap.safepulse.infra.repositories;
+
+import br.org.fiap.safepulse.suporte.MassaVolume;
+import br.org.fiap.safepulse.suporte.TestePlanos;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.UUID;
+
+import static br.org.fiap.safepulse.domain.entities.ProdutoTotal.ORIGEM_DOACAO_DOADOR_PRODUTO;
+import static br.org.fiap.safepulse.domain.entities.ProdutoTotal.TODOS_DOADORES;
+
+class ProdutoTotalRepositoryPlanosTests extends TestePlanos {
+
+    @Autowired
+    private ProdutoTotalRepository repository;
+
+    @Override
+    protected Class<?> repositorio() {
+        return ProdutoTotalRepository.class;
+    }
+
+    @Test
+    void incrementar() {
+        plano(() -> repository.incrementar(MassaVolume.produto(7), TODOS_DOADORES, ORIGEM_DOACAO_DOADOR_PRODUTO, 3, 5))
+                .semSeqScan().custoAte(1);
+    }
+
+    @Test
+    void incrementarLote() {
+        UUID[] produtos = {MassaVolume.produto(7), MassaVolume.produto(7), MassaVolume.produto(8)};
+        UUID[] doadores = {TODOS_DOADORES, MassaVolume.doador(7), TODOS_DOADORES};
+        plano(() -> repository.incrementarLote(produtos, doadores, new long[]{5, 5, 2},
+                ORIGEM_DOACAO_DOADOR_PRODUTO, 3))
+                .semSeqScan().custoAte(1);
+    }
+
+    @Test
+    void somar() {
+        plano(() -> repository.somar(MassaVolume.produto(7), TODOS_DOADORES, ORIGEM_DOACAO_DOADOR_PRODUTO))
+                .semSeqScan().usaIndice("produto_total_pkey").custoAte(50);
+    }
+
+    @Test
+    void travar() {
+        plano(() -> repository.travar(42L))
+                .custoAte(1);
+    }
+
+    /** Reconciliação: agrega as tabelas de origem inteiras de propósito, então só o custo é limitado. */
+    @Test
+    void findDivergencias() {
+        plano(() -> repository.findDivergencias())
+                .custoAte(50000);
+    }
+}
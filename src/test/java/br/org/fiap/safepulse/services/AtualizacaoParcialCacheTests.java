@@ -0,0 +1,61 @@
+package br.org.fiap.safepulse.services;
+
+import br.org.fiap.safepulse.domain.dtos.DoadorPatchDto;
+import br.org.fiap.safepulse.domain.entities.Doador;
+import br.org.fiap.safepulse.infra.repositories.DoadorRepository;
+import br.org.fiap.safepulse.suporte.TesteIntegracao;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A alteração parcial mexe só na entrada do registro alterado no cache de segundo
+ * nível: os demais doadores continuam em cache, e o alterado é lido já com o valor novo.
+ */
+class AtualizacaoParcialCacheTests extends TesteIntegracao {
+
+    @Autowired
+    private DoadorService doadorService;
+
+    @Autowired
+    private DoadorRepository doadorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UUID alterado;
+    private UUID outro;
+
+    /* Registros próprios, para não alterar as contagens que outros testes consultam. */
+    @BeforeEach
+    void criarRegistros() {
+        alterado = UUID.randomUUID();
+        outro = UUID.randomUUID();
+        jdbc.update("INSERT INTO doador (id, nome, endereco) VALUES (?, 'Doador do cache', 'Rua A'), "
+                + "(?, 'Outro doador do cache', 'Rua B')", alterado, outro);
+        doadorRepository.findById(alterado);
+        doadorRepository.findById(outro);
+    }
+
+    @Test
+    void mantemOsOutrosRegistrosNoCache() {
+        assertTrue(doadorService.atualizarParcial(alterado, DoadorPatchDto.builder().endereco("Rua C").build()));
+
+        assertTrue(entityManagerFactory.getCache().contains(Doador.class, outro));
+        assertEquals("Rua C", doadorRepository.findById(alterado).orElseThrow().getEndereco());
+        assertEquals("Doador do cache", jdbc.queryForObject(
+                "SELECT nome FROM doador WHERE id = ?", String.class, alterado));
+    }
+
+    @Test
+    void idInexistente() {
+        assertFalse(doadorService.atualizarParcial(UUID.randomUUID(), DoadorPatchDto.builder().nome("X").build()));
+    }
+}
@@ -0,0 +1,66 @@
+package br.org.fiap.safepulse.services;
+
+import br.org.fiap.safepulse.config.CacheConfig;
+import br.org.fiap.safepulse.suporte.TesteIntegracao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * O cache de existência só perde o ID quando a exclusão é confirmada: enquanto a
+ * transação está aberta a entrada continua lá, e uma exclusão desfeita não a remove.
+ */
+class CacheReferenciasTests extends TesteIntegracao {
+
+    @Autowired
+    private DesastreService desastreService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private UUID desastre;
+    private Cache cache;
+
+    /* Registro próprio, para não alterar as contagens que outros testes consultam. */
+    @BeforeEach
+    void criarRegistro() {
+        desastre = UUID.randomUUID();
+        jdbc.update("INSERT INTO desastre (id, nome) VALUES (?, 'Desastre do cache')", desastre);
+        cache = cacheManager.getCache(CacheConfig.DESASTRES);
+        assertTrue(desastreService.existsById(desastre));
+        assertNotNull(cache.get(desastre));
+    }
+
+    @Test
+    void exclusaoRemoveDoCacheSoNoCommit() {
+        transactionTemplate.executeWithoutResult(status -> {
+            desastreService.delete(desastre);
+            assertNotNull(cache.get(desastre));
+        });
+        assertNull(cache.get(desastre));
+        assertFalse(desastreService.existsById(desastre));
+        assertNull(cache.get(desastre));
+    }
+
+    @Test
+    void exclusaoDesfeitaMantemOCache() {
+        transactionTemplate.executeWithoutResult(status -> {
+            desastreService.delete(desastre);
+            status.setRollbackOnly();
+        });
+        assertNotNull(cache.get(desastre));
+    }
+}
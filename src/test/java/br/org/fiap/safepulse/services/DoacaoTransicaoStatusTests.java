@@ -0,0 +1,156 @@
+package br.org.fiap.safepulse.services;
+
+import br.org.fiap.safepulse.domain.dtos.DoacaoTransicaoStatusDto;
+import br.org.fiap.safepulse.domain.dtos.DoacaoTransicaoStatusProgressoDto;
+import br.org.fiap.safepulse.domain.dtos.DoacaoTransicaoStatusProgressoDto.Situacao;
+import br.org.fiap.safepulse.suporte.MassaTeste;
+import br.org.fiap.safepulse.suporte.TesteIntegracao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Transições em massa sobre um desastre próprio com mais de um lote de doações:
+ * todas as doações filtradas, e só elas, mudam de status, cada uma com seu evento no
+ * outbox, e o andamento termina com os totais certos.
+ */
+class DoacaoTransicaoStatusTests extends TesteIntegracao {
+
+    /** Lotes de 1000 (padrão): dois cheios e um parcial. */
+    private static final int EM_TRANSITO = 2_500;
+    private static final int PENDENTES = 300;
+
+    @Autowired
+    private DoacaoTransicaoStatusService doacaoTransicaoStatusService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private UUID desastre;
+
+    /* Registros próprios, para não alterar as contagens que outros testes consultam. */
+    @BeforeEach
+    void criarRegistros() {
+        desastre = UUID.randomUUID();
+        jdbc.update("INSERT INTO desastre (id, nome) VALUES (?, 'Desastre em transição')", desastre);
+        jdbc.update("INSERT INTO doacao (id, desastre_id, beneficiario_id, status) "
+                        + "SELECT gen_random_uuid(), ?, ?, CASE WHEN i < ? THEN 'EM_TRANSITO' ELSE 'PENDENTE' END "
+                        + "FROM generate_series(0, ?) AS i",
+                desastre, MassaTeste.beneficiario(0), EM_TRANSITO, EM_TRANSITO + PENDENTES - 1);
+    }
+
+    @Test
+    void porDesastreEStatus() throws Exception {
+        DoacaoTransicaoStatusProgressoDto fim = aguardar(doacaoTransicaoStatusService.iniciar(
+                DoacaoTransicaoStatusDto.builder()
+                        .desastreId(desastre)
+                        .statusAtual("EM_TRANSITO")
+                        .statusNovo("RECEBIDA")
+                        .build()));
+
+        assertEquals(Situacao.CONCLUIDA, fim.getSituacao());
+        assertEquals(EM_TRANSITO, fim.getAtualizadas());
+        assertEquals(3, fim.getLotes());
+        assertEquals(EM_TRANSITO, contar("RECEBIDA"));
+        assertEquals(PENDENTES, contar("PENDENTE"));
+        assertEquals(EM_TRANSITO, jdbc.queryForObject("SELECT COUNT(*) FROM outbox_evento o "
+                + "JOIN doacao d ON o.agregado_id = CAST(d.id AS text) "
+                + "WHERE d.desastre_id = ? AND o.payload ->> 'status' = 'RECEBIDA'", Integer.class, desastre));
+    }
+
+    /**
+     * Uma transação concorrente tira do filtro a primeira candidata enquanto o lote
+     * espera pela trava: o lote altera uma doação a menos, e ainda assim o job segue
+     * até o fim do filtro.
+     */
+    @Test
+    void loteCurtoPorAlteracaoConcorrenteNaoEncerraOJob() throws Exception {
+        UUID primeira = jdbc.queryForObject("SELECT id FROM doacao WHERE desastre_id = ? AND status = 'EM_TRANSITO' "
+                + "ORDER BY id LIMIT 1", UUID.class, desastre);
+        DoacaoTransicaoStatusProgressoDto fim;
+        try (Connection concorrente = dataSource.getConnection()) {
+            concorrente.setAutoCommit(false);
+            try (PreparedStatement update = concorrente.prepareStatement(
+                    "UPDATE doacao SET status = 'CANCELADA' WHERE id = ?")) {
+                update.setObject(1, primeira);
+                update.executeUpdate();
+            }
+            DoacaoTransicaoStatusProgressoDto inicio = doacaoTransicaoStatusService.iniciar(
+                    DoacaoTransicaoStatusDto.builder()
+                            .desastreId(desastre)
+                            .statusAtual("EM_TRANSITO")
+                            .statusNovo("RECEBIDA")
+                            .build());
+            aguardarEsperaPorTrava();
+            concorrente.commit();
+            fim = aguardar(inicio);
+        }
+
+        assertEquals(Situacao.CONCLUIDA, fim.getSituacao());
+        assertEquals(EM_TRANSITO - 1, fim.getAtualizadas());
+        assertEquals(EM_TRANSITO - 1, contar("RECEBIDA"));
+        assertEquals(1, contar("CANCELADA"));
+        assertEquals(0, contar("EM_TRANSITO"));
+    }
+
+    @Test
+    void porIdsIgnoraInexistentesEOsQueJaEstaoNoStatus() throws Exception {
+        List<UUID> ids = new ArrayList<>(jdbc.queryForList(
+                "SELECT id FROM doacao WHERE desastre_id = ? AND status = 'PENDENTE'", UUID.class, desastre));
+        ids.add(UUID.randomUUID());
+        ids.add(ids.get(0));
+
+        DoacaoTransicaoStatusProgressoDto fim = aguardar(doacaoTransicaoStatusService.iniciar(
+                DoacaoTransicaoStatusDto.builder().ids(ids).statusNovo("CANCELADA").build()));
+        assertEquals(Situacao.CONCLUIDA, fim.getSituacao());
+        assertEquals(PENDENTES, fim.getAtualizadas());
+
+        // de novo: nada mais a mudar
+        fim = aguardar(doacaoTransicaoStatusService.iniciar(
+                DoacaoTransicaoStatusDto.builder().ids(ids).statusNovo("CANCELADA").build()));
+        assertEquals(0, fim.getAtualizadas());
+        assertEquals(PENDENTES, contar("CANCELADA"));
+        assertEquals(EM_TRANSITO, contar("EM_TRANSITO"));
+    }
+
+    private int contar(String status) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM doacao WHERE desastre_id = ? AND status = ?",
+                Integer.class, desastre, status);
+    }
+
+    private void aguardarEsperaPorTrava() throws Exception {
+        Instant limite = Instant.now().plus(Duration.ofMinutes(1));
+        while (jdbc.queryForObject("SELECT COUNT(*) FROM pg_stat_activity "
+                + "WHERE wait_event_type = 'Lock' AND query LIKE '%candidatas%'", Integer.class) == 0) {
+            if (Instant.now().isAfter(limite)) {
+                fail("o lote não chegou a esperar pela trava");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private DoacaoTransicaoStatusProgressoDto aguardar(DoacaoTransicaoStatusProgressoDto inicio) throws Exception {
+        Instant limite = Instant.now().plus(Duration.ofMinutes(1));
+        while (Instant.now().isBefore(limite)) {
+            DoacaoTransicaoStatusProgressoDto atual = doacaoTransicaoStatusService.getProgresso(inicio.getId())
+                    .orElseThrow();
+            if (atual.getSituacao() == Situacao.CONCLUIDA || atual.getSituacao() == Situacao.FALHOU) {
+                return atual;
+            }
+            Thread.sleep(20);
+        }
+        return fail("transição " + inicio.getId() + " não terminou");
+    }
+}
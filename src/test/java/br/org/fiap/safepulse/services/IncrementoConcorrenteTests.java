@@ -0,0 +1,121 @@
+package br.org.fiap.safepulse.services;
+
+import br.org.fiap.safepulse.domain.entities.DoacaoDoadorProdutoId;
+import br.org.fiap.safepulse.domain.entities.DoacaoProdutoId;
+import br.org.fiap.safepulse.suporte.MassaTeste;
+import br.org.fiap.safepulse.suporte.TesteIntegracao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Incrementos concorrentes na mesma associação, começando sem a linha: todos
+ * disputam o primeiro INSERT e depois o mesmo UPDATE. Nenhuma chamada pode falhar e a
+ * quantidade final, assim como os totais em produto_total, tem de ser a soma exata
+ * dos incrementos.
+ */
+class IncrementoConcorrenteTests extends TesteIntegracao {
+
+    private static final int THREADS = 8;
+    private static final int INCREMENTOS_POR_THREAD = 50;
+
+    @Autowired
+    private DoacaoDoadorProdutoService doacaoDoadorProdutoService;
+
+    @Autowired
+    private DoacaoProdutoService doacaoProdutoService;
+
+    @Autowired
+    private ProdutoTotalService produtoTotalService;
+
+    private UUID doacao;
+    private UUID doador;
+    private UUID produto;
+
+    /* Registros próprios, para não alterar as somas que outros testes consultam. */
+    @BeforeEach
+    void criarRegistros() {
+        doacao = UUID.randomUUID();
+        doador = UUID.randomUUID();
+        produto = UUID.randomUUID();
+        jdbc.update("INSERT INTO doacao (id, desastre_id, beneficiario_id, status) VALUES (?, ?, ?, 'PENDENTE')",
+                doacao, MassaTeste.desastre(0), MassaTeste.beneficiario(0));
+        jdbc.update("INSERT INTO doador (id, nome) VALUES (?, 'Doador concorrente')", doador);
+        jdbc.update("INSERT INTO produto (id, nome) VALUES (?, 'Produto concorrente')", produto);
+    }
+
+    @Test
+    void doacaoDoadorProdutoSemAtualizacaoPerdida() throws Exception {
+        DoacaoDoadorProdutoId id = new DoacaoDoadorProdutoId(doacao, doador, produto);
+        long esperado = disparar(delta -> doacaoDoadorProdutoService.incrementar(id, delta));
+
+        assertEquals(esperado, jdbc.queryForObject("SELECT quantidade FROM doacao_doador_produto "
+                + "WHERE doacao_id = ? AND doador_id = ? AND produto_id = ?", Long.class, doacao, doador, produto));
+        assertEquals(esperado, produtoTotalService.totalDoacaoDoadorProduto(produto));
+        assertEquals(esperado, produtoTotalService.totalDoacaoDoadorProduto(produto, doador));
+        assertEquals(THREADS * INCREMENTOS_POR_THREAD, jdbc.queryForObject(
+                "SELECT COUNT(*) FROM outbox_evento WHERE agregado_id = ?", Integer.class,
+                doacao + ":" + doador + ":" + produto));
+        // só o incremento que venceu a disputa pelo INSERT publica CRIADO
+        assertEquals(1, jdbc.queryForObject(
+                "SELECT COUNT(*) FROM outbox_evento WHERE agregado_id = ? AND tipo = 'CRIADO'", Integer.class,
+                doacao + ":" + doador + ":" + produto));
+    }
+
+    @Test
+    void doacaoProdutoSemAtualizacaoPerdida() throws Exception {
+        DoacaoProdutoId id = new DoacaoProdutoId(doacao, produto);
+        long esperado = disparar(delta -> doacaoProdutoService.incrementar(id, delta));
+
+        assertEquals(esperado, jdbc.queryForObject("SELECT quantidade FROM doacao_produto "
+                + "WHERE doacao_id = ? AND produto_id = ?", Long.class, doacao, produto));
+        assertEquals(esperado, produtoTotalService.totalDoacaoProduto(produto));
+    }
+
+    /**
+     * Libera todas as threads juntas; a thread t incrementa t + 1 a cada chamada.
+     * Devolve a soma esperada e propaga a primeira falha.
+     */
+    private static long disparar(Incremento incremento) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tarefas = new ArrayList<>();
+        long esperado = 0;
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int delta = t + 1;
+                esperado += (long) delta * INCREMENTOS_POR_THREAD;
+                tarefas.add(executor.submit(() -> {
+                    largada.await();
+                    for (int i = 0; i < INCREMENTOS_POR_THREAD; i++) {
+                        incremento.aplicar(delta);
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return esperado;
+    }
+
+    @FunctionalInterface
+    private interface Incremento {
+        void aplicar(int delta);
+    }
+}
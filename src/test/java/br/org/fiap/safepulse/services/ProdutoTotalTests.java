@@ -0,0 +1,108 @@
+package br.org.fiap.safepulse.services;
+
+import br.org.fiap.safepulse.domain.dtos.DoacaoDoadorProdutoCreateDto;
+import br.org.fiap.safepulse.suporte.MassaTeste;
+import br.org.fiap.safepulse.suporte.TesteIntegracao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Totais por produto: um lote maior que um flush (500 linhas) grava em uma única
+ * faixa, e a reconciliação corrige divergências, mas só em uma instância por vez.
+ */
+class ProdutoTotalTests extends TesteIntegracao {
+
+    private static final int PRODUTOS = 1_200;
+
+    @Autowired
+    private DoacaoDoadorProdutoService doacaoDoadorProdutoService;
+
+    @Autowired
+    private ProdutoTotalService produtoTotalService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private UUID doacao;
+    private UUID doador;
+    private List<UUID> produtos;
+
+    /* Registros próprios, para não alterar as somas que outros testes consultam. */
+    @BeforeEach
+    void criarRegistros() {
+        doacao = UUID.randomUUID();
+        doador = UUID.randomUUID();
+        jdbc.update("INSERT INTO doacao (id, desastre_id, beneficiario_id, status) VALUES (?, ?, ?, 'PENDENTE')",
+                doacao, MassaTeste.desastre(0), MassaTeste.beneficiario(0));
+        jdbc.update("INSERT INTO doador (id, nome) VALUES (?, 'Doador em lote')", doador);
+        produtos = new ArrayList<>();
+        List<Object[]> linhas = new ArrayList<>();
+        for (int i = 0; i < PRODUTOS; i++) {
+            UUID produto = UUID.randomUUID();
+            produtos.add(produto);
+            linhas.add(new Object[]{produto, "Produto em lote " + i});
+        }
+        jdbc.batchUpdate("INSERT INTO produto (id, nome) VALUES (?, ?)", linhas);
+    }
+
+    @Test
+    void loteEmVariosFlushesUsaUmaFaixa() {
+        List<DoacaoDoadorProdutoCreateDto> itens = new ArrayList<>();
+        for (UUID produto : produtos) {
+            itens.add(new DoacaoDoadorProdutoCreateDto(doacao, doador, produto, 2));
+        }
+
+        doacaoDoadorProdutoService.createBulk(itens);
+
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(DISTINCT faixa) FROM produto_total "
+                + "WHERE produto_id IN (SELECT produto_id FROM doacao_doador_produto WHERE doacao_id = ?) "
+                + "AND origem = 'DDP'", Integer.class, doacao));
+        assertEquals(2L * PRODUTOS, jdbc.queryForObject("SELECT SUM(quantidade) FROM produto_total "
+                + "WHERE doador_id = ? AND origem = 'DDP'", Long.class, doador));
+    }
+
+    @Test
+    void reconciliacaoCorrigeDivergencia() {
+        jdbc.update("INSERT INTO produto_total (produto_id, doador_id, origem, faixa, quantidade) "
+                + "VALUES (?, ?, 'DDP', 1, 4)", produtos.get(0), doador);
+
+        Optional<List<Object[]>> divergencias = produtoTotalService.reconciliar();
+
+        assertTrue(divergencias.isPresent());
+        assertTrue(divergencias.get().stream().anyMatch(d -> produtos.get(0).equals(d[0]) && doador.equals(d[1])));
+        assertEquals(0L, produtoTotalService.totalDoacaoDoadorProduto(produtos.get(0), doador));
+    }
+
+    /** Outra instância com a trava: a execução é pulada e nada é corrigido. */
+    @Test
+    void reconciliacaoPulaQuandoOutraInstanciaReconcilia() throws Exception {
+        jdbc.update("INSERT INTO produto_total (produto_id, doador_id, origem, faixa, quantidade) "
+                + "VALUES (?, ?, 'DDP', 1, 4)", produtos.get(0), doador);
+
+        try (Connection outra = dataSource.getConnection()) {
+            outra.setAutoCommit(false);
+            try (PreparedStatement trava = outra.prepareStatement("SELECT pg_advisory_xact_lock(?)")) {
+                trava.setLong(1, ProdutoTotalService.TRAVA_RECONCILIACAO);
+                trava.execute();
+            }
+            assertTrue(produtoTotalService.reconciliar().isEmpty());
+            assertEquals(4L, produtoTotalService.totalDoacaoDoadorProduto(produtos.get(0), doador));
+            outra.rollback();
+        }
+
+        assertTrue(produtoTotalService.reconciliar().isPresent());
+        assertEquals(0L, produtoTotalService.totalDoacaoDoadorProduto(produtos.get(0), doador));
+    }
+}
@@ -0,0 +1,62 @@
+package br.org.fiap.safepulse.suporte;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Guarda cada comando executado na thread corrente, com os parâmetros do jeito que
+ * o Hibernate os passou ao driver, para que possam ser reaplicados a um EXPLAIN.
+ * Só captura dentro de {@link #capturar(Runnable)}.
+ */
+public final class CapturaComandos implements QueryExecutionListener {
+
+    private static final ThreadLocal<List<Comando>> ATUAL = new ThreadLocal<>();
+
+    /** SQL com placeholders e os parâmetros da primeira execução (do primeiro item, em lotes). */
+    public record Comando(String sql, List<ParameterSetOperation> parametros) {
+
+        public void aplicar(PreparedStatement comando) throws SQLException {
+            for (ParameterSetOperation operacao : parametros) {
+                try {
+                    operacao.getMethod().invoke(comando, operacao.getArgs());
+                } catch (ReflectiveOperationException e) {
+                    throw new SQLException("Parâmetro não reaplicado: " + operacao.getMethod().getName(), e);
+                }
+            }
+        }
+    }
+
+    public static List<Comando> capturar(Runnable chamada) {
+        List<Comando> comandos = new ArrayList<>();
+        ATUAL.set(comandos);
+        try {
+            chamada.run();
+            return comandos;
+        } finally {
+            ATUAL.remove();
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        List<Comando> comandos = ATUAL.get();
+        if (comandos == null || queryInfoList.isEmpty()) {
+            return;
+        }
+        QueryInfo consulta = queryInfoList.get(0);
+        List<List<ParameterSetOperation>> execucoes = consulta.getParametersList();
+        comandos.add(new Comando(consulta.getQuery(),
+                execucoes.isEmpty() ? List.of() : List.copyOf(execucoes.get(0))));
+    }
+}
@@ -0,0 +1,31 @@
+package br.org.fiap.safepulse.suporte;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/** Envolve o DataSource no proxy que captura comandos e parâmetros para o EXPLAIN. */
+@TestConfiguration(proxyBeanMethods = false)
+public class CapturaComandosConfig {
+
+    @Bean
+    static BeanPostProcessor capturaComandosDataSource() {
+        CapturaComandos captura = new CapturaComandos();
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(captura)
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package br.org.fiap.safepulse.suporte;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Registra os comandos SQL executados durante cada requisição HTTP.
+ *
+ * O listener fica no proxy JDBC (datasource-proxy) em volta do DataSource e anota
+ * cada execução na requisição da thread corrente, aberta pelo filtro. Execuções fora
+ * de requisição (preparação do teste, tarefas em segundo plano) não são contadas.
+ * Um executeBatch conta como um comando, como a ida ao banco que ele é.
+ *
+ * O nextval dos geradores pooled (allocationSize > 1) não é contado: sai uma vez a
+ * cada bloco de IDs, na requisição que esgotar o bloco anterior, e contá-lo faria o
+ * orçamento depender da ordem dos testes.
+ */
+public final class ContadorConsultas implements QueryExecutionListener {
+
+    private static final ThreadLocal<List<String>> ATUAL = new ThreadLocal<>();
+    private static final List<Requisicao> REQUISICOES = Collections.synchronizedList(new ArrayList<>());
+
+    public record Requisicao(String descricao, List<String> comandos) {
+    }
+
+    public static void zerar() {
+        REQUISICOES.clear();
+    }
+
+    public static List<Requisicao> requisicoes() {
+        synchronized (REQUISICOES) {
+            return List.copyOf(REQUISICOES);
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        List<String> comandos = ATUAL.get();
+        if (comandos == null || queryInfoList.isEmpty()) {
+            return;
+        }
+        String sql = queryInfoList.get(0).getQuery();
+        if (sql.startsWith("select nextval(")) {
+            return;
+        }
+        comandos.add(execInfo.isBatch() ? sql + " [lote de " + execInfo.getBatchSize() + "]" : sql);
+    }
+
+    static final class Filtro extends OncePerRequestFilter {
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            List<String> comandos = new ArrayList<>();
+            ATUAL.set(comandos);
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                ATUAL.remove();
+                String consulta = request.getQueryString();
+                REQUISICOES.add(new Requisicao(request.getMethod() + " " + request.getRequestURI()
+                        + (consulta != null ? "?" + consulta : ""), comandos));
+            }
+        }
+    }
+}
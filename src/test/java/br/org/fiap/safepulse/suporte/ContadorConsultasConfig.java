@@ -0,0 +1,41 @@
+package br.org.fiap.safepulse.suporte;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/** Envolve o DataSource no proxy de contagem e registra o filtro por requisição. */
+@TestConfiguration(proxyBeanMethods = false)
+public class ContadorConsultasConfig {
+
+    @Bean
+    static BeanPostProcessor contadorConsultasDataSource() {
+        ContadorConsultas contador = new ContadorConsultas();
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(contador)
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    FilterRegistrationBean<ContadorConsultas.Filtro> contadorConsultasFiltro() {
+        FilterRegistrationBean<ContadorConsultas.Filtro> registro =
+                new FilterRegistrationBean<>(new ContadorConsultas.Filtro());
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registro;
+    }
+}
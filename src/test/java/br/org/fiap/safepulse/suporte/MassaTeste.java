@@ -0,0 +1,125 @@
+package br.org.fiap.safepulse.suporte;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Dados fixos dos testes de integração, inseridos uma vez por banco.
+ *
+ * Cada lista consultada pelos testes tem {@link #N} linhas, para que um N+1 apareça
+ * como N comandos a mais: as doações são todas do desastre e do beneficiário 0, a
+ * doação 0 tem todos os doadores e produtos, e o doador 0 e o produto 0 aparecem em
+ * todas as doações.
+ */
+public final class MassaTeste {
+
+    public static final int N = 12;
+
+    public static final String LOCALIZACAO = "Porto Alegre";
+    public static final String ONG = "ONG Teste";
+    public static final String UNIDADE = "UN";
+    public static final String STATUS = "ENTREGUE";
+    public static final LocalDate DATA = LocalDate.of(2024, 5, 1);
+
+    private static final int DESASTRE = 1;
+    private static final int BENEFICIARIO = 2;
+    private static final int DOADOR = 3;
+    private static final int PRODUTO = 4;
+    private static final int DOACAO = 5;
+
+    private static boolean inserida;
+
+    private MassaTeste() {
+    }
+
+    public static UUID desastre(int i) {
+        return id(DESASTRE, i);
+    }
+
+    public static UUID beneficiario(int i) {
+        return id(BENEFICIARIO, i);
+    }
+
+    public static UUID doador(int i) {
+        return id(DOADOR, i);
+    }
+
+    public static UUID produto(int i) {
+        return id(PRODUTO, i);
+    }
+
+    public static UUID doacao(int i) {
+        return id(DOACAO, i);
+    }
+
+    public static String email(String tipo, int i) {
+        return tipo + i + "@teste.safepulse";
+    }
+
+    public static String telefone(int i) {
+        return "5199900" + String.format("%04d", i);
+    }
+
+    static synchronized void garantir(JdbcTemplate jdbc) {
+        if (inserida) {
+            return;
+        }
+        Boolean existe = jdbc.queryForObject("SELECT EXISTS (SELECT 1 FROM desastre WHERE id = ?)",
+                Boolean.class, desastre(0));
+        if (!Boolean.TRUE.equals(existe)) {
+            inserir(jdbc);
+        }
+        inserida = true;
+    }
+
+    private static void inserir(JdbcTemplate jdbc) {
+        for (int i = 0; i < N; i++) {
+            jdbc.update("INSERT INTO desastre (id, nome, descricao, localizacao, data_desastre) VALUES (?, ?, ?, ?, ?)",
+                    desastre(i), "Enchente " + i, "Desastre de teste", LOCALIZACAO, Date.valueOf(DATA.plusDays(i)));
+            jdbc.update("INSERT INTO beneficiario (id, nome, ong, email, telefone, endereco) VALUES (?, ?, ?, ?, ?, ?)",
+                    beneficiario(i), "Abrigo " + i, ONG, email("beneficiario", i), telefone(i), "Rua " + i);
+            jdbc.update("INSERT INTO doador (id, nome, ong, email, telefone, endereco) VALUES (?, ?, ?, ?, ?, ?)",
+                    doador(i), "Doador " + i, ONG, email("doador", i), telefone(i), "Avenida " + i);
+            jdbc.update("INSERT INTO produto (id, nome, descricao, unidade) VALUES (?, ?, ?, ?)",
+                    produto(i), "Agua " + i, "Produto de teste", UNIDADE);
+        }
+        for (int i = 0; i < N; i++) {
+            jdbc.update("INSERT INTO doacao (id, desastre_id, beneficiario_id, status) VALUES (?, ?, ?, ?)",
+                    doacao(i), desastre(0), beneficiario(0), STATUS);
+        }
+        for (int i = 0; i < N; i++) {
+            jdbc.update("INSERT INTO doacao_doador (doacao_id, doador_id) VALUES (?, ?)", doacao(0), doador(i));
+            jdbc.update("INSERT INTO doacao_doador_produto (doacao_id, doador_id, produto_id, quantidade) "
+                    + "VALUES (?, ?, ?, ?)", doacao(0), doador(0), produto(i), 10 + i);
+            jdbc.update("INSERT INTO doacao_produto (doacao_id, produto_id, quantidade) VALUES (?, ?, ?)",
+                    doacao(0), produto(i), 10 + i);
+            if (i > 0) {
+                jdbc.update("INSERT INTO doacao_doador (doacao_id, doador_id) VALUES (?, ?)", doacao(i), doador(0));
+                jdbc.update("INSERT INTO doacao_doador_produto (doacao_id, doador_id, produto_id, quantidade) "
+                        + "VALUES (?, ?, ?, ?)", doacao(i), doador(0), produto(0), i);
+                jdbc.update("INSERT INTO doacao_produto (doacao_id, produto_id, quantidade) VALUES (?, ?, ?)",
+                        doacao(i), produto(0), i);
+            }
+        }
+        // totais por produto como a V4 calcula a partir dos itens existentes
+        jdbc.update("""
+                INSERT INTO produto_total (produto_id, doador_id, origem, faixa, quantidade)
+                SELECT produto_id, '00000000-0000-0000-0000-000000000000', 'DDP', 0, SUM(quantidade)
+                FROM doacao_doador_produto GROUP BY produto_id""");
+        jdbc.update("""
+                INSERT INTO produto_total (produto_id, doador_id, origem, faixa, quantidade)
+                SELECT produto_id, doador_id, 'DDP', 0, SUM(quantidade)
+                FROM doacao_doador_produto GROUP BY produto_id, doador_id""");
+        jdbc.update("""
+                INSERT INTO produto_total (produto_id, doador_id, origem, faixa, quantidade)
+                SELECT produto_id, '00000000-0000-0000-0000-000000000000', 'DP', 0, SUM(quantidade)
+                FROM doacao_produto GROUP BY produto_id""");
+    }
+
+    private static UUID id(int tipo, int i) {
+        return new UUID(0x5AFE_0000_0000_0000L | ((long) tipo << 32) | i, 0x8000_0000_0000_0000L);
+    }
+}
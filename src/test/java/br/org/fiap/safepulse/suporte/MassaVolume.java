@@ -0,0 +1,206 @@
+package br.org.fiap.safepulse.suporte;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+/**
+ * Massa com volume suficiente para o planejador escolher como escolheria em
+ * produção, gerada no próprio banco com generate_series e inserida uma vez por banco.
+ *
+ * As proporções importam mais que os totais: cada desastre, beneficiário, doador e
+ * produto aparece em poucas doações (exceto {@link #GRANDE_DOADOR} e
+ * {@link #GRANDE_DESASTRE}), os status
+ * seguem a distribuição típica (a maioria entregue) e só 1% do outbox está pronto
+ * para envio. Nomes de pessoas
+ * combinam prenome e dois sobrenomes, para que a busca por similaridade encontre
+ * poucos parecidos, como em nomes reais. Os IDs seguem o layout do UUID v7 e crescem
+ * com a ordem de inserção, como na aplicação.
+ */
+public final class MassaVolume {
+
+    public static final int DESASTRES = 2_000;
+    public static final int BENEFICIARIOS = 20_000;
+    public static final int DOADORES = 20_000;
+    public static final int PRODUTOS = 2_000;
+    public static final int DOACOES = 100_000;
+    public static final int OUTBOX = 20_000;
+
+    /** Uma doação i tem o doador (i * 7) % DOADORES e os produtos (2i) e (2i + 1) % PRODUTOS. */
+    public static final int PRODUTOS_POR_DOACAO = 2;
+
+    /**
+     * Exceção à regra acima: 1% das doações (i múltiplo de 100) vem do mesmo grande
+     * doador, como uma empresa que doa em toda campanha. É o caso em que as listagens
+     * por doador passam de uma página.
+     */
+    public static final int GRANDE_DOADOR = 0;
+
+    /**
+     * Uma doação i é do desastre i % DESASTRES, exceto 10% delas (i % 10 == 5), que
+     * vão para um grande desastre, como uma enchente que concentra a campanha. É o
+     * caso em que as listagens e transições por desastre passam de um lote.
+     */
+    public static final int GRANDE_DESASTRE = 0;
+
+    private static final String[] PRENOMES = {"Ana", "Bruno", "Carla", "Diego", "Elisa", "Fábio", "Gabriela",
+            "Heitor", "Isabel", "João", "Karina", "Lucas", "Marina", "Nelson", "Olívia", "Paulo", "Renata",
+            "Sérgio", "Tatiane", "Ulisses", "Vanessa", "Wagner", "Yasmin", "Zeca", "Beatriz"};
+    private static final String[] SOBRENOMES = {"Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira",
+            "Alves", "Pereira", "Lima", "Gomes", "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes",
+            "Soares", "Fernandes", "Vieira", "Barbosa", "Rocha", "Dias", "Nascimento", "Andrade", "Moreira",
+            "Nunes", "Marques", "Machado", "Mendes", "Freitas", "Cardoso", "Ramos", "Gonçalves", "Santana",
+            "Teixeira", "Moura", "Correia", "Pinto", "Cavalcanti", "Monteiro"};
+
+    private static final int DESASTRE = 1;
+    private static final int BENEFICIARIO = 2;
+    private static final int DOADOR = 3;
+    private static final int PRODUTO = 4;
+    private static final int DOACAO = 5;
+
+    private static boolean inserida;
+
+    private MassaVolume() {
+    }
+
+    public static UUID desastre(int i) {
+        return id(DESASTRE, i);
+    }
+
+    public static UUID beneficiario(int i) {
+        return id(BENEFICIARIO, i);
+    }
+
+    public static UUID doador(int i) {
+        return id(DOADOR, i);
+    }
+
+    public static UUID produto(int i) {
+        return id(PRODUTO, i);
+    }
+
+    public static UUID doacao(int i) {
+        return id(DOACAO, i);
+    }
+
+    /** Doador da doação i. */
+    public static int doadorDaDoacao(int i) {
+        return i % 100 == 0 ? GRANDE_DOADOR : (i * 7) % DOADORES;
+    }
+
+    /** k-ésimo produto (0 ou 1) da doação i. */
+    public static int produtoDaDoacao(int i, int k) {
+        return (i * PRODUTOS_POR_DOACAO + k) % PRODUTOS;
+    }
+
+    public static String email(String tipo, int i) {
+        return tipo + i + "@massa.safepulse";
+    }
+
+    public static String telefone(int i) {
+        return "51" + String.format("%09d", i);
+    }
+
+    static synchronized void garantir(JdbcTemplate jdbc) {
+        if (inserida) {
+            return;
+        }
+        Boolean existe = jdbc.queryForObject("SELECT EXISTS (SELECT 1 FROM doacao WHERE id = ?)",
+                Boolean.class, doacao(DOACOES - 1));
+        if (!Boolean.TRUE.equals(existe)) {
+            inserir(jdbc);
+        }
+        inserida = true;
+    }
+
+    private static void inserir(JdbcTemplate jdbc) {
+        jdbc.update("INSERT INTO desastre (id, nome, descricao, localizacao, data_desastre) "
+                + "SELECT " + idSql(DESASTRE, "i") + ", 'Desastre ' || i, 'Descrição ' || i, "
+                + "(ARRAY['Porto Alegre', 'Canoas', 'Eldorado do Sul', 'Lajeado', 'Estrela', "
+                + "'Roca Sales', 'Muçum', 'Encantado', 'Guaíba', 'São Leopoldo'])[i % 10 + 1], "
+                + "DATE '2020-01-01' + i % 1500 "
+                + "FROM generate_series(0, ?) AS i", DESASTRES - 1);
+
+        for (String tabela : new String[]{"beneficiario", "doador"}) {
+            int tipo = tabela.equals("doador") ? DOADOR : BENEFICIARIO;
+            int total = tabela.equals("doador") ? DOADORES : BENEFICIARIOS;
+            jdbc.update("INSERT INTO " + tabela + " (id, nome, ong, email, telefone, endereco) "
+                    + "SELECT " + idSql(tipo, "i") + ", " + nomeSql("i") + ", 'ONG ' || i % 400, "
+                    + "'" + tabela + "' || i || '@massa.safepulse', '51' || lpad(i::text, 9, '0'), "
+                    + "'Rua ' || i % 1000 || ', ' || i "
+                    + "FROM generate_series(0, ?) AS i", total - 1);
+        }
+
+        jdbc.update("INSERT INTO produto (id, nome, descricao, unidade) "
+                + "SELECT " + idSql(PRODUTO, "i") + ", 'Produto ' || i, 'Descrição ' || i, "
+                + "(ARRAY['UN', 'KG', 'L', 'CX', 'PCT'])[i % 5 + 1] "
+                + "FROM generate_series(0, ?) AS i", PRODUTOS - 1);
+
+        String desastreSql = idSql(DESASTRE,
+                "CASE WHEN i % 10 = 5 THEN " + GRANDE_DESASTRE + " ELSE i % " + DESASTRES + " END");
+        jdbc.update("INSERT INTO doacao (id, desastre_id, beneficiario_id, status) "
+                + "SELECT " + idSql(DOACAO, "i") + ", " + desastreSql + ", "
+                + idSql(BENEFICIARIO, "i % " + BENEFICIARIOS) + ", "
+                + "CASE WHEN i % 100 < 70 THEN 'ENTREGUE' WHEN i % 100 < 90 THEN 'PENDENTE' "
+                + "WHEN i % 100 < 99 THEN 'EM_TRANSITO' ELSE 'CANCELADA' END "
+                + "FROM generate_series(0, ?) AS i", DOACOES - 1);
+
+        String doadorSql = idSql(DOADOR,
+                "CASE WHEN i % 100 = 0 THEN " + GRANDE_DOADOR + " ELSE i * 7 % " + DOADORES + " END");
+        jdbc.update("INSERT INTO doacao_doador (doacao_id, doador_id) "
+                + "SELECT " + idSql(DOACAO, "i") + ", " + doadorSql + " "
+                + "FROM generate_series(0, ?) AS i", DOACOES - 1);
+
+        String produtoDaDoacao = idSql(PRODUTO, "(i * " + PRODUTOS_POR_DOACAO + " + k) % " + PRODUTOS);
+        jdbc.update("INSERT INTO doacao_produto (doacao_id, produto_id, quantidade) "
+                + "SELECT " + idSql(DOACAO, "i") + ", " + produtoDaDoacao + ", 1 + (i + k) % 20 "
+                + "FROM generate_series(0, ?) AS i, generate_series(0, ?) AS k",
+                DOACOES - 1, PRODUTOS_POR_DOACAO - 1);
+        jdbc.update("INSERT INTO doacao_doador_produto (doacao_id, doador_id, produto_id, quantidade) "
+                + "SELECT " + idSql(DOACAO, "i") + ", " + doadorSql + ", "
+                + produtoDaDoacao + ", 1 + (i + k) % 20 "
+                + "FROM generate_series(0, ?) AS i, generate_series(0, ?) AS k",
+                DOACOES - 1, PRODUTOS_POR_DOACAO - 1);
+
+        // produto_total como o V4 monta a partir das tabelas de origem
+        jdbc.update("INSERT INTO produto_total (produto_id, doador_id, origem, faixa, quantidade) "
+                + "SELECT produto_id, '00000000-0000-0000-0000-000000000000', 'DDP', 0, SUM(quantidade) "
+                + "FROM doacao_doador_produto GROUP BY produto_id");
+        jdbc.update("INSERT INTO produto_total (produto_id, doador_id, origem, faixa, quantidade) "
+                + "SELECT produto_id, doador_id, 'DDP', 0, SUM(quantidade) "
+                + "FROM doacao_doador_produto GROUP BY produto_id, doador_id");
+        jdbc.update("INSERT INTO produto_total (produto_id, doador_id, origem, faixa, quantidade) "
+                + "SELECT produto_id, '00000000-0000-0000-0000-000000000000', 'DP', 0, SUM(quantidade) "
+                + "FROM doacao_produto GROUP BY produto_id");
+
+        jdbc.update("INSERT INTO outbox_evento (id, agregado, agregado_id, tipo, payload, criado_em, "
+                + "tentativas, proxima_tentativa_em) "
+                + "SELECT i, 'DOACAO', i::text, 'CRIADO', '{}', now(), 0, "
+                + "CASE WHEN i % 100 = 0 THEN now() - interval '1 minute' ELSE now() + interval '1 day' END "
+                + "FROM generate_series(1, ?) AS i", OUTBOX);
+        jdbc.queryForObject("SELECT setval('outbox_evento_seq', ?)", Long.class, OUTBOX + 1);
+
+        // estatísticas e mapa de visibilidade, como o autovacuum deixaria (index-only scans)
+        jdbc.execute("VACUUM ANALYZE");
+    }
+
+    /** Prenome e dois sobrenomes; distintos até 25 * 40 * 40 registros. */
+    private static String nomeSql(String i) {
+        String prenomes = "ARRAY['" + String.join("', '", PRENOMES) + "']";
+        String sobrenomes = "ARRAY['" + String.join("', '", SOBRENOMES) + "']";
+        return "(" + prenomes + ")[" + i + " % " + PRENOMES.length + " + 1] || ' ' || "
+                + "(" + sobrenomes + ")[" + i + " / " + PRENOMES.length + " % " + SOBRENOMES.length + " + 1] || ' ' || "
+                + "(" + sobrenomes + ")[" + i + " / " + (PRENOMES.length * SOBRENOMES.length) + " % "
+                + SOBRENOMES.length + " + 1]";
+    }
+
+    /** Mesmo layout de {@link #id(int, int)}, para um índice calculado no SQL. */
+    private static String idSql(int tipo, String indice) {
+        return "CAST(lpad(to_hex(" + tipo + "), 8, '0') || '-0000-7000-8000-' || lpad(to_hex(" + indice
+                + "), 12, '0') AS uuid)";
+    }
+
+    private static UUID id(int tipo, int i) {
+        return new UUID(((long) tipo << 32) | 0x7000L, 0x8000_0000_0000_0000L | i);
+    }
+}
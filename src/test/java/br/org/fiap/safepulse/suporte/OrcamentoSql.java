@@ -0,0 +1,34 @@
+package br.org.fiap.safepulse.suporte;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Máximo de comandos SQL que cada requisição HTTP feita pelo teste pode executar.
+ * O teste falha, listando os comandos, se alguma requisição passar do orçamento ou
+ * se nenhuma requisição for feita. Só vale em testes de {@link TesteIntegracao}, onde
+ * o DataSource é instrumentado; a preparação dos dados (em {@code @BeforeEach}) não
+ * entra na conta.
+ *
+ * <pre>
+ * &#64;Test
+ * &#64;OrcamentoSql(1)
+ * void getAll() throws Exception {
+ *     mockMvc.perform(get("/api/doacoes")).andExpect(status().isOk());
+ * }
+ * </pre>
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(OrcamentoSqlExtension.class)
+public @interface OrcamentoSql {
+
+    /** Comandos SQL permitidos por requisição. */
+    int value();
+}
@@ -0,0 +1,42 @@
+package br.org.fiap.safepulse.suporte;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.AssertionFailedError;
+
+import java.util.List;
+
+/** Aplica o {@link OrcamentoSql} do método de teste. */
+class OrcamentoSqlExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        ContadorConsultas.zerar();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        if (context.getExecutionException().isPresent()) {
+            return;
+        }
+        int orcamento = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), OrcamentoSql.class)
+                .orElseThrow()
+                .value();
+        List<ContadorConsultas.Requisicao> requisicoes = ContadorConsultas.requisicoes();
+        if (requisicoes.isEmpty()) {
+            throw new AssertionFailedError("@OrcamentoSql sem nenhuma requisição HTTP no teste");
+        }
+        for (ContadorConsultas.Requisicao requisicao : requisicoes) {
+            if (requisicao.comandos().size() > orcamento) {
+                StringBuilder mensagem = new StringBuilder()
+                        .append(requisicao.descricao()).append(" executou ")
+                        .append(requisicao.comandos().size()).append(" comandos SQL; orçamento: ")
+                        .append(orcamento);
+                requisicao.comandos().forEach(sql -> mensagem.append("\n  ").append(sql));
+                throw new AssertionFailedError(mensagem.toString());
+            }
+        }
+    }
+}
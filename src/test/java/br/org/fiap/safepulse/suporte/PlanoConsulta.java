@@ -0,0 +1,136 @@
+package br.org.fiap.safepulse.suporte;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.opentest4j.AssertionFailedError;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Plano de um comando, lido do {@code EXPLAIN (FORMAT JSON)}, com as verificações
+ * encadeáveis usadas pelos testes de plano. As falhas trazem o SQL e a árvore do
+ * plano.
+ */
+public final class PlanoConsulta {
+
+    private final String sql;
+    private final JsonNode raiz;
+    private final Set<String> tabelasGrandes;
+
+    PlanoConsulta(String sql, JsonNode raiz, Set<String> tabelasGrandes) {
+        this.sql = sql;
+        this.raiz = raiz;
+        this.tabelasGrandes = tabelasGrandes;
+    }
+
+    /** Custo total estimado do nó raiz, na unidade do planejador. */
+    public double custo() {
+        return raiz.path("Total Cost").asDouble();
+    }
+
+    /** Nenhuma leitura sequencial em tabela com {@link TestePlanos#LINHAS_TABELA_GRANDE} linhas ou mais. */
+    public PlanoConsulta semSeqScan() {
+        List<String> lidas = new ArrayList<>();
+        percorrer(raiz, no -> {
+            if ("Seq Scan".equals(no.path("Node Type").asText())
+                    && tabelasGrandes.contains(no.path("Relation Name").asText())) {
+                lidas.add(no.path("Relation Name").asText());
+            }
+        });
+        if (!lidas.isEmpty()) {
+            throw falha("Seq Scan em tabela grande: " + lidas);
+        }
+        return this;
+    }
+
+    /**
+     * Nenhuma ordenação (Sort, Incremental Sort) de linhas lidas de tabela: a ordem
+     * pedida sai do índice, e uma página lê só as linhas que devolve. Ordenações de
+     * resultados já calculados (CTE Scan), limitados pelo tamanho do lote, não contam.
+     */
+    public PlanoConsulta semOrdenacao() {
+        List<String> ordenacoes = new ArrayList<>();
+        percorrer(raiz, no -> {
+            if (no.path("Node Type").asText().endsWith("Sort") && leTabela(no)) {
+                ordenacoes.add(no.path("Node Type").asText());
+            }
+        });
+        if (!ordenacoes.isEmpty()) {
+            throw falha("ordenação no plano: " + ordenacoes);
+        }
+        return this;
+    }
+
+    public PlanoConsulta custoAte(double maximo) {
+        if (custo() > maximo) {
+            throw falha("custo estimado " + custo() + " acima do limite " + maximo);
+        }
+        return this;
+    }
+
+    /** O índice aparece em algum nó do plano (Index Scan, Index Only Scan ou Bitmap Index Scan). */
+    public PlanoConsulta usaIndice(String indice) {
+        List<String> usados = new ArrayList<>();
+        percorrer(raiz, no -> {
+            if (no.has("Index Name")) {
+                usados.add(no.path("Index Name").asText());
+            }
+        });
+        if (!usados.contains(indice)) {
+            throw falha("índice " + indice + " não usado; usados: " + usados);
+        }
+        return this;
+    }
+
+    private static boolean leTabela(JsonNode no) {
+        List<JsonNode> tabelas = new ArrayList<>();
+        percorrer(no, filho -> {
+            if (filho.has("Relation Name")) {
+                tabelas.add(filho);
+            }
+        });
+        return !tabelas.isEmpty();
+    }
+
+    private AssertionFailedError falha(String motivo) {
+        return new AssertionFailedError(motivo + "\n" + this);
+    }
+
+    private static void percorrer(JsonNode no, Consumer<JsonNode> visita) {
+        visita.accept(no);
+        for (JsonNode filho : no.path("Plans")) {
+            percorrer(filho, visita);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder texto = new StringBuilder(sql);
+        escrever(raiz, 1, texto);
+        return texto.toString();
+    }
+
+    private static void escrever(JsonNode no, int nivel, StringBuilder texto) {
+        texto.append('\n').append("  ".repeat(nivel)).append(no.path("Node Type").asText());
+        if (no.has("Index Name")) {
+            texto.append(" using ").append(no.path("Index Name").asText());
+        }
+        if (no.has("Relation Name")) {
+            texto.append(" on ").append(no.path("Relation Name").asText());
+        }
+        texto.append(" (custo ").append(no.path("Startup Cost").asText())
+                .append("..").append(no.path("Total Cost").asText())
+                .append(", linhas ").append(no.path("Plan Rows").asText()).append(')');
+        for (String campo : new String[]{"Index Cond", "Filter", "Recheck Cond"}) {
+            if (no.has(campo)) {
+                texto.append("\n").append("  ".repeat(nivel + 1)).append(campo).append(": ")
+                        .append(no.path(campo).asText());
+            }
+        }
+        for (JsonNode filho : no.path("Plans")) {
+            escrever(filho, nivel + 1, texto);
+        }
+    }
+}
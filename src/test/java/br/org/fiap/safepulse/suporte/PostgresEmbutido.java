@@ -0,0 +1,66 @@
+package br.org.fiap.safepulse.suporte;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * PostgreSQL 15 embutido, iniciado uma única vez por JVM de testes e compartilhado
+ * por todos os contextos Spring. É apagado ao fim da JVM.
+ *
+ * {@link #url()} aponta para o banco padrão; {@link #url(String)} cria, na mesma
+ * instância, um banco separado para contextos que precisam de outra massa.
+ */
+public final class PostgresEmbutido {
+
+    private static EmbeddedPostgres instancia;
+    private static final Set<String> bancos = new HashSet<>();
+
+    private PostgresEmbutido() {
+    }
+
+    public static synchronized String url() {
+        return iniciada().getJdbcUrl("postgres", "postgres");
+    }
+
+    public static synchronized String url(String banco) {
+        EmbeddedPostgres postgres = iniciada();
+        if (bancos.add(banco)) {
+            try (Connection conexao = postgres.getPostgresDatabase().getConnection();
+                 Statement comando = conexao.createStatement()) {
+                comando.execute("CREATE DATABASE " + banco);
+            } catch (SQLException e) {
+                bancos.remove(banco);
+                throw new IllegalStateException("Banco " + banco + " não foi criado", e);
+            }
+        }
+        return postgres.getJdbcUrl("postgres", banco);
+    }
+
+    private static EmbeddedPostgres iniciada() {
+        if (instancia == null) {
+            try {
+                instancia = EmbeddedPostgres.builder()
+                        .setServerConfig("fsync", "off")
+                        .setServerConfig("synchronous_commit", "off")
+                        .start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("PostgreSQL embutido não iniciou", e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    instancia.close();
+                } catch (IOException e) {
+                    // diretório temporário fica para trás; nada a fazer no shutdown
+                }
+            }));
+        }
+        return instancia;
+    }
+}
@@ -0,0 +1,67 @@
+package br.org.fiap.safepulse.suporte;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Base dos testes de integração: aplicação completa com MockMvc sobre o PostgreSQL
+ * embutido, migrado pelo Flyway e com a {@link MassaTeste} inserida. Todas as
+ * subclasses compartilham o mesmo contexto Spring e o mesmo banco.
+ *
+ * Cada teste começa com os caches (Caffeine e segundo nível do Hibernate) vazios:
+ * orçamentos de SQL medem o pior caso e não dependem da ordem dos testes.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(ContadorConsultasConfig.class)
+public abstract class TesteIntegracao {
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected JdbcTemplate jdbc;
+
+    @Autowired
+    protected ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @DynamicPropertySource
+    static void banco(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", PostgresEmbutido::url);
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        // prevalecem sobre as opções de build sem banco passadas como -D
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access", () -> "true");
+        registry.add("safepulse.outbox.habilitado", () -> "false");
+    }
+
+    @BeforeEach
+    void prepararBanco() {
+        MassaTeste.garantir(jdbc);
+        cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    protected String json(Object corpo) throws Exception {
+        return objectMapper.writeValueAsString(corpo);
+    }
+}
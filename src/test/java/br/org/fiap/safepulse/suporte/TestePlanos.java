@@ -0,0 +1,143 @@
+package br.org.fiap.safepulse.suporte;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentest4j.AssertionFailedError;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Base dos testes de plano: cada teste chama um método do repositório sobre a
+ * {@link MassaVolume}, captura os comandos que ele enviou ao banco e os repete com
+ * {@code EXPLAIN (FORMAT JSON)} e os mesmos parâmetros.
+ *
+ * A chamada roda numa transação desfeita ao final, então métodos de escrita também
+ * podem ser verificados. Os caches de segundo nível são limpos antes de cada teste
+ * para que consultas cacheáveis cheguem ao banco.
+ *
+ * Cada subclasse cobre um repositório, com um teste por método declarado nele e de
+ * mesmo nome; {@link #todoMetodoTemPlano()} falha quando um método novo fica sem
+ * teste.
+ */
+@SpringBootTest
+@Import(CapturaComandosConfig.class)
+public abstract class TestePlanos {
+
+    /** Tabelas com pelo menos esse número de linhas não podem ser lidas por Seq Scan. */
+    public static final long LINHAS_TABELA_GRANDE = 10_000;
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static Set<String> tabelasGrandes;
+
+    @Autowired
+    protected JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @DynamicPropertySource
+    static void banco(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> PostgresEmbutido.url("safepulse_planos"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access", () -> "true");
+        registry.add("safepulse.outbox.habilitado", () -> "false");
+    }
+
+    /** Repositório coberto pela subclasse. */
+    protected abstract Class<?> repositorio();
+
+    @BeforeEach
+    void prepararBanco() {
+        MassaVolume.garantir(jdbc);
+        synchronized (TestePlanos.class) {
+            if (tabelasGrandes == null) {
+                tabelasGrandes = Set.copyOf(jdbc.queryForList(
+                        "SELECT relname FROM pg_class WHERE relkind = 'r' "
+                                + "AND relnamespace = 'public'::regnamespace AND reltuples >= ?",
+                        String.class, LINHAS_TABELA_GRANDE));
+            }
+        }
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    void todoMetodoTemPlano() {
+        Set<String> testados = Arrays.stream(getClass().getDeclaredMethods())
+                .filter(metodo -> metodo.isAnnotationPresent(Test.class))
+                .map(Method::getName)
+                .collect(Collectors.toSet());
+        List<String> semTeste = Arrays.stream(repositorio().getDeclaredMethods())
+                .filter(metodo -> !metodo.isDefault() && !metodo.isSynthetic()
+                        && !Modifier.isStatic(metodo.getModifiers()))
+                .map(Method::getName)
+                .filter(nome -> !testados.contains(nome))
+                .sorted()
+                .toList();
+        if (!semTeste.isEmpty()) {
+            throw new AssertionFailedError(repositorio().getSimpleName() + " sem teste de plano: " + semTeste);
+        }
+    }
+
+    /** Plano do único comando que a chamada envia ao banco. */
+    protected PlanoConsulta plano(Runnable chamada) {
+        List<PlanoConsulta> planos = planos(chamada);
+        if (planos.size() != 1) {
+            throw new AssertionFailedError("esperado 1 comando, executados " + planos.size() + ":\n"
+                    + planos.stream().map(PlanoConsulta::toString).collect(Collectors.joining("\n")));
+        }
+        return planos.get(0);
+    }
+
+    /** Planos de todos os comandos que a chamada envia ao banco, na ordem de execução. */
+    protected List<PlanoConsulta> planos(Runnable chamada) {
+        List<CapturaComandos.Comando> comandos = new TransactionTemplate(transactionManager).execute(status -> {
+            status.setRollbackOnly();
+            return CapturaComandos.capturar(chamada);
+        });
+        return comandos.stream().map(this::explicar).toList();
+    }
+
+    private PlanoConsulta explicar(CapturaComandos.Comando comando) {
+        String plano = jdbc.execute((ConnectionCallback<String>) conexao -> {
+            try (PreparedStatement explain = conexao.prepareStatement("EXPLAIN (FORMAT JSON) " + comando.sql())) {
+                comando.aplicar(explain);
+                try (ResultSet resultado = explain.executeQuery()) {
+                    resultado.next();
+                    return resultado.getString(1);
+                }
+            }
+        });
+        try {
+            return new PlanoConsulta(comando.sql(), JSON.readTree(plano).get(0).get("Plan"), tabelasGrandes);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}